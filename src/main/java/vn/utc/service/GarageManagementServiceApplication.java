@@ -3,10 +3,12 @@ package vn.utc.service;
 import jakarta.annotation.PostConstruct;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import java.util.TimeZone;
 
 @SpringBootApplication(scanBasePackages = "vn.utc.service")
+@EnableScheduling
 public class GarageManagementServiceApplication {
     @PostConstruct
     public void init(){
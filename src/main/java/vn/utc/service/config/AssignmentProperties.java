@@ -0,0 +1,33 @@
+package vn.utc.service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Who can take work orders and which specialization each service type needs. */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.assignment")
+public class AssignmentProperties {
+
+  /** Staff positions that take work orders, compared case-insensitively. */
+  private List<String> positions =
+      new ArrayList<>(List.of("Senior Mechanic", "Mechanic", "Technician", "Apprentice"));
+
+  /**
+   * Specialization required per service type, keyed by upper-case code such as
+   * {@code BRAKE_SERVICE}. Unlisted service types, or ones no technician is specialized in, go to
+   * any technician.
+   */
+  private Map<String, String> specializations = new HashMap<>();
+
+  /** The in-memory load is rebuilt from the database this often, picking up staff changes. */
+  private long rebuildIntervalMs = 300_000;
+}
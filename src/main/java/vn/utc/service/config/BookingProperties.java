@@ -0,0 +1,41 @@
+package vn.utc.service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/** Bay capacity and opening hours used by the appointment availability engine. */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.garage.booking")
+public class BookingProperties {
+
+  /** Number of service bays, i.e. appointments that may overlap at any moment. */
+  private int bays = 3;
+
+  /** Opening and closing time, garage-local; appointments must fit in between. */
+  private LocalTime opensAt = LocalTime.of(8, 0);
+
+  private LocalTime closesAt = LocalTime.of(18, 0);
+
+  /** Booking granularity; offered start times fall on slot boundaries. */
+  private int slotMinutes = 30;
+
+  /** Duration assumed for service types missing from {@code serviceDurations}. */
+  private int defaultDurationMinutes = 60;
+
+  /** Minutes per service type, keyed by upper-case code such as {@code OIL_CHANGE}. */
+  private Map<String, Integer> serviceDurations = new HashMap<>();
+
+  /** A cached day is reloaded after this long, picking up bookings taken by other instances. */
+  private long refreshIntervalMs = 60_000;
+
+  /** Upper bound on days held in memory. */
+  private int maxCachedDays = 400;
+}
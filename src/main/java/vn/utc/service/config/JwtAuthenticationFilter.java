@@ -4,27 +4,43 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
+import vn.utc.service.dtos.JwtClaims;
+import vn.utc.service.dtos.UserPrincipal;
 import vn.utc.service.service.CustomUserDetailsService;
+import vn.utc.service.service.LastActivityTracker;
+import vn.utc.service.service.TokenRevocationService;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
   private final JwtTokenProvider tokenProvider;
   private final CustomUserDetailsService customUserDetailsService;
+  private final TokenRevocationService tokenRevocationService;
+  private final LastActivityTracker lastActivityTracker;
+
+  // When enabled the principal is built from the signed claims and no user lookup is made
+  @Value("${app.jwt.stateless:true}")
+  private boolean stateless;
 
   public JwtAuthenticationFilter(
-      JwtTokenProvider tokenProvider, CustomUserDetailsService customUserDetailsService) {
+      JwtTokenProvider tokenProvider,
+      CustomUserDetailsService customUserDetailsService,
+      TokenRevocationService tokenRevocationService,
+      LastActivityTracker lastActivityTracker) {
     this.tokenProvider = tokenProvider;
     this.customUserDetailsService = customUserDetailsService;
+    this.tokenRevocationService = tokenRevocationService;
+    this.lastActivityTracker = lastActivityTracker;
   }
 
   @Override
@@ -35,17 +51,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
       // Get JWT token from request
       String jwt = getJwtFromRequest(request);
 
-      // Validate token and set authentication
-      if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-        String username = tokenProvider.getUsernameFromJWT(jwt);
-        UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
+      // Verify the token once; controllers read the claims back from the request
+      Optional<JwtClaims> claims =
+          tokenProvider
+              .parseToken(jwt)
+              .filter(verified -> !tokenRevocationService.isRevoked(verified));
+      if (claims.isPresent()) {
+        JwtClaims verified = claims.get();
+        request.setAttribute(JwtTokenProvider.CLAIMS_ATTRIBUTE, verified);
+        UserDetails userDetails =
+            stateless
+                ? UserPrincipal.fromClaims(verified)
+                : customUserDetailsService.loadUserByUsername(verified.username());
 
         UsernamePasswordAuthenticationToken authentication =
             new UsernamePasswordAuthenticationToken(
                 userDetails, null, userDetails.getAuthorities());
 
-        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        authentication.setDetails(verified);
         SecurityContextHolder.getContext().setAuthentication(authentication);
+        lastActivityTracker.touch(verified.userId());
       }
     } catch (Exception ex) {
       logger.error("Could not set user authentication in security context", ex);
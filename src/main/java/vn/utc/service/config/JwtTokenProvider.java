@@ -3,31 +3,51 @@ package vn.utc.service.config;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
+import vn.utc.service.dtos.JwtClaims;
 import vn.utc.service.dtos.UserPrincipal;
 
 import java.security.Key;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 @Component
 @Slf4j
+@RequiredArgsConstructor
 public class JwtTokenProvider {
 
+  /** Request attribute holding the {@link JwtClaims} verified by the JWT filter. */
+  public static final String CLAIMS_ATTRIBUTE = JwtClaims.class.getName();
+
+  private final VerifiedTokenCache verifiedTokenCache;
+
   @Value("${app.jwt.secret}")
   private String jwtSecret;
 
   @Value("${app.jwt.expiration}")
   private int jwtExpirationInMs;
 
+  private Key signingKey;
+  private JwtParser jwtParser;
+
+  @PostConstruct
+  void init() {
+    signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+    jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+  }
+
   // Generate JWT token
   public String generateToken(Authentication authentication) {
     UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
@@ -39,83 +59,127 @@ public class JwtTokenProvider {
     List<String> roles =
         userPrincipal.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
 
-    return Jwts.builder()
-        .setSubject(userPrincipal.getUsername())
-        .claim("userId", userPrincipal.getId())
-        .claim("roles", roles)
-        .setIssuedAt(new Date())
+    JwtBuilder builder =
+        Jwts.builder()
+            .setSubject(userPrincipal.getUsername())
+            .claim("userId", userPrincipal.getId())
+            .claim("roles", roles);
+    if (userPrincipal.getCustomerId() != null) {
+      // Lets customer endpoints skip the user -> customer lookup
+      builder.claim("customerId", userPrincipal.getCustomerId());
+    }
+    return builder
+        .setIssuedAt(now)
+        // iat is whole seconds; logout revocation needs to order tokens within the same second
+        .claim("issuedAtMs", now.getTime())
         .setExpiration(expiryDate)
-        .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+        .signWith(signingKey, SignatureAlgorithm.HS512)
         .compact();
   }
 
+  /**
+   * Verifies the token signature and expiry and returns its claims. Recently verified tokens are
+   * served from {@link VerifiedTokenCache} without repeating the HS512 check.
+   */
+  public Optional<JwtClaims> parseToken(String token) {
+    if (!StringUtils.hasText(token)) {
+      return Optional.empty();
+    }
+    JwtClaims cached = verifiedTokenCache.get(token);
+    if (cached != null) {
+      return Optional.of(cached);
+    }
+    try {
+      JwtClaims claims = toJwtClaims(jwtParser.parseClaimsJws(token).getBody());
+      verifiedTokenCache.put(token, claims);
+      return Optional.of(claims);
+    } catch (MalformedJwtException ex) {
+      // Invalid JWT token
+      log.error("Invalid JWT token");
+    } catch (ExpiredJwtException ex) {
+      // Expired JWT token
+      log.error("Expired JWT token");
+    } catch (UnsupportedJwtException ex) {
+      // Unsupported JWT token
+      log.error("Unsupported JWT token");
+    } catch (JwtException ex) {
+      // Signature mismatch or other verification failure
+      log.error("Invalid JWT signature");
+    } catch (IllegalArgumentException ex) {
+      // JWT claims string is empty
+      log.error("JWT claims string is empty");
+    }
+    return Optional.empty();
+  }
+
   // Extract username from token
   public String getUsernameFromJWT(String token) {
-    Claims claims =
-        Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token).getBody();
-
-    return claims.getSubject();
+    return parseToken(token).map(JwtClaims::username).orElse(null);
   }
 
   // Get user ID from token
   public Long getUserIdFromJWT(String token) {
-    Claims claims =
-        Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token).getBody();
+    return parseToken(token)
+        .map(JwtClaims::userId)
+        .map(Integer::longValue)
+        .orElse(null);
+  }
 
-    return Long.parseLong(claims.get("userId").toString());
+  /**
+   * Returns the verified claims for the request. The JWT filter stores them as a request attribute;
+   * the bearer header is only parsed here when the filter did not run for this request.
+   */
+  public Optional<JwtClaims> getClaimsFromRequest(HttpServletRequest request) {
+    if (request.getAttribute(CLAIMS_ATTRIBUTE) instanceof JwtClaims claims) {
+      return Optional.of(claims);
+    }
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication != null && authentication.getDetails() instanceof JwtClaims claims) {
+      request.setAttribute(CLAIMS_ATTRIBUTE, claims);
+      return Optional.of(claims);
+    }
+    Optional<JwtClaims> claims = parseToken(getJwtFromRequest(request));
+    claims.ifPresent(verified -> request.setAttribute(CLAIMS_ATTRIBUTE, verified));
+    return claims;
   }
 
   // Get username from http request
   public String getUsernameFromRequest(HttpServletRequest request) {
-    String token = getJwtFromRequest(request);
-    if (StringUtils.hasText(token) && validateToken(token)) {
-      return getUsernameFromJWT(token);
-    }
-    return null;
+    return getClaimsFromRequest(request).map(JwtClaims::username).orElse(null);
+  }
+
+  // Get user ID from http request
+  public Integer getUserIdFromRequest(HttpServletRequest request) {
+    return getClaimsFromRequest(request).map(JwtClaims::userId).orElse(null);
   }
 
   // get roles from http request
   public List<String> getRolesFromRequest(HttpServletRequest request) {
-    String token = getJwtFromRequest(request);
-    if (StringUtils.hasText(token) && validateToken(token)) {
-      Claims claims =
-          Jwts.parserBuilder()
-              .setSigningKey(getSigningKey())
-              .build()
-              .parseClaimsJws(token)
-              .getBody();
-      return (List<String>) claims.get("roles");
-    }
-    return new ArrayList<>();
+    return getClaimsFromRequest(request).map(JwtClaims::roles).orElseGet(ArrayList::new);
   }
 
   // Validate token
   public boolean validateToken(String authToken) {
-    try {
-      Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(authToken);
-      return true;
-    } catch (MalformedJwtException ex) {
-      // Invalid JWT token
-      log.error("Invalid JWT token");
-      return false;
-    } catch (ExpiredJwtException ex) {
-      // Expired JWT token
-      log.error("Expired JWT token");
-      return false;
-    } catch (UnsupportedJwtException ex) {
-      // Unsupported JWT token
-      log.error("Unsupported JWT token");
-      return false;
-    } catch (IllegalArgumentException ex) {
-      // JWT claims string is empty
-      log.error("JWT claims string is empty");
-      return false;
-    }
+    return parseToken(authToken).isPresent();
   }
 
-  private Key getSigningKey() {
-    byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-    return Keys.hmacShaKeyFor(keyBytes);
+  private JwtClaims toJwtClaims(Claims claims) {
+    Object userId = claims.get("userId");
+    Object customerId = claims.get("customerId");
+    Object issuedAtMs = claims.get("issuedAtMs");
+    List<String> roles = new ArrayList<>();
+    if (claims.get("roles") instanceof List<?> rawRoles) {
+      rawRoles.forEach(role -> roles.add(String.valueOf(role)));
+    }
+    return new JwtClaims(
+        claims.getSubject(),
+        userId == null ? null : Integer.valueOf(userId.toString()),
+        customerId == null ? null : Integer.valueOf(customerId.toString()),
+        roles,
+        issuedAtMs instanceof Number millis
+            ? Instant.ofEpochMilli(millis.longValue())
+            : claims.getIssuedAt() == null ? null : claims.getIssuedAt().toInstant(),
+        claims.getExpiration() == null ? null : claims.getExpiration().toInstant());
   }
 
   private String getJwtFromRequest(HttpServletRequest request) {
@@ -0,0 +1,194 @@
+package vn.utc.service.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import vn.utc.service.dtos.JwtClaims;
+import vn.utc.service.dtos.ResponseDataDto;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-user (or per-IP for anonymous callers) token-bucket rate limiting. Runs right after
+ * {@link JwtAuthenticationFilter} so the verified userId and roles are available. Buckets use GCRA
+ * on a single {@link AtomicLong}, so admission is a lock-free CAS.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+  private final RateLimitProperties properties;
+  private final ObjectMapper objectMapper;
+  private final MeterRegistry meterRegistry;
+  private final LongSupplier nanoClock;
+  private final AntPathMatcher pathMatcher = new AntPathMatcher();
+  private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+  private final Map<String, Counter> throttledCounters = new ConcurrentHashMap<>();
+
+  @Autowired
+  public RateLimitFilter(
+      RateLimitProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+    this(properties, objectMapper, meterRegistry, System::nanoTime);
+  }
+
+  RateLimitFilter(
+      RateLimitProperties properties,
+      ObjectMapper objectMapper,
+      MeterRegistry meterRegistry,
+      LongSupplier nanoClock) {
+    this.properties = properties;
+    this.objectMapper = objectMapper;
+    this.meterRegistry = meterRegistry;
+    this.nanoClock = nanoClock;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !properties.isEnabled() || properties.getRules().isEmpty();
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    String path = request.getRequestURI().substring(request.getContextPath().length());
+    List<String> roles = currentRoles(request);
+    List<RateLimitProperties.Rule> rules = properties.getRules();
+
+    for (int i = 0; i < rules.size(); i++) {
+      RateLimitProperties.Rule rule = rules.get(i);
+      if (pathMatcher.match(rule.getPattern(), path) && appliesTo(rule, roles)) {
+        long retryAfterNanos = tryAcquire(i + "|" + clientKey(request), rule);
+        if (retryAfterNanos > 0) {
+          reject(response, rule, retryAfterNanos);
+          return;
+        }
+        break;
+      }
+    }
+    filterChain.doFilter(request, response);
+  }
+
+  /** Returns 0 when admitted, otherwise the wait in nanoseconds until a token is available. */
+  long tryAcquire(String key, RateLimitProperties.Rule rule) {
+    long now = nanoClock.getAsLong();
+    long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rule.getRefillPerSecond());
+    long burst = interval * Math.max(1, rule.getCapacity());
+
+    Bucket bucket = buckets.get(key);
+    if (bucket == null) {
+      if (buckets.size() >= properties.getMaxKeys()) {
+        evictIdle(now);
+      }
+      bucket = buckets.computeIfAbsent(key, k -> new Bucket(now));
+    }
+    AtomicLong tat = bucket.theoreticalArrival;
+    while (true) {
+      long current = tat.get();
+      long next = Math.max(current, now) + interval;
+      if (next - now > burst) {
+        return next - now - burst;
+      }
+      if (tat.compareAndSet(current, next)) {
+        return 0;
+      }
+    }
+  }
+
+  /** Drops buckets that have fully refilled; such a bucket behaves exactly like a new one. */
+  @Scheduled(fixedDelayString = "${app.rate-limit.sweep-interval-ms:60000}")
+  public void sweepIdleBuckets() {
+    evictIdle(nanoClock.getAsLong());
+  }
+
+  int trackedKeys() {
+    return buckets.size();
+  }
+
+  private void evictIdle(long now) {
+    buckets.values().removeIf(bucket -> bucket.theoreticalArrival.get() <= now);
+    // Still full (e.g. an IP sweep): shed arbitrary keys rather than grow without bound
+    Iterator<String> keys = buckets.keySet().iterator();
+    int target = properties.getMaxKeys() - Math.max(1, properties.getMaxKeys() / 10);
+    while (buckets.size() > target && keys.hasNext()) {
+      keys.next();
+      keys.remove();
+    }
+  }
+
+  private void reject(
+      HttpServletResponse response, RateLimitProperties.Rule rule, long retryAfterNanos)
+      throws IOException {
+    long retryAfterSeconds =
+        Math.max(1, TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos + 999_999_999L));
+    throttledCounters
+        .computeIfAbsent(
+            rule.getPattern(),
+            pattern ->
+                Counter.builder("http.server.requests.throttled")
+                    .tag("route", pattern)
+                    .register(meterRegistry))
+        .increment();
+
+    ResponseDataDto responseDataDto =
+        new ResponseDataDto().setErrorCode("429").setErrorMessage("Too many requests");
+    response.setStatus(429);
+    response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+    objectMapper.writeValue(response.getOutputStream(), responseDataDto);
+  }
+
+  private static boolean appliesTo(RateLimitProperties.Rule rule, List<String> roles) {
+    return rule.getRoles().isEmpty() || rule.getRoles().stream().anyMatch(roles::contains);
+  }
+
+  private static String clientKey(HttpServletRequest request) {
+    if (request.getAttribute(JwtTokenProvider.CLAIMS_ATTRIBUTE) instanceof JwtClaims claims
+        && claims.userId() != null) {
+      return "user:" + claims.userId();
+    }
+    return "ip:" + request.getRemoteAddr();
+  }
+
+  private static List<String> currentRoles(HttpServletRequest request) {
+    if (request.getAttribute(JwtTokenProvider.CLAIMS_ATTRIBUTE) instanceof JwtClaims claims) {
+      return claims.roles();
+    }
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication == null) {
+      return List.of();
+    }
+    return authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+  }
+
+  private static final class Bucket {
+    // GCRA theoretical arrival time, in nanoClock units
+    private final AtomicLong theoreticalArrival;
+
+    private Bucket(long now) {
+      this.theoreticalArrival = new AtomicLong(now);
+    }
+  }
+}
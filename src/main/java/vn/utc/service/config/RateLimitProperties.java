@@ -0,0 +1,44 @@
+package vn.utc.service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Token-bucket limits applied by {@link RateLimitFilter}, bound from {@code app.rate-limit}. */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+  private boolean enabled = true;
+
+  /** Upper bound on tracked buckets (users and client IPs across all rules). */
+  private int maxKeys = 100_000;
+
+  /** How often fully refilled buckets are dropped. */
+  private long sweepIntervalMs = 60_000;
+
+  /** Rules are matched in order; the first rule whose pattern and roles match applies. */
+  private List<Rule> rules = new ArrayList<>();
+
+  @Getter
+  @Setter
+  public static class Rule {
+    /** Ant-style path pattern, e.g. {@code /api/v1/manager/reports/**}. */
+    private String pattern;
+
+    /** Roles the rule applies to; empty applies to everyone, including anonymous callers. */
+    private List<String> roles = new ArrayList<>();
+
+    /** Burst size: requests allowed back to back before throttling starts. */
+    private int capacity;
+
+    /** Sustained rate at which the bucket refills. */
+    private double refillPerSecond;
+  }
+}
@@ -1,8 +1,11 @@
 package vn.utc.service.config;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -25,7 +28,9 @@ import java.util.Arrays;
 @EnableMethodSecurity(prePostEnabled = true)
 public class SecurityConfig {
   private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
+  private final JwtAccessDeniedHandler jwtAccessDeniedHandler;
   private final JwtAuthenticationFilter jwtAuthenticationFilter;
+  private final RateLimitFilter rateLimitFilter;
   private static final String[] AUTH_WHITELIST = {
     "/v3/api-docs/**",
     "/v3/api-docs.yaml",
@@ -45,13 +50,54 @@ public class SecurityConfig {
     http.csrf(AbstractHttpConfigurer::disable)
         .cors(cors -> cors.configurationSource(corsConfigurationSource()))
         .exceptionHandling(
-            exception -> exception.authenticationEntryPoint(jwtAuthenticationEntryPoint))
+            exception ->
+                exception
+                    .authenticationEntryPoint(jwtAuthenticationEntryPoint)
+                    .accessDeniedHandler(jwtAccessDeniedHandler))
         .sessionManagement(
             session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
         .authorizeHttpRequests(
-            authz -> authz.requestMatchers(AUTH_WHITELIST).permitAll().anyRequest().authenticated())
+            authz ->
+                authz
+                    // Streamed responses (SSE) are authorized on the initial dispatch; the async
+                    // re-dispatches that write the rest carry no JWT authentication of their own
+                    .dispatcherTypeMatchers(DispatcherType.ASYNC)
+                    .permitAll()
+                    .requestMatchers(AUTH_WHITELIST)
+                    .permitAll()
+                    // Role rules are checked against the Authentication set by the JWT filter,
+                    // before the request reaches a controller. Most specific patterns first.
+                    .requestMatchers(HttpMethod.GET, "/api/v1/manager/appointments/*")
+                    .hasAnyAuthority(ContsConfig.MANAGER, ContsConfig.RECEPTIONIST, ContsConfig.STAFF)
+                    .requestMatchers(
+                        HttpMethod.GET, "/api/v1/manager/appointments", "/api/v1/manager/customers")
+                    .hasAnyAuthority(ContsConfig.MANAGER, ContsConfig.RECEPTIONIST)
+                    // Technicians look parts up at the bench
+                    .requestMatchers(HttpMethod.GET, "/api/v1/inventory/parts/search")
+                    .hasAnyAuthority(ContsConfig.MANAGER, ContsConfig.STAFF)
+                    .requestMatchers("/api/v1/manager/**", "/api/v1/inventory/**")
+                    .hasAuthority(ContsConfig.MANAGER)
+                    .requestMatchers(HttpMethod.POST, "/api/v1/staff", "/api/v1/staff/work-orders")
+                    .hasAuthority(ContsConfig.MANAGER)
+                    .requestMatchers(
+                        HttpMethod.GET,
+                        "/api/v1/staff/work-orders",
+                        "/api/v1/staff/appointments",
+                        "/api/v1/staff/vehicles")
+                    .hasAuthority(ContsConfig.STAFF)
+                    .requestMatchers(
+                        HttpMethod.PUT, "/api/v1/staff/work-orders/*", "/api/v1/staff/work-orders/*/status")
+                    .hasAnyAuthority(ContsConfig.MANAGER, ContsConfig.STAFF)
+                    .requestMatchers("/api/v1/receptionist/**")
+                    .hasAuthority(ContsConfig.RECEPTIONIST)
+                    .requestMatchers(HttpMethod.GET, "/api/v1/customers/profile")
+                    .hasAuthority(ContsConfig.MANAGER)
+                    .anyRequest()
+                    .authenticated())
         // Add JWT filter before UsernamePasswordAuthenticationFilter
-        .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+        // Throttle after the JWT filter so buckets are keyed by the verified userId
+        .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
     return http.build();
   }
 
@@ -90,8 +136,13 @@ public class SecurityConfig {
     return source;
   }
 
+  /**
+   * Stored hashes weaker than {@code app.security.bcrypt-strength} are re-encoded on the user's next
+   * successful login (see {@code CustomUserDetailsService#updatePassword}).
+   */
   @Bean
-  public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+  public PasswordEncoder passwordEncoder(
+      @Value("${app.security.bcrypt-strength:10}") int bcryptStrength) {
+    return new BCryptPasswordEncoder(bcryptStrength);
   }
 }
@@ -0,0 +1,22 @@
+package vn.utc.service.config;
+
+import org.springframework.boot.task.ThreadPoolTaskExecutorCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Tunes Boot's shared {@code applicationTaskExecutor}, which runs the customer dashboard's
+ * side-by-side queries and the cost reconciliation chunks. Sized under {@code spring.task.execution}.
+ */
+@Configuration
+public class TaskExecutionConfig {
+
+  // When the pool and queue are full the submitting thread runs the task itself, so a burst
+  // degrades to sequential work instead of failing
+  @Bean
+  public ThreadPoolTaskExecutorCustomizer callerRunsWhenSaturated() {
+    return executor -> executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+  }
+}
@@ -0,0 +1,111 @@
+package vn.utc.service.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import vn.utc.service.dtos.JwtClaims;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded cache of recently verified access tokens. Entries are keyed by the SHA-256 digest of the
+ * token (the raw token is never retained) and expire together with the token's {@code exp} claim.
+ */
+@Component
+public class VerifiedTokenCache {
+
+  private static final ThreadLocal<MessageDigest> SHA_256 =
+      ThreadLocal.withInitial(VerifiedTokenCache::newDigest);
+
+  private final Map<String, JwtClaims> entries = new ConcurrentHashMap<>();
+  private final int maxSize;
+  private final Counter hits;
+  private final Counter misses;
+
+  public VerifiedTokenCache(
+      @Value("${app.jwt.cache.max-size:10000}") int maxSize, MeterRegistry meterRegistry) {
+    this.maxSize = maxSize;
+    this.hits =
+        Counter.builder("jwt.verified.cache.requests")
+            .tag("result", "hit")
+            .register(meterRegistry);
+    this.misses =
+        Counter.builder("jwt.verified.cache.requests")
+            .tag("result", "miss")
+            .register(meterRegistry);
+    Gauge.builder("jwt.verified.cache.size", entries, Map::size).register(meterRegistry);
+  }
+
+  /** Returns the cached claims for the token, or {@code null} when absent or expired. */
+  public JwtClaims get(String token) {
+    if (maxSize <= 0) {
+      return null;
+    }
+    String key = digest(token);
+    JwtClaims claims = entries.get(key);
+    if (claims != null && claims.isExpired(Instant.now())) {
+      entries.remove(key, claims);
+      claims = null;
+    }
+    (claims != null ? hits : misses).increment();
+    return claims;
+  }
+
+  public void put(String token, JwtClaims claims) {
+    if (maxSize <= 0 || claims.expiresAt() == null) {
+      return;
+    }
+    if (entries.size() >= maxSize) {
+      evict();
+    }
+    entries.put(digest(token), claims);
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  public double hitCount() {
+    return hits.count();
+  }
+
+  public double missCount() {
+    return misses.count();
+  }
+
+  // Drop expired entries first; if the cache is still full, shed arbitrary entries down to 90%.
+  private void evict() {
+    Instant now = Instant.now();
+    entries.values().removeIf(claims -> claims.isExpired(now));
+    int target = maxSize - Math.max(1, maxSize / 10);
+    Iterator<String> keys = entries.keySet().iterator();
+    while (entries.size() > target && keys.hasNext()) {
+      keys.next();
+      keys.remove();
+    }
+  }
+
+  static String digest(String token) {
+    MessageDigest digest = SHA_256.get();
+    digest.reset();
+    byte[] hash = digest.digest(token.getBytes(StandardCharsets.UTF_8));
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException("SHA-256 is not available", ex);
+    }
+  }
+}
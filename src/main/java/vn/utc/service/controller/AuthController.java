@@ -1,39 +1,36 @@
 package vn.utc.service.controller;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
-import vn.utc.service.config.ContsConfig;
 import vn.utc.service.config.JwtTokenProvider;
 import vn.utc.service.dtos.*;
-import vn.utc.service.entity.RefreshToken;
+import vn.utc.service.exception.ServiceOverloadedException;
 import vn.utc.service.exception.TokenRefreshException;
 import vn.utc.service.service.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/v1/auth")
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RequiredArgsConstructor
 @Tag(name = "Authentication", description = "Authenticate customer,user")
 public class AuthController {
-  private final AuthenticationManager authenticationManager;
   private final UserService userService;
   private final JwtTokenProvider tokenProvider;
   private final RefreshTokenService refreshTokenService;
 
-  private final CustomerService customerService;
-  private final StaffService staffService;
   private final AuthService authService;
+  private final TokenRevocationService tokenRevocationService;
+  private final CustomUserDetailsService customUserDetailsService;
+  private final LoginService loginService;
 
   @PostMapping(
       value = "/login",
@@ -42,42 +39,10 @@ public class AuthController {
   public ResponseEntity<ResponseDataDto> login(@Valid @RequestBody LoginDto loginDto) {
     ResponseDataDto responseDataDto = new ResponseDataDto();
     try{
-      Authentication authentication =
-              authenticationManager.authenticate(
-                      new UsernamePasswordAuthenticationToken(loginDto.username(), loginDto.password()));
-
-      SecurityContextHolder.getContext().setAuthentication(authentication);
-      String jwt = tokenProvider.generateToken(authentication);
-
-      UserPrincipal userDetails = (UserPrincipal) authentication.getPrincipal();
-      List<String> roles =
-              userDetails.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
-
-      // Create refresh token
-      RefreshToken refreshToken = refreshTokenService.createRefreshToken(userDetails.getId());
-      JwtResponse jwtResponse =
-              new JwtResponse()
-                      .setToken(jwt)
-                      .setRefreshToken(refreshToken.getToken())
-                      .setId(Long.valueOf(userDetails.getId()))
-                      .setUsername(userDetails.getUsername())
-                      .setEmail(userDetails.getEmail())
-                      .setRoles(roles)
-                      .setFirstName(userDetails.getFirstName())
-                      .setLastName(userDetails.getLastName());
-
-      // If the user is a customer, fetch their customer details
-      if (roles.contains(ContsConfig.CUSTOMER)) {
-        customerService
-                .findByCustomerId(userDetails.getId())
-                .ifPresent(customerDto ->jwtResponse.setFirstName(customerDto.firstName()).setLastName(customerDto.lastName()));
-      }else {
-        // For other roles, set first and last name to empty
-        staffService.findByUser(userDetails.getUsername())
-                .ifPresent(staffDto -> jwtResponse.setFirstName(staffDto.firstName()).setLastName(staffDto.lastName()));
-      }
-      responseDataDto.setData(jwtResponse);
+      responseDataDto.setData(loginService.login(loginDto));
       return ResponseEntity.ok(responseDataDto);
+    } catch (ServiceOverloadedException e) {
+      throw e;
     } catch (Exception e) {
       responseDataDto.setErrorMessage(e.getMessage());
       return ResponseEntity.badRequest().body(responseDataDto);
@@ -92,34 +57,39 @@ public class AuthController {
       @Valid @RequestBody TokenRefreshRequest request) {
     String requestRefreshToken = request.getRefreshToken();
 
-    return refreshTokenService
-        .findByToken(requestRefreshToken)
-        .map(refreshTokenService::verifyExpiration)
-        .map(RefreshToken::getUser)
-        .map(
-            user -> {
-              // Create new authentication token
-              UserPrincipal userPrincipal = UserPrincipal.create(user);
-              Authentication authentication =
-                  new UsernamePasswordAuthenticationToken(
-                      userPrincipal, null, userPrincipal.getAuthorities());
+    ActiveRefreshToken currentToken =
+        refreshTokenService
+            .findByToken(requestRefreshToken)
+            .map(refreshTokenService::verifyExpiration)
+            .orElseThrow(() -> new TokenRefreshException("Refresh token is not in database!"));
 
-              String token = tokenProvider.generateToken(authentication);
-              return ResponseEntity.ok(
-                  new TokenRefreshResponse()
-                      .setAccessToken(token)
-                      .setRefreshToken(requestRefreshToken));
-            })
-        .orElseThrow(
-            () ->
-                new TokenRefreshException(
-                     "Refresh token is not in database!"));
+    // Rotate first so a replayed refresh token cannot mint another access token
+    String rotatedRefreshToken = refreshTokenService.rotateRefreshToken(currentToken);
+
+    // Create new authentication token
+    UserDetails userPrincipal =
+        customUserDetailsService.loadUserById(Long.valueOf(currentToken.userId()));
+    Authentication authentication =
+        new UsernamePasswordAuthenticationToken(
+            userPrincipal, null, userPrincipal.getAuthorities());
+
+    String token = tokenProvider.generateToken(authentication);
+    return ResponseEntity.ok(
+        new TokenRefreshResponse().setAccessToken(token).setRefreshToken(rotatedRefreshToken));
   }
 
   @PostMapping(value = "/logout", produces = MediaType.APPLICATION_JSON_VALUE)
-  public ResponseEntity<ResponseDataDto> logoutUser(@RequestParam Integer userId) {
-    refreshTokenService.deleteByUserId(userId);
+  public ResponseEntity<ResponseDataDto> logoutUser(HttpServletRequest request) {
     ResponseDataDto responseDataDto = new ResponseDataDto();
+    // Callers only ever end their own sessions, so the user comes from the verified token
+    Integer userId = tokenProvider.getUserIdFromRequest(request);
+    if (userId == null) {
+      responseDataDto.setErrorMessage("Unauthorized");
+      responseDataDto.setErrorCode("401");
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(responseDataDto);
+    }
+    refreshTokenService.deleteByUserId(userId);
+    tokenRevocationService.revokeAll(userId);
     responseDataDto.setData("Log out successful!");
     return ResponseEntity.ok(responseDataDto);
   }
@@ -11,16 +11,21 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import vn.utc.service.config.JwtTokenProvider;
 import vn.utc.service.dtos.AppointmentDto;
+import vn.utc.service.dtos.AvailableSlotDto;
 import vn.utc.service.dtos.CustomerDto;
 import vn.utc.service.dtos.CustomerDashboardDto;
 import vn.utc.service.dtos.PaginatedResponseDto;
 import vn.utc.service.dtos.ResponseDataDto;
-import vn.utc.service.dtos.VehicleDto;
+import vn.utc.service.exception.CustomerNotFoundException;
+import vn.utc.service.exception.SlotUnavailableException;
+import vn.utc.service.service.AppointmentAvailabilityService;
 import vn.utc.service.service.AppointmentService;
+import vn.utc.service.service.CustomerDashboardService;
 import vn.utc.service.service.CustomerService;
-import vn.utc.service.service.VehicleService;
 import jakarta.validation.Valid;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 @RestController
@@ -31,9 +36,10 @@ import java.util.List;
 public class CustomerAppointmentController {
 
     private final AppointmentService appointmentService;
+    private final AppointmentAvailabilityService availabilityService;
     private final JwtTokenProvider jwtTokenProvider;
     private final CustomerService customerService;
-    private final VehicleService vehicleService;
+    private final CustomerDashboardService customerDashboardService;
 
     @GetMapping(produces = "application/json")
     public ResponseEntity<ResponseDataDto> getAllAppointments(
@@ -45,12 +51,22 @@ public class CustomerAppointmentController {
             @RequestParam(required = false) String from,
             @RequestParam(required = false) String to,
             @RequestParam(required = false) String date,
+            @RequestParam(required = false) String after,
             HttpServletRequest request) {
         ResponseDataDto responseDataDto = new ResponseDataDto();
-        String userName = jwtTokenProvider.getUsernameFromRequest(request);
-        Integer customerId = customerService.finByUserName(userName)
-                .map(customerDto -> customerDto.id())
-                .orElseThrow(() -> new RuntimeException("Customer not found for user: " + userName));
+        Integer customerId = requireCustomerId(request);
+        
+        if (after != null) {
+            try {
+                responseDataDto.setData(appointmentService.getAppointmentsAfter(
+                    customerId, after, sortBy, sortDir, size, status, from, to));
+                return ResponseEntity.ok(responseDataDto);
+            } catch (IllegalArgumentException e) {
+                responseDataDto.setErrorCode("400");
+                responseDataDto.setErrorMessage(e.getMessage());
+                return ResponseEntity.badRequest().body(responseDataDto);
+            }
+        }
         
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
             Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
@@ -69,6 +85,24 @@ public class CustomerAppointmentController {
         return ResponseEntity.ok(responseDataDto);
     }
     
+    @GetMapping(value = "/availability", produces = "application/json")
+    public ResponseEntity<ResponseDataDto> getAvailability(
+            @RequestParam String date,
+            @RequestParam String serviceType) {
+        ResponseDataDto responseDataDto = new ResponseDataDto();
+        LocalDate day;
+        try {
+            day = LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            responseDataDto.setErrorCode("400");
+            responseDataDto.setErrorMessage("date must be formatted as yyyy-MM-dd");
+            return ResponseEntity.badRequest().body(responseDataDto);
+        }
+        List<AvailableSlotDto> slots = availabilityService.findAvailableSlots(day, serviceType);
+        responseDataDto.setData(slots);
+        return ResponseEntity.ok(responseDataDto);
+    }
+    
     @GetMapping(value = "/{id}", produces = "application/json")
     public ResponseEntity<ResponseDataDto> getAppointmentById(@PathVariable Integer id) {
         ResponseDataDto responseDataDto = new ResponseDataDto();
@@ -89,6 +123,9 @@ public class CustomerAppointmentController {
             AppointmentDto createdAppointment = appointmentService.createAppointment(appointmentDto, customerDto);
             responseDataDto.setData(createdAppointment);
             return ResponseEntity.ok(responseDataDto);
+        } catch (SlotUnavailableException e) {
+            // Mapped to 409 by GlobalExceptionHandler, not the generic handling below
+            throw e;
         } catch (Exception e) {
             responseDataDto.setErrorCode("99");
             responseDataDto.setErrorMessage("Failed to create appointment: " + e.getMessage());
@@ -99,19 +136,19 @@ public class CustomerAppointmentController {
     @GetMapping("/dashboard")
     public ResponseEntity<ResponseDataDto> getCustomerDashboard(HttpServletRequest request) {
         ResponseDataDto responseDataDto = new ResponseDataDto();
-        String userName = jwtTokenProvider.getUsernameFromRequest(request);
-        Integer customerId = customerService.finByUserName(userName)
-                .map(customerDto -> customerDto.id())
-                .orElseThrow(() -> new RuntimeException("Customer not found for user: " + userName));
-        
-        // Get all appointments for the customer (without pagination for dashboard)
-        List<AppointmentDto> appointments = appointmentService.getAllAppointments(customerId);
-        
-        // Get all vehicles for the customer
-        List<VehicleDto> vehicles = vehicleService.getVehiclesByCustomerId(customerId);
-        
-        CustomerDashboardDto dashboardData = new CustomerDashboardDto(appointments, vehicles);
+        // Recent and upcoming appointments plus vehicles, loaded concurrently
+        CustomerDashboardDto dashboardData = customerDashboardService.getDashboard(requireCustomerId(request));
         responseDataDto.setData(dashboardData);
         return ResponseEntity.ok(responseDataDto);
     }
+    
+    /**
+     * Customer id from the verified token claims, without loading the user or customer
+     */
+    private Integer requireCustomerId(HttpServletRequest request) {
+        return jwtTokenProvider.getClaimsFromRequest(request)
+                .map(customerDashboardService::resolveCustomerId)
+                .orElseThrow(() -> new CustomerNotFoundException(
+                    "Customer not found for user: " + jwtTokenProvider.getUsernameFromRequest(request)));
+    }
 }
@@ -9,7 +9,6 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import vn.utc.service.config.ContsConfig;
 import vn.utc.service.config.JwtTokenProvider;
 import vn.utc.service.dtos.CustomerDto;
 import vn.utc.service.dtos.CustomerProfileDto;
@@ -19,8 +18,6 @@ import vn.utc.service.entity.CustomerProfile;
 import vn.utc.service.service.CustomerProfileService;
 import vn.utc.service.service.CustomerService;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/v1/customers")
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -49,7 +46,7 @@ public class CustomerController {
     return ResponseEntity.ok(responseDataDto);
   }
   @GetMapping(value = "/{id}", produces = "application/json")
-  public ResponseEntity<ResponseDataDto> getCustomerById(@PathVariable Integer id, HttpServletRequest request) {
+  public ResponseEntity<ResponseDataDto> getCustomerById(@PathVariable Integer id) {
     ResponseDataDto responseDataDto = new ResponseDataDto();
 
     CustomerDto customerDto = customerService.findByCustomerUserId(id).orElse(null);
@@ -71,17 +68,9 @@ public class CustomerController {
       @RequestParam(defaultValue = "id") String sortBy,
       @RequestParam(defaultValue = "asc") String sortDir,
       @RequestParam(required = false) String search,
-      @RequestParam(required = false) String status,
-      HttpServletRequest request) {
+      @RequestParam(required = false) String status) {
     // Implementation to retrieve customer profile with pagination
     ResponseDataDto responseDataDto = new ResponseDataDto();
-    List<String> roles = jwtTokenProvider.getRolesFromRequest(request);
-    if (roles.isEmpty() || !roles.contains(ContsConfig.MANAGER)) {
-      responseDataDto.setErrorMessage("Unauthorized access");
-      responseDataDto.setErrorCode("99");
-      return ResponseEntity.status(403).body(responseDataDto);
-    }
-
     Sort sort = sortDir.equalsIgnoreCase("desc") ? 
         Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
     Pageable pageable = PageRequest.of(page, size, sort);
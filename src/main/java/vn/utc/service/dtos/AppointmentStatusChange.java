@@ -0,0 +1,14 @@
+package vn.utc.service.dtos;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.io.Serializable;
+
+/**
+ * One item of a bulk status update: move the appointment to {@code newStatus}, but only if it is
+ * still in {@code expectedStatus}.
+ */
+public record AppointmentStatusChange(
+    @NotNull Integer appointmentId, @NotBlank String expectedStatus, @NotBlank String newStatus)
+    implements Serializable {}
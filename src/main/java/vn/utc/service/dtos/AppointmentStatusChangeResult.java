@@ -0,0 +1,20 @@
+package vn.utc.service.dtos;
+
+import java.io.Serializable;
+
+/**
+ * Outcome of one item of a bulk status update.
+ *
+ * @param status the appointment's status after the update; on a conflict, the status that did not
+ *     match the expected one
+ */
+public record AppointmentStatusChangeResult(Integer appointmentId, Outcome outcome, String status)
+    implements Serializable {
+
+  public enum Outcome {
+    UPDATED,
+    /** The appointment was no longer in the expected status and was left untouched. */
+    CONFLICT,
+    NOT_FOUND
+  }
+}
@@ -0,0 +1,7 @@
+package vn.utc.service.dtos;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/** A bookable start time, with the number of bays still free for the whole service. */
+public record AvailableSlotDto(Instant start, Instant end, int freeBays) implements Serializable {}
@@ -0,0 +1,18 @@
+package vn.utc.service.dtos;
+
+import java.time.Instant;
+
+/**
+ * The slice of an appointment the availability engine needs, read by
+ * {@link vn.utc.service.repo.AppointmentRepository#findBookedIntervals}.
+ */
+public interface BookedInterval {
+  Integer getId();
+
+  Instant getStartsAt();
+
+  /** Null when no estimated completion was recorded. */
+  Instant getEndsAt();
+
+  String getServiceType();
+}
@@ -0,0 +1,19 @@
+package vn.utc.service.dtos;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.io.Serializable;
+import java.util.List;
+
+/** Body of the bulk appointment status endpoint; applied as a single statement. */
+public record BulkAppointmentStatusRequest(
+    @NotEmpty @Size(max = BulkAppointmentStatusRequest.MAX_CHANGES)
+        List<@Valid @NotNull AppointmentStatusChange> changes)
+    implements Serializable {
+
+  /** Keeps one statement well under the driver's bind parameter limit. */
+  public static final int MAX_CHANGES = 1000;
+}
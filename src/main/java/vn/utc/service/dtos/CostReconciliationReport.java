@@ -0,0 +1,14 @@
+package vn.utc.service.dtos;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * Outcome of a work-order cost reconciliation run.
+ *
+ * @param drifted work orders whose stored total differed from the sum of their lines
+ * @param corrected drifted totals rewritten; zero when the job only reports
+ * @param absoluteDrift sum of the absolute differences found
+ */
+public record CostReconciliationReport(
+    long checked, int drifted, int corrected, BigDecimal absoluteDrift) implements Serializable {}
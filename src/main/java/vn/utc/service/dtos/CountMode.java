@@ -0,0 +1,24 @@
+package vn.utc.service.dtos;
+
+import java.util.Locale;
+
+/** How a paginated list endpoint obtains {@code totalElements}, chosen with {@code ?countMode=}. */
+public enum CountMode {
+  /** Run the COUNT query on every request. */
+  EXACT,
+  /** Skip the count and report {@code hasNext} from a Slice; totals are -1. */
+  NONE,
+  /** Reuse a recently cached count for the same filters. */
+  APPROX;
+
+  public static CountMode from(String value) {
+    if (value == null || value.isBlank()) {
+      return EXACT;
+    }
+    try {
+      return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("countMode must be one of exact, none, approx");
+    }
+  }
+}
@@ -3,8 +3,14 @@ package vn.utc.service.dtos;
 import java.io.Serializable;
 import java.util.List;
 
-/** DTO for customer dashboard data including appointments and vehicles */
+/**
+ * DTO for customer dashboard data including appointments and vehicles. Appointments are capped to
+ * the most recent and upcoming ones; pass {@code appointmentsCursor} as {@code ?after=} to the
+ * customer appointment listing to load more.
+ */
 public record CustomerDashboardDto(
     List<AppointmentDto> appointments,
-    List<VehicleDto> vehicles
-) implements Serializable {} 
\ No newline at end of file
+    List<VehicleDto> vehicles,
+    String appointmentsCursor,
+    boolean moreVehicles
+) implements Serializable {}
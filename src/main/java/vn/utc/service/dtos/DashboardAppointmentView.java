@@ -0,0 +1,44 @@
+package vn.utc.service.dtos;
+
+import java.time.Instant;
+
+/**
+ * One customer-dashboard appointment row with its vehicle and first work order flattened in, read
+ * by {@link vn.utc.service.repo.AppointmentRepository#findDashboardAppointments}.
+ */
+public interface DashboardAppointmentView {
+  Integer getAppointmentId();
+
+  Instant getAppointmentDate();
+
+  Instant getEstimatedCompletion();
+
+  String getStatus();
+
+  String getServiceType();
+
+  String getDescription();
+
+  Instant getCreatedAt();
+
+  Instant getUpdatedAt();
+
+  Integer getVehicleId();
+
+  String getVehicleMake();
+
+  String getVehicleModel();
+
+  Integer getVehicleYear();
+
+  String getVehicleLicensePlate();
+
+  /** Null when no work order has been opened yet. */
+  Integer getWorkOrderId();
+
+  String getWorkOrderStatus();
+
+  Instant getWorkOrderStartTime();
+
+  Instant getWorkOrderEndTime();
+}
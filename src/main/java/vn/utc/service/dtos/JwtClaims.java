@@ -0,0 +1,34 @@
+package vn.utc.service.dtos;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.List;
+
+/** Verified claims of an access token, parsed once per request by the JWT filter. */
+public record JwtClaims(
+    String username,
+    Integer userId,
+    Integer customerId,
+    List<String> roles,
+    Instant issuedAt,
+    Instant expiresAt)
+    implements Serializable {
+
+  public JwtClaims {
+    roles = roles == null ? List.of() : List.copyOf(roles);
+  }
+
+  /** Claims of a token that carries no customer id, e.g. one issued to staff. */
+  public JwtClaims(
+      String username, Integer userId, List<String> roles, Instant issuedAt, Instant expiresAt) {
+    this(username, userId, null, roles, issuedAt, expiresAt);
+  }
+
+  public boolean hasRole(String role) {
+    return roles.contains(role);
+  }
+
+  public boolean isExpired(Instant now) {
+    return expiresAt != null && !expiresAt.isAfter(now);
+  }
+}
@@ -0,0 +1,21 @@
+package vn.utc.service.dtos;
+
+import java.time.Instant;
+
+/**
+ * An open, assigned work order as the technician assignment engine sees it, read by
+ * {@link vn.utc.service.repo.WorkOrderRepository#findOpenAssignments}.
+ */
+public interface OpenAssignmentView {
+  Integer getWorkOrderId();
+
+  Integer getStaffId();
+
+  /** Appointment start; null for work orders without an appointment. */
+  Instant getStartsAt();
+
+  /** Null when no estimated completion was recorded. */
+  Instant getEndsAt();
+
+  String getServiceType();
+}
@@ -0,0 +1,20 @@
+package vn.utc.service.dtos;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A committed domain event handed to the outbox sinks, and published to in-process
+ * {@code @EventListener}s. Delivery is at least once, so listeners should tolerate repeats.
+ *
+ * @param id increasing outbox id, usable for de-duplication
+ * @param payload the event as JSON
+ */
+public record OutboxMessage(
+    long id,
+    String aggregateType,
+    Integer aggregateId,
+    String eventType,
+    String payload,
+    Instant createdAt)
+    implements Serializable {}
@@ -0,0 +1,42 @@
+package vn.utc.service.dtos;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Opaque keyset cursor handed to clients as {@code nextCursor}: the listing's sort plus the last
+ * row's sort key and id, as base64url-encoded JSON.
+ */
+public record PageCursor(String sortBy, Sort.Direction direction, Map<String, String> keys) {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  public String encode() {
+    try {
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(this));
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Could not encode cursor", e);
+    }
+  }
+
+  public static PageCursor decode(String cursor) {
+    try {
+      PageCursor decoded =
+          MAPPER.readValue(
+              new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8),
+              PageCursor.class);
+      if (decoded.sortBy() == null || decoded.direction() == null || decoded.keys() == null) {
+        throw new IllegalArgumentException("Invalid cursor");
+      }
+      return decoded;
+    } catch (IOException | IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid cursor", e);
+    }
+  }
+}
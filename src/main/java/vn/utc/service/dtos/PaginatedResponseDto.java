@@ -2,6 +2,7 @@ package vn.utc.service.dtos;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.springframework.data.domain.Slice;
 
 import java.io.Serializable;
 import java.util.List;
@@ -18,6 +19,8 @@ public class PaginatedResponseDto<T> implements Serializable {
     private boolean hasPrevious;
     private boolean isFirst;
     private boolean isLast;
+    // Set in keyset mode only: pass back as ?after= to fetch the next page
+    private String nextCursor;
 
     public PaginatedResponseDto() {
     }
@@ -37,4 +40,50 @@ public class PaginatedResponseDto<T> implements Serializable {
     public static <T> PaginatedResponseDto<T> of(List<T> content, int page, int size, long totalElements) {
         return new PaginatedResponseDto<>(content, page, size, totalElements);
     }
+
+    /**
+     * Page served without a COUNT query; totals are reported as -1.
+     */
+    public static <T> PaginatedResponseDto<T> ofSlice(Slice<T> slice) {
+        PaginatedResponseDto<T> response = new PaginatedResponseDto<>();
+        response.content = slice.getContent();
+        response.page = slice.getNumber();
+        response.size = slice.getSize();
+        response.totalElements = -1;
+        response.totalPages = -1;
+        response.hasNext = slice.hasNext();
+        response.hasPrevious = slice.hasPrevious();
+        response.isFirst = slice.isFirst();
+        response.isLast = slice.isLast();
+        return response;
+    }
+
+    /**
+     * Page whose total may be slightly stale; navigation flags come from the slice itself.
+     */
+    public static <T> PaginatedResponseDto<T> ofSlice(Slice<T> slice, long approximateTotal) {
+        PaginatedResponseDto<T> response = of(slice.getContent(), slice.getNumber(), slice.getSize(), approximateTotal);
+        response.hasNext = slice.hasNext();
+        response.isLast = slice.isLast();
+        return response;
+    }
+
+    /**
+     * Keyset page. Totals are not counted in this mode and are reported as -1.
+     */
+    public static <T> PaginatedResponseDto<T> ofCursor(List<T> content, int size, boolean hasNext,
+                                                       boolean hasPrevious, String nextCursor) {
+        PaginatedResponseDto<T> response = new PaginatedResponseDto<>();
+        response.content = content;
+        response.page = 0;
+        response.size = size;
+        response.totalElements = -1;
+        response.totalPages = -1;
+        response.hasNext = hasNext;
+        response.hasPrevious = hasPrevious;
+        response.isFirst = !hasPrevious;
+        response.isLast = !hasNext;
+        response.nextCursor = nextCursor;
+        return response;
+    }
 } 
\ No newline at end of file
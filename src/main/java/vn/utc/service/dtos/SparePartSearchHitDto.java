@@ -0,0 +1,14 @@
+package vn.utc.service.dtos;
+
+import java.io.Serializable;
+
+/** One type-ahead match from the parts search index, best matches first. */
+public record SparePartSearchHitDto(
+    Integer id,
+    String name,
+    String category,
+    String supplier,
+    String location,
+    Integer quantityInStock,
+    int score)
+    implements Serializable {}
@@ -0,0 +1,9 @@
+package vn.utc.service.dtos;
+
+import java.util.List;
+
+/**
+ * Status changes committed together, published as one event so bulk updates cost a single
+ * after-commit callback instead of one per row.
+ */
+public record StatusChangeBatch(List<StatusChangeEvent> events) {}
@@ -0,0 +1,26 @@
+package vn.utc.service.dtos;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * An appointment or work-order status change, published by the services and pushed to
+ * subscribers of the status event stream once the change has committed.
+ *
+ * @param type {@code appointment} or {@code work-order}
+ * @param customerId owner of the appointment, used to filter what customers receive
+ */
+public record StatusChangeEvent(
+    String type,
+    Integer entityId,
+    Integer appointmentId,
+    Integer customerId,
+    String status,
+    Instant occurredAt)
+    implements Serializable {
+
+  public static final String APPOINTMENT = "appointment";
+  public static final String WORK_ORDER = "work-order";
+  /** Sent instead of a replay when the requested Last-Event-ID has left the buffer. */
+  public static final String RESYNC = "resync";
+}
@@ -0,0 +1,9 @@
+package vn.utc.service.dtos;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/** A spare part's stock level was set, written to the outbox with the change. */
+public record StockChangeEvent(
+    Integer sparePartId, Integer previousQuantity, Integer quantity, Instant occurredAt)
+    implements Serializable {}
@@ -0,0 +1,12 @@
+package vn.utc.service.dtos;
+
+import java.io.Serializable;
+
+/** Current workload of one technician, as tracked by the assignment engine. */
+public record TechnicianLoadDto(
+    Integer staffId,
+    String name,
+    String specialization,
+    int openWorkOrders,
+    double estimatedHours)
+    implements Serializable {}
@@ -0,0 +1,28 @@
+package vn.utc.service.dtos;
+
+/**
+ * Everything the login endpoint needs about a user, read in one query by
+ * {@link vn.utc.service.repo.UserRepository#findLoginView(String)}.
+ */
+public interface UserLoginView {
+  Integer getUserId();
+
+  String getUsername();
+
+  String getPassword();
+
+  String getEmail();
+
+  Boolean getActive();
+
+  /** Comma-separated role names. */
+  String getRoles();
+
+  String getFirstName();
+
+  String getLastName();
+
+  Integer getCustomerId();
+
+  Integer getStaffId();
+}
@@ -14,6 +14,8 @@ import java.util.stream.Collectors;
 
 public class UserPrincipal implements UserDetails {
   @Getter private final Integer id;
+  /** Set for customer accounts when known at sign-in; carried in the token as a claim. */
+  @Getter private final Integer customerId;
   private final String username;
 
   @JsonIgnore private String password;
@@ -33,7 +35,21 @@ public class UserPrincipal implements UserDetails {
       String email,
       boolean enabled,
       Collection<? extends GrantedAuthority> authorities) {
+    this(id, null, username, password, firstName, lastName, email, enabled, authorities);
+  }
+
+  public UserPrincipal(
+      Integer id,
+      Integer customerId,
+      String username,
+      String password,
+      String firstName,
+      String lastName,
+      String email,
+      boolean enabled,
+      Collection<? extends GrantedAuthority> authorities) {
     this.id = id;
+    this.customerId = customerId;
     this.username = username;
     this.password = password;
     this.firstName = firstName;
@@ -60,6 +76,28 @@ public class UserPrincipal implements UserDetails {
         authorities);
   }
 
+  /**
+   * Builds a principal from verified token claims without touching the database. Password and
+   * profile names are not carried in the token and are left empty.
+   */
+  public static UserPrincipal fromClaims(JwtClaims claims) {
+    List<GrantedAuthority> authorities =
+        claims.roles().stream()
+            .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role.toUpperCase()))
+            .toList();
+
+    return new UserPrincipal(
+        claims.userId(),
+        claims.customerId(),
+        claims.username(),
+        null,
+        "",
+        "",
+        null,
+        true,
+        authorities);
+  }
+
   @Override
   public Collection<? extends GrantedAuthority> getAuthorities() {
     return authorities;
@@ -0,0 +1,69 @@
+package vn.utc.service.dtos;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * One work-order row with its appointment, customer, vehicle and staff flattened in, read by
+ * {@link vn.utc.service.repo.WorkOrderDetailQueries#findDetails} in a single statement. Columns of a
+ * missing association are null.
+ */
+public interface WorkOrderDetailView {
+  Integer getWorkOrderId();
+
+  Integer getAppointmentId();
+
+  Instant getAppointmentDate();
+
+  String getAppointmentServiceType();
+
+  String getAppointmentStatus();
+
+  Integer getCustomerId();
+
+  String getCustomerFirstName();
+
+  String getCustomerLastName();
+
+  String getCustomerEmail();
+
+  String getCustomerPhone();
+
+  Integer getVehicleId();
+
+  String getVehicleMake();
+
+  String getVehicleModel();
+
+  Integer getVehicleYear();
+
+  String getVehicleLicensePlate();
+
+  String getVehicleVin();
+
+  String getVehicleColor();
+
+  Integer getVehicleMileage();
+
+  Integer getStaffId();
+
+  String getStaffFirstName();
+
+  String getStaffLastName();
+
+  String getStaffPosition();
+
+  Instant getStartTime();
+
+  Instant getEndTime();
+
+  String getStatus();
+
+  String getDiagnosticNotes();
+
+  BigDecimal getTotalCost();
+
+  Instant getCreatedAt();
+
+  Instant getUpdatedAt();
+}
@@ -17,7 +17,7 @@ public record WorkOrderDto(
     @NotNull(message = "Appointment ID is required")
     Integer appointmentId,
     
-    @NotNull(message = "Staff ID is required")
+    // Left out on create to have the least-loaded qualified technician assigned
     Integer staffId,
     
     @NotNull(message = "Start time is required")
@@ -32,9 +32,13 @@ public record WorkOrderDto(
     
     String diagnosticNotes,
     
+    // Read as the full total; when written, the hand-entered part that parts and labor lines add to
     @DecimalMin(value = "0.0", inclusive = true, message = "Total cost must be non-negative")
     BigDecimal totalCost,
     
     Instant createdAt,
-    Instant updatedAt)
+    Instant updatedAt,
+
+    // Version the client last saw; when sent with an update, the update fails if it is stale
+    Long version)
     implements Serializable {} 
\ No newline at end of file
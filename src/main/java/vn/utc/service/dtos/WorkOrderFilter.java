@@ -0,0 +1,27 @@
+package vn.utc.service.dtos;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Optional criteria for the manager work-order listing; a null field does not constrain the
+ * result. Built by {@code WorkOrderService} from the request parameters.
+ *
+ * @param status canonical upper-case status
+ * @param startedFrom inclusive lower bound on start_time
+ * @param startedBefore exclusive upper bound on start_time
+ */
+public record WorkOrderFilter(
+    String status,
+    Instant startedFrom,
+    Instant startedBefore,
+    Integer staffId,
+    Integer customerId,
+    Integer vehicleId,
+    String serviceType)
+    implements Serializable {
+
+  public static WorkOrderFilter none() {
+    return new WorkOrderFilter(null, null, null, null, null, null, null);
+  }
+}
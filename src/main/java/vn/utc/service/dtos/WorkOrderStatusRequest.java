@@ -0,0 +1,11 @@
+package vn.utc.service.dtos;
+
+import jakarta.validation.constraints.NotBlank;
+
+import java.io.Serializable;
+
+/**
+ * Moves a work order along its lifecycle. {@code version}, when given, is the version the caller
+ * last saw; the change is refused if the work order has moved on since.
+ */
+public record WorkOrderStatusRequest(@NotBlank String status, Long version) implements Serializable {}
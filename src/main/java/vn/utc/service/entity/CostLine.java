@@ -0,0 +1,24 @@
+package vn.utc.service.entity;
+
+import java.math.BigDecimal;
+
+/**
+ * A parts or labor line whose amount is rolled up into its work order's {@code total_cost}. The
+ * line remembers what the roll-up last counted for it, so an update or delete can apply the
+ * difference.
+ */
+public interface CostLine {
+
+  /** Work order the line currently belongs to, or null. */
+  Integer costWorkOrderId();
+
+  /** Amount the line currently adds to its work order. */
+  BigDecimal costAmount();
+
+  /** What the stored row contributes to {@code total_cost}, or null for a line never saved. */
+  Counted counted();
+
+  void counted(Counted counted);
+
+  record Counted(Integer workOrderId, BigDecimal amount) {}
+}
@@ -6,10 +6,12 @@ import jakarta.validation.constraints.Size;
 import java.util.LinkedHashSet;
 import java.util.Set;
 import lombok.Getter;
+import vn.utc.service.entity.listener.CountCacheInvalidationListener;
 
 
 @Getter
 @Entity
+@EntityListeners(CountCacheInvalidationListener.class)
 @Table(name = "customers")
 public class Customer {
   @Id
@@ -4,15 +4,18 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import java.math.BigDecimal;
 import java.time.Instant;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import org.hibernate.annotations.ColumnDefault;
+import vn.utc.service.entity.listener.WorkOrderCostListener;
 
 @Getter
 
 @Entity
+@EntityListeners(WorkOrderCostListener.class)
 @Table(name = "labor_charges")
-public class LaborCharge {
+public class LaborCharge implements CostLine {
   @Id
   @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "labor_charges_id_gen")
   @SequenceGenerator(
@@ -49,6 +52,10 @@ public class LaborCharge {
   @Column(name = "recorded_at")
   private Instant recordedAt;
 
+  @Transient
+  @Getter(AccessLevel.NONE)
+  private Counted counted;
+
     public LaborCharge setId(Integer id) {
         this.id = id;
         return this;
@@ -88,4 +95,24 @@ public class LaborCharge {
         this.recordedAt = recordedAt;
         return this;
     }
+
+    @Override
+    public Integer costWorkOrderId() {
+        return workOrder != null ? workOrder.getId() : null;
+    }
+
+    @Override
+    public BigDecimal costAmount() {
+        return totalCharge;
+    }
+
+    @Override
+    public Counted counted() {
+        return counted;
+    }
+
+    @Override
+    public void counted(Counted counted) {
+        this.counted = counted;
+    }
 }
@@ -0,0 +1,44 @@
+package vn.utc.service.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.time.Instant;
+import lombok.Getter;
+import org.hibernate.annotations.ColumnDefault;
+
+/**
+ * A domain event waiting to be relayed. Rows are written and drained with plain SQL by
+ * {@link vn.utc.service.service.OutboxService} and {@link vn.utc.service.service.OutboxRelay}.
+ */
+@Getter
+@Entity
+@Table(name = "outbox_events")
+public class OutboxEvent {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @Column(name = "id", nullable = false)
+  private Long id;
+
+  @Size(max = 32)
+  @NotNull
+  @Column(name = "aggregate_type", nullable = false, length = 32)
+  private String aggregateType;
+
+  @Column(name = "aggregate_id")
+  private Integer aggregateId;
+
+  @Size(max = 64)
+  @NotNull
+  @Column(name = "event_type", nullable = false, length = 64)
+  private String eventType;
+
+  // JSON
+  @NotNull
+  @Column(name = "payload", nullable = false, length = Integer.MAX_VALUE)
+  private String payload;
+
+  @ColumnDefault("CURRENT_TIMESTAMP")
+  @Column(name = "created_at", nullable = false)
+  private Instant createdAt;
+}
@@ -4,15 +4,18 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import java.math.BigDecimal;
 import java.time.Instant;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import org.hibernate.annotations.ColumnDefault;
+import vn.utc.service.entity.listener.WorkOrderCostListener;
 
 @Getter
 
 @Entity
+@EntityListeners(WorkOrderCostListener.class)
 @Table(name = "parts_used")
-public class PartsUsed {
+public class PartsUsed implements CostLine {
   @Id
   @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "parts_used_id_gen")
   @SequenceGenerator(
@@ -46,6 +49,10 @@ public class PartsUsed {
   @Column(name = "used_at")
   private Instant usedAt;
 
+  @Transient
+  @Getter(AccessLevel.NONE)
+  private Counted counted;
+
     public PartsUsed setId(Integer id) {
         this.id = id;
         return this;
@@ -80,4 +87,24 @@ public class PartsUsed {
         this.usedAt = usedAt;
         return this;
     }
+
+    @Override
+    public Integer costWorkOrderId() {
+        return workOrder != null ? workOrder.getId() : null;
+    }
+
+    @Override
+    public BigDecimal costAmount() {
+        return totalPrice;
+    }
+
+    @Override
+    public Counted counted() {
+        return counted;
+    }
+
+    @Override
+    public void counted(Counted counted) {
+        this.counted = counted;
+    }
 }
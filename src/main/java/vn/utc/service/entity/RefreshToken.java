@@ -13,7 +13,9 @@ import org.hibernate.annotations.OnDeleteAction;
 @Getter
 @Setter
 @Entity
-@Table(name = "refresh_tokens")
+@Table(
+    name = "refresh_tokens",
+    uniqueConstraints = @UniqueConstraint(name = "uk_refresh_tokens_user", columnNames = "user_id"))
 public class RefreshToken {
   @Id
   @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "refresh_tokens_id_gen")
@@ -8,8 +8,10 @@ import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.Set;
 import org.hibernate.annotations.ColumnDefault;
+import vn.utc.service.entity.listener.CountCacheInvalidationListener;
 
 @Entity
+@EntityListeners(CountCacheInvalidationListener.class)
 @Table(name = "users")
 public class User {
   @Id
@@ -10,10 +10,12 @@ import java.util.Set;
 import lombok.Getter;
 import lombok.Setter;
 import org.hibernate.annotations.ColumnDefault;
+import vn.utc.service.entity.listener.CountCacheInvalidationListener;
 
 @Getter
 
 @Entity
+@EntityListeners(CountCacheInvalidationListener.class)
 @Table(name = "vehicles")
 public class Vehicle {
   @Id
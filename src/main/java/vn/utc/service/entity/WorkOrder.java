@@ -44,9 +44,16 @@ public class WorkOrder {
   @Column(name = "diagnostic_notes", length = Integer.MAX_VALUE)
   private String diagnosticNotes;
 
-  @Column(name = "total_cost", precision = 10, scale = 2)
+  // manual_cost plus the parts and labor lines, only moved by WorkOrderCostRollup's atomic deltas;
+  // never written by an entity update, which could carry a total read before a delta committed
+  @Column(name = "total_cost", precision = 10, scale = 2, updatable = false)
   private BigDecimal totalCost;
 
+  // The part of the total entered by hand rather than recorded as lines
+  @ColumnDefault("0")
+  @Column(name = "manual_cost", precision = 10, scale = 2, nullable = false)
+  private BigDecimal manualCost;
+
   @ColumnDefault("CURRENT_TIMESTAMP")
   @Column(name = "created_at")
   private Instant createdAt;
@@ -55,6 +62,12 @@ public class WorkOrder {
   @Column(name = "updated_at")
   private Instant updatedAt;
 
+  // Hibernate adds "AND version = ?" to every update and bumps it, so a stale write fails
+  @Version
+  @ColumnDefault("0")
+  @Column(name = "version", nullable = false)
+  private Long version;
+
   @OneToMany(mappedBy = "workOrder")
   private Set<Feedback> feedbacks = new LinkedHashSet<>();
 
@@ -101,6 +114,11 @@ public class WorkOrder {
         return this;
     }
 
+    public WorkOrder setManualCost(BigDecimal manualCost) {
+        this.manualCost = manualCost;
+        return this;
+    }
+
     public WorkOrder setCreatedAt(Instant createdAt) {
         this.createdAt = createdAt;
         return this;
@@ -111,6 +129,11 @@ public class WorkOrder {
         return this;
     }
 
+    public WorkOrder setVersion(Long version) {
+        this.version = version;
+        return this;
+    }
+
     public WorkOrder setFeedbacks(Set<Feedback> feedbacks) {
         this.feedbacks = feedbacks;
         return this;
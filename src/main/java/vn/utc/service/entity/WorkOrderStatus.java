@@ -0,0 +1,52 @@
+package vn.utc.service.entity;
+
+import java.util.Locale;
+
+/**
+ * Work-order lifecycle. {@link WorkOrder#getStatus()} stays a string column holding these names;
+ * this enum only decides which changes are allowed.
+ */
+public enum WorkOrderStatus {
+  PENDING,
+  IN_PROGRESS,
+  COMPLETED,
+  CANCELLED;
+
+  /** Staying in the same status is always allowed; completed and cancelled are final. */
+  public boolean canMoveTo(WorkOrderStatus target) {
+    if (this == target) {
+      return true;
+    }
+    return switch (this) {
+      case PENDING -> target == IN_PROGRESS || target == CANCELLED;
+      // Work can be paused back to pending, e.g. while waiting for parts
+      case IN_PROGRESS -> true;
+      case COMPLETED, CANCELLED -> false;
+    };
+  }
+
+  /** @throws IllegalArgumentException for names outside the lifecycle */
+  public static WorkOrderStatus of(String status) {
+    try {
+      return valueOf(status == null ? "" : status.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException ex) {
+      throw new IllegalArgumentException("Unknown work order status: " + status);
+    }
+  }
+
+  /**
+   * Checks a status change; a missing current status counts as {@link #PENDING}.
+   *
+   * @return the normalized target status
+   * @throws IllegalArgumentException when the lifecycle does not allow the change
+   */
+  public static WorkOrderStatus transition(String current, String target) {
+    WorkOrderStatus from = current == null ? PENDING : of(current);
+    WorkOrderStatus to = of(target);
+    if (!from.canMoveTo(to)) {
+      throw new IllegalArgumentException(
+          "Work order cannot move from " + from + " to " + to);
+    }
+    return to;
+  }
+}
@@ -0,0 +1,10 @@
+package vn.utc.service.entity.listener;
+
+import vn.utc.service.entity.CostLine;
+
+/** Applies a cost line's change to its work order's total; implemented by the work-order roll-up. */
+public interface CostRollup {
+
+  /** Moves a line's contribution from what was counted before to what it is now. */
+  void changed(CostLine.Counted before, CostLine.Counted after);
+}
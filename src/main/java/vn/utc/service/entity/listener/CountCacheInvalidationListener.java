@@ -0,0 +1,29 @@
+package vn.utc.service.entity.listener;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.springframework.stereotype.Component;
+import vn.utc.service.entity.Customer;
+import vn.utc.service.entity.User;
+
+/** JPA entity listener that drops cached list counts for an entity type whenever one changes. */
+@Component
+@RequiredArgsConstructor
+public class CountCacheInvalidationListener {
+
+  private final CountInvalidator countInvalidator;
+
+  @PostPersist
+  @PostUpdate
+  @PostRemove
+  public void onChange(Object entity) {
+    countInvalidator.invalidate(Hibernate.getClass(entity));
+    if (entity instanceof User) {
+      // Customer search and status filters read the linked user's email and active flag
+      countInvalidator.invalidate(Customer.class);
+    }
+  }
+}
@@ -0,0 +1,7 @@
+package vn.utc.service.entity.listener;
+
+/** Drops whatever is cached about the size of an entity's table; implemented by the count cache. */
+public interface CountInvalidator {
+
+  void invalidate(Class<?> entity);
+}
@@ -0,0 +1,48 @@
+package vn.utc.service.entity.listener;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import vn.utc.service.entity.CostLine;
+
+/**
+ * JPA entity listener feeding parts and labor line changes to the {@link CostRollup}. Writes
+ * that bypass the entities (bulk JPQL, native SQL) are not seen; the reconciliation job picks
+ * those up.
+ */
+@Component
+@RequiredArgsConstructor
+public class WorkOrderCostListener {
+
+  private final CostRollup rollup;
+
+  @PostLoad
+  public void onLoad(Object entity) {
+    CostLine line = (CostLine) entity;
+    line.counted(current(line));
+  }
+
+  @PostPersist
+  @PostUpdate
+  public void onSave(Object entity) {
+    CostLine line = (CostLine) entity;
+    CostLine.Counted now = current(line);
+    rollup.changed(line.counted(), now);
+    line.counted(now);
+  }
+
+  @PostRemove
+  public void onRemove(Object entity) {
+    CostLine line = (CostLine) entity;
+    // A line removed without having been loaded was counted as it is now
+    rollup.changed(line.counted() != null ? line.counted() : current(line), null);
+    line.counted(null);
+  }
+
+  private static CostLine.Counted current(CostLine line) {
+    return new CostLine.Counted(line.costWorkOrderId(), line.costAmount());
+  }
+}
@@ -1,6 +1,7 @@
 package vn.utc.service.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -106,6 +107,48 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.FORBIDDEN).body(responseDataDto);
     }
 
+    @ExceptionHandler(ServiceOverloadedException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ResponseEntity<ResponseDataDto> handleServiceOverloadedException(
+            ServiceOverloadedException ex, WebRequest request) {
+        
+        ResponseDataDto responseDataDto = new ResponseDataDto();
+        responseDataDto.setErrorCode("503");
+        responseDataDto.setErrorMessage(ex.getMessage());
+        
+        log.warn("Rejected request {}: {}", request.getDescription(false), ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(responseDataDto);
+    }
+
+    @ExceptionHandler(SlotUnavailableException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ResponseEntity<ResponseDataDto> handleSlotUnavailableException(
+            SlotUnavailableException ex, WebRequest request) {
+        
+        ResponseDataDto responseDataDto = new ResponseDataDto();
+        responseDataDto.setErrorCode("409");
+        responseDataDto.setErrorMessage(ex.getMessage());
+        
+        log.info("Booking conflict for request {}: {}", request.getDescription(false), ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(responseDataDto);
+    }
+
+    @ExceptionHandler(WorkOrderConflictException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ResponseEntity<ResponseDataDto> handleWorkOrderConflictException(
+            WorkOrderConflictException ex, WebRequest request) {
+        
+        ResponseDataDto responseDataDto = new ResponseDataDto();
+        responseDataDto.setErrorCode("409");
+        responseDataDto.setErrorMessage(ex.getMessage());
+        responseDataDto.setData(ex.getCurrent());
+        
+        log.info("Work order conflict for request {}: {}", request.getDescription(false), ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(responseDataDto);
+    }
+
     @ExceptionHandler(AccessDeniedException.class)
     @ResponseStatus(HttpStatus.FORBIDDEN)
     public ResponseEntity<ResponseDataDto> handleAccessDeniedException(
@@ -0,0 +1,18 @@
+package vn.utc.service.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import vn.utc.service.dtos.WorkOrderDto;
+
+/** A work-order change lost to a concurrent one; carries the state it lost to. */
+@Getter
+@ResponseStatus(HttpStatus.CONFLICT)
+public class WorkOrderConflictException extends RuntimeException {
+    private final WorkOrderDto current;
+
+    public WorkOrderConflictException(String message, WorkOrderDto current) {
+        super(message);
+        this.current = current;
+    }
+}
@@ -2,6 +2,7 @@ package vn.utc.service.mapper;
 
 import org.mapstruct.*;
 import vn.utc.service.entity.Appointment;
+import vn.utc.service.entity.WorkOrder;
 import vn.utc.service.dtos.AppointmentDto;
 
 @Mapper(
@@ -16,6 +17,17 @@ public interface AppointmentMapper {
   @Mapping(target = "appointmentId", source = "id")
   AppointmentDto toDto(Appointment appointment);
 
+  @Mapping(target = "appointmentId", source = "appointment.id")
+  @Mapping(target = "vehicle", source = "appointment.vehicle")
+  @Mapping(target = "status", source = "appointment.status")
+  @Mapping(target = "createdAt", source = "appointment.createdAt")
+  @Mapping(target = "updatedAt", source = "appointment.updatedAt")
+  @Mapping(target = "workOrder", source = "workOrder")
+  AppointmentDto toDto(Appointment appointment, WorkOrder workOrder);
+
+  @Mapping(target = "workOrderId", source = "id")
+  AppointmentDto.WorkOrderSummaryDto toWorkOrderSummary(WorkOrder workOrder);
+
   @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
   Appointment partialUpdate(AppointmentDto appointmentDto, @MappingTarget Appointment appointment);
 }
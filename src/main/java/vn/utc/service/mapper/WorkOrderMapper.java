@@ -8,10 +8,19 @@ import vn.utc.service.dtos.WorkOrderDto;
     unmappedTargetPolicy = ReportingPolicy.IGNORE,
     componentModel = MappingConstants.ComponentModel.SPRING)
 public interface WorkOrderMapper {
+  // The version is assigned by Hibernate and only ever compared, never copied from a client
+  @Mapping(target = "version", ignore = true)
   WorkOrder toEntity(WorkOrderDto workOrderDto);
 
   WorkOrderDto toDto(WorkOrder workOrder);
 
   @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+  @Mapping(target = "id", ignore = true)
+  @Mapping(target = "version", ignore = true)
+  @Mapping(target = "createdAt", ignore = true)
+  @Mapping(target = "updatedAt", ignore = true)
+  // Set by WorkOrderService as the hand-entered part, then applied to the total as a delta
+  @Mapping(target = "totalCost", ignore = true)
+  @Mapping(target = "manualCost", ignore = true)
   WorkOrder partialUpdate(WorkOrderDto workOrderDto, @MappingTarget WorkOrder workOrder);
 } 
\ No newline at end of file
@@ -2,57 +2,134 @@ package vn.utc.service.repo;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import vn.utc.service.dtos.BookedInterval;
+import vn.utc.service.dtos.DashboardAppointmentView;
 import vn.utc.service.entity.Appointment;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
-public interface AppointmentRepository extends JpaRepository<Appointment, Integer> {
+public interface AppointmentRepository extends JpaRepository<Appointment, Integer>, JpaSpecificationExecutor<Appointment> {
     
+    @EntityGraph(attributePaths = "vehicle")
+    @Query("SELECT a FROM Appointment a")
+    List<Appointment> findAllWithVehicle();
+
+    @EntityGraph(attributePaths = "vehicle")
+    @Query(value = "SELECT a FROM Appointment a", countQuery = "SELECT COUNT(a) FROM Appointment a")
+    Page<Appointment> findAllWithVehicle(Pageable pageable);
+
+    /**
+     * All of a customer's appointments with vehicle and work orders loaded in the same query.
+     */
+    @Query("SELECT DISTINCT a FROM Appointment a " +
+           "LEFT JOIN FETCH a.vehicle " +
+           "LEFT JOIN FETCH a.workOrders " +
+           "WHERE a.customer.id = :customerId " +
+           "ORDER BY a.appointmentDate DESC")
+    List<Appointment> findAllWithDetailsByCustomerId(@Param("customerId") Integer customerId);
+
+    /**
+     * One page of a customer's appointments with the vehicle fetched. Work orders are a collection,
+     * so they are loaded separately with {@link #fetchWorkOrders} to keep paging in the database.
+     */
+    @Query(value = "SELECT a FROM Appointment a LEFT JOIN FETCH a.vehicle WHERE a.customer.id = :customerId",
+           countQuery = "SELECT COUNT(a) FROM Appointment a WHERE a.customer.id = :customerId")
+    Page<Appointment> findPageWithVehicleByCustomerId(@Param("customerId") Integer customerId, Pageable pageable);
+
+    /**
+     * Initializes the work orders of already loaded appointments in one query.
+     */
+    @Query("SELECT DISTINCT a FROM Appointment a LEFT JOIN FETCH a.workOrders WHERE a IN :appointments")
+    List<Appointment> fetchWorkOrders(@Param("appointments") Collection<Appointment> appointments);
+
+    @EntityGraph(attributePaths = "vehicle")
     @Query("SELECT a FROM Appointment a WHERE a.customer.id = :customerId")
     Page<Appointment> findByCustomerId(@Param("customerId") Integer customerId, Pageable pageable);
     
-    @Query("SELECT a FROM Appointment a WHERE a.customer.id = :customerId AND " +
-           "(:status IS NULL OR :status = '' OR LOWER(a.status) = LOWER(:status))")
+    // Filters below take a canonical upper-case status and a half-open [from, to) instant range,
+    // so they can be served by the (customer_id|status, appointment_date) indexes.
+
+    @EntityGraph(attributePaths = "vehicle")
+    @Query("SELECT a FROM Appointment a WHERE a.customer.id = :customerId AND a.status = :status")
     Page<Appointment> findByCustomerIdAndStatus(@Param("customerId") Integer customerId,
                                                @Param("status") String status,
                                                Pageable pageable);
     
+    @EntityGraph(attributePaths = "vehicle")
     @Query("SELECT a FROM Appointment a WHERE a.customer.id = :customerId AND " +
-           "date(a.appointmentDate) >= date(:from) AND date(a.appointmentDate) <= date(:to)")
+           "a.appointmentDate >= :from AND a.appointmentDate < :to")
     Page<Appointment> findByCustomerIdAndDateRange(@Param("customerId") Integer customerId,
                                                   @Param("from") Instant from,
                                                   @Param("to") Instant to,
                                                   Pageable pageable);
     
-    @Query("SELECT a FROM Appointment a WHERE a.customer.id = :customerId AND " +
-           "(:status IS NULL OR :status = '' OR LOWER(a.status) = LOWER(:status)) AND " +
-           "date(a.appointmentDate) >= date(:from) AND date(a.appointmentDate) <= date(:to)")
+    @EntityGraph(attributePaths = "vehicle")
+    @Query("SELECT a FROM Appointment a WHERE a.customer.id = :customerId AND a.status = :status AND " +
+           "a.appointmentDate >= :from AND a.appointmentDate < :to")
     Page<Appointment> findByCustomerIdAndStatusAndDateRange(@Param("customerId") Integer customerId,
                                                            @Param("status") String status,
                                                            @Param("from") Instant from,
                                                            @Param("to") Instant to,
                                                            Pageable pageable);
     
-    @Query("SELECT a FROM Appointment a WHERE " +
-           "(:status IS NULL OR :status = '' OR LOWER(a.status) = LOWER(:status))")
+    @EntityGraph(attributePaths = "vehicle")
+    @Query("SELECT a FROM Appointment a WHERE a.status = :status")
     Page<Appointment> findByStatus(@Param("status") String status, Pageable pageable);
     
-    @Query("SELECT a FROM Appointment a WHERE " +
-           "date(a.appointmentDate) >= date(:from) AND date(a.appointmentDate) <= date(:to)")
+    @EntityGraph(attributePaths = "vehicle")
+    @Query("SELECT a FROM Appointment a WHERE a.appointmentDate >= :from AND a.appointmentDate < :to")
     Page<Appointment> findByDateRange(@Param("from") Instant from,
                                      @Param("to") Instant to,
                                      Pageable pageable);
     
-    @Query("SELECT a FROM Appointment a WHERE " +
-           "(:status IS NULL OR :status = '' OR LOWER(a.status) = LOWER(:status)) AND " +
-           "date(a.appointmentDate) >= date(:from) AND date(a.appointmentDate) <= date(:to)")
+    @EntityGraph(attributePaths = "vehicle")
+    @Query("SELECT a FROM Appointment a WHERE a.status = :status AND " +
+           "a.appointmentDate >= :from AND a.appointmentDate < :to")
     Page<Appointment> findByStatusAndDateRange(@Param("status") String status,
                                               @Param("from") Instant from,
                                               @Param("to") Instant to,
                                               Pageable pageable);
+    
+    /**
+     * Bay-occupying bookings starting in {@code [from, to)}, read through idx_appointments_date
+     */
+    @Query("SELECT a.id AS id, a.appointmentDate AS startsAt, a.estimatedCompletion AS endsAt, " +
+           "a.serviceType AS serviceType FROM Appointment a " +
+           "WHERE a.appointmentDate >= :from AND a.appointmentDate < :to " +
+           "AND (a.status IS NULL OR a.status NOT IN :released)")
+    List<BookedInterval> findBookedIntervals(@Param("from") Instant from,
+                                             @Param("to") Instant to,
+                                             @Param("released") Collection<String> released);
+    
+    /**
+     * Transaction-scoped advisory lock serializing bookings for one day across instances
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(:key)", nativeQuery = true)
+    Integer lockBookingDay(@Param("key") long key);
+    
+    /**
+     * Newest-first appointments with vehicle and first work order as flat rows, for the customer
+     * dashboard; ordered like the keyset listing so its cursor can continue from the last row
+     */
+    @Query("SELECT a.id AS appointmentId, a.appointmentDate AS appointmentDate, " +
+           "a.estimatedCompletion AS estimatedCompletion, a.status AS status, a.serviceType AS serviceType, " +
+           "a.description AS description, a.createdAt AS createdAt, a.updatedAt AS updatedAt, " +
+           "v.id AS vehicleId, v.make AS vehicleMake, v.model AS vehicleModel, v.year AS vehicleYear, " +
+           "v.licensePlate AS vehicleLicensePlate, w.id AS workOrderId, w.status AS workOrderStatus, " +
+           "w.startTime AS workOrderStartTime, w.endTime AS workOrderEndTime " +
+           "FROM Appointment a LEFT JOIN a.vehicle v " +
+           "LEFT JOIN a.workOrders w ON w.id = (SELECT MIN(w2.id) FROM WorkOrder w2 WHERE w2.appointment = a) " +
+           "WHERE a.customer.id = :customerId " +
+           "ORDER BY a.appointmentDate DESC, a.id DESC")
+    List<DashboardAppointmentView> findDashboardAppointments(@Param("customerId") Integer customerId,
+                                                             Pageable pageable);
 }
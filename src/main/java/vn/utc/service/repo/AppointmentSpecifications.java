@@ -0,0 +1,35 @@
+package vn.utc.service.repo;
+
+import org.springframework.data.jpa.domain.Specification;
+import vn.utc.service.entity.Appointment;
+
+import java.time.Instant;
+
+/** Criteria equivalents of the {@link AppointmentRepository} filters, for keyset scrolling. */
+public final class AppointmentSpecifications {
+
+  private AppointmentSpecifications() {}
+
+  /** @param customerId owning customer, or null for all customers */
+  public static Specification<Appointment> forCustomer(Integer customerId) {
+    return customerId == null
+        ? null
+        : (root, query, cb) -> cb.equal(root.get("customer").get("id"), customerId);
+  }
+
+  /** @param status canonical upper-case status, or null for any */
+  public static Specification<Appointment> hasStatus(String status) {
+    return status == null ? null : (root, query, cb) -> cb.equal(root.get("status"), status);
+  }
+
+  /** Half-open {@code [from, to)} range on appointment_date; null bounds match everything. */
+  public static Specification<Appointment> inRange(Instant from, Instant to) {
+    if (from == null || to == null) {
+      return null;
+    }
+    return (root, query, cb) ->
+        cb.and(
+            cb.greaterThanOrEqualTo(root.get("appointmentDate"), from),
+            cb.lessThan(root.get("appointmentDate"), to));
+  }
+}
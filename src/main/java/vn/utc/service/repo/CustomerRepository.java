@@ -2,7 +2,9 @@ package vn.utc.service.repo;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -12,21 +14,39 @@ import vn.utc.service.entity.User;
 import java.util.Optional;
 
 @Repository
-public interface CustomerRepository extends JpaRepository<Customer, Integer> {
+public interface CustomerRepository extends JpaRepository<Customer, Integer>, JpaSpecificationExecutor<Customer> {
 
     Optional<Customer> findCustomerByUser(User user);
     Optional<Customer> findCustomerByUserId(Integer userId);
     Optional<Customer> findCustomerById(Integer id);
     
-    @Query("SELECT c FROM Customer c WHERE " +
+    String SEARCH_AND_STATUS_FILTER =
            "(:search IS NULL OR :search = '' OR " +
            "LOWER(c.firstName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
            "LOWER(c.lastName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
            "LOWER(c.user.email) LIKE LOWER(CONCAT('%', :search, '%'))) AND " +
            "(:status IS NULL OR :status = '' OR " +
            "(:status = 'ACTIVE' AND c.user.isActive = true) OR " +
-           "(:status = 'INACTIVE' AND c.user.isActive = false))")
+           "(:status = 'INACTIVE' AND c.user.isActive = false))";
+
+    @Query("SELECT c FROM Customer c WHERE " + SEARCH_AND_STATUS_FILTER)
     Page<Customer> findBySearchAndStatus(@Param("search") String search,
                                        @Param("status") String status,
                                        Pageable pageable);
+
+    /**
+     * Same filter as {@link #findBySearchAndStatus} without the COUNT query
+     */
+    @Query("SELECT c FROM Customer c WHERE " + SEARCH_AND_STATUS_FILTER)
+    Slice<Customer> findSliceBySearchAndStatus(@Param("search") String search,
+                                             @Param("status") String status,
+                                             Pageable pageable);
+
+    @Query("SELECT COUNT(c) FROM Customer c WHERE " + SEARCH_AND_STATUS_FILTER)
+    long countBySearchAndStatus(@Param("search") String search, @Param("status") String status);
+
+    Slice<Customer> findAllBy(Pageable pageable);
+
+    @Query("SELECT c.id FROM Customer c WHERE c.user.id = :userId")
+    Optional<Integer> findIdByUserId(@Param("userId") Integer userId);
 }
@@ -0,0 +1,35 @@
+package vn.utc.service.repo;
+
+import jakarta.persistence.criteria.Join;
+import org.springframework.data.jpa.domain.Specification;
+import vn.utc.service.entity.Customer;
+import vn.utc.service.entity.User;
+
+/** Criteria equivalent of {@link CustomerRepository#findBySearchAndStatus}, for keyset scrolling. */
+public final class CustomerSpecifications {
+
+  private CustomerSpecifications() {}
+
+  public static Specification<Customer> matches(String search, String status) {
+    return (root, query, cb) -> {
+      Join<Customer, User> user = root.join("user");
+      var predicate = cb.conjunction();
+      if (search != null && !search.isBlank()) {
+        String pattern = "%" + search.toLowerCase() + "%";
+        predicate =
+            cb.and(
+                predicate,
+                cb.or(
+                    cb.like(cb.lower(root.get("firstName")), pattern),
+                    cb.like(cb.lower(root.get("lastName")), pattern),
+                    cb.like(cb.lower(user.get("email")), pattern)));
+      }
+      if ("ACTIVE".equals(status)) {
+        predicate = cb.and(predicate, cb.isTrue(user.get("isActive")));
+      } else if ("INACTIVE".equals(status)) {
+        predicate = cb.and(predicate, cb.isFalse(user.get("isActive")));
+      }
+      return predicate;
+    };
+  }
+}
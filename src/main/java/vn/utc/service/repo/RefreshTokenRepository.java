@@ -2,16 +2,73 @@ package vn.utc.service.repo;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import vn.utc.service.entity.RefreshToken;
 import vn.utc.service.entity.User;
 
+import java.time.Instant;
 import java.util.Optional;
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Integer> {
+  // token holds the SHA-256 hex digest of the refresh token, never the token itself
   Optional<RefreshToken> findByToken(String token);
 
   @Modifying
   int deleteByUser(User user);
 
   Optional<RefreshToken> findByUser(User user);
+
+  /**
+   * Replaces the user's refresh token, inserting a row when the user has none yet. Atomic on the
+   * unique user_id index, so concurrent logins of one user leave a single row.
+   */
+  @Modifying
+  @Query(
+      value =
+          """
+          INSERT INTO refresh_tokens (id, user_id, token, expiry_date, created_at)
+          VALUES (nextval('refresh_tokens_id_seq'), :userId, :token, :expiryDate, CURRENT_TIMESTAMP)
+          ON CONFLICT (user_id) DO UPDATE
+          SET token = EXCLUDED.token, expiry_date = EXCLUDED.expiry_date, created_at = CURRENT_TIMESTAMP
+          """,
+      nativeQuery = true)
+  int upsertForUser(
+      @Param("userId") Integer userId,
+      @Param("token") String token,
+      @Param("expiryDate") Instant expiryDate);
+
+  /** Swaps the current token for a new one; returns 0 when the current token was already rotated. */
+  @Modifying
+  @Query(
+      value =
+          """
+          UPDATE refresh_tokens
+          SET token = :newToken, expiry_date = :expiryDate, created_at = CURRENT_TIMESTAMP
+          WHERE user_id = :userId AND token = :currentToken
+          """,
+      nativeQuery = true)
+  int rotate(
+      @Param("userId") Integer userId,
+      @Param("currentToken") String currentToken,
+      @Param("newToken") String newToken,
+      @Param("expiryDate") Instant expiryDate);
+
+  @Modifying
+  @Query("DELETE FROM RefreshToken r WHERE r.user.id = :userId")
+  int deleteByUserId(@Param("userId") Integer userId);
+
+  @Transactional
+  @Modifying
+  @Query(
+      value =
+          """
+          DELETE FROM refresh_tokens
+          WHERE id IN (
+              SELECT id FROM refresh_tokens WHERE expiry_date < :now ORDER BY id LIMIT :limit
+          )
+          """,
+      nativeQuery = true)
+  int deleteExpiredBatch(@Param("now") Instant now, @Param("limit") int limit);
 }
@@ -1,6 +1,12 @@
 package vn.utc.service.repo;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import vn.utc.service.entity.SparePart;
 
-public interface SparePartRepository extends JpaRepository<SparePart, Integer> {}
+import java.util.List;
+
+public interface SparePartRepository extends JpaRepository<SparePart, Integer>, JpaSpecificationExecutor<SparePart> {
+
+    List<SparePart> findByCategory(String category);
+}
@@ -0,0 +1,56 @@
+package vn.utc.service.repo;
+
+import jakarta.persistence.criteria.Expression;
+import org.springframework.data.jpa.domain.Specification;
+import vn.utc.service.entity.SparePart;
+
+import java.util.Locale;
+
+/**
+ * Inventory list filters (category, name/description search and stock status relative to the
+ * minimum level), used by both the offset and keyset listings.
+ */
+public final class SparePartSpecifications {
+
+  private static final char ESCAPE = '\\';
+
+  private SparePartSpecifications() {}
+
+  public static Specification<SparePart> matches(
+      String category, String search, String stockStatus) {
+    return (root, query, cb) -> {
+      var predicate = cb.conjunction();
+      if (category != null && !category.isEmpty()) {
+        predicate = cb.and(predicate, cb.equal(root.get("category"), category));
+      }
+      if (search != null && !search.isEmpty()) {
+        // Matches the lower(...) trigram indexes; the term's own wildcards are taken literally
+        String pattern = "%" + escapeLike(search.toLowerCase(Locale.ROOT)) + "%";
+        predicate =
+            cb.and(
+                predicate,
+                cb.or(
+                    cb.like(cb.lower(root.get("name")), pattern, ESCAPE),
+                    cb.like(cb.lower(root.get("description")), pattern, ESCAPE)));
+      }
+      if (stockStatus != null && !stockStatus.isEmpty()) {
+        Expression<Integer> quantity = root.get("quantityInStock");
+        Expression<Integer> minimum = root.get("minimumStockLevel");
+        Expression<Integer> doubleMinimum = cb.prod(minimum, 2);
+        predicate =
+            switch (stockStatus) {
+              case "LOW" -> cb.and(predicate, cb.le(quantity, minimum));
+              case "MODERATE" ->
+                  cb.and(predicate, cb.gt(quantity, minimum), cb.le(quantity, doubleMinimum));
+              case "ADEQUATE" -> cb.and(predicate, cb.gt(quantity, doubleMinimum));
+              default -> cb.disjunction();
+            };
+      }
+      return predicate;
+    };
+  }
+
+  private static String escapeLike(String term) {
+    return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+}
@@ -2,13 +2,21 @@ package vn.utc.service.repo;
 
 import jakarta.validation.constraints.NotNull;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import vn.utc.service.entity.Staff;
 import vn.utc.service.entity.User;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface StaffRepository extends JpaRepository<Staff, Integer> {
   Optional<Staff> findStaffByUser(User user);
 
   Optional<Staff> findStaffById(@NotNull(message = "Staff ID is required") Integer integer);
-}
\ No newline at end of file
+
+  /** Staff whose position, lower-cased, is one of {@code positions}. */
+  @Query("SELECT s FROM Staff s WHERE LOWER(s.position) IN :positions")
+  List<Staff> findByPositionsIgnoreCase(@Param("positions") Collection<String> positions);
+}
@@ -1,7 +1,11 @@
 package vn.utc.service.repo;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import vn.utc.service.dtos.UserLoginView;
 import vn.utc.service.entity.User;
 
 import java.util.Optional;
@@ -15,4 +19,29 @@ public interface UserRepository extends JpaRepository<User, Integer> {
   Boolean existsByUsername(String username);
 
   Boolean existsByEmail(String email);
+
+  /** Credentials, roles and customer/staff identity for login in a single round trip. */
+  @Query(
+      value =
+          """
+          SELECT u.user_id AS "userId", u.username AS "username", u.password AS "password",
+                 u.email AS "email", u.is_active AS "active",
+                 (SELECT string_agg(r.name, ',')
+                  FROM user_roles ur JOIN roles r ON r.id = ur.role_id
+                  WHERE ur.user_id = u.user_id) AS "roles",
+                 COALESCE(c.first_name, s.first_name) AS "firstName",
+                 COALESCE(c.last_name, s.last_name) AS "lastName",
+                 c.customer_id AS "customerId", s.staff_id AS "staffId"
+          FROM users u
+          LEFT JOIN customers c ON c.user_id = u.user_id
+          LEFT JOIN staff s ON s.user_id = u.user_id
+          WHERE u.username = :username
+          LIMIT 1
+          """,
+      nativeQuery = true)
+  Optional<UserLoginView> findLoginView(@Param("username") String username);
+
+  @Modifying
+  @Query("UPDATE User u SET u.password = :password WHERE u.username = :username")
+  int updatePassword(@Param("username") String username, @Param("password") String password);
 }
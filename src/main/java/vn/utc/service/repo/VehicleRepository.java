@@ -4,21 +4,24 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import vn.utc.service.dtos.VehicleDto;
 import vn.utc.service.entity.Vehicle;
 
 import java.util.List;
 
-public interface VehicleRepository extends JpaRepository<Vehicle, Integer> {
+public interface VehicleRepository extends JpaRepository<Vehicle, Integer>, JpaSpecificationExecutor<Vehicle> {
     boolean existsByLicensePlate(@Size(max = 20) @NotNull String licensePlate);
 
     List<Vehicle> findVehiclesByCustomerId(int id);
     
     Page<Vehicle> findVehiclesByCustomerId(int id, Pageable pageable);
     
-    @Query("SELECT v FROM Vehicle v WHERE " +
+    String FILTERS =
            "(:search IS NULL OR :search = '' OR " +
            "LOWER(v.make) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
            "LOWER(v.model) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
@@ -27,11 +30,41 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Integer> {
            "(:make IS NULL OR :make = '' OR LOWER(v.make) = LOWER(:make)) AND " +
            "(:model IS NULL OR :model = '' OR LOWER(v.model) = LOWER(:model)) AND " +
            "(:year IS NULL OR v.year = :year) AND " +
-           "(:customerId IS NULL OR v.customer.id = :customerId)")
+           "(:customerId IS NULL OR v.customer.id = :customerId)";
+
+    @Query("SELECT v FROM Vehicle v WHERE " + FILTERS)
     Page<Vehicle> findByFilters(@Param("search") String search,
                                @Param("make") String make,
                                @Param("model") String model,
                                @Param("year") Integer year,
                                @Param("customerId") Integer customerId,
                                Pageable pageable);
+
+    /**
+     * Same filter as {@link #findByFilters} without the COUNT query
+     */
+    @Query("SELECT v FROM Vehicle v WHERE " + FILTERS)
+    Slice<Vehicle> findSliceByFilters(@Param("search") String search,
+                                     @Param("make") String make,
+                                     @Param("model") String model,
+                                     @Param("year") Integer year,
+                                     @Param("customerId") Integer customerId,
+                                     Pageable pageable);
+
+    @Query("SELECT COUNT(v) FROM Vehicle v WHERE " + FILTERS)
+    long countByFilters(@Param("search") String search,
+                        @Param("make") String make,
+                        @Param("model") String model,
+                        @Param("year") Integer year,
+                        @Param("customerId") Integer customerId);
+
+    Slice<Vehicle> findAllBy(Pageable pageable);
+
+    /**
+     * Vehicles for the customer dashboard, read straight into DTOs
+     */
+    @Query("SELECT new vn.utc.service.dtos.VehicleDto(v.id, v.make, v.model, v.year, v.licensePlate, " +
+           "v.vin, v.color, v.mileage, v.lastServiceDate, v.registrationDate) " +
+           "FROM Vehicle v WHERE v.customer.id = :customerId ORDER BY v.id")
+    List<VehicleDto> findDtosByCustomerId(@Param("customerId") Integer customerId, Pageable pageable);
 }
@@ -0,0 +1,41 @@
+package vn.utc.service.repo;
+
+import org.springframework.data.jpa.domain.Specification;
+import vn.utc.service.entity.Vehicle;
+
+/** Criteria equivalent of {@link VehicleRepository#findByFilters}, for keyset scrolling. */
+public final class VehicleSpecifications {
+
+  private VehicleSpecifications() {}
+
+  public static Specification<Vehicle> matches(
+      String search, String make, String model, Integer year, Integer customerId) {
+    return (root, query, cb) -> {
+      var predicate = cb.conjunction();
+      if (search != null && !search.isBlank()) {
+        String pattern = "%" + search.toLowerCase() + "%";
+        predicate =
+            cb.and(
+                predicate,
+                cb.or(
+                    cb.like(cb.lower(root.get("make")), pattern),
+                    cb.like(cb.lower(root.get("model")), pattern),
+                    cb.like(cb.lower(root.get("licensePlate")), pattern),
+                    cb.like(cb.lower(root.get("vin")), pattern)));
+      }
+      if (make != null && !make.isBlank()) {
+        predicate = cb.and(predicate, cb.equal(cb.lower(root.get("make")), make.toLowerCase()));
+      }
+      if (model != null && !model.isBlank()) {
+        predicate = cb.and(predicate, cb.equal(cb.lower(root.get("model")), model.toLowerCase()));
+      }
+      if (year != null) {
+        predicate = cb.and(predicate, cb.equal(root.get("year"), year));
+      }
+      if (customerId != null) {
+        predicate = cb.and(predicate, cb.equal(root.get("customer").get("id"), customerId));
+      }
+      return predicate;
+    };
+  }
+}
@@ -0,0 +1,27 @@
+package vn.utc.service.repo;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import vn.utc.service.dtos.WorkOrderDetailView;
+import vn.utc.service.entity.WorkOrder;
+
+import java.util.Optional;
+
+/**
+ * Work-order detail rows with the appointment, customer, user, vehicle and staff columns joined
+ * in, so the detail views never touch a lazy association.
+ */
+public interface WorkOrderDetailQueries {
+
+    /**
+     * Page of detail rows matching {@code filter}: one select, plus a count when the page is full
+     * or not the first
+     */
+    Page<WorkOrderDetailView> findDetails(Specification<WorkOrder> filter, Pageable pageable);
+
+    /**
+     * Details of a single work order in one select
+     */
+    Optional<WorkOrderDetailView> findDetailById(Integer id);
+}
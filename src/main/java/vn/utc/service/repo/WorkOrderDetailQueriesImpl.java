@@ -0,0 +1,134 @@
+package vn.utc.service.repo;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.support.PageableExecutionUtils;
+import vn.utc.service.dtos.WorkOrderDetailView;
+import vn.utc.service.entity.Appointment;
+import vn.utc.service.entity.Customer;
+import vn.utc.service.entity.Staff;
+import vn.utc.service.entity.User;
+import vn.utc.service.entity.Vehicle;
+import vn.utc.service.entity.WorkOrder;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+/**
+ * Criteria implementation of {@link WorkOrderDetailQueries}. The filter is applied to the same
+ * root the columns are selected from, so only its active predicates are added and appointment
+ * criteria reuse the projection's join.
+ */
+@RequiredArgsConstructor
+class WorkOrderDetailQueriesImpl implements WorkOrderDetailQueries {
+
+    private final EntityManager entityManager;
+    private final ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+
+    @Override
+    public Page<WorkOrderDetailView> findDetails(Specification<WorkOrder> filter, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<WorkOrder> root = selectDetails(query);
+        where(query, filter.toPredicate(root, query, cb));
+        query.orderBy(toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<WorkOrderDetailView> content = typedQuery.getResultList().stream().map(this::toView).toList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(filter));
+    }
+
+    @Override
+    public Optional<WorkOrderDetailView> findDetailById(Integer id) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<WorkOrder> root = selectDetails(query);
+        query.where(cb.equal(root.get("id"), id));
+        return entityManager.createQuery(query).getResultList().stream().findFirst().map(this::toView);
+    }
+
+    private Root<WorkOrder> selectDetails(CriteriaQuery<Tuple> query) {
+        Root<WorkOrder> root = query.from(WorkOrder.class);
+        Join<WorkOrder, Appointment> appointment = root.join("appointment", JoinType.LEFT);
+        Join<Appointment, Customer> customer = appointment.join("customer", JoinType.LEFT);
+        Join<Customer, User> user = customer.join("user", JoinType.LEFT);
+        Join<Appointment, Vehicle> vehicle = appointment.join("vehicle", JoinType.LEFT);
+        Join<WorkOrder, Staff> staff = root.join("staff", JoinType.LEFT);
+        query.multiselect(
+                root.get("id").alias("workOrderId"),
+                appointment.get("id").alias("appointmentId"),
+                appointment.get("appointmentDate").alias("appointmentDate"),
+                appointment.get("serviceType").alias("appointmentServiceType"),
+                appointment.get("status").alias("appointmentStatus"),
+                customer.get("id").alias("customerId"),
+                customer.get("firstName").alias("customerFirstName"),
+                customer.get("lastName").alias("customerLastName"),
+                user.get("email").alias("customerEmail"),
+                user.get("phone").alias("customerPhone"),
+                vehicle.get("id").alias("vehicleId"),
+                vehicle.get("make").alias("vehicleMake"),
+                vehicle.get("model").alias("vehicleModel"),
+                vehicle.get("year").alias("vehicleYear"),
+                vehicle.get("licensePlate").alias("vehicleLicensePlate"),
+                vehicle.get("vin").alias("vehicleVin"),
+                vehicle.get("color").alias("vehicleColor"),
+                vehicle.get("mileage").alias("vehicleMileage"),
+                staff.get("id").alias("staffId"),
+                staff.get("firstName").alias("staffFirstName"),
+                staff.get("lastName").alias("staffLastName"),
+                staff.get("position").alias("staffPosition"),
+                root.get("startTime").alias("startTime"),
+                root.get("endTime").alias("endTime"),
+                root.get("status").alias("status"),
+                root.get("diagnosticNotes").alias("diagnosticNotes"),
+                root.get("totalCost").alias("totalCost"),
+                root.get("createdAt").alias("createdAt"),
+                root.get("updatedAt").alias("updatedAt"));
+        return root;
+    }
+
+    private long count(Specification<WorkOrder> filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<WorkOrder> root = query.from(WorkOrder.class);
+        query.select(cb.count(root));
+        where(query, filter.toPredicate(root, query, cb));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static void where(CriteriaQuery<?> query, Predicate predicate) {
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+
+    private WorkOrderDetailView toView(Tuple tuple) {
+        Map<String, Object> columns = new HashMap<>();
+        for (TupleElement<?> element : tuple.getElements()) {
+            columns.put(element.getAlias(), tuple.get(element));
+        }
+        return projectionFactory.createProjection(WorkOrderDetailView.class, columns);
+    }
+}
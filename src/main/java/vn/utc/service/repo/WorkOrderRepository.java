@@ -3,15 +3,19 @@ package vn.utc.service.repo;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import vn.utc.service.dtos.OpenAssignmentView;
 import vn.utc.service.entity.WorkOrder;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface WorkOrderRepository extends JpaRepository<WorkOrder, Integer> {
+public interface WorkOrderRepository extends JpaRepository<WorkOrder, Integer>, JpaSpecificationExecutor<WorkOrder>,
+        WorkOrderDetailQueries {
     
     /**
      * Find all work orders assigned to a specific staff member
@@ -56,4 +60,19 @@ public interface WorkOrderRepository extends JpaRepository<WorkOrder, Integer> {
      * Find work order by appointment ID
      */
     Optional<WorkOrder> findByAppointmentId(Integer appointmentId);
+
+    /**
+     * Find the work orders of several appointments in one query
+     */
+    List<WorkOrder> findByAppointmentIdIn(Collection<Integer> appointmentIds);
+
+    /**
+     * Assigned work orders not yet in one of the {@code closed} statuses, with the appointment
+     * times the assignment engine estimates their hours from
+     */
+    @Query("SELECT wo.id AS workOrderId, wo.staff.id AS staffId, a.appointmentDate AS startsAt, " +
+           "a.estimatedCompletion AS endsAt, a.serviceType AS serviceType " +
+           "FROM WorkOrder wo LEFT JOIN wo.appointment a " +
+           "WHERE wo.staff IS NOT NULL AND (wo.status IS NULL OR wo.status NOT IN :closed)")
+    List<OpenAssignmentView> findOpenAssignments(@Param("closed") Collection<String> closed);
 }
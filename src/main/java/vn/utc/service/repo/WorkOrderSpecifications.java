@@ -0,0 +1,91 @@
+package vn.utc.service.repo;
+
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+import vn.utc.service.dtos.WorkOrderFilter;
+import vn.utc.service.entity.Appointment;
+import vn.utc.service.entity.WorkOrder;
+
+import java.time.Instant;
+
+/**
+ * Composable work-order filters. Each factory returns null when its criterion is not set, so
+ * {@link #matching} only puts active predicates into the query. Predicates compare bare columns so
+ * the work_orders and appointments indexes stay usable.
+ */
+public final class WorkOrderSpecifications {
+
+  private WorkOrderSpecifications() {}
+
+  public static Specification<WorkOrder> matching(WorkOrderFilter filter) {
+    return Specification.where(hasStatus(filter.status()))
+        .and(startedBetween(filter.startedFrom(), filter.startedBefore()))
+        .and(forStaff(filter.staffId()))
+        .and(forCustomer(filter.customerId()))
+        .and(forVehicle(filter.vehicleId()))
+        .and(hasServiceType(filter.serviceType()));
+  }
+
+  /** @param status canonical upper-case status, or null for any */
+  public static Specification<WorkOrder> hasStatus(String status) {
+    return status == null ? null : (root, query, cb) -> cb.equal(root.get("status"), status);
+  }
+
+  /** Half-open {@code [from, before)} range on start_time; either bound may be null. */
+  public static Specification<WorkOrder> startedBetween(Instant from, Instant before) {
+    if (from == null && before == null) {
+      return null;
+    }
+    return (root, query, cb) -> {
+      if (before == null) {
+        return cb.greaterThanOrEqualTo(root.get("startTime"), from);
+      }
+      if (from == null) {
+        return cb.lessThan(root.get("startTime"), before);
+      }
+      return cb.and(
+          cb.greaterThanOrEqualTo(root.get("startTime"), from),
+          cb.lessThan(root.get("startTime"), before));
+    };
+  }
+
+  public static Specification<WorkOrder> forStaff(Integer staffId) {
+    return staffId == null
+        ? null
+        : (root, query, cb) -> cb.equal(root.get("staff").get("id"), staffId);
+  }
+
+  public static Specification<WorkOrder> forCustomer(Integer customerId) {
+    return customerId == null
+        ? null
+        : (root, query, cb) -> cb.equal(appointment(root).get("customer").get("id"), customerId);
+  }
+
+  public static Specification<WorkOrder> forVehicle(Integer vehicleId) {
+    return vehicleId == null
+        ? null
+        : (root, query, cb) -> cb.equal(appointment(root).get("vehicle").get("id"), vehicleId);
+  }
+
+  public static Specification<WorkOrder> hasServiceType(String serviceType) {
+    return serviceType == null
+        ? null
+        : (root, query, cb) -> cb.equal(appointment(root).get("serviceType"), serviceType);
+  }
+
+  /**
+   * The query's existing join to the appointment, so several appointment criteria and the
+   * detail projection share one join; otherwise a new inner join.
+   */
+  @SuppressWarnings("unchecked")
+  private static From<WorkOrder, Appointment> appointment(Root<WorkOrder> root) {
+    for (Join<WorkOrder, ?> join : root.getJoins()) {
+      if ("appointment".equals(join.getAttribute().getName())) {
+        return (From<WorkOrder, Appointment>) join;
+      }
+    }
+    return root.join("appointment");
+  }
+}
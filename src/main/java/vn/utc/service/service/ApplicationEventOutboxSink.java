@@ -0,0 +1,24 @@
+package vn.utc.service.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import vn.utc.service.dtos.OutboxMessage;
+
+import java.util.List;
+
+/**
+ * Hands relayed events to in-process {@code @EventListener(OutboxMessage)} methods. They run on the
+ * relay thread, so slow work there delays the outbox rather than a request.
+ */
+@Component
+@RequiredArgsConstructor
+public class ApplicationEventOutboxSink implements OutboxSink {
+
+  private final ApplicationEventPublisher eventPublisher;
+
+  @Override
+  public void deliver(List<OutboxMessage> batch) {
+    batch.forEach(eventPublisher::publishEvent);
+  }
+}
@@ -0,0 +1,325 @@
+package vn.utc.service.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import vn.utc.service.config.BookingProperties;
+import vn.utc.service.dtos.AvailableSlotDto;
+import vn.utc.service.dtos.BookedInterval;
+import vn.utc.service.entity.Appointment;
+import vn.utc.service.exception.SlotUnavailableException;
+import vn.utc.service.repo.AppointmentRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bay availability for appointment booking. Each garage-local day is loaded lazily from the
+ * database into a {@link SlotOccupancy} tree, so free-slot lookups and capacity checks cost
+ * O(log n) per candidate regardless of how many appointments exist overall.
+ *
+ * <p>Bookings for the same day are serialized by a Postgres advisory lock held until the booking
+ * transaction ends, under which the day is re-read, so the database has the final word. No JVM lock
+ * is held across the transaction: one that books several days could otherwise deadlock with another
+ * where Postgres cannot see it, while a deadlock on advisory locks is detected and rolled back.
+ */
+@Slf4j
+@Service
+public class AppointmentAvailabilityService {
+
+  /** Statuses whose appointments no longer occupy a bay. */
+  static final Set<String> RELEASED_STATUSES = Set.of("CANCELLED", "NO_SHOW");
+
+  // High bits keep booking locks apart from any other advisory lock users
+  private static final long BOOKING_LOCK_SPACE = 0x4241_5953_0000_0000L;
+  private static final int LOCK_STRIPES = 64;
+
+  private final AppointmentRepository appointmentRepository;
+  private final BookingProperties properties;
+  private final ZoneId zone;
+  private final Clock clock;
+  private final long slotSeconds;
+  private final int slotsPerDay;
+  private final Map<LocalDate, DaySchedule> days = new ConcurrentHashMap<>();
+  private final ReentrantLock[] stripes = new ReentrantLock[LOCK_STRIPES];
+
+  @Autowired
+  public AppointmentAvailabilityService(
+      AppointmentRepository appointmentRepository,
+      BookingProperties properties,
+      @Value("${app.garage.time-zone:Asia/Ho_Chi_Minh}") String garageTimeZone) {
+    this(appointmentRepository, properties, ZoneId.of(garageTimeZone), Clock.systemUTC());
+  }
+
+  AppointmentAvailabilityService(
+      AppointmentRepository appointmentRepository,
+      BookingProperties properties,
+      ZoneId zone,
+      Clock clock) {
+    this.appointmentRepository = appointmentRepository;
+    this.properties = properties;
+    this.zone = zone;
+    this.clock = clock;
+    this.slotSeconds = properties.getSlotMinutes() * 60L;
+    this.slotsPerDay =
+        (int) (Duration.between(properties.getOpensAt(), properties.getClosesAt()).getSeconds()
+            / slotSeconds);
+    if (slotsPerDay <= 0) {
+      throw new IllegalStateException("Garage must be open for at least one booking slot");
+    }
+    for (int i = 0; i < LOCK_STRIPES; i++) {
+      stripes[i] = new ReentrantLock();
+    }
+  }
+
+  /** Start times on {@code day} at which a {@code serviceType} appointment would still fit. */
+  public List<AvailableSlotDto> findAvailableSlots(LocalDate day, String serviceType) {
+    Duration duration = durationOf(serviceType);
+    int length = (int) Math.max(1, -Math.floorDiv(-duration.getSeconds(), slotSeconds));
+    Instant opensAt = opensAt(day);
+    Instant now = clock.instant();
+    DaySchedule schedule = schedule(day);
+
+    List<AvailableSlotDto> slots = new ArrayList<>();
+    for (int slot = 0; slot + length <= slotsPerDay; slot++) {
+      Instant start = opensAt.plusSeconds(slot * slotSeconds);
+      if (start.isBefore(now)) {
+        continue;
+      }
+      int peak = schedule.peak(slot, slot + length);
+      if (peak < properties.getBays()) {
+        slots.add(new AvailableSlotDto(start, start.plus(duration), properties.getBays() - peak));
+      }
+    }
+    return slots;
+  }
+
+  /**
+   * Claims a bay for an appointment about to be inserted or reactivated; must run inside the
+   * booking transaction. Fills in the estimated completion from the service duration when missing.
+   *
+   * @throws SlotUnavailableException when every bay is taken for part of the requested time
+   * @throws IllegalArgumentException when the appointment has no date or does not fit within
+   *     opening hours
+   */
+  public void reserve(Appointment appointment) {
+    if (!occupiesBay(appointment.getStatus())) {
+      return;
+    }
+    if (appointment.getAppointmentDate() == null) {
+      throw new IllegalArgumentException("Appointment date is required");
+    }
+    if (appointment.getEstimatedCompletion() == null) {
+      appointment.setEstimatedCompletion(
+          appointment.getAppointmentDate().plus(durationOf(appointment.getServiceType())));
+    }
+    LocalDate day = dayOf(appointment.getAppointmentDate());
+    int from = startSlot(day, appointment.getAppointmentDate());
+    int to = endSlot(day, appointment.getEstimatedCompletion());
+    if (from < 0 || to > slotsPerDay || from >= to) {
+      throw new IllegalArgumentException("Appointment must fall within opening hours");
+    }
+
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      throw new IllegalStateException("Reservations must run inside a transaction");
+    }
+    // Memory can miss cancellations made elsewhere, so only the re-read under the lock may refuse.
+    // Other instances book through the same advisory lock, so that re-read is final
+    appointmentRepository.lockBookingDay(BOOKING_LOCK_SPACE + day.toEpochDay());
+    DaySchedule current = load(day);
+    // A reactivated appointment's own, already flushed status must not count against it; it is
+    // booked again after commit
+    current.release(appointment.getId());
+    days.put(day, current);
+    if (current.peak(from, to) >= properties.getBays()) {
+      throw new SlotUnavailableException("No bay is free for the requested time");
+    }
+  }
+
+  /** Records a newly saved appointment once its transaction commits. */
+  public void booked(Appointment appointment) {
+    if (occupiesBay(appointment.getStatus())) {
+      afterCommit(() -> book(appointment));
+    }
+  }
+
+  /**
+   * Frees or re-takes the appointment's bay once a status change commits. Moving a cancelled or
+   * no-show appointment back to an active status claims its bay like a new booking, so it must
+   * run inside the status-change transaction.
+   *
+   * @throws SlotUnavailableException when the appointment's time is fully booked in the meantime
+   */
+  public void statusChanged(Appointment appointment, String previousStatus) {
+    boolean before = occupiesBay(previousStatus);
+    boolean after = occupiesBay(appointment.getStatus());
+    if (before && !after) {
+      afterCommit(() -> {
+        DaySchedule schedule = days.get(dayOf(appointment.getAppointmentDate()));
+        if (schedule != null) {
+          schedule.release(appointment.getId());
+        }
+      });
+    } else if (!before && after) {
+      reserve(appointment);
+      afterCommit(() -> book(appointment));
+    }
+  }
+
+  private void book(Appointment appointment) {
+    LocalDate day = dayOf(appointment.getAppointmentDate());
+    DaySchedule schedule = days.get(day);
+    if (schedule != null) {
+      schedule.book(appointment.getId(), appointment.getAppointmentDate(),
+          endOf(appointment.getAppointmentDate(), appointment.getEstimatedCompletion(),
+              appointment.getServiceType()));
+    }
+  }
+
+  private DaySchedule schedule(LocalDate day) {
+    DaySchedule schedule = days.get(day);
+    if (schedule != null && !schedule.isStale()) {
+      return schedule;
+    }
+    ReentrantLock lock = stripe(day);
+    lock.lock();
+    try {
+      schedule = days.get(day);
+      if (schedule == null || schedule.isStale()) {
+        schedule = load(day);
+        days.put(day, schedule);
+        evictOldDays();
+      }
+      return schedule;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private DaySchedule load(LocalDate day) {
+    List<BookedInterval> intervals = appointmentRepository.findBookedIntervals(
+        day.atStartOfDay(zone).toInstant(),
+        day.plusDays(1).atStartOfDay(zone).toInstant(),
+        RELEASED_STATUSES);
+    DaySchedule schedule = new DaySchedule(day, clock.millis());
+    for (BookedInterval interval : intervals) {
+      schedule.book(interval.getId(), interval.getStartsAt(),
+          endOf(interval.getStartsAt(), interval.getEndsAt(), interval.getServiceType()));
+    }
+    log.debug("Loaded {} bookings for {}", intervals.size(), day);
+    return schedule;
+  }
+
+  private void evictOldDays() {
+    LocalDate today = LocalDate.now(clock.withZone(zone));
+    days.keySet().removeIf(day -> day.isBefore(today));
+    if (days.size() > properties.getMaxCachedDays()) {
+      // Rarely hit; evicted days simply reload on next use
+      days.clear();
+    }
+  }
+
+  private ReentrantLock stripe(LocalDate day) {
+    return stripes[Math.floorMod(day.hashCode(), LOCK_STRIPES)];
+  }
+
+  private static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
+
+  private static boolean occupiesBay(String status) {
+    return status == null || !RELEASED_STATUSES.contains(status);
+  }
+
+  private Duration durationOf(String serviceType) {
+    Integer minutes = serviceType == null
+        ? null
+        : properties.getServiceDurations().get(
+            serviceType.trim().toUpperCase(Locale.ROOT).replace(' ', '_').replace('-', '_'));
+    return Duration.ofMinutes(minutes != null ? minutes : properties.getDefaultDurationMinutes());
+  }
+
+  private Instant endOf(Instant start, Instant estimatedCompletion, String serviceType) {
+    return estimatedCompletion != null && estimatedCompletion.isAfter(start)
+        ? estimatedCompletion
+        : start.plus(durationOf(serviceType));
+  }
+
+  private LocalDate dayOf(Instant instant) {
+    return instant.atZone(zone).toLocalDate();
+  }
+
+  private Instant opensAt(LocalDate day) {
+    return day.atTime(properties.getOpensAt()).atZone(zone).toInstant();
+  }
+
+  private int startSlot(LocalDate day, Instant start) {
+    return (int) Math.floorDiv(Duration.between(opensAt(day), start).getSeconds(), slotSeconds);
+  }
+
+  private int endSlot(LocalDate day, Instant end) {
+    return (int) -Math.floorDiv(-Duration.between(opensAt(day), end).getSeconds(), slotSeconds);
+  }
+
+  /** One day's occupancy; bookings outside opening hours are clipped to them. */
+  private final class DaySchedule {
+    private final LocalDate day;
+    private final long loadedAtMillis;
+    private final SlotOccupancy occupancy = new SlotOccupancy(slotsPerDay);
+    private final Map<Integer, int[]> slotsByAppointment = new HashMap<>();
+
+    DaySchedule(LocalDate day, long loadedAtMillis) {
+      this.day = day;
+      this.loadedAtMillis = loadedAtMillis;
+    }
+
+    boolean isStale() {
+      return clock.millis() - loadedAtMillis >= properties.getRefreshIntervalMs();
+    }
+
+    synchronized int peak(int from, int to) {
+      return occupancy.peak(from, to);
+    }
+
+    synchronized void book(Integer appointmentId, Instant start, Instant end) {
+      int from = Math.max(0, startSlot(day, start));
+      int to = Math.min(slotsPerDay, endSlot(day, end));
+      if (from < to && slotsByAppointment.putIfAbsent(appointmentId, new int[] {from, to}) == null) {
+        occupancy.add(from, to, 1);
+      }
+    }
+
+    synchronized void release(Integer appointmentId) {
+      if (appointmentId == null) {
+        return;
+      }
+      int[] range = slotsByAppointment.remove(appointmentId);
+      if (range != null) {
+        occupancy.add(range[0], range[1], -1);
+      }
+    }
+  }
+}
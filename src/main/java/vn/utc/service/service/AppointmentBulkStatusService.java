@@ -0,0 +1,168 @@
+package vn.utc.service.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import vn.utc.service.dtos.AppointmentStatusChange;
+import vn.utc.service.dtos.AppointmentStatusChangeResult;
+import vn.utc.service.dtos.AppointmentStatusChangeResult.Outcome;
+import vn.utc.service.dtos.StatusChangeBatch;
+import vn.utc.service.dtos.StatusChangeEvent;
+import vn.utc.service.entity.Appointment;
+import vn.utc.service.exception.SlotUnavailableException;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies many appointment status transitions in one round trip. A single
+ * {@code UPDATE ... FROM (VALUES ...)} moves every appointment still in its expected status, and
+ * the same statement reports what each requested id looked like beforehand, so conflicts and
+ * missing ids come back without extra queries.
+ */
+@Service
+@RequiredArgsConstructor
+public class AppointmentBulkStatusService {
+
+  private final JdbcTemplate jdbcTemplate;
+  private final AppointmentAvailabilityService availabilityService;
+  private final ApplicationEventPublisher eventPublisher;
+  private final OutboxService outboxService;
+
+  /** Before-image of one requested appointment, and whether the update moved it. */
+  record Row(
+      Integer id,
+      boolean found,
+      boolean updated,
+      String status,
+      Integer customerId,
+      Instant appointmentDate,
+      Instant estimatedCompletion,
+      String serviceType) {}
+
+  /**
+   * @return one result per change, in request order
+   * @throws IllegalArgumentException when an appointment appears more than once
+   * @throws SlotUnavailableException when a reactivated appointment no longer fits; the whole
+   *     batch is rolled back
+   */
+  @Transactional
+  public List<AppointmentStatusChangeResult> apply(List<AppointmentStatusChange> changes) {
+    if (changes.isEmpty()) {
+      return List.of();
+    }
+    Set<Integer> seen = new HashSet<>();
+    for (AppointmentStatusChange change : changes) {
+      if (!seen.add(change.appointmentId())) {
+        // Postgres would apply only one of several matching VALUES rows, and not say which
+        throw new IllegalArgumentException(
+            "Appointment " + change.appointmentId() + " appears more than once");
+      }
+    }
+
+    Instant now = Instant.now();
+    Map<Integer, Row> rows = new HashMap<>();
+    for (Row row : update(changes, now)) {
+      rows.put(row.id(), row);
+    }
+
+    List<AppointmentStatusChangeResult> results = new ArrayList<>(changes.size());
+    List<StatusChangeEvent> events = new ArrayList<>();
+    List<Appointment> moved = new ArrayList<>();
+    Map<Integer, String> previousStatuses = new HashMap<>();
+    for (AppointmentStatusChange change : changes) {
+      Row row = rows.get(change.appointmentId());
+      String newStatus = AppointmentService.normalizeStatus(change.newStatus());
+      if (row == null || !row.found()) {
+        results.add(new AppointmentStatusChangeResult(
+            change.appointmentId(), Outcome.NOT_FOUND, null));
+      } else if (!row.updated()) {
+        results.add(new AppointmentStatusChangeResult(
+            change.appointmentId(), Outcome.CONFLICT, row.status()));
+      } else {
+        results.add(new AppointmentStatusChangeResult(
+            change.appointmentId(), Outcome.UPDATED, newStatus));
+        moved.add(toAppointment(row, newStatus));
+        previousStatuses.put(row.id(), row.status());
+        events.add(new StatusChangeEvent(
+            StatusChangeEvent.APPOINTMENT, row.id(), row.id(), row.customerId(), newStatus, now));
+      }
+    }
+    // Reactivations lock their booking day; taking days in one order keeps two batches touching
+    // the same days in opposite order from waiting on each other
+    moved.sort(Comparator.comparing(
+        Appointment::getAppointmentDate, Comparator.nullsLast(Comparator.naturalOrder())));
+    for (Appointment appointment : moved) {
+      availabilityService.statusChanged(appointment, previousStatuses.get(appointment.getId()));
+    }
+    if (!events.isEmpty()) {
+      // Delivered to status stream subscribers as one batch after commit
+      eventPublisher.publishEvent(new StatusChangeBatch(events));
+      outboxService.appendStatusChanges(events);
+    }
+    return results;
+  }
+
+  private List<Row> update(List<AppointmentStatusChange> changes, Instant now) {
+    // The outer SELECT reads the snapshot taken before the UPDATE, i.e. the before-image
+    StringBuilder sql = new StringBuilder("WITH v(id, expected, next) AS (VALUES ");
+    Object[] params = new Object[changes.size() * 3 + 1];
+    for (int i = 0; i < changes.size(); i++) {
+      AppointmentStatusChange change = changes.get(i);
+      sql.append(i == 0 ? "" : ", ")
+          .append("(CAST(? AS integer), CAST(? AS varchar), CAST(? AS varchar))");
+      params[i * 3] = change.appointmentId();
+      params[i * 3 + 1] = AppointmentService.normalizeStatus(change.expectedStatus());
+      params[i * 3 + 2] = AppointmentService.normalizeStatus(change.newStatus());
+    }
+    params[params.length - 1] = OffsetDateTime.ofInstant(now, ZoneOffset.UTC);
+    sql.append("), u AS (UPDATE appointments a SET status = v.next,")
+        .append(" updated_at = CAST(? AS timestamptz) FROM v")
+        .append(" WHERE a.appointment_id = v.id AND a.status = v.expected")
+        .append(" RETURNING a.appointment_id)")
+        .append(" SELECT v.id, a.appointment_id IS NOT NULL AS found,")
+        .append(" u.appointment_id IS NOT NULL AS updated, a.status, a.customer_id,")
+        .append(" a.appointment_date, a.estimated_completion, a.service_type")
+        .append(" FROM v LEFT JOIN appointments a ON a.appointment_id = v.id")
+        .append(" LEFT JOIN u ON u.appointment_id = v.id");
+    return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> toRow(rs), params);
+  }
+
+  private static Row toRow(ResultSet rs) throws SQLException {
+    return new Row(
+        rs.getInt("id"),
+        rs.getBoolean("found"),
+        rs.getBoolean("updated"),
+        rs.getString("status"),
+        (Integer) rs.getObject("customer_id"),
+        toInstant(rs.getObject("appointment_date", OffsetDateTime.class)),
+        toInstant(rs.getObject("estimated_completion", OffsetDateTime.class)),
+        rs.getString("service_type"));
+  }
+
+  private static Instant toInstant(OffsetDateTime value) {
+    return value == null ? null : value.toInstant();
+  }
+
+  /** Just enough of the appointment for the availability cache to move its bay. */
+  private static Appointment toAppointment(Row row, String status) {
+    return new Appointment()
+        .setId(row.id())
+        .setStatus(status)
+        .setAppointmentDate(row.appointmentDate())
+        .setEstimatedCompletion(row.estimatedCompletion())
+        .setServiceType(row.serviceType());
+  }
+}
@@ -1,26 +1,35 @@
 package vn.utc.service.service;
 
 import lombok.RequiredArgsConstructor;
-import org.hibernate.Hibernate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import vn.utc.service.dtos.AppointmentDto;
 import vn.utc.service.dtos.CustomerDto;
+import vn.utc.service.dtos.PaginatedResponseDto;
+import vn.utc.service.dtos.StatusChangeEvent;
 import vn.utc.service.entity.Appointment;
 import vn.utc.service.entity.WorkOrder;
 import vn.utc.service.mapper.AppointmentMapper;
 import vn.utc.service.mapper.CustomerMapper;
 import vn.utc.service.repo.AppointmentRepository;
+import vn.utc.service.repo.AppointmentSpecifications;
 import vn.utc.service.repo.WorkOrderRepository;
 
 import java.time.*;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -29,16 +38,19 @@ public class AppointmentService {
     private final WorkOrderRepository workOrderRepository;
     private final AppointmentMapper appointmentMapper;
     private final CustomerMapper customerMapper;
+    private final KeysetPager keysetPager;
+    private final AppointmentAvailabilityService availabilityService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OutboxService outboxService;
+
+    @Value("${app.garage.time-zone:Asia/Ho_Chi_Minh}")
+    private String garageTimeZone = "Asia/Ho_Chi_Minh";
 
     @Transactional(readOnly = true)
     public Optional<AppointmentDto> findById(Integer id) {
         return appointmentRepository.findById(id)
-                .map(appointment -> {
-                    // Initialize vehicle to ensure it's loaded
-                    Hibernate.initialize(appointment.getVehicle());
-                    return appointmentMapper.toDto(appointment);
-                })
-                .map(this::enrichWithWorkOrder);
+                .map(appointment -> appointmentMapper.toDto(appointment,
+                        workOrderRepository.findByAppointmentId(appointment.getId()).orElse(null)));
     }
 
     @Transactional
@@ -46,10 +58,9 @@ public class AppointmentService {
         Appointment appointment = appointmentMapper.toEntity(appointmentDto);
         appointment.setCustomer(customerMapper.toEntity(customerDto));
         
-        // Set default status if not provided
-        if (appointment.getStatus() == null) {
-            appointment.setStatus("PENDING");
-        }
+        // Set default status if not provided; stored statuses are canonical upper case
+        String status = normalizeStatus(appointment.getStatus());
+        appointment.setStatus(status != null ? status : "PENDING");
         
         // Set timestamps
         Instant now = Instant.now();
@@ -60,129 +71,136 @@ public class AppointmentService {
             appointment.setUpdatedAt(now);
         }
         
+        // Claims a bay for the requested time or throws SlotUnavailableException
+        availabilityService.reserve(appointment);
         Appointment savedAppointment = appointmentRepository.save(appointment);
-        return enrichWithWorkOrder(appointmentMapper.toDto(savedAppointment));
+        availabilityService.booked(savedAppointment);
+        // A new appointment has no work order yet
+        return appointmentMapper.toDto(savedAppointment, null);
     }
     
     @Transactional(readOnly = true)
     public List<AppointmentDto> getAllAppointments(Integer customerId) {
-        return appointmentRepository.findAll().stream()
-                .filter(appointment -> appointment.getCustomer() != null && appointment.getCustomer().getId().equals(customerId))
-                .map(appointment -> {
-                    // Initialize vehicle to ensure it's loaded
-                    Hibernate.initialize(appointment.getVehicle());
-                    return appointmentMapper.toDto(appointment);
-                })
-                .map(this::enrichWithWorkOrder)
+        return appointmentRepository.findAllWithDetailsByCustomerId(customerId).stream()
+                .map(this::toDtoWithWorkOrder)
                 .toList();
     }
     
     @Transactional(readOnly = true)
     public Page<AppointmentDto> getAllAppointments(Integer customerId, Pageable pageable) {
-        List<Appointment> allAppointments = appointmentRepository.findAll();
-        List<Appointment> customerAppointments = allAppointments.stream()
-                .filter(appointment -> appointment.getCustomer() != null && appointment.getCustomer().getId().equals(customerId))
-                .toList();
-        
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), customerAppointments.size());
-        
-        if (start > customerAppointments.size()) {
-            return new PageImpl<>(List.of(), pageable, customerAppointments.size());
+        Page<Appointment> appointmentPage = appointmentRepository.findPageWithVehicleByCustomerId(customerId, pageable);
+        if (appointmentPage.hasContent()) {
+            // Initializes workOrders on the page's entities in the same persistence context
+            appointmentRepository.fetchWorkOrders(appointmentPage.getContent());
         }
-        
-        List<AppointmentDto> appointmentDtos = customerAppointments.subList(start, end).stream()
-                .map(appointment -> {
-                    // Initialize vehicle to ensure it's loaded
-                    Hibernate.initialize(appointment.getVehicle());
-                    return appointmentMapper.toDto(appointment);
-                })
-                .map(this::enrichWithWorkOrder)
-                .toList();
-        
-        return new PageImpl<>(appointmentDtos, pageable, customerAppointments.size());
+        return appointmentPage.map(this::toDtoWithWorkOrder);
     }
     
     @Transactional(readOnly = true)
     public List<AppointmentDto> getAllAppointments() {
-        return appointmentRepository.findAll().stream()
-                .map(appointment -> {
-                    // Initialize vehicle to ensure it's loaded
-                    Hibernate.initialize(appointment.getVehicle());
-                    return appointmentMapper.toDto(appointment);
-                })
-                .map(this::enrichWithWorkOrder)
+        List<Appointment> appointments = appointmentRepository.findAllWithVehicle();
+        Map<Integer, WorkOrder> workOrders = workOrdersByAppointmentId(appointments);
+        return appointments.stream()
+                .map(appointment -> appointmentMapper.toDto(appointment, workOrders.get(appointment.getId())))
                 .toList();
     }
     
     @Transactional(readOnly = true)
     public Page<AppointmentDto> getAllAppointments(Pageable pageable) {
-        return appointmentRepository.findAll(pageable)
-                .map(appointment -> {
-                    // Initialize vehicle to ensure it's loaded
-                    Hibernate.initialize(appointment.getVehicle());
-                    return appointmentMapper.toDto(appointment);
-                })
-                .map(this::enrichWithWorkOrder);
+        return toDtoPage(appointmentRepository.findAllWithVehicle(pageable));
     }
 
     @Transactional(readOnly = true)
     public Page<AppointmentDto> getAllAppointments(Integer customerId, Pageable pageable, String status, String from, String to, String date) {
-        // Convert String parameters to Instant
-        Instant fromInstant = parseDateString(from);
-        Instant toInstant = parseDateString(to);
-
+        // Whole garage-local days as a half-open [from, to) instant range
+        LocalDate fromDate = parseGarageDate(from);
+        LocalDate toDate = parseGarageDate(to);
+        String normalizedStatus = normalizeStatus(status);
         
-        boolean hasStatus = status != null && !status.trim().isEmpty();
-        boolean hasDateRange = fromInstant != null && toInstant != null;
+        boolean hasStatus = normalizedStatus != null;
+        boolean hasDateRange = fromDate != null && toDate != null;
+        Instant fromInstant = hasDateRange ? startOfDay(fromDate) : null;
+        Instant toInstant = hasDateRange ? startOfDay(toDate.plusDays(1)) : null;
         
         Page<Appointment> appointmentPage;
         
         if (hasStatus && hasDateRange) {
-            appointmentPage = appointmentRepository.findByCustomerIdAndStatusAndDateRange(customerId, status, fromInstant, toInstant, pageable);
+            appointmentPage = appointmentRepository.findByCustomerIdAndStatusAndDateRange(customerId, normalizedStatus, fromInstant, toInstant, pageable);
         } else if (hasStatus) {
-            appointmentPage = appointmentRepository.findByCustomerIdAndStatus(customerId, status, pageable);
+            appointmentPage = appointmentRepository.findByCustomerIdAndStatus(customerId, normalizedStatus, pageable);
         } else if (hasDateRange) {
             appointmentPage = appointmentRepository.findByCustomerIdAndDateRange(customerId, fromInstant, toInstant, pageable);
         } else {
             appointmentPage = appointmentRepository.findByCustomerId(customerId, pageable);
         }
         
-        return appointmentPage.map(appointment -> {
-            // Initialize vehicle to ensure it's loaded
-            Hibernate.initialize(appointment.getVehicle());
-            return appointmentMapper.toDto(appointment);
-        }).map(this::enrichWithWorkOrder);
+        return toDtoPage(appointmentPage);
     }
     
     @Transactional(readOnly = true)
     public Page<AppointmentDto> getAllAppointments(Pageable pageable, String status, String from, String to, String date) {
-        // Convert String parameters to Instant
-        Instant fromInstant = parseDateString(from);
-        Instant toInstant = parseDateString(to);
-
-
+        // Whole garage-local days as a half-open [from, to) instant range
+        LocalDate fromDate = parseGarageDate(from);
+        LocalDate toDate = parseGarageDate(to);
+        String normalizedStatus = normalizeStatus(status);
         
-        boolean hasStatus = status != null && !status.trim().isEmpty();
-        boolean hasDateRange = fromInstant != null && toInstant != null;
+        boolean hasStatus = normalizedStatus != null;
+        boolean hasDateRange = fromDate != null && toDate != null;
+        Instant fromInstant = hasDateRange ? startOfDay(fromDate) : null;
+        Instant toInstant = hasDateRange ? startOfDay(toDate.plusDays(1)) : null;
         
         Page<Appointment> appointmentPage;
         
         if (hasStatus && hasDateRange) {
-            appointmentPage = appointmentRepository.findByStatusAndDateRange(status, fromInstant, toInstant, pageable);
+            appointmentPage = appointmentRepository.findByStatusAndDateRange(normalizedStatus, fromInstant, toInstant, pageable);
         } else if (hasStatus) {
-            appointmentPage = appointmentRepository.findByStatus(status, pageable);
+            appointmentPage = appointmentRepository.findByStatus(normalizedStatus, pageable);
         } else if (hasDateRange) {
             appointmentPage = appointmentRepository.findByDateRange(fromInstant, toInstant, pageable);
         } else {
-            appointmentPage = appointmentRepository.findAll(pageable);
+            appointmentPage = appointmentRepository.findAllWithVehicle(pageable);
         }
         
-        return appointmentPage.map(appointment -> {
-            // Initialize vehicle to ensure it's loaded
-            Hibernate.initialize(appointment.getVehicle());
-            return appointmentMapper.toDto(appointment);
-        }).map(this::enrichWithWorkOrder);
+        return toDtoPage(appointmentPage);
+    }
+    
+    /**
+     * Keyset variant of {@link #getAllAppointments(Pageable, String, String, String, String)}
+     */
+    @Transactional(readOnly = true)
+    public PaginatedResponseDto<AppointmentDto> getAppointmentsAfter(String after, String sortBy, String sortDir, int size,
+                                                                    String status, String from, String to) {
+        return getAppointmentsAfter(null, after, sortBy, sortDir, size, status, from, to);
+    }
+    
+    /**
+     * Keyset listing of one customer's appointments; also continues from the dashboard's cursor
+     */
+    @Transactional(readOnly = true)
+    public PaginatedResponseDto<AppointmentDto> getAppointmentsAfter(Integer customerId, String after, String sortBy,
+                                                                    String sortDir, int size,
+                                                                    String status, String from, String to) {
+        KeysetPager.KeysetRequest request = keysetPager.request(Appointment.class, after, sortBy, sortDir, size);
+        LocalDate fromDate = parseGarageDate(from);
+        LocalDate toDate = parseGarageDate(to);
+        boolean hasDateRange = fromDate != null && toDate != null;
+        Specification<Appointment> filter = Specification
+                .where(AppointmentSpecifications.forCustomer(customerId))
+                .and(AppointmentSpecifications.hasStatus(normalizeStatus(status)))
+                .and(hasDateRange
+                        ? AppointmentSpecifications.inRange(startOfDay(fromDate), startOfDay(toDate.plusDays(1)))
+                        : null);
+        
+        Window<Appointment> window = appointmentRepository.findBy(filter, query -> query
+                .project("vehicle")
+                .sortBy(request.sort())
+                .limit(request.size())
+                .scroll(request.position()));
+        Map<Integer, WorkOrder> workOrders = workOrdersByAppointmentId(window.getContent());
+        List<AppointmentDto> content = window.getContent().stream()
+                .map(appointment -> appointmentMapper.toDto(appointment, workOrders.get(appointment.getId())))
+                .toList();
+        return keysetPager.toResponse(request, window, content);
     }
     
     /**
@@ -205,69 +223,87 @@ public class AppointmentService {
     public AppointmentDto updateAppointmentStatus(Integer appointmentId, String status) {
         Appointment appointment = appointmentRepository.findById(appointmentId)
                 .orElseThrow(() -> new RuntimeException("Appointment not found with id: " + appointmentId));
-        appointment.setStatus(status);
+        String previousStatus = appointment.getStatus();
+        appointment.setStatus(normalizeStatus(status));
         appointment.setUpdatedAt(Instant.now());
         Appointment savedAppointment = appointmentRepository.save(appointment);
-        return enrichWithWorkOrder(appointmentMapper.toDto(savedAppointment));
+        availabilityService.statusChanged(savedAppointment, previousStatus);
+        // Delivered to status stream subscribers after commit, and relayed from the outbox
+        StatusChangeEvent event = new StatusChangeEvent(
+                StatusChangeEvent.APPOINTMENT,
+                savedAppointment.getId(),
+                savedAppointment.getId(),
+                savedAppointment.getCustomer() != null ? savedAppointment.getCustomer().getId() : null,
+                savedAppointment.getStatus(),
+                savedAppointment.getUpdatedAt());
+        eventPublisher.publishEvent(event);
+        outboxService.appendStatusChange(event);
+        return appointmentMapper.toDto(savedAppointment,
+                workOrderRepository.findByAppointmentId(appointmentId).orElse(null));
     }
     
     /**
-     * Enrich appointment DTO with work order information
+     * Map an appointment whose vehicle and work orders were fetched with it
      */
-    private AppointmentDto enrichWithWorkOrder(AppointmentDto appointmentDto) {
-        Optional<WorkOrder> workOrderOpt = workOrderRepository.findByAppointmentId(appointmentDto.appointmentId());
-        
-        AppointmentDto.WorkOrderSummaryDto workOrderSummary = null;
-        if (workOrderOpt.isPresent()) {
-            WorkOrder workOrder = workOrderOpt.get();
-            workOrderSummary = new AppointmentDto.WorkOrderSummaryDto(
-                workOrder.getId(),
-                workOrder.getStatus(),
-                workOrder.getStartTime(),
-                workOrder.getEndTime()
-            );
+    private AppointmentDto toDtoWithWorkOrder(Appointment appointment) {
+        WorkOrder workOrder = appointment.getWorkOrders().stream().findFirst().orElse(null);
+        return appointmentMapper.toDto(appointment, workOrder);
+    }
+    
+    /**
+     * Map a page whose vehicles were fetched with it, loading the page's work orders in one query
+     */
+    private Page<AppointmentDto> toDtoPage(Page<Appointment> appointmentPage) {
+        Map<Integer, WorkOrder> workOrders = workOrdersByAppointmentId(appointmentPage.getContent());
+        return appointmentPage.map(appointment ->
+                appointmentMapper.toDto(appointment, workOrders.get(appointment.getId())));
+    }
+    
+    private Map<Integer, WorkOrder> workOrdersByAppointmentId(List<Appointment> appointments) {
+        if (appointments.isEmpty()) {
+            return Map.of();
         }
-        
-        return new AppointmentDto(
-            appointmentDto.appointmentId(),
-            appointmentDto.appointmentDate(),
-            appointmentDto.estimatedCompletion(),
-            appointmentDto.status(),
-            appointmentDto.serviceType(),
-            appointmentDto.description(),
-            appointmentDto.vehicle(),
-            appointmentDto.createdAt(),
-            appointmentDto.updatedAt(),
-            appointmentDto.customerId(),
-            appointmentDto.customerRegister(),
-            workOrderSummary
-        );
+        List<Integer> appointmentIds = appointments.stream().map(Appointment::getId).toList();
+        return workOrderRepository.findByAppointmentIdIn(appointmentIds).stream()
+                .collect(Collectors.toMap(
+                        workOrder -> workOrder.getAppointment().getId(),
+                        Function.identity(),
+                        (first, second) -> first));
+    }
+
+    static String normalizeStatus(String status) {
+        if (status == null || status.isBlank()) {
+            return null;
+        }
+        return status.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private Instant startOfDay(LocalDate date) {
+        return date.atStartOfDay(ZoneId.of(garageTimeZone)).toInstant();
     }
 
     /**
-     * Parse a date string to Instant. Supports multiple formats:
+     * Parse a date string to the garage-local date it falls on. Supports multiple formats:
      * - ISO-8601 format (2023-12-25T10:30:00Z)
+     * - Date time format (2023-12-25T10:30:00), taken as garage-local
      * - Date only format (2023-12-25)
-     * - Date time format (2023-12-25T10:30:00)
      */
-    private Instant parseDateString(String dateString) {
+    private LocalDate parseGarageDate(String dateString) {
         if (dateString == null || dateString.trim().isEmpty()) {
             return null;
         }
         
         try {
             // Try parsing as ISO-8601 Instant
-            return Instant.parse(dateString);
+            return Instant.parse(dateString).atZone(ZoneId.of(garageTimeZone)).toLocalDate();
         } catch (DateTimeParseException e1) {
             try {
                 // Try parsing as LocalDateTime
-                LocalDateTime localDateTime = LocalDateTime.parse(dateString, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
-                return localDateTime.atZone(ZoneOffset.UTC).toInstant();
+                return LocalDateTime.parse(dateString, DateTimeFormatter.ISO_LOCAL_DATE_TIME).toLocalDate();
             } catch (DateTimeParseException e2) {
                 try {
-                    // Try parsing as LocalDate (assume start of day)
-                    LocalDate localDate = LocalDate.parse(dateString, DateTimeFormatter.ISO_LOCAL_DATE);
-                    return localDate.atStartOfDay(ZoneOffset.UTC).toInstant();
+                    // Try parsing as LocalDate
+                    return LocalDate.parse(dateString, DateTimeFormatter.ISO_LOCAL_DATE);
                 } catch (DateTimeParseException e3) {
                     // If all parsing fails, return null
                     return null;
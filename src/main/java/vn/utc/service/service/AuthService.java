@@ -1,7 +1,6 @@
 package vn.utc.service.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import vn.utc.service.config.ContsConfig;
@@ -16,7 +15,7 @@ import java.util.Set;
 public class AuthService {
     private final UserService userService;
     private final RoleService roleService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final CustomerService customerService;
 
     @Transactional
@@ -49,7 +48,7 @@ public class AuthService {
                 new UserDto()
                         .setUsername(signUpRequest.username())
                         .setEmail(signUpRequest.email())
-                        .setPassword(passwordEncoder.encode(signUpRequest.password()))
+                        .setPassword(passwordHashingService.encode(signUpRequest.password()))
                         .setPhone(signUpRequest.phone())
                         .setRole(String.valueOf(roles.iterator().next().name()))
                         .setActive(true)
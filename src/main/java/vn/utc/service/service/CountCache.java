@@ -0,0 +1,66 @@
+package vn.utc.service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import vn.utc.service.entity.listener.CountCacheInvalidationListener;
+import vn.utc.service.entity.listener.CountInvalidator;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Short-lived cache of list COUNT results for {@code countMode=approx}, keyed by entity and filter
+ * signature. Entries expire after {@code app.pagination.count-cache-ttl-ms} and are dropped as soon
+ * as an entity of that type changes (see {@link CountCacheInvalidationListener}).
+ */
+@Component
+public class CountCache implements CountInvalidator {
+
+  private final long ttlNanos;
+  private final int maxEntriesPerEntity;
+  private final Map<Class<?>, Map<String, Entry>> counts = new ConcurrentHashMap<>();
+  private final Counter hits;
+  private final Counter misses;
+
+  public CountCache(
+      @Value("${app.pagination.count-cache-ttl-ms:30000}") long ttlMs,
+      @Value("${app.pagination.count-cache-max-entries:1000}") int maxEntriesPerEntity,
+      MeterRegistry meterRegistry) {
+    this.ttlNanos = ttlMs * 1_000_000L;
+    this.maxEntriesPerEntity = maxEntriesPerEntity;
+    this.hits =
+        Counter.builder("pagination.count.cache.requests").tag("result", "hit").register(meterRegistry);
+    this.misses =
+        Counter.builder("pagination.count.cache.requests").tag("result", "miss").register(meterRegistry);
+  }
+
+  public long get(Class<?> entity, String signature, LongSupplier count) {
+    Map<String, Entry> entityCounts = counts.computeIfAbsent(entity, e -> new ConcurrentHashMap<>());
+    long now = System.nanoTime();
+    Entry entry = entityCounts.get(signature);
+    if (entry != null && now - entry.cachedAt() < ttlNanos) {
+      hits.increment();
+      return entry.count();
+    }
+    misses.increment();
+    long value = count.getAsLong();
+    if (entityCounts.size() >= maxEntriesPerEntity) {
+      entityCounts.clear();
+    }
+    entityCounts.put(signature, new Entry(value, now));
+    return value;
+  }
+
+  @Override
+  public void invalidate(Class<?> entity) {
+    Map<String, Entry> entityCounts = counts.get(entity);
+    if (entityCounts != null) {
+      entityCounts.clear();
+    }
+  }
+
+  private record Entry(long count, long cachedAt) {}
+}
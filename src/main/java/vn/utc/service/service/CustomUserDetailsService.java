@@ -3,21 +3,22 @@ package vn.utc.service.service;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import vn.utc.service.dtos.UserDto;
 import vn.utc.service.dtos.UserPrincipal;
 import vn.utc.service.mapper.UserMapper;
-import java.time.Instant;
 
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
   private final UserService userService;
   private final UserMapper userMapper;
 
+  // Read-only: last login is recorded by the login endpoint, not on every authentication
   @Override
   @Transactional
   public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -30,14 +31,28 @@ public class CustomUserDetailsService implements UserDetailsService {
                     new UsernameNotFoundException(
                         "User not found with username or email: " + username));
 
-    // Update last login time
-    userDto.setLastLogin(Instant.now());
-    userService.save(userDto);
-
     // Create UserPrincipal from the user
     return UserPrincipal.create(userMapper.toEntity(userDto));
   }
 
+  // Called after a successful login when the stored hash is below the configured BCrypt strength
+  @Override
+  public UserDetails updatePassword(UserDetails user, String newPassword) {
+    userService.updatePassword(user.getUsername(), newPassword);
+    if (user instanceof UserPrincipal principal) {
+      return new UserPrincipal(
+          principal.getId(),
+          principal.getUsername(),
+          newPassword,
+          principal.getFirstName(),
+          principal.getLastName(),
+          principal.getEmail(),
+          principal.isEnabled(),
+          principal.getAuthorities());
+    }
+    return user;
+  }
+
   // This method is used by JwtAuthenticationFilter
   @Transactional
   public UserDetails loadUserById(Long id) {
@@ -0,0 +1,139 @@
+package vn.utc.service.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import vn.utc.service.dtos.AppointmentDto;
+import vn.utc.service.dtos.CustomerDashboardDto;
+import vn.utc.service.dtos.DashboardAppointmentView;
+import vn.utc.service.dtos.JwtClaims;
+import vn.utc.service.dtos.PageCursor;
+import vn.utc.service.dtos.VehicleDto;
+import vn.utc.service.repo.AppointmentRepository;
+import vn.utc.service.repo.CustomerRepository;
+import vn.utc.service.repo.VehicleRepository;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Builds the customer dashboard from two independent projection queries, appointments with their
+ * work-order summary and vehicles, run side by side on the shared task pool. Both lists are capped
+ * so the cost does not grow with a customer's history.
+ */
+@Service
+public class CustomerDashboardService {
+
+  private final AppointmentRepository appointmentRepository;
+  private final VehicleRepository vehicleRepository;
+  private final CustomerRepository customerRepository;
+  private final ThreadPoolTaskExecutor executor;
+  private final int appointmentLimit;
+  private final int vehicleLimit;
+
+  public CustomerDashboardService(
+      AppointmentRepository appointmentRepository,
+      VehicleRepository vehicleRepository,
+      CustomerRepository customerRepository,
+      ThreadPoolTaskExecutor executor,
+      @Value("${app.dashboard.appointment-limit:20}") int appointmentLimit,
+      @Value("${app.dashboard.vehicle-limit:20}") int vehicleLimit) {
+    this.appointmentRepository = appointmentRepository;
+    this.vehicleRepository = vehicleRepository;
+    this.customerRepository = customerRepository;
+    this.executor = executor;
+    this.appointmentLimit = Math.max(1, appointmentLimit);
+    this.vehicleLimit = Math.max(1, vehicleLimit);
+  }
+
+  /**
+   * Customer id for the caller: taken from the token when present, otherwise looked up by user id
+   * (tokens minted by refresh do not carry it). Null when the user is not a customer.
+   */
+  public Integer resolveCustomerId(JwtClaims claims) {
+    if (claims.customerId() != null) {
+      return claims.customerId();
+    }
+    return claims.userId() == null
+        ? null
+        : customerRepository.findIdByUserId(claims.userId()).orElse(null);
+  }
+
+  public CustomerDashboardDto getDashboard(Integer customerId) {
+    // One extra row tells whether there is more to load
+    CompletableFuture<List<DashboardAppointmentView>> appointments =
+        CompletableFuture.supplyAsync(
+            () ->
+                appointmentRepository.findDashboardAppointments(
+                    customerId, PageRequest.of(0, appointmentLimit + 1)),
+            executor);
+    CompletableFuture<List<VehicleDto>> vehicles =
+        CompletableFuture.supplyAsync(
+            () ->
+                vehicleRepository.findDtosByCustomerId(
+                    customerId, PageRequest.of(0, vehicleLimit + 1)),
+            executor);
+
+    List<DashboardAppointmentView> appointmentRows = appointments.join();
+    List<VehicleDto> vehicleRows = vehicles.join();
+
+    boolean moreAppointments = appointmentRows.size() > appointmentLimit;
+    List<DashboardAppointmentView> shown =
+        moreAppointments ? appointmentRows.subList(0, appointmentLimit) : appointmentRows;
+    return new CustomerDashboardDto(
+        shown.stream().map(CustomerDashboardService::toDto).toList(),
+        vehicleRows.size() > vehicleLimit ? vehicleRows.subList(0, vehicleLimit) : vehicleRows,
+        moreAppointments ? cursorAfter(shown.get(shown.size() - 1)) : null,
+        vehicleRows.size() > vehicleLimit);
+  }
+
+  /** Same cursor the keyset appointment listing emits for appointmentDate DESC. */
+  private static String cursorAfter(DashboardAppointmentView last) {
+    Map<String, String> keys = new LinkedHashMap<>();
+    keys.put("appointmentDate", last.getAppointmentDate().toString());
+    keys.put("id", last.getAppointmentId().toString());
+    return new PageCursor("appointmentDate", Sort.Direction.DESC, keys).encode();
+  }
+
+  private static AppointmentDto toDto(DashboardAppointmentView row) {
+    VehicleDto vehicle =
+        row.getVehicleId() == null
+            ? null
+            : new VehicleDto(
+                row.getVehicleId(),
+                row.getVehicleMake(),
+                row.getVehicleModel(),
+                row.getVehicleYear(),
+                row.getVehicleLicensePlate(),
+                null,
+                null,
+                null,
+                null,
+                null);
+    AppointmentDto.WorkOrderSummaryDto workOrder =
+        row.getWorkOrderId() == null
+            ? null
+            : new AppointmentDto.WorkOrderSummaryDto(
+                row.getWorkOrderId(),
+                row.getWorkOrderStatus(),
+                row.getWorkOrderStartTime(),
+                row.getWorkOrderEndTime());
+    return new AppointmentDto(
+        row.getAppointmentId(),
+        row.getAppointmentDate(),
+        row.getEstimatedCompletion(),
+        row.getStatus(),
+        row.getServiceType(),
+        row.getDescription(),
+        vehicle,
+        row.getCreatedAt(),
+        row.getUpdatedAt(),
+        null,
+        null,
+        workOrder);
+  }
+}
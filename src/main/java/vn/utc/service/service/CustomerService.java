@@ -3,9 +3,13 @@ package vn.utc.service.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import vn.utc.service.dtos.CountMode;
 import vn.utc.service.dtos.CustomerDto;
 import vn.utc.service.dtos.CustomerRegister;
+import vn.utc.service.dtos.PaginatedResponseDto;
 import vn.utc.service.dtos.UserDto;
 import vn.utc.service.entity.Customer;
 import vn.utc.service.entity.User;
@@ -13,6 +17,7 @@ import vn.utc.service.exception.CustomerNotFoundException;
 import vn.utc.service.mapper.CustomerMapper;
 import vn.utc.service.mapper.UserMapper;
 import vn.utc.service.repo.CustomerRepository;
+import vn.utc.service.repo.CustomerSpecifications;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -25,6 +30,8 @@ public class CustomerService {
   private final CustomerMapper customerMapper;
   private final UserService userService;
   private final UserMapper userMapper;
+  private final KeysetPager keysetPager;
+  private final CountCache countCache;
 
   public Optional<CustomerDto> findByCustomerId(int id) {
     UserDto userDtoOpt =
@@ -80,6 +87,55 @@ public class CustomerService {
     return customerRepository.findAll(pageable).map(customerMapper::toDto);
   }
 
+  /** Lists customers, obtaining the total the way {@code countMode} asks for. */
+  @Transactional(readOnly = true)
+  public PaginatedResponseDto<CustomerDto> findCustomers(
+      Pageable pageable, String search, String status, CountMode countMode) {
+    if (countMode == CountMode.EXACT) {
+      Page<CustomerDto> page = findAllCustomers(pageable, search, status);
+      return PaginatedResponseDto.of(
+          page.getContent(), page.getNumber(), page.getSize(), page.getTotalElements());
+    }
+    boolean filtered =
+        search != null && !search.trim().isEmpty() || status != null && !status.trim().isEmpty();
+    Slice<CustomerDto> slice =
+        (filtered
+                ? customerRepository.findSliceBySearchAndStatus(search, status, pageable)
+                : customerRepository.findAllBy(pageable))
+            .map(customerMapper::toDto);
+    if (countMode == CountMode.NONE) {
+      return PaginatedResponseDto.ofSlice(slice);
+    }
+    long total =
+        countCache.get(
+            Customer.class,
+            filtered ? "search=" + search + "|status=" + status : "*",
+            () ->
+                filtered
+                    ? customerRepository.countBySearchAndStatus(search, status)
+                    : customerRepository.count());
+    return PaginatedResponseDto.ofSlice(slice, total);
+  }
+
+  /** Keyset variant of {@link #findAllCustomers(Pageable, String, String)}. */
+  @Transactional(readOnly = true)
+  public PaginatedResponseDto<CustomerDto> findCustomersAfter(
+      String after, String sortBy, String sortDir, int size, String search, String status) {
+    KeysetPager.KeysetRequest request =
+        keysetPager.request(Customer.class, after, sortBy, sortDir, size);
+    Window<Customer> window =
+        customerRepository.findBy(
+            CustomerSpecifications.matches(search, status),
+            query ->
+                query
+                    .project("user")
+                    .sortBy(request.sort())
+                    .limit(request.size())
+                    .scroll(request.position()));
+    return keysetPager.toResponse(
+        request, window, window.getContent().stream().map(customerMapper::toDto).toList());
+  }
+
   /**
    * Save multiple customers for data initialization purposes
    *
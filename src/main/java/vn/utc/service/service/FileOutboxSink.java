@@ -0,0 +1,49 @@
+package vn.utc.service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import vn.utc.service.dtos.OutboxMessage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends every relayed event to a file as one JSON line; for local testing, enabled by setting
+ * {@code app.outbox.sinks.file} to the file's path.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.outbox.sinks", name = "file")
+public class FileOutboxSink implements OutboxSink {
+
+  private final Path file;
+  private final ObjectMapper objectMapper;
+
+  public FileOutboxSink(@Value("${app.outbox.sinks.file}") String file, ObjectMapper objectMapper) {
+    this.file = Path.of(file);
+    this.objectMapper = objectMapper;
+  }
+
+  @Override
+  public synchronized void deliver(List<OutboxMessage> batch) {
+    StringBuilder lines = new StringBuilder();
+    try {
+      for (OutboxMessage message : batch) {
+        lines.append(objectMapper.writeValueAsString(message)).append('\n');
+      }
+      Files.writeString(file, lines, StandardCharsets.UTF_8,
+          StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException("Cannot serialize outbox event", ex);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+}
@@ -0,0 +1,138 @@
+package vn.utc.service.service;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Open-addressing {@code int -> V} map with linear probing, so lookups by staff, work-order or
+ * user id neither box keys nor allocate entries. Not thread-safe; callers hold their own lock.
+ */
+final class IntObjectMap<V> {
+
+  private int[] keys;
+  private Object[] values;
+  private int size;
+
+  IntObjectMap(int expectedSize) {
+    int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+    keys = new int[capacity];
+    values = new Object[capacity];
+  }
+
+  int size() {
+    return size;
+  }
+
+  @SuppressWarnings("unchecked")
+  V get(int key) {
+    int slot = find(key);
+    return slot < 0 ? null : (V) values[slot];
+  }
+
+  /** @return the previous value, or null */
+  @SuppressWarnings("unchecked")
+  V put(int key, V value) {
+    if (value == null) {
+      throw new IllegalArgumentException("Null values are not supported");
+    }
+    int mask = keys.length - 1;
+    int slot = mix(key) & mask;
+    while (values[slot] != null) {
+      if (keys[slot] == key) {
+        V previous = (V) values[slot];
+        values[slot] = value;
+        return previous;
+      }
+      slot = (slot + 1) & mask;
+    }
+    keys[slot] = key;
+    values[slot] = value;
+    if (++size * 2 > keys.length) {
+      resize(keys.length << 1);
+    }
+    return null;
+  }
+
+  /** @return the removed value, or null */
+  @SuppressWarnings("unchecked")
+  V remove(int key) {
+    int slot = find(key);
+    if (slot < 0) {
+      return null;
+    }
+    V removed = (V) values[slot];
+    values[slot] = null;
+    size--;
+    // Shift later entries of the probe run back so lookups never stop at the hole
+    int mask = keys.length - 1;
+    int hole = slot;
+    int next = (slot + 1) & mask;
+    while (values[next] != null) {
+      int home = mix(keys[next]) & mask;
+      if (((next - home) & mask) >= ((next - hole) & mask)) {
+        keys[hole] = keys[next];
+        values[hole] = values[next];
+        values[next] = null;
+        hole = next;
+      }
+      next = (next + 1) & mask;
+    }
+    return removed;
+  }
+
+  @SuppressWarnings("unchecked")
+  void forEachValue(Consumer<V> action) {
+    for (Object value : values) {
+      if (value != null) {
+        action.accept((V) value);
+      }
+    }
+  }
+
+  void clear() {
+    Arrays.fill(values, null);
+    size = 0;
+  }
+
+  private int find(int key) {
+    int mask = keys.length - 1;
+    int slot = mix(key) & mask;
+    while (values[slot] != null) {
+      if (keys[slot] == key) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  private void resize(int capacity) {
+    int[] oldKeys = keys;
+    Object[] oldValues = values;
+    keys = new int[capacity];
+    values = new Object[capacity];
+    size = 0;
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldValues[i] != null) {
+        insertFresh(oldKeys[i], oldValues[i]);
+      }
+    }
+  }
+
+  private void insertFresh(int key, Object value) {
+    int mask = keys.length - 1;
+    int slot = mix(key) & mask;
+    while (values[slot] != null) {
+      slot = (slot + 1) & mask;
+    }
+    keys[slot] = key;
+    values[slot] = value;
+    size++;
+  }
+
+  /** Spreads sequential ids over the table; also used to pick a lock stripe for a key. */
+  static int mix(int key) {
+    int h = key * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+}
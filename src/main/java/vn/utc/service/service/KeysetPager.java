@@ -0,0 +1,134 @@
+package vn.utc.service.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+import vn.utc.service.dtos.PageCursor;
+import vn.utc.service.dtos.PaginatedResponseDto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shared plumbing for the opt-in keyset ({@code ?after=}) mode of the list endpoints. Turns a
+ * cursor into a {@link Sort} plus {@link KeysetScrollPosition} for {@code JpaSpecificationExecutor}
+ * scrolling, which seeks with {@code sort_col > :k OR (sort_col = :k AND id > :id)} instead of
+ * OFFSET, and turns the resulting {@link Window} back into a response with {@code nextCursor}.
+ */
+@Component
+@RequiredArgsConstructor
+public class KeysetPager {
+
+  private static final String ID = "id";
+
+  private final EntityManager entityManager;
+
+  public record KeysetRequest(Sort sort, ScrollPosition position, int size, boolean continued) {}
+
+  /**
+   * @param after empty for the first page, otherwise a cursor from a previous response; a cursor
+   *     carries its own sort, so {@code sortBy}/{@code sortDir} only apply to the first page
+   */
+  public KeysetRequest request(
+      Class<?> entityClass, String after, String sortBy, String sortDir, int size) {
+    PageCursor cursor = after == null || after.isBlank() ? null : PageCursor.decode(after);
+    String property = cursor != null ? cursor.sortBy() : sortBy;
+    Sort.Direction direction =
+        cursor != null
+            ? cursor.direction()
+            : "desc".equalsIgnoreCase(sortDir) ? Sort.Direction.DESC : Sort.Direction.ASC;
+
+    EntityType<?> entityType = entityManager.getMetamodel().entity(entityClass);
+    SingularAttribute<?, ?> sortAttribute = sortableAttribute(entityType, property);
+    Sort sort =
+        sortAttribute.isId() ? Sort.by(direction, ID) : Sort.by(direction, property, ID);
+
+    ScrollPosition position = ScrollPosition.keyset();
+    if (cursor != null) {
+      Map<String, Object> keys = new LinkedHashMap<>();
+      for (Sort.Order order : sort) {
+        SingularAttribute<?, ?> attribute = sortableAttribute(entityType, order.getProperty());
+        keys.put(
+            order.getProperty(),
+            convert(cursor.keys().get(order.getProperty()), attribute.getJavaType()));
+      }
+      position = ScrollPosition.forward(keys);
+    }
+    return new KeysetRequest(sort, position, Math.max(1, size), cursor != null);
+  }
+
+  public <T, R> PaginatedResponseDto<R> toResponse(
+      KeysetRequest request, Window<T> window, List<R> content) {
+    String nextCursor = null;
+    if (window.hasNext() && !window.isEmpty()) {
+      KeysetScrollPosition last = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+      Map<String, String> keys = new LinkedHashMap<>();
+      last.getKeys().forEach((key, value) -> keys.put(key, value == null ? null : value.toString()));
+      Sort.Order primary = request.sort().iterator().next();
+      nextCursor = new PageCursor(primary.getProperty(), primary.getDirection(), keys).encode();
+    }
+    return PaginatedResponseDto.ofCursor(
+        content, request.size(), window.hasNext(), request.continued(), nextCursor);
+  }
+
+  private static SingularAttribute<?, ?> sortableAttribute(
+      EntityType<?> entityType, String property) {
+    Attribute<?, ?> attribute;
+    try {
+      attribute = entityType.getAttribute(property);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Unknown sort field: " + property);
+    }
+    if (!(attribute instanceof SingularAttribute<?, ?> singular)
+        || attribute.getPersistentAttributeType() != Attribute.PersistentAttributeType.BASIC) {
+      throw new IllegalArgumentException("Cannot sort by: " + property);
+    }
+    // A null sort key cannot be compared against, so the seek would silently skip rows
+    if (!singular.isId() && singular.isOptional()) {
+      throw new IllegalArgumentException(
+          "Cursor pagination requires a non-nullable sort field: " + property);
+    }
+    return singular;
+  }
+
+  private static Object convert(String value, Class<?> type) {
+    if (value == null) {
+      throw new IllegalArgumentException("Invalid cursor");
+    }
+    try {
+      if (type == String.class) {
+        return value;
+      } else if (type == Integer.class || type == int.class) {
+        return Integer.valueOf(value);
+      } else if (type == Long.class || type == long.class) {
+        return Long.valueOf(value);
+      } else if (type == BigDecimal.class) {
+        return new BigDecimal(value);
+      } else if (type == Instant.class) {
+        return Instant.parse(value);
+      } else if (type == LocalDate.class) {
+        return LocalDate.parse(value);
+      } else if (type == LocalDateTime.class) {
+        return LocalDateTime.parse(value);
+      } else if (type == Boolean.class || type == boolean.class) {
+        return Boolean.valueOf(value);
+      }
+    } catch (NumberFormatException | DateTimeParseException e) {
+      throw new IllegalArgumentException("Invalid cursor", e);
+    }
+    throw new IllegalArgumentException("Unsupported sort field type: " + type.getSimpleName());
+  }
+}
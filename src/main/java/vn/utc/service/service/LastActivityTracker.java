@@ -0,0 +1,145 @@
+package vn.utc.service.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Write-behind store of user last-activity times. The auth path records activity in a
+ * lock-striped {@link IntObjectMap} (no allocation for a user already pending); a scheduled flush
+ * writes all pending entries to {@code users.last_login} with one batched
+ * {@code UPDATE ... FROM (VALUES ...)}.
+ */
+@Service
+@Slf4j
+public class LastActivityTracker {
+
+  private static final int STRIPES = 16;
+
+  private final Stripe[] stripes = new Stripe[STRIPES];
+  private final JdbcTemplate jdbcTemplate;
+  private final Timer flushTimer;
+
+  @Value("${app.activity.flush-batch-size:1000}")
+  private int flushBatchSize = 1000;
+
+  public LastActivityTracker(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+    this.jdbcTemplate = jdbcTemplate;
+    for (int i = 0; i < STRIPES; i++) {
+      stripes[i] = new Stripe();
+    }
+    this.flushTimer = Timer.builder("users.last_activity.flush").register(meterRegistry);
+    Gauge.builder("users.last_activity.pending", this, LastActivityTracker::pending)
+        .register(meterRegistry);
+  }
+
+  /** Records activity for the user now; only the latest time per user is kept until flushed. */
+  public void touch(Integer userId) {
+    if (userId != null) {
+      touch(userId, System.currentTimeMillis());
+    }
+  }
+
+  void touch(int userId, long epochMillis) {
+    stripeFor(userId).putIfLater(userId, epochMillis);
+  }
+
+  public int pending() {
+    int total = 0;
+    for (Stripe stripe : stripes) {
+      total += stripe.size();
+    }
+    return total;
+  }
+
+  @Scheduled(
+      fixedDelayString = "${app.activity.flush-interval-ms:30000}",
+      initialDelayString = "${app.activity.flush-interval-ms:30000}")
+  public void flush() {
+    List<long[]> drained = new ArrayList<>();
+    for (Stripe stripe : stripes) {
+      stripe.drainTo(drained);
+    }
+    if (drained.isEmpty()) {
+      return;
+    }
+    flushTimer.record(
+        () -> {
+          for (int from = 0; from < drained.size(); from += flushBatchSize) {
+            List<long[]> chunk = drained.subList(from, Math.min(from + flushBatchSize, drained.size()));
+            try {
+              writeChunk(chunk);
+            } catch (RuntimeException ex) {
+              // Keep the entries so the next flush retries them
+              log.warn("Failed to flush {} last-activity entries: {}", chunk.size(), ex.getMessage());
+              chunk.forEach(entry -> touch((int) entry[0], entry[1]));
+            }
+          }
+        });
+  }
+
+  @PreDestroy
+  public void flushOnShutdown() {
+    flush();
+  }
+
+  private void writeChunk(List<long[]> chunk) {
+    StringBuilder sql =
+        new StringBuilder("UPDATE users u SET last_login = v.ts FROM (VALUES ");
+    Object[] params = new Object[chunk.size() * 2];
+    for (int i = 0; i < chunk.size(); i++) {
+      long[] entry = chunk.get(i);
+      sql.append(i == 0 ? "" : ", ").append("(CAST(? AS integer), CAST(? AS timestamptz))");
+      params[i * 2] = (int) entry[0];
+      params[i * 2 + 1] = OffsetDateTime.ofInstant(Instant.ofEpochMilli(entry[1]), ZoneOffset.UTC);
+    }
+    sql.append(") AS v(id, ts) WHERE u.user_id = v.id")
+        .append(" AND (u.last_login IS NULL OR u.last_login < v.ts)");
+    jdbcTemplate.update(sql.toString(), params);
+  }
+
+  private Stripe stripeFor(int userId) {
+    return stripes[(IntObjectMap.mix(userId) >>> 1) % STRIPES];
+  }
+
+  /**
+   * Latest activity per user guarded by its own monitor. Each entry is the {@code {userId, millis}}
+   * pair handed to the flush, so a repeated touch only moves the time forward in place.
+   */
+  private static final class Stripe {
+    private final IntObjectMap<long[]> latest = new IntObjectMap<>(32);
+
+    synchronized void putIfLater(int key, long value) {
+      long[] entry = latest.get(key);
+      if (entry == null) {
+        latest.put(key, new long[] {key, value});
+      } else if (entry[1] < value) {
+        entry[1] = value;
+      }
+    }
+
+    synchronized int size() {
+      return latest.size();
+    }
+
+    synchronized void drainTo(List<long[]> target) {
+      if (latest.size() == 0) {
+        return;
+      }
+      latest.forEachValue(target::add);
+      latest.clear();
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package vn.utc.service.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import vn.utc.service.dtos.OutboxMessage;
+
+import java.util.List;
+
+/** Logs every relayed event; for local testing, enabled with {@code app.outbox.sinks.log=true}. */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.outbox.sinks", name = "log", havingValue = "true")
+public class LoggingOutboxSink implements OutboxSink {
+
+  @Override
+  public void deliver(List<OutboxMessage> batch) {
+    for (OutboxMessage message : batch) {
+      log.info("Outbox event {} {} {}#{}: {}", message.id(), message.eventType(),
+          message.aggregateType(), message.aggregateId(), message.payload());
+    }
+  }
+}
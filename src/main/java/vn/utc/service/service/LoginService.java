@@ -0,0 +1,110 @@
+package vn.utc.service.service;
+
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import vn.utc.service.config.JwtTokenProvider;
+import vn.utc.service.dtos.JwtResponse;
+import vn.utc.service.dtos.LoginDto;
+import vn.utc.service.dtos.UserLoginView;
+import vn.utc.service.dtos.UserPrincipal;
+import vn.utc.service.repo.UserRepository;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Login in two statements: one projection query for the user, roles and profile names, and one
+ * refresh-token upsert. Last login is recorded through {@link LastActivityTracker}.
+ */
+@Service
+public class LoginService {
+  private final UserRepository userRepository;
+  private final UserService userService;
+  private final RefreshTokenService refreshTokenService;
+  private final PasswordEncoder passwordEncoder;
+  private final PasswordHashingService passwordHashingService;
+  private final JwtTokenProvider tokenProvider;
+  private final LastActivityTracker lastActivityTracker;
+  // Compared against for unknown usernames so they take as long as a wrong password
+  private final String unknownUserHash;
+
+  public LoginService(
+      UserRepository userRepository,
+      UserService userService,
+      RefreshTokenService refreshTokenService,
+      PasswordEncoder passwordEncoder,
+      PasswordHashingService passwordHashingService,
+      JwtTokenProvider tokenProvider,
+      LastActivityTracker lastActivityTracker) {
+    this.userRepository = userRepository;
+    this.userService = userService;
+    this.refreshTokenService = refreshTokenService;
+    this.passwordEncoder = passwordEncoder;
+    this.passwordHashingService = passwordHashingService;
+    this.tokenProvider = tokenProvider;
+    this.lastActivityTracker = lastActivityTracker;
+    this.unknownUserHash = passwordEncoder.encode("userNotFoundPassword");
+  }
+
+  public JwtResponse login(LoginDto loginDto) {
+    UserLoginView user = userRepository.findLoginView(loginDto.username()).orElse(null);
+    String storedHash = user != null ? user.getPassword() : unknownUserHash;
+
+    boolean matches =
+        passwordHashingService.execute(
+            "login", () -> passwordEncoder.matches(loginDto.password(), storedHash));
+    if (user == null || !matches) {
+      throw new BadCredentialsException("Bad credentials");
+    }
+    if (Boolean.FALSE.equals(user.getActive())) {
+      throw new DisabledException("User is disabled");
+    }
+    if (passwordEncoder.upgradeEncoding(storedHash)) {
+      userService.updatePassword(user.getUsername(), passwordHashingService.encode(loginDto.password()));
+    }
+
+    List<String> roles =
+        StringUtils.hasText(user.getRoles())
+            ? Arrays.stream(user.getRoles().split(",")).map(String::toUpperCase).toList()
+            : List.of();
+    List<GrantedAuthority> authorities =
+        roles.stream().map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role)).toList();
+    UserPrincipal principal =
+        new UserPrincipal(
+            user.getUserId(),
+            user.getCustomerId(),
+            user.getUsername(),
+            null,
+            nullToEmpty(user.getFirstName()),
+            nullToEmpty(user.getLastName()),
+            user.getEmail(),
+            true,
+            authorities);
+
+    String jwt =
+        tokenProvider.generateToken(
+            new UsernamePasswordAuthenticationToken(principal, null, authorities));
+    String refreshToken = refreshTokenService.createRefreshToken(user.getUserId());
+    lastActivityTracker.touch(user.getUserId());
+
+    return new JwtResponse()
+        .setToken(jwt)
+        .setRefreshToken(refreshToken)
+        .setId(Long.valueOf(user.getUserId()))
+        .setUsername(user.getUsername())
+        .setEmail(user.getEmail())
+        .setRoles(roles)
+        .setFirstName(principal.getFirstName())
+        .setLastName(principal.getLastName());
+  }
+
+  private static String nullToEmpty(String value) {
+    return value == null ? "" : value;
+  }
+}
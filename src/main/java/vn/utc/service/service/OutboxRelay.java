@@ -0,0 +1,136 @@
+package vn.utc.service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+import vn.utc.service.dtos.OutboxMessage;
+
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Drains {@code outbox_events} into the {@link OutboxSink}s. Each batch is claimed with
+ * {@code FOR UPDATE SKIP LOCKED}, delivered in id order and deleted in the same transaction, so
+ * several nodes can relay side by side without handing out a row twice. A sink failure rolls the
+ * batch back and ends the run; the batch is retried on the next poll.
+ */
+@Slf4j
+@Service
+public class OutboxRelay {
+
+  static final String CLAIM_BATCH =
+      "SELECT id, aggregate_type, aggregate_id, event_type, payload, created_at FROM outbox_events"
+          + " ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+  private static final RowMapper<OutboxMessage> MESSAGE =
+      (rs, rowNum) -> {
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        return new OutboxMessage(
+            rs.getLong("id"),
+            rs.getString("aggregate_type"),
+            (Integer) rs.getObject("aggregate_id"),
+            rs.getString("event_type"),
+            rs.getString("payload"),
+            createdAt != null ? createdAt.toInstant() : null);
+      };
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionOperations transactionOperations;
+  private final List<OutboxSink> sinks;
+  private final Counter relayedCounter;
+  private final int batchSize;
+  private final int deleteChunkSize;
+  private final int maxBatchesPerRun;
+
+  @Autowired
+  public OutboxRelay(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      List<OutboxSink> sinks,
+      MeterRegistry meterRegistry,
+      @Value("${app.outbox.batch-size:200}") int batchSize,
+      @Value("${app.outbox.delete-chunk-size:100}") int deleteChunkSize,
+      @Value("${app.outbox.max-batches-per-run:50}") int maxBatchesPerRun) {
+    this(jdbcTemplate, new TransactionTemplate(transactionManager), sinks, meterRegistry,
+        batchSize, deleteChunkSize, maxBatchesPerRun);
+  }
+
+  OutboxRelay(
+      JdbcTemplate jdbcTemplate,
+      TransactionOperations transactionOperations,
+      List<OutboxSink> sinks,
+      MeterRegistry meterRegistry,
+      int batchSize,
+      int deleteChunkSize,
+      int maxBatchesPerRun) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionOperations = transactionOperations;
+    this.sinks = List.copyOf(sinks);
+    this.relayedCounter = Counter.builder("outbox.relayed").register(meterRegistry);
+    this.batchSize = Math.max(1, batchSize);
+    this.deleteChunkSize = Math.max(1, deleteChunkSize);
+    this.maxBatchesPerRun = Math.max(1, maxBatchesPerRun);
+  }
+
+  @Scheduled(
+      fixedDelayString = "${app.outbox.poll-interval-ms:1000}",
+      initialDelayString = "${app.outbox.poll-interval-ms:1000}")
+  public void scheduledDrain() {
+    drain();
+  }
+
+  /**
+   * Relays batches until the table has nothing left to claim, a sink fails, or the per-run limit
+   * is reached.
+   *
+   * @return the number of events relayed
+   */
+  public int drain() {
+    int relayed = 0;
+    for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+      int count;
+      try {
+        count = transactionOperations.execute(status -> relayBatch());
+      } catch (RuntimeException ex) {
+        log.warn("Outbox relay stopped after {} events, batch will be retried", relayed, ex);
+        break;
+      }
+      relayed += count;
+      if (count < batchSize) {
+        break;
+      }
+    }
+    return relayed;
+  }
+
+  /** Claims, delivers and deletes one batch; must run in a transaction so the claim holds. */
+  int relayBatch() {
+    List<OutboxMessage> batch = jdbcTemplate.query(CLAIM_BATCH, MESSAGE, batchSize);
+    if (batch.isEmpty()) {
+      return 0;
+    }
+    for (OutboxSink sink : sinks) {
+      sink.deliver(batch);
+    }
+    for (int from = 0; from < batch.size(); from += deleteChunkSize) {
+      List<OutboxMessage> chunk = batch.subList(from, Math.min(batch.size(), from + deleteChunkSize));
+      jdbcTemplate.update(
+          "DELETE FROM outbox_events WHERE id IN ("
+              + String.join(", ", Collections.nCopies(chunk.size(), "?"))
+              + ")",
+          chunk.stream().map(OutboxMessage::id).toArray());
+    }
+    relayedCounter.increment(batch.size());
+    return batch.size();
+  }
+}
@@ -0,0 +1,65 @@
+package vn.utc.service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import vn.utc.service.dtos.StatusChangeEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes domain events to the {@code outbox_events} table in the caller's transaction, so an event
+ * exists exactly when the change it describes committed. {@link OutboxRelay} delivers them later,
+ * off the request path.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+  public static final String STATUS_CHANGED = "status-changed";
+  public static final String STOCK_CHANGED = "stock-changed";
+  public static final String SPARE_PART = "spare-part";
+
+  static final String INSERT =
+      "INSERT INTO outbox_events (aggregate_type, aggregate_id, event_type, payload) VALUES (?, ?, ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ObjectMapper objectMapper;
+
+  /** @param payload serialized to JSON */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void append(String aggregateType, Integer aggregateId, String eventType, Object payload) {
+    jdbcTemplate.update(INSERT, aggregateType, aggregateId, eventType, toJson(payload));
+  }
+
+  /** An appointment or work-order status change, keyed by the entity it describes. */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void appendStatusChange(StatusChangeEvent event) {
+    append(event.type(), event.entityId(), STATUS_CHANGED, event);
+  }
+
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void appendStatusChanges(List<StatusChangeEvent> events) {
+    if (events.isEmpty()) {
+      return;
+    }
+    List<Object[]> rows = new ArrayList<>(events.size());
+    for (StatusChangeEvent event : events) {
+      rows.add(new Object[] {event.type(), event.entityId(), STATUS_CHANGED, toJson(event)});
+    }
+    jdbcTemplate.batchUpdate(INSERT, rows);
+  }
+
+  private String toJson(Object payload) {
+    try {
+      return objectMapper.writeValueAsString(payload);
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException("Cannot serialize outbox payload " + payload.getClass().getSimpleName(), ex);
+    }
+  }
+}
@@ -0,0 +1,15 @@
+package vn.utc.service.service;
+
+import vn.utc.service.dtos.OutboxMessage;
+
+import java.util.List;
+
+/**
+ * Destination for relayed outbox events. Every sink bean receives every batch, in id order, inside
+ * the transaction that deletes it: throwing keeps the whole batch for the next poll, so a batch
+ * may reach a sink more than once.
+ */
+public interface OutboxSink {
+
+  void deliver(List<OutboxMessage> batch);
+}
@@ -0,0 +1,132 @@
+package vn.utc.service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import vn.utc.service.exception.ServiceOverloadedException;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bulkhead for BCrypt work. Hashing runs on a fixed pool sized to the core count with a bounded
+ * queue; once the pool and queue are full, callers are rejected immediately with a 503 instead of
+ * tying up request threads behind a burst of logins.
+ */
+@Service
+@Slf4j
+public class PasswordHashingService {
+
+  private final PasswordEncoder passwordEncoder;
+  private final ThreadPoolExecutor executor;
+  private final Semaphore permits;
+  private final long retryAfterSeconds;
+  private final MeterRegistry meterRegistry;
+  private final Counter rejected;
+
+  public PasswordHashingService(
+      PasswordEncoder passwordEncoder,
+      MeterRegistry meterRegistry,
+      @Value("${app.security.hashing.threads:0}") int threads,
+      @Value("${app.security.hashing.queue-capacity:64}") int queueCapacity,
+      @Value("${app.security.hashing.retry-after-seconds:2}") long retryAfterSeconds) {
+    int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    AtomicInteger threadCount = new AtomicInteger();
+    this.passwordEncoder = passwordEncoder;
+    this.meterRegistry = meterRegistry;
+    this.retryAfterSeconds = retryAfterSeconds;
+    // Permits cover running plus queued tasks, so the executor itself never has to reject
+    this.permits = new Semaphore(poolSize + queueCapacity);
+    this.executor =
+        new ThreadPoolExecutor(
+            poolSize,
+            poolSize,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+            runnable -> {
+              Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+    this.rejected = Counter.builder("auth.hashing.rejected").register(meterRegistry);
+    Gauge.builder("auth.hashing.queue.depth", executor, pool -> pool.getQueue().size())
+        .register(meterRegistry);
+    Gauge.builder("auth.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+        .register(meterRegistry);
+  }
+
+  /**
+   * Schedules password work (typically an {@code AuthenticationManager.authenticate} call) on the
+   * hashing pool.
+   *
+   * @throws ServiceOverloadedException when the pool and its queue are full
+   */
+  public <T> CompletableFuture<T> submit(String operation, Supplier<T> task) {
+    if (!permits.tryAcquire()) {
+      rejected.increment();
+      throw new ServiceOverloadedException(
+          "Too many concurrent sign-in requests, please retry shortly", retryAfterSeconds);
+    }
+    Timer timer =
+        Timer.builder("auth.hashing.duration")
+            .tag("operation", operation)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    try {
+      return CompletableFuture.supplyAsync(
+          () -> {
+            try {
+              return timer.record(task);
+            } finally {
+              permits.release();
+            }
+          },
+          executor);
+    } catch (RuntimeException ex) {
+      permits.release();
+      throw ex;
+    }
+  }
+
+  /**
+   * Runs the task on the hashing pool and waits for it. The caller's thread only waits; the number
+   * of waiting callers is capped by the pool size plus queue capacity.
+   */
+  public <T> T execute(String operation, Supplier<T> task) {
+    try {
+      return submit(operation, task).join();
+    } catch (CompletionException ex) {
+      if (ex.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw ex;
+    }
+  }
+
+  /** Hashes a new password on the hashing pool. */
+  public String encode(CharSequence rawPassword) {
+    return execute("encode", () -> passwordEncoder.encode(rawPassword));
+  }
+
+  public int queueDepth() {
+    return executor.getQueue().size();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdown();
+  }
+}
@@ -1,55 +1,101 @@
 package vn.utc.service.service;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import vn.utc.service.entity.RefreshToken;
-import vn.utc.service.entity.User;
+import vn.utc.service.dtos.ActiveRefreshToken;
 import vn.utc.service.exception.TokenRefreshException;
 import vn.utc.service.repo.RefreshTokenRepository;
-import vn.utc.service.repo.UserRepository;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Refresh-token store. Only SHA-256 digests are persisted; active tokens are cached in memory
+ * with a TTL so repeated refreshes skip the lookup, and expired rows are purged in the background.
+ */
 @Service
+@Slf4j
 @RequiredArgsConstructor
 public class RefreshTokenService {
+  private static final SecureRandom RANDOM = new SecureRandom();
+
   @Value("${app.jwt.refresh-expiration}")
   private Long refreshTokenDurationMs;
 
+  @Value("${app.jwt.refresh-cache-ttl-ms:300000}")
+  private long cacheTtlMs = 300000;
+
+  @Value("${app.jwt.refresh-purge-batch-size:500}")
+  private int purgeBatchSize = 500;
+
   private final RefreshTokenRepository refreshTokenRepository;
-  private final UserRepository userRepository;
 
-  public Optional<RefreshToken> findByToken(String token) {
-    return refreshTokenRepository.findByToken(token);
+  private final Map<String, CachedToken> cache = new ConcurrentHashMap<>();
+  private final Map<Integer, String> tokenHashByUser = new ConcurrentHashMap<>();
+
+  public Optional<ActiveRefreshToken> findByToken(String token) {
+    String tokenHash = hash(token);
+    CachedToken cached = cache.get(tokenHash);
+    if (cached != null && cached.cachedUntil().isAfter(Instant.now())) {
+      return Optional.of(cached.token());
+    }
+    Optional<ActiveRefreshToken> stored =
+        refreshTokenRepository
+            .findByToken(tokenHash)
+            .map(
+                refreshToken ->
+                    new ActiveRefreshToken(
+                        refreshToken.getUser().getId(), tokenHash, refreshToken.getExpiryDate()));
+    stored.ifPresentOrElse(this::cache, () -> cache.remove(tokenHash));
+    return stored;
   }
 
-  public RefreshToken createRefreshToken(Integer userId) {
-    User user =
-        userRepository
-            .findById(userId)
-            .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+  /** Issues a new refresh token for the user, replacing any previous one in a single statement. */
+  @Transactional
+  public String createRefreshToken(Integer userId) {
+    String token = newToken();
+    Instant expiryDate = Instant.now().plusMillis(refreshTokenDurationMs);
+    String tokenHash = hash(token);
 
-    // Check if user already has a refresh token
-    Optional<RefreshToken> existingToken = refreshTokenRepository.findByUser(user);
-    if (existingToken.isPresent()) {
-      refreshTokenRepository.delete(existingToken.get());
-    }
+    refreshTokenRepository.upsertForUser(userId, tokenHash, expiryDate);
+    evictUser(userId);
+    cache(new ActiveRefreshToken(userId, tokenHash, expiryDate));
+    return token;
+  }
 
-    RefreshToken refreshToken = new RefreshToken();
-    refreshToken.setUser(user);
-    refreshToken.setExpiryDate(Instant.now().plusMillis(refreshTokenDurationMs));
-    refreshToken.setToken(UUID.randomUUID().toString());
+  /** Rotates a verified refresh token; a token can be exchanged only once. */
+  @Transactional
+  public String rotateRefreshToken(ActiveRefreshToken current) {
+    String token = newToken();
+    Instant expiryDate = Instant.now().plusMillis(refreshTokenDurationMs);
+    String tokenHash = hash(token);
 
-    return refreshTokenRepository.save(refreshToken);
+    cache.remove(current.tokenHash());
+    if (refreshTokenRepository.rotate(current.userId(), current.tokenHash(), tokenHash, expiryDate)
+        == 0) {
+      throw new TokenRefreshException(
+          "Refresh token was already used. Please make a new login request");
+    }
+    cache(new ActiveRefreshToken(current.userId(), tokenHash, expiryDate));
+    return token;
   }
 
-  public RefreshToken verifyExpiration(RefreshToken token) {
-    if (token.getExpiryDate().compareTo(Instant.now()) < 0) {
-      refreshTokenRepository.delete(token);
+  // Expired rows are left for purgeExpiredTokens, keeping deletes off the request path
+  public ActiveRefreshToken verifyExpiration(ActiveRefreshToken token) {
+    if (token.isExpired(Instant.now())) {
+      cache.remove(token.tokenHash());
       throw new TokenRefreshException(
            "Refresh token was expired. Please make a new login request");
     }
@@ -59,10 +105,59 @@ public class RefreshTokenService {
 
   @Transactional
   public int deleteByUserId(Integer userId) {
-    User user =
-        userRepository
-            .findById(userId)
-            .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
-    return refreshTokenRepository.deleteByUser(user);
+    evictUser(userId);
+    return refreshTokenRepository.deleteByUserId(userId);
+  }
+
+  /** Deletes expired tokens in bounded batches so the purge never holds long row locks. */
+  @Scheduled(
+      fixedDelayString = "${app.jwt.refresh-purge-interval-ms:600000}",
+      initialDelayString = "${app.jwt.refresh-purge-interval-ms:600000}")
+  public int purgeExpiredTokens() {
+    Instant now = Instant.now();
+    cache.values().removeIf(cached -> !cached.cachedUntil().isAfter(now));
+    tokenHashByUser.values().removeIf(tokenHash -> !cache.containsKey(tokenHash));
+
+    int total = 0;
+    int deleted;
+    do {
+      deleted = refreshTokenRepository.deleteExpiredBatch(now, purgeBatchSize);
+      total += deleted;
+    } while (deleted == purgeBatchSize);
+    if (total > 0) {
+      log.info("Purged {} expired refresh tokens", total);
+    }
+    return total;
+  }
+
+  private void cache(ActiveRefreshToken token) {
+    Instant ttl = Instant.now().plusMillis(cacheTtlMs);
+    Instant cachedUntil = token.expiryDate().isBefore(ttl) ? token.expiryDate() : ttl;
+    cache.put(token.tokenHash(), new CachedToken(token, cachedUntil));
+    tokenHashByUser.put(token.userId(), token.tokenHash());
+  }
+
+  private void evictUser(Integer userId) {
+    String tokenHash = tokenHashByUser.remove(userId);
+    if (tokenHash != null) {
+      cache.remove(tokenHash);
+    }
+  }
+
+  private static String newToken() {
+    byte[] bytes = new byte[32];
+    RANDOM.nextBytes(bytes);
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
   }
+
+  static String hash(String token) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException("SHA-256 is not available", ex);
+    }
+  }
+
+  private record CachedToken(ActiveRefreshToken token, Instant cachedUntil) {}
 }
@@ -0,0 +1,62 @@
+package vn.utc.service.service;
+
+/**
+ * Bookings per slot across one day as a segment tree: add a booking over a slot range and read
+ * the peak occupancy of a range, both in O(log n). Range updates stay on the covering nodes
+ * instead of being pushed down, so each node's max already includes its own pending delta.
+ */
+final class SlotOccupancy {
+
+  private final int size;
+  private final int[] max;
+  private final int[] pending;
+
+  SlotOccupancy(int size) {
+    this.size = size;
+    this.max = new int[4 * Math.max(1, size)];
+    this.pending = new int[4 * Math.max(1, size)];
+  }
+
+  int size() {
+    return size;
+  }
+
+  /** Adds {@code delta} to every slot in {@code [from, to)}. */
+  void add(int from, int to, int delta) {
+    if (from < to) {
+      add(1, 0, size, from, to, delta);
+    }
+  }
+
+  /** Highest occupancy of any slot in {@code [from, to)}. */
+  int peak(int from, int to) {
+    return from < to ? peak(1, 0, size, from, to) : 0;
+  }
+
+  private void add(int node, int lo, int hi, int from, int to, int delta) {
+    if (to <= lo || hi <= from) {
+      return;
+    }
+    if (from <= lo && hi <= to) {
+      max[node] += delta;
+      pending[node] += delta;
+      return;
+    }
+    int mid = (lo + hi) >>> 1;
+    add(2 * node, lo, mid, from, to, delta);
+    add(2 * node + 1, mid, hi, from, to, delta);
+    max[node] = pending[node] + Math.max(max[2 * node], max[2 * node + 1]);
+  }
+
+  private int peak(int node, int lo, int hi, int from, int to) {
+    if (to <= lo || hi <= from) {
+      return 0;
+    }
+    if (from <= lo && hi <= to) {
+      return max[node];
+    }
+    int mid = (lo + hi) >>> 1;
+    return pending[node]
+        + Math.max(peak(2 * node, lo, mid, from, to), peak(2 * node + 1, mid, hi, from, to));
+  }
+}
@@ -0,0 +1,795 @@
+package vn.utc.service.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import vn.utc.service.dtos.SparePartSearchHitDto;
+import vn.utc.service.entity.SparePart;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index for type-ahead search over spare parts' name, description, category,
+ * supplier and location. Text is folded to lower-case tokens without accents, so "phanh" finds
+ * "Phanh" and "Đĩa" finds "dia". Terms live in a sorted dictionary, so each query token is matched
+ * as a prefix with one range scan, and each term's posting list is a pair of sorted primitive
+ * arrays: document slots, and the fields the term occurs in.
+ *
+ * <p>A part matches when every query token prefixes one of its terms. Per token it scores the
+ * weights of the fields its best term occurs in, doubled when the term is the whole word; ties go
+ * to the shorter name, then the lower id. A lone token stops reading terms once enough parts beat
+ * anything the rest could score; further tokens start from the rarest and only narrow its parts.
+ *
+ * <p>The index is built from the database in a background thread once the application is ready,
+ * rebuilt periodically to pick up writes made elsewhere, and kept current by
+ * {@link SparePartService} as parts are saved or deleted. Changes made inside a transaction are
+ * applied once it commits. Until the first build completes {@link #isReady()} is false and callers
+ * search the database instead.
+ */
+@Slf4j
+@Service
+public class SparePartSearchIndex {
+
+  static final int NAME = 1;
+  static final int CATEGORY = 1 << 1;
+  static final int SUPPLIER = 1 << 2;
+  static final int LOCATION = 1 << 3;
+  static final int DESCRIPTION = 1 << 4;
+
+  static final String LOAD_PARTS =
+      "SELECT part_id, name, description, category, supplier, location, quantity_in_stock FROM spare_parts";
+
+  // In field bit order: name, category, supplier, location, description
+  private static final int[] FIELD_WEIGHTS = {8, 4, 3, 3, 1};
+  private static final int[] WEIGHT_BY_FIELDS = new int[1 << FIELD_WEIGHTS.length];
+
+  static {
+    for (int fields = 0; fields < WEIGHT_BY_FIELDS.length; fields++) {
+      for (int bit = 0; bit < FIELD_WEIGHTS.length; bit++) {
+        if ((fields & (1 << bit)) != 0) {
+          WEIGHT_BY_FIELDS[fields] += FIELD_WEIGHTS[bit];
+        }
+      }
+    }
+  }
+
+  // Checking a part's own terms costs about as much as scanning this many postings
+  private static final int VERIFY_COST = 256;
+
+  private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+  private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+  private static final RowMapper<Document> DOCUMENT =
+      (rs, rowNum) ->
+          Document.of(
+              rs.getInt("part_id"),
+              rs.getString("name"),
+              rs.getString("description"),
+              rs.getString("category"),
+              rs.getString("supplier"),
+              rs.getString("location"),
+              (Integer) rs.getObject("quantity_in_stock"));
+
+  private final JdbcTemplate jdbcTemplate;
+  private final Timer queryTimer;
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+  // Guarded by lock; replaced wholesale by rebuild()
+  private Index index = new Index();
+  // Changes made while a rebuild reads the table, replayed onto the new index; guarded by lock
+  private List<Change> replay;
+  private volatile boolean ready;
+
+  public SparePartSearchIndex(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.queryTimer =
+        Timer.builder("parts.search.query").publishPercentileHistogram().register(meterRegistry);
+    Gauge.builder("parts.search.index.documents", this, SparePartSearchIndex::size)
+        .register(meterRegistry);
+    Gauge.builder("parts.search.index.terms", this, SparePartSearchIndex::termCount)
+        .register(meterRegistry);
+    Gauge.builder("parts.search.index.memory", this, SparePartSearchIndex::estimatedBytes)
+        .baseUnit("bytes")
+        .register(meterRegistry);
+  }
+
+  /** A part as the index keeps it: display fields plus its distinct terms and their fields. */
+  static final class Document {
+    final int id;
+    final String name;
+    final String category;
+    final String supplier;
+    final String location;
+    final Integer quantityInStock;
+    final String[] terms;
+    final byte[] fields;
+
+    private Document(
+        int id,
+        String name,
+        String category,
+        String supplier,
+        String location,
+        Integer quantityInStock,
+        Map<String, Integer> fieldsByTerm) {
+      this.id = id;
+      this.name = name;
+      this.category = category;
+      this.supplier = supplier;
+      this.location = location;
+      this.quantityInStock = quantityInStock;
+      this.terms = fieldsByTerm.keySet().toArray(new String[0]);
+      this.fields = new byte[terms.length];
+      for (int i = 0; i < terms.length; i++) {
+        fields[i] = fieldsByTerm.get(terms[i]).byteValue();
+      }
+    }
+
+    static Document of(
+        int id,
+        String name,
+        String description,
+        String category,
+        String supplier,
+        String location,
+        Integer quantityInStock) {
+      Map<String, Integer> fieldsByTerm = new LinkedHashMap<>();
+      addTerms(fieldsByTerm, name, NAME);
+      addTerms(fieldsByTerm, category, CATEGORY);
+      addTerms(fieldsByTerm, supplier, SUPPLIER);
+      addTerms(fieldsByTerm, location, LOCATION);
+      addTerms(fieldsByTerm, description, DESCRIPTION);
+      return new Document(id, name, category, supplier, location, quantityInStock, fieldsByTerm);
+    }
+
+    static Document of(SparePart part) {
+      return of(
+          part.getId(),
+          part.getName(),
+          part.getDescription(),
+          part.getCategory(),
+          part.getSupplier(),
+          part.getLocation(),
+          part.getQuantityInStock());
+    }
+
+    private static void addTerms(Map<String, Integer> fieldsByTerm, String text, int field) {
+      for (String term : tokens(text)) {
+        fieldsByTerm.merge(term, field, (a, b) -> a | b);
+      }
+    }
+
+    int nameLength() {
+      return name == null ? 0 : name.length();
+    }
+
+    long estimatedBytes() {
+      long bytes = 64 + 16 + 8L * terms.length + 16 + fields.length;
+      for (String term : terms) {
+        bytes += 40 + term.length();
+      }
+      for (String text : new String[] {name, category, supplier, location}) {
+        bytes += text == null ? 0 : 40 + text.length();
+      }
+      return bytes;
+    }
+  }
+
+  /** An upsert, or a removal when {@code document} is null. */
+  record Change(int id, Document document) {
+    void applyTo(Index index) {
+      if (document == null) {
+        index.remove(id);
+      } else {
+        index.put(document);
+      }
+    }
+  }
+
+  /** Documents of one term, by ascending slot, with the fields the term occurs in. */
+  private static final class Postings {
+    int[] slots = new int[2];
+    byte[] fields = new byte[2];
+    int size;
+    // Every field the term occurs in; may keep fields of removed documents until the next trim
+    int fieldUnion;
+
+    void add(int slot, byte fieldMask) {
+      fieldUnion |= fieldMask;
+      int at = Arrays.binarySearch(slots, 0, size, slot);
+      if (at >= 0) {
+        fields[at] |= fieldMask;
+        return;
+      }
+      at = -at - 1;
+      if (size == slots.length) {
+        int capacity = size + Math.max(2, size >> 1);
+        slots = Arrays.copyOf(slots, capacity);
+        fields = Arrays.copyOf(fields, capacity);
+      }
+      System.arraycopy(slots, at, slots, at + 1, size - at);
+      System.arraycopy(fields, at, fields, at + 1, size - at);
+      slots[at] = slot;
+      fields[at] = fieldMask;
+      size++;
+    }
+
+    /** @return whether the slot was present */
+    boolean remove(int slot) {
+      int at = Arrays.binarySearch(slots, 0, size, slot);
+      if (at < 0) {
+        return false;
+      }
+      System.arraycopy(slots, at + 1, slots, at, size - at - 1);
+      System.arraycopy(fields, at + 1, fields, at, size - at - 1);
+      size--;
+      return true;
+    }
+
+    void trim() {
+      slots = Arrays.copyOf(slots, size);
+      fields = Arrays.copyOf(fields, size);
+      fieldUnion = 0;
+      for (int i = 0; i < size; i++) {
+        fieldUnion |= fields[i];
+      }
+    }
+
+    /** The most a document can score through this term for a query token of the given length. */
+    int maxWeight(String term, int tokenLength) {
+      return WEIGHT_BY_FIELDS[fieldUnion] * (term.length() == tokenLength ? 2 : 1);
+    }
+  }
+
+  /**
+   * Working arrays for one query, indexed by slot and left zeroed between queries, so a search over
+   * a large catalog does not allocate and clear arrays of its size each keystroke.
+   */
+  private static final class Scratch {
+    int[] matched = new int[0];
+    int[] best = new int[0];
+    int[] score = new int[0];
+    // Slots hit by the first token, and by the latest one; a token hits each slot at most once
+    int[] first = new int[0];
+    int[] latest = new int[0];
+
+    void ensure(int slots) {
+      if (matched.length < slots) {
+        int capacity = Math.max(slots, matched.length * 2);
+        matched = new int[capacity];
+        best = new int[capacity];
+        score = new int[capacity];
+        first = new int[capacity];
+        latest = new int[capacity];
+      }
+    }
+  }
+
+  // Kept for reuse up to one per core; searches beyond that allocate their own
+  private static final BlockingQueue<Scratch> SCRATCH =
+      new ArrayBlockingQueue<>(Runtime.getRuntime().availableProcessors());
+
+  /**
+   * Documents are addressed by dense slots, reused after removals, so a query can score them in
+   * plain arrays.
+   */
+  static final class Index {
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final IntObjectMap<Integer> slotById = new IntObjectMap<>(1024);
+    private Document[] documents = new Document[1024];
+    // Name length in the high half, id in the low half: the tie-break, without touching documents
+    private long[] order = new long[1024];
+    private int slotCount;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+
+    void put(Document document) {
+      remove(document.id);
+      int slot = freeCount > 0 ? freeSlots[--freeCount] : slotCount++;
+      if (slot == documents.length) {
+        documents = Arrays.copyOf(documents, documents.length * 2);
+        order = Arrays.copyOf(order, documents.length);
+      }
+      documents[slot] = document;
+      order[slot] = (long) document.nameLength() << 32 | (document.id & 0xFFFFFFFFL);
+      slotById.put(document.id, slot);
+      for (int i = 0; i < document.terms.length; i++) {
+        terms.computeIfAbsent(document.terms[i], term -> new Postings()).add(slot, document.fields[i]);
+      }
+    }
+
+    void remove(int id) {
+      Integer slot = slotById.remove(id);
+      if (slot == null) {
+        return;
+      }
+      Document document = documents[slot];
+      documents[slot] = null;
+      for (String term : document.terms) {
+        Postings postings = terms.get(term);
+        if (postings != null && postings.remove(slot) && postings.size == 0) {
+          terms.remove(term);
+        }
+      }
+      if (freeCount == freeSlots.length) {
+        freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+      }
+      freeSlots[freeCount++] = slot;
+    }
+
+    void trim() {
+      terms.values().forEach(Postings::trim);
+    }
+
+    int size() {
+      return slotById.size();
+    }
+
+    int termCount() {
+      return terms.size();
+    }
+
+    long estimatedBytes() {
+      // TreeMap entry, term string and the postings object with its two arrays
+      long bytes = 16 + 16L * documents.length + 4L * freeSlots.length + 32L * slotById.size();
+      for (Map.Entry<String, Postings> entry : terms.entrySet()) {
+        Postings postings = entry.getValue();
+        bytes += 40 + 40 + entry.getKey().length() + 24 + 16 + 4L * postings.slots.length + 16 + postings.fields.length;
+      }
+      for (int slot = 0; slot < slotCount; slot++) {
+        if (documents[slot] != null) {
+          bytes += documents[slot].estimatedBytes();
+        }
+      }
+      return bytes;
+    }
+
+    List<SparePartSearchHitDto> search(List<String> tokens, int limit) {
+      Scratch scratch = SCRATCH.poll();
+      if (scratch == null) {
+        scratch = new Scratch();
+      }
+      try {
+        scratch.ensure(slotCount);
+        return tokens.size() == 1
+            ? searchPrefix(tokens.get(0), limit, scratch)
+            : searchAll(tokens, limit, scratch);
+      } finally {
+        SCRATCH.offer(scratch);
+      }
+    }
+
+    /**
+     * One token, the first keystrokes of a search: visits its terms by the most they can score and
+     * stops once {@code limit} parts already beat every term left, so a single letter does not
+     * rank the whole catalog.
+     */
+    private List<SparePartSearchHitDto> searchPrefix(String token, int limit, Scratch scratch) {
+      List<Map.Entry<String, Postings>> entries = new ArrayList<>(range(token).entrySet());
+      entries.sort(
+          Comparator.comparingInt(
+                  (Map.Entry<String, Postings> entry) ->
+                      entry.getValue().maxWeight(entry.getKey(), token.length()))
+              .reversed());
+      int[] score = scratch.score;
+      int[] hits = scratch.first;
+      int count = 0;
+      try {
+        int previousBound = Integer.MAX_VALUE;
+        for (Map.Entry<String, Postings> entry : entries) {
+          Postings postings = entry.getValue();
+          int bound = postings.maxWeight(entry.getKey(), token.length());
+          if (bound < previousBound && countAbove(hits, count, score, bound) >= limit) {
+            break;
+          }
+          previousBound = bound;
+          int multiplier = entry.getKey().length() == token.length() ? 2 : 1;
+          for (int i = 0; i < postings.size; i++) {
+            int slot = postings.slots[i];
+            if (score[slot] == 0) {
+              hits[count++] = slot;
+            }
+            score[slot] = Math.max(score[slot], WEIGHT_BY_FIELDS[postings.fields[i]] * multiplier);
+          }
+        }
+        return top(hits, count, score, limit);
+      } finally {
+        for (int i = 0; i < count; i++) {
+          score[hits[i]] = 0;
+        }
+      }
+    }
+
+    private static int countAbove(int[] slots, int count, int[] score, int bound) {
+      int above = 0;
+      for (int i = 0; i < count; i++) {
+        if (score[slots[i]] > bound) {
+          above++;
+        }
+      }
+      return above;
+    }
+
+    /**
+     * Several tokens: starts from the one with the fewest postings, then narrows those parts by
+     * each further token, checking their own terms when that is cheaper than scanning postings.
+     */
+    private List<SparePartSearchHitDto> searchAll(List<String> tokens, int limit, Scratch scratch) {
+      List<String> byCost = new ArrayList<>(tokens);
+      Map<String, SortedMap<String, Postings>> ranges = new HashMap<>();
+      Map<String, Long> postingCounts = new HashMap<>();
+      for (String token : tokens) {
+        SortedMap<String, Postings> range = range(token);
+        if (range.isEmpty()) {
+          return List.of();
+        }
+        long postingCount = 0;
+        for (Postings postings : range.values()) {
+          postingCount += postings.size;
+        }
+        ranges.put(token, range);
+        postingCounts.put(token, postingCount);
+      }
+      byCost.sort(Comparator.comparingLong(postingCounts::get));
+
+      int[] matched = scratch.matched;
+      int[] score = scratch.score;
+      int firstCount = 0;
+      int[] hits = scratch.first;
+      int hitCount = 0;
+      try {
+        for (int round = 1; round <= byCost.size(); round++) {
+          String token = byCost.get(round - 1);
+          if (round == 1) {
+            firstCount = scan(ranges.get(token), token, scratch.first, scratch, round);
+            hitCount = firstCount;
+          } else if ((long) hitCount * VERIFY_COST < postingCounts.get(token)) {
+            hitCount = narrow(hits, hitCount, token, scratch.latest, scratch, round);
+            hits = scratch.latest;
+          } else {
+            hitCount = scan(ranges.get(token), token, scratch.latest, scratch, round);
+            hits = scratch.latest;
+          }
+          if (hitCount == 0) {
+            return List.of();
+          }
+        }
+        return top(hits, hitCount, score, limit);
+      } finally {
+        // Later rounds only narrow the first one's parts, so clearing those resets the scratch
+        for (int i = 0; i < firstCount; i++) {
+          matched[scratch.first[i]] = 0;
+          score[scratch.first[i]] = 0;
+        }
+      }
+    }
+
+    /**
+     * Adds a token's best weight to the parts that matched every earlier token and it matches,
+     * collecting them into {@code out}.
+     */
+    private static int scan(
+        SortedMap<String, Postings> range, String token, int[] out, Scratch scratch, int round) {
+      int[] matched = scratch.matched;
+      int[] best = scratch.best;
+      int count = 0;
+      for (Map.Entry<String, Postings> entry : range.entrySet()) {
+        int multiplier = entry.getKey().length() == token.length() ? 2 : 1;
+        Postings postings = entry.getValue();
+        for (int i = 0; i < postings.size; i++) {
+          int slot = postings.slots[i];
+          // Only parts that matched every earlier token stay in the running
+          if (matched[slot] != round - 1) {
+            continue;
+          }
+          if (best[slot] == 0) {
+            out[count++] = slot;
+          }
+          best[slot] = Math.max(best[slot], WEIGHT_BY_FIELDS[postings.fields[i]] * multiplier);
+        }
+      }
+      for (int i = 0; i < count; i++) {
+        int slot = out[i];
+        matched[slot] = round;
+        scratch.score[slot] += best[slot];
+        best[slot] = 0;
+      }
+      return count;
+    }
+
+    /**
+     * Same as {@link #scan} for a few parts, by their own terms. {@code out} may be {@code hits}
+     * itself, as matches are written no further along than they are read.
+     */
+    private int narrow(int[] hits, int hitCount, String token, int[] out, Scratch scratch, int round) {
+      int count = 0;
+      for (int h = 0; h < hitCount; h++) {
+        int slot = hits[h];
+        Document document = documents[slot];
+        int weight = 0;
+        for (int i = 0; i < document.terms.length; i++) {
+          String term = document.terms[i];
+          if (term.startsWith(token)) {
+            int multiplier = term.length() == token.length() ? 2 : 1;
+            weight = Math.max(weight, WEIGHT_BY_FIELDS[document.fields[i]] * multiplier);
+          }
+        }
+        if (weight > 0) {
+          scratch.matched[slot] = round;
+          scratch.score[slot] += weight;
+          out[count++] = slot;
+        }
+      }
+      return count;
+    }
+
+    private SortedMap<String, Postings> range(String token) {
+      return terms.subMap(token, true, token + Character.MAX_VALUE, false);
+    }
+
+    /** The best {@code limit} hits, found with a bounded heap whose root is the worst kept hit. */
+    private List<SparePartSearchHitDto> top(int[] hits, int hitCount, int[] score, int limit) {
+      int[] heap = new int[Math.min(limit, hitCount)];
+      int size = 0;
+      for (int i = 0; i < hitCount; i++) {
+        int slot = hits[i];
+        if (size < heap.length) {
+          heap[size] = slot;
+          siftUp(heap, size++, score);
+        } else if (better(slot, heap[0], score)) {
+          heap[0] = slot;
+          siftDown(heap, size, score);
+        }
+      }
+      List<SparePartSearchHitDto> results = new ArrayList<>(size);
+      while (size > 0) {
+        int slot = heap[0];
+        heap[0] = heap[--size];
+        siftDown(heap, size, score);
+        Document document = documents[slot];
+        results.add(new SparePartSearchHitDto(
+            document.id,
+            document.name,
+            document.category,
+            document.supplier,
+            document.location,
+            document.quantityInStock,
+            score[slot]));
+      }
+      // Popped worst first
+      Collections.reverse(results);
+      return results;
+    }
+
+    private boolean better(int a, int b, int[] score) {
+      if (score[a] != score[b]) {
+        return score[a] > score[b];
+      }
+      return order[a] < order[b];
+    }
+
+    private void siftUp(int[] heap, int at, int[] score) {
+      while (at > 0) {
+        int parent = (at - 1) >>> 1;
+        if (!better(heap[parent], heap[at], score)) {
+          return;
+        }
+        swap(heap, parent, at);
+        at = parent;
+      }
+    }
+
+    private void siftDown(int[] heap, int size, int[] score) {
+      int at = 0;
+      while (true) {
+        int worst = at;
+        int left = 2 * at + 1;
+        int right = left + 1;
+        if (left < size && better(heap[worst], heap[left], score)) {
+          worst = left;
+        }
+        if (right < size && better(heap[worst], heap[right], score)) {
+          worst = right;
+        }
+        if (worst == at) {
+          return;
+        }
+        swap(heap, at, worst);
+        at = worst;
+      }
+    }
+
+    private static void swap(int[] heap, int a, int b) {
+      int tmp = heap[a];
+      heap[a] = heap[b];
+      heap[b] = tmp;
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onApplicationReady() {
+    // Startup does not wait for the catalog; searches use the database until this finishes
+    Thread thread = new Thread(this::scheduledRebuild, "parts-search-index");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  @Scheduled(
+      fixedDelayString = "${app.inventory.search.rebuild-interval-ms:3600000}",
+      initialDelayString = "${app.inventory.search.rebuild-interval-ms:3600000}")
+  public void scheduledRebuild() {
+    try {
+      rebuild();
+    } catch (RuntimeException ex) {
+      log.error("Parts search index rebuild failed{}", ready ? ", keeping the previous index" : "", ex);
+    }
+  }
+
+  /** Reloads every part from the database; a rebuild already running makes this a no-op. */
+  public void rebuild() {
+    if (!rebuilding.compareAndSet(false, true)) {
+      return;
+    }
+    long started = System.nanoTime();
+    try {
+      withWriteLock(() -> replay = new ArrayList<>());
+      Index fresh = new Index();
+      for (Document document : jdbcTemplate.query(LOAD_PARTS, DOCUMENT)) {
+        fresh.put(document);
+      }
+      fresh.trim();
+      withWriteLock(() -> {
+        replay.forEach(change -> change.applyTo(fresh));
+        index = fresh;
+        ready = true;
+        return null;
+      });
+      log.info("Parts search index loaded {} parts and {} terms in {} ms",
+          fresh.size(), fresh.termCount(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    } finally {
+      withWriteLock(() -> replay = null);
+      rebuilding.set(false);
+    }
+  }
+
+  public boolean isReady() {
+    return ready;
+  }
+
+  /**
+   * @return up to {@code limit} parts matching every token of {@code query} as a prefix, best
+   *     first; empty for a query without tokens
+   */
+  public List<SparePartSearchHitDto> search(String query, int limit) {
+    List<String> tokens = tokens(query);
+    if (tokens.isEmpty() || limit <= 0) {
+      return List.of();
+    }
+    long started = System.nanoTime();
+    lock.readLock().lock();
+    try {
+      return index.search(tokens, limit);
+    } finally {
+      lock.readLock().unlock();
+      queryTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /** Adds or replaces a saved part, once the surrounding transaction commits if there is one. */
+  public void index(SparePart part) {
+    if (part != null && part.getId() != null) {
+      afterCommit(new Change(part.getId(), Document.of(part)));
+    }
+  }
+
+  /** Drops a deleted part, once the surrounding transaction commits if there is one. */
+  public void remove(Integer id) {
+    if (id != null) {
+      afterCommit(new Change(id, null));
+    }
+  }
+
+  int size() {
+    return read(() -> index.size());
+  }
+
+  int termCount() {
+    return read(() -> index.termCount());
+  }
+
+  long estimatedBytes() {
+    return read(() -> index.estimatedBytes());
+  }
+
+  /** Lower-case, accent-free alphanumeric tokens of {@code text}, each once, in order. */
+  static List<String> tokens(String text) {
+    if (text == null || text.isBlank()) {
+      return List.of();
+    }
+    String folded =
+        MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+            .replaceAll("")
+            // Not a combining mark, so NFD leaves it alone
+            .replace('đ', 'd')
+            .replace('Đ', 'D')
+            .toLowerCase(Locale.ROOT);
+    Set<String> tokens = new LinkedHashSet<>();
+    for (String token : SEPARATORS.split(folded)) {
+      if (!token.isEmpty()) {
+        tokens.add(token);
+      }
+    }
+    return List.copyOf(tokens);
+  }
+
+  private void afterCommit(Change change) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      apply(change);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        apply(change);
+      }
+    });
+  }
+
+  private void apply(Change change) {
+    withWriteLock(() -> {
+      change.applyTo(index);
+      if (replay != null) {
+        replay.add(change);
+      }
+      return null;
+    });
+  }
+
+  private <T> T read(Supplier<T> action) {
+    lock.readLock().lock();
+    try {
+      return action.get();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private <T> T withWriteLock(Supplier<T> action) {
+    lock.writeLock().lock();
+    try {
+      return action.get();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+}
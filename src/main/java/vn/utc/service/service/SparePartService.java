@@ -1,14 +1,23 @@
 package vn.utc.service.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import vn.utc.service.dtos.PaginatedResponseDto;
+import vn.utc.service.dtos.SparePartSearchHitDto;
+import vn.utc.service.dtos.StockChangeEvent;
 import vn.utc.service.entity.SparePart;
 import vn.utc.service.repo.SparePartRepository;
+import vn.utc.service.repo.SparePartSpecifications;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
@@ -16,15 +25,19 @@ import java.util.Optional;
 public class SparePartService {
     
     private final SparePartRepository sparePartRepository;
+    private final KeysetPager keysetPager;
+    private final OutboxService outboxService;
+    private final SparePartSearchIndex searchIndex;
+
+    @Value("${app.inventory.search.max-results:50}")
+    private int maxSearchResults = 50;
     
     /**
      * Find all spare parts that are below their minimum stock level
      * @return List of spare parts with low stock
      */
     public List<SparePart> findLowStockItems() {
-        return sparePartRepository.findAll().stream()
-                .filter(part -> part.getQuantityInStock() <= part.getMinimumStockLevel())
-                .toList();
+        return sparePartRepository.findAll(SparePartSpecifications.matches(null, null, "LOW"));
     }
     
     /**
@@ -33,19 +46,7 @@ public class SparePartService {
      * @return Page of spare parts with low stock
      */
     public Page<SparePart> findLowStockItems(Pageable pageable) {
-        List<SparePart> allParts = sparePartRepository.findAll();
-        List<SparePart> lowStockItems = allParts.stream()
-                .filter(part -> part.getQuantityInStock() <= part.getMinimumStockLevel())
-                .toList();
-        
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), lowStockItems.size());
-        
-        if (start > lowStockItems.size()) {
-            return new PageImpl<>(List.of(), pageable, lowStockItems.size());
-        }
-        
-        return new PageImpl<>(lowStockItems.subList(start, end), pageable, lowStockItems.size());
+        return sparePartRepository.findAll(SparePartSpecifications.matches(null, null, "LOW"), pageable);
     }
     
     /**
@@ -83,28 +84,44 @@ public class SparePartService {
      * @return Page of filtered spare parts
      */
     public Page<SparePart> findAll(Pageable pageable, String category, String search, String stockStatus) {
-        List<SparePart> allParts = sparePartRepository.findAll();
-        
-        // Apply filters
-        List<SparePart> filteredParts = allParts.stream()
-                .filter(part -> category == null || category.isEmpty() || category.equals(part.getCategory()))
-                .filter(part -> search == null || search.isEmpty() || 
-                        part.getName().toLowerCase().contains(search.toLowerCase()) ||
-                        part.getDescription().toLowerCase().contains(search.toLowerCase()))
-                .filter(part -> stockStatus == null || stockStatus.isEmpty() || 
-                        (stockStatus.equals("LOW") && part.getQuantityInStock() <= part.getMinimumStockLevel()) ||
-                        (stockStatus.equals("MODERATE") && part.getQuantityInStock() > part.getMinimumStockLevel() && part.getQuantityInStock() <= part.getMinimumStockLevel() * 2) ||
-                        (stockStatus.equals("ADEQUATE") && part.getQuantityInStock() > part.getMinimumStockLevel() * 2))
-                .toList();
-        
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), filteredParts.size());
-        
-        if (start > filteredParts.size()) {
-            return new PageImpl<>(List.of(), pageable, filteredParts.size());
+        // One filtered, sorted page plus its count, all in the database
+        return sparePartRepository.findAll(
+                SparePartSpecifications.matches(category, search, stockStatus), pageable);
+    }
+    
+    /**
+     * Keyset variant of {@link #findAll(Pageable, String, String, String)}, filtered in the database
+     */
+    public PaginatedResponseDto<SparePart> findAllAfter(String after, String sortBy, String sortDir, int size,
+                                                        String category, String search, String stockStatus) {
+        KeysetPager.KeysetRequest request = keysetPager.request(SparePart.class, after, sortBy, sortDir, size);
+        Window<SparePart> window = sparePartRepository.findBy(
+                SparePartSpecifications.matches(category, search, stockStatus),
+                query -> query.sortBy(request.sort()).limit(request.size()).scroll(request.position()));
+        return keysetPager.toResponse(request, window, window.getContent());
+    }
+    
+    /**
+     * Type-ahead search over name, description, category, supplier and location, served from the
+     * in-memory index; until the index has loaded, falls back to the database filter by name and
+     * description
+     * @param query Name fragments, each matched as a word prefix
+     * @param limit Maximum number of results, capped by app.inventory.search.max-results
+     * @return Matching parts, best match first
+     */
+    public List<SparePartSearchHitDto> search(String query, int limit) {
+        int size = Math.max(1, Math.min(limit, maxSearchResults));
+        if (searchIndex.isReady()) {
+            return searchIndex.search(query, size);
+        }
+        if (query == null || query.isBlank()) {
+            return List.of();
         }
-        
-        return new PageImpl<>(filteredParts.subList(start, end), pageable, filteredParts.size());
+        return sparePartRepository.findAll(SparePartSpecifications.matches(null, query.trim(), null),
+                        PageRequest.of(0, size))
+                .map(part -> new SparePartSearchHitDto(part.getId(), part.getName(), part.getCategory(),
+                        part.getSupplier(), part.getLocation(), part.getQuantityInStock(), 0))
+                .getContent();
     }
     
     /**
@@ -113,7 +130,9 @@ public class SparePartService {
      * @return The saved spare part
      */
     public SparePart save(SparePart sparePart) {
-        return sparePartRepository.save(sparePart);
+        SparePart saved = sparePartRepository.save(sparePart);
+        searchIndex.index(saved);
+        return saved;
     }
     
     /**
@@ -122,6 +141,7 @@ public class SparePartService {
      */
     public void deleteById(Integer id) {
         sparePartRepository.deleteById(id);
+        searchIndex.remove(id);
     }
     
     /**
@@ -130,22 +150,28 @@ public class SparePartService {
      * @return List of spare parts in the specified category
      */
     public List<SparePart> findByCategory(String category) {
-        return sparePartRepository.findAll().stream()
-                .filter(part -> category.equals(part.getCategory()))
-                .toList();
+        return sparePartRepository.findByCategory(category);
     }
     
     /**
      * Update the stock quantity of a spare part
      * @param id The spare part ID
      * @param quantity The new quantity
-     * @return The updated spare part
+     * @return The updated spare part; an actual change is also written to the outbox
      */
+    @Transactional
     public Optional<SparePart> updateStockQuantity(Integer id, Integer quantity) {
         return sparePartRepository.findById(id)
                 .map(part -> {
+                    Integer previousQuantity = part.getQuantityInStock();
                     part.setQuantityInStock(quantity);
-                    return sparePartRepository.save(part);
+                    SparePart saved = sparePartRepository.save(part);
+                    searchIndex.index(saved);
+                    if (!Objects.equals(previousQuantity, quantity)) {
+                        outboxService.append(OutboxService.SPARE_PART, id, OutboxService.STOCK_CHANGED,
+                                new StockChangeEvent(id, previousQuantity, quantity, Instant.now()));
+                    }
+                    return saved;
                 });
     }
 } 
\ No newline at end of file
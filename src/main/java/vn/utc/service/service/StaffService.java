@@ -3,7 +3,6 @@ package vn.utc.service.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import vn.utc.service.config.ContsConfig;
 import vn.utc.service.dtos.RoleDto;
@@ -32,7 +31,7 @@ public class StaffService {
     private  final StaffMapper staffMapper;
     private final UserMapper userMapper;
     private final RoleService roleService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
 
     public Optional<StaffDto> findByUser(String username) {
     UserDto userDto =
@@ -65,7 +64,7 @@ public class StaffService {
                 new UserDto()
                         .setUsername(registerRequest.username())
                         .setEmail(registerRequest.email())
-                        .setPassword(passwordEncoder.encode(registerRequest.password()))
+                        .setPassword(passwordHashingService.encode(registerRequest.password()))
                         .setPhone(registerRequest.phone())
                         .setRole(String.valueOf(roles.iterator().next().name()))
                         .setActive(true)
@@ -99,7 +98,7 @@ public class StaffService {
                 new UserDto()
                         .setUsername(registerRequest.username())
                         .setEmail(registerRequest.email())
-                        .setPassword(passwordEncoder.encode(registerRequest.password()))
+                        .setPassword(passwordHashingService.encode(registerRequest.password()))
                         .setPhone(registerRequest.phone())
                         .setRole(String.valueOf(roles.iterator().next().name()))
                         .setActive(true)
@@ -0,0 +1,135 @@
+package vn.utc.service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import vn.utc.service.config.ContsConfig;
+import vn.utc.service.dtos.JwtClaims;
+import vn.utc.service.dtos.StatusChangeBatch;
+import vn.utc.service.dtos.StatusChangeEvent;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Fans committed status changes out to SSE subscribers. Every event gets a sequence id and is kept
+ * in a fixed-size ring so reconnecting clients can resume from {@code Last-Event-ID}. Each
+ * subscriber reads through its own bounded buffer that drops the oldest events when the client
+ * falls behind, so a slow connection never holds up publishing.
+ */
+@Slf4j
+@Component
+public class StatusEventBroadcaster {
+
+  /** One event as sent on the wire; {@code id} becomes the SSE event id. */
+  public record Sequenced(long id, StatusChangeEvent event) {}
+
+  private final Sequenced[] ring;
+  private final int subscriberBufferSize;
+  private final Set<Consumer<Sequenced>> listeners = new CopyOnWriteArraySet<>();
+  private final Counter dropped;
+  // Seeded from the clock so ids keep increasing across restarts
+  private long lastId = System.currentTimeMillis();
+  private int size;
+
+  public StatusEventBroadcaster(
+      @Value("${app.events.replay-size:1024}") int replaySize,
+      @Value("${app.events.subscriber-buffer-size:256}") int subscriberBufferSize,
+      MeterRegistry meterRegistry) {
+    this.ring = new Sequenced[Math.max(1, replaySize)];
+    this.subscriberBufferSize = Math.max(1, subscriberBufferSize);
+    this.dropped = Counter.builder("events.stream.dropped").register(meterRegistry);
+    Gauge.builder("events.stream.subscribers", listeners, Set::size).register(meterRegistry);
+  }
+
+  /** Runs after the publishing transaction commits; rolled-back changes are never sent. */
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+  public synchronized void publish(StatusChangeEvent event) {
+    append(event);
+  }
+
+  /**
+   * Publishes a committed batch under one lock hold. Changes to the same entity are coalesced to
+   * the last one, so subscribers only see where each entity ended up.
+   */
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+  public synchronized void publishAll(StatusChangeBatch batch) {
+    Map<String, StatusChangeEvent> latest = new LinkedHashMap<>();
+    for (StatusChangeEvent event : batch.events()) {
+      latest.remove(event.type() + ':' + event.entityId());
+      latest.put(event.type() + ':' + event.entityId(), event);
+    }
+    latest.values().forEach(this::append);
+  }
+
+  private void append(StatusChangeEvent event) {
+    Sequenced sequenced = new Sequenced(++lastId, event);
+    ring[(int) (sequenced.id() % ring.length)] = sequenced;
+    size = Math.min(size + 1, ring.length);
+    listeners.forEach(listener -> listener.accept(sequenced));
+  }
+
+  /**
+   * Live events visible to the subscriber, preceded by any buffered events after
+   * {@code lastEventId}. Replay and registration happen under the publish lock, so nothing is
+   * missed or repeated between the two.
+   */
+  public Flux<Sequenced> subscribe(Predicate<StatusChangeEvent> visible, Long lastEventId) {
+    return Flux.<Sequenced>create(sink -> {
+          Consumer<Sequenced> listener = sink::next;
+          synchronized (this) {
+            if (lastEventId != null) {
+              replayAfter(lastEventId).forEach(sink::next);
+            }
+            listeners.add(listener);
+          }
+          sink.onDispose(() -> listeners.remove(listener));
+        })
+        .filter(sequenced -> StatusChangeEvent.RESYNC.equals(sequenced.event().type())
+            || visible.test(sequenced.event()))
+        .onBackpressureBuffer(
+            subscriberBufferSize, skipped -> dropped.increment(), BufferOverflowStrategy.DROP_OLDEST);
+  }
+
+  /** Staff roles see every change; customers only changes to their own appointments. */
+  public static Predicate<StatusChangeEvent> visibleTo(JwtClaims claims, Integer customerId) {
+    if (claims.hasRole(ContsConfig.MANAGER)
+        || claims.hasRole(ContsConfig.RECEPTIONIST)
+        || claims.hasRole(ContsConfig.STAFF)) {
+      return event -> true;
+    }
+    return event -> customerId != null && customerId.equals(event.customerId());
+  }
+
+  private List<Sequenced> replayAfter(long lastEventId) {
+    List<Sequenced> replay = new ArrayList<>();
+    if (lastEventId >= lastId) {
+      return replay;
+    }
+    long oldest = lastId - size + 1;
+    if (lastEventId < oldest - 1) {
+      // Part of what the client missed is gone; tell it to refetch before applying live events
+      replay.add(new Sequenced(lastId,
+          new StatusChangeEvent(StatusChangeEvent.RESYNC, null, null, null, null, Instant.now())));
+      return replay;
+    }
+    for (long id = lastEventId + 1; id <= lastId; id++) {
+      replay.add(ring[(int) (id % ring.length)]);
+    }
+    return replay;
+  }
+}
@@ -0,0 +1,364 @@
+package vn.utc.service.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import vn.utc.service.config.AssignmentProperties;
+import vn.utc.service.config.BookingProperties;
+import vn.utc.service.dtos.OpenAssignmentView;
+import vn.utc.service.dtos.TechnicianLoadDto;
+import vn.utc.service.entity.Appointment;
+import vn.utc.service.entity.Staff;
+import vn.utc.service.repo.StaffRepository;
+import vn.utc.service.repo.WorkOrderRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Live workload per technician, used to suggest or auto-assign the least-loaded qualified
+ * technician for a work order. Technicians and open work orders are held in int-keyed maps, and
+ * technicians are additionally kept in load-ordered trees, overall and per specialization, so a
+ * pick or a load change costs O(log n).
+ *
+ * <p>Load is the estimated remaining hours of a technician's open work orders: from now, or the
+ * appointment start if later, until its estimated completion, or else the end of the service
+ * type's booking duration. Remaining time is taken when a work order is counted, and refreshed by
+ * each rebuild. Changes are applied as soon as they are made, so concurrent assignments see each
+ * other, and undone if the surrounding transaction rolls back. The state is rebuilt from the
+ * database at startup and periodically, which also picks up staff changes and writes made
+ * elsewhere; changes made while a rebuild reads the database are replayed onto the new state.
+ */
+@Slf4j
+@Service
+public class TechnicianAssignmentEngine {
+
+  /** Work-order statuses that no longer count towards a technician's load. */
+  static final Set<String> CLOSED_STATUSES = Set.of("COMPLETED", "CANCELLED");
+
+  private static final Comparator<Technician> BY_LOAD =
+      Comparator.comparingLong((Technician technician) -> technician.minutes)
+          .thenComparingInt(technician -> technician.open)
+          .thenComparingInt(technician -> technician.id);
+
+  private final StaffRepository staffRepository;
+  private final WorkOrderRepository workOrderRepository;
+  private final AssignmentProperties properties;
+  private final BookingProperties bookingProperties;
+  private final Clock clock;
+  private final Map<String, String> specializationByServiceType = new HashMap<>();
+  private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+  // Guarded by this; replaced wholesale by rebuild()
+  private State state = new State(0, 0);
+  // Changes made while a rebuild reads the database, replayed onto the new state; guarded by this
+  private List<Change> replay;
+
+  @Autowired
+  public TechnicianAssignmentEngine(
+      StaffRepository staffRepository,
+      WorkOrderRepository workOrderRepository,
+      AssignmentProperties properties,
+      BookingProperties bookingProperties) {
+    this(staffRepository, workOrderRepository, properties, bookingProperties, Clock.systemUTC());
+  }
+
+  TechnicianAssignmentEngine(
+      StaffRepository staffRepository,
+      WorkOrderRepository workOrderRepository,
+      AssignmentProperties properties,
+      BookingProperties bookingProperties,
+      Clock clock) {
+    this.staffRepository = staffRepository;
+    this.workOrderRepository = workOrderRepository;
+    this.properties = properties;
+    this.bookingProperties = bookingProperties;
+    this.clock = clock;
+    properties.getSpecializations()
+        .forEach((serviceType, specialization) ->
+            specializationByServiceType.put(key(serviceType), key(specialization)));
+  }
+
+  /** One technician's running load; never mutated while in a tree. */
+  private static final class Technician {
+    final int id;
+    final String name;
+    final String specialization;
+    final String specializationKey;
+    int open;
+    long minutes;
+
+    Technician(int id, String name, String specialization) {
+      this.id = id;
+      this.name = name;
+      this.specialization = specialization == null || specialization.isBlank() ? null : specialization;
+      this.specializationKey = this.specialization == null ? null : key(this.specialization);
+    }
+  }
+
+  /** An open work order counted against {@code staffId}. */
+  record Job(int staffId, long minutes) {}
+
+  /** A work order's job set to {@code job}, or dropped when it is null. */
+  private record Change(int workOrderId, Job job) {}
+
+  private static final class State {
+    final IntObjectMap<Technician> technicians;
+    final IntObjectMap<Job> jobs;
+    final TreeSet<Technician> byLoad = new TreeSet<>(BY_LOAD);
+    final Map<String, TreeSet<Technician>> bySpecialization = new HashMap<>();
+
+    State(int technicianCount, int jobCount) {
+      technicians = new IntObjectMap<>(technicianCount);
+      jobs = new IntObjectMap<>(jobCount);
+    }
+
+    void addTechnician(Technician technician) {
+      technicians.put(technician.id, technician);
+      byLoad.add(technician);
+      if (technician.specializationKey != null) {
+        bySpecialization.computeIfAbsent(technician.specializationKey, key -> new TreeSet<>(BY_LOAD))
+            .add(technician);
+      }
+    }
+
+    void addJob(int workOrderId, Job job) {
+      jobs.put(workOrderId, job);
+      adjust(job.staffId(), 1, job.minutes());
+    }
+
+    /** Replaces the job recorded for a work order, returning the one it had. */
+    Job setJob(int workOrderId, Job job) {
+      Job previous = jobs.get(workOrderId);
+      removeJob(workOrderId);
+      if (job != null) {
+        addJob(workOrderId, job);
+      }
+      return previous;
+    }
+
+    void removeJob(int workOrderId) {
+      Job job = jobs.remove(workOrderId);
+      if (job != null) {
+        adjust(job.staffId(), -1, -job.minutes());
+      }
+    }
+
+    /** Jobs of staff outside the technician positions are recorded but carry no load. */
+    private void adjust(int staffId, int open, long minutes) {
+      Technician technician = technicians.get(staffId);
+      if (technician == null) {
+        return;
+      }
+      // Tree order depends on the load, so the entry has to come out before it changes
+      byLoad.remove(technician);
+      TreeSet<Technician> specialists =
+          technician.specializationKey == null ? null : bySpecialization.get(technician.specializationKey);
+      if (specialists != null) {
+        specialists.remove(technician);
+      }
+      technician.open += open;
+      technician.minutes += minutes;
+      byLoad.add(technician);
+      if (specialists != null) {
+        specialists.add(technician);
+      }
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onApplicationReady() {
+    rebuild();
+  }
+
+  @Scheduled(
+      fixedDelayString = "${app.assignment.rebuild-interval-ms:300000}",
+      initialDelayString = "${app.assignment.rebuild-interval-ms:300000}")
+  public void scheduledRebuild() {
+    rebuild();
+  }
+
+  /**
+   * Reloads technicians and their open work orders from the database; a rebuild already running
+   * makes this a no-op.
+   */
+  public void rebuild() {
+    if (!rebuilding.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      synchronized (this) {
+        replay = new ArrayList<>();
+      }
+      List<String> positions =
+          properties.getPositions().stream().map(position -> position.trim().toLowerCase(Locale.ROOT)).toList();
+      List<Staff> staff = staffRepository.findByPositionsIgnoreCase(positions);
+      List<OpenAssignmentView> open = workOrderRepository.findOpenAssignments(CLOSED_STATUSES);
+
+      State fresh = new State(staff.size(), open.size());
+      for (Staff member : staff) {
+        fresh.addTechnician(new Technician(
+            member.getId(),
+            member.getFirstName() + " " + member.getLastName(),
+            member.getSpecialization()));
+      }
+      for (OpenAssignmentView row : open) {
+        fresh.addJob(row.getWorkOrderId(), new Job(
+            row.getStaffId(), remainingMinutes(row.getStartsAt(), row.getEndsAt(), row.getServiceType())));
+      }
+      synchronized (this) {
+        // The load may or may not have seen these; applying them again is harmless either way
+        for (Change change : replay) {
+          fresh.setJob(change.workOrderId(), change.job());
+        }
+        state = fresh;
+      }
+      log.info("Assignment engine loaded {} technicians and {} open work orders", staff.size(), open.size());
+    } finally {
+      synchronized (this) {
+        replay = null;
+      }
+      rebuilding.set(false);
+    }
+  }
+
+  /** The technician an assignment would go to right now, without recording anything. */
+  public synchronized Optional<TechnicianLoadDto> suggest(String serviceType) {
+    Technician technician = pick(serviceType);
+    return technician == null ? Optional.empty() : Optional.of(toDto(technician));
+  }
+
+  /**
+   * Picks the least-loaded technician qualified for the appointment's service type and counts the
+   * work order against them in the same step, so simultaneous assignments spread out. Specialists
+   * are preferred; when nobody has the specialization any technician qualifies.
+   *
+   * @return the chosen staff id
+   * @throws IllegalArgumentException when there are no technicians
+   */
+  public synchronized int assign(int workOrderId, Appointment appointment) {
+    String serviceType = appointment != null ? appointment.getServiceType() : null;
+    Technician technician = pick(serviceType);
+    if (technician == null) {
+      throw new IllegalArgumentException("No technician available to assign");
+    }
+    setJob(workOrderId, new Job(technician.id, remainingMinutes(appointment)));
+    return technician.id;
+  }
+
+  /**
+   * Brings the engine in line with a work order that was created or changed: counted against
+   * {@code staffId} while open, dropped once closed or unassigned. Safe to repeat.
+   */
+  public synchronized void track(int workOrderId, Integer staffId, String status, Appointment appointment) {
+    boolean open = staffId != null
+        && (status == null || !CLOSED_STATUSES.contains(status.trim().toUpperCase(Locale.ROOT)));
+    setJob(workOrderId, open ? new Job(staffId, remainingMinutes(appointment)) : null);
+  }
+
+  /** Every technician with their current load, least loaded first. */
+  public synchronized List<TechnicianLoadDto> loads() {
+    List<TechnicianLoadDto> loads = new ArrayList<>(state.byLoad.size());
+    for (Technician technician : state.byLoad) {
+      loads.add(toDto(technician));
+    }
+    return loads;
+  }
+
+  private Technician pick(String serviceType) {
+    String specialization = serviceType == null ? null : specializationByServiceType.get(key(serviceType));
+    TreeSet<Technician> specialists = specialization == null ? null : state.bySpecialization.get(specialization);
+    TreeSet<Technician> candidates = specialists != null && !specialists.isEmpty() ? specialists : state.byLoad;
+    return candidates.isEmpty() ? null : candidates.first();
+  }
+
+  /** Replaces the job recorded for a work order, restoring the old one if the transaction rolls back. */
+  private void setJob(int workOrderId, Job job) {
+    State mutated = state;
+    Job previous = apply(workOrderId, job);
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        if (status != STATUS_COMMITTED) {
+          synchronized (TechnicianAssignmentEngine.this) {
+            // A rebuild since then read the database, which never saw this change, so the new
+            // state only holds it if it was replayed there
+            if (state == mutated || Objects.equals(state.jobs.get(workOrderId), job)) {
+              apply(workOrderId, previous);
+            }
+          }
+        }
+      }
+    });
+  }
+
+  private Job apply(int workOrderId, Job job) {
+    if (replay != null) {
+      replay.add(new Change(workOrderId, job));
+    }
+    return state.setJob(workOrderId, job);
+  }
+
+  private long remainingMinutes(Appointment appointment) {
+    return appointment == null
+        ? bookingProperties.getDefaultDurationMinutes()
+        : remainingMinutes(
+            appointment.getAppointmentDate(),
+            appointment.getEstimatedCompletion(),
+            appointment.getServiceType());
+  }
+
+  /** Minutes left until the work is expected done, never negative for overrunning work orders. */
+  private long remainingMinutes(Instant start, Instant estimatedCompletion, String serviceType) {
+    long planned = plannedMinutes(start, estimatedCompletion, serviceType);
+    if (start == null) {
+      return planned;
+    }
+    Instant now = clock.instant();
+    Instant end = start.plus(Duration.ofMinutes(planned));
+    Instant from = start.isAfter(now) ? start : now;
+    return Math.max(0, Duration.between(from, end).toMinutes());
+  }
+
+  private long plannedMinutes(Instant start, Instant estimatedCompletion, String serviceType) {
+    if (start != null && estimatedCompletion != null && estimatedCompletion.isAfter(start)) {
+      return Duration.between(start, estimatedCompletion).toMinutes();
+    }
+    Integer minutes = serviceType == null ? null : bookingProperties.getServiceDurations().get(key(serviceType));
+    return minutes != null ? minutes : bookingProperties.getDefaultDurationMinutes();
+  }
+
+  private static TechnicianLoadDto toDto(Technician technician) {
+    return new TechnicianLoadDto(
+        technician.id,
+        technician.name,
+        technician.specialization,
+        technician.open,
+        technician.minutes / 60.0);
+  }
+
+  /** Upper-case code form shared by service types and specializations, e.g. {@code BRAKE_SYSTEMS}. */
+  private static String key(String value) {
+    return value.trim().toUpperCase(Locale.ROOT).replace(' ', '_').replace('-', '_');
+  }
+}
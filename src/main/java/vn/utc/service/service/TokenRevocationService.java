@@ -0,0 +1,47 @@
+package vn.utc.service.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import vn.utc.service.dtos.JwtClaims;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory deny-list for stateless access tokens. Revoking a user rejects every token issued to
+ * them up to that moment; entries are dropped once all such tokens would have expired anyway.
+ */
+@Service
+public class TokenRevocationService {
+
+  private final Map<Integer, Instant> revokedBefore = new ConcurrentHashMap<>();
+
+  @Value("${app.jwt.expiration}")
+  private long jwtExpirationInMs;
+
+  /** Revokes all access tokens issued to the user so far. */
+  public void revokeAll(Integer userId) {
+    if (userId == null) {
+      return;
+    }
+    // Tokens carry their issue time in milliseconds, so a login right after this one survives
+    Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    revokedBefore.merge(userId, now, (current, next) -> next.isAfter(current) ? next : current);
+    purgeExpired();
+  }
+
+  public boolean isRevoked(JwtClaims claims) {
+    if (claims.userId() == null) {
+      return false;
+    }
+    Instant cutoff = revokedBefore.get(claims.userId());
+    return cutoff != null && (claims.issuedAt() == null || !claims.issuedAt().isAfter(cutoff));
+  }
+
+  private void purgeExpired() {
+    Instant horizon = Instant.now().minusMillis(jwtExpirationInMs);
+    revokedBefore.values().removeIf(cutoff -> cutoff.isBefore(horizon));
+  }
+}
@@ -40,6 +40,11 @@ public class UserService {
     return userMapper.toDto(userRepository.save(user));
   }
 
+  @Transactional
+  public void updatePassword(String username, String encodedPassword) {
+    userRepository.updatePassword(username, encodedPassword);
+  }
+
   public Optional<UserDto> findById(int id) {
     User user = userRepository.findById(id).orElse(null);
     return Optional.ofNullable(userMapper.toDto(user));
@@ -3,8 +3,11 @@ package vn.utc.service.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import vn.utc.service.dtos.CountMode;
 import vn.utc.service.dtos.CustomerDto;
 import vn.utc.service.dtos.UserDto;
 import vn.utc.service.dtos.VehicleDto;
@@ -13,6 +16,7 @@ import vn.utc.service.dtos.ComponentHealthDto;
 import vn.utc.service.dtos.ComponentStatusDto;
 import vn.utc.service.dtos.HealthHistoryDto;
 import vn.utc.service.dtos.MaintenanceItemDto;
+import vn.utc.service.dtos.PaginatedResponseDto;
 import vn.utc.service.entity.Vehicle;
 import vn.utc.service.exception.CustomerNotFoundException;
 import vn.utc.service.exception.UserNotFoundException;
@@ -20,6 +24,7 @@ import vn.utc.service.exception.VehicleNotFoundException;
 import vn.utc.service.mapper.CustomerMapper;
 import vn.utc.service.mapper.VehicleMapper;
 import vn.utc.service.repo.VehicleRepository;
+import vn.utc.service.repo.VehicleSpecifications;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -34,6 +39,8 @@ public class VehicleService {
   private final CustomerService customerService;
   private final UserService userService;
   private final CustomerMapper customerMapper;
+  private final KeysetPager keysetPager;
+  private final CountCache countCache;
 
   public List<VehicleDto> getAllVehicles() {
     List<Vehicle> vehicles = vehicleRepository.findAll();
@@ -63,6 +70,60 @@ public class VehicleService {
         .map(vehicleMapper::toDto);
   }
 
+  /** Lists vehicles, obtaining the total the way {@code countMode} asks for. */
+  @Transactional(readOnly = true)
+  public PaginatedResponseDto<VehicleDto> getVehicles(
+      Pageable pageable, String search, String make, String model, Integer year, Integer customerId,
+      CountMode countMode) {
+    if (countMode == CountMode.EXACT) {
+      Page<VehicleDto> page = getAllVehicles(pageable, search, make, model, year, customerId);
+      return PaginatedResponseDto.of(
+          page.getContent(), page.getNumber(), page.getSize(), page.getTotalElements());
+    }
+    boolean filtered =
+        search != null && !search.trim().isEmpty() ||
+        make != null && !make.trim().isEmpty() ||
+        model != null && !model.trim().isEmpty() ||
+        year != null || customerId != null;
+    Slice<VehicleDto> slice =
+        (filtered
+                ? vehicleRepository.findSliceByFilters(search, make, model, year, customerId, pageable)
+                : vehicleRepository.findAllBy(pageable))
+            .map(vehicleMapper::toDto);
+    if (countMode == CountMode.NONE) {
+      return PaginatedResponseDto.ofSlice(slice);
+    }
+    String signature =
+        filtered
+            ? String.join("|", "search=" + search, "make=" + make, "model=" + model,
+                "year=" + year, "customerId=" + customerId)
+            : "*";
+    long total =
+        countCache.get(
+            Vehicle.class,
+            signature,
+            () ->
+                filtered
+                    ? vehicleRepository.countByFilters(search, make, model, year, customerId)
+                    : vehicleRepository.count());
+    return PaginatedResponseDto.ofSlice(slice, total);
+  }
+
+  /** Keyset variant of {@link #getAllVehicles(Pageable, String, String, String, Integer, Integer)}. */
+  @Transactional(readOnly = true)
+  public PaginatedResponseDto<VehicleDto> getVehiclesAfter(
+      String after, String sortBy, String sortDir, int size,
+      String search, String make, String model, Integer year, Integer customerId) {
+    KeysetPager.KeysetRequest request =
+        keysetPager.request(Vehicle.class, after, sortBy, sortDir, size);
+    Window<Vehicle> window =
+        vehicleRepository.findBy(
+            VehicleSpecifications.matches(search, make, model, year, customerId),
+            query -> query.sortBy(request.sort()).limit(request.size()).scroll(request.position()));
+    return keysetPager.toResponse(
+        request, window, window.getContent().stream().map(vehicleMapper::toDto).toList());
+  }
+
   public List<VehicleDto> getVehiclesByCustomerId(int id) {
     List<Vehicle> vehicles = vehicleRepository.findVehiclesByCustomerId(id);
     List<VehicleDto> vehicleDtos = new ArrayList<>();
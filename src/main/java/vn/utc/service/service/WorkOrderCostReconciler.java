@@ -0,0 +1,179 @@
+package vn.utc.service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+import vn.utc.service.dtos.CostReconciliationReport;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Recomputes work-order totals from the hand-entered {@code manual_cost} and the parts and labor
+ * tables, and reports where the rolled-up {@code total_cost} has drifted, e.g. after writes that
+ * bypassed the entity listener. The id range is split into chunks checked in parallel on the
+ * shared task pool, at most {@code threads} at a time, one aggregate query per chunk.
+ *
+ * <p>Correcting is off unless {@code app.work-orders.cost-reconciliation.fix} is set. Drifted rows
+ * are then locked before being recomputed in a fresh statement. A concurrent line
+ * change has to update the same row to apply its delta, so it either committed before the
+ * recompute (and is included) or waits and applies its delta on top.
+ */
+@Slf4j
+@Service
+public class WorkOrderCostReconciler {
+
+  static final String EXPECTED_TOTAL =
+      "w.manual_cost + COALESCE((SELECT SUM(p.total_price) FROM parts_used p WHERE p.work_order_id = w.work_order_id), 0)"
+          + " + COALESCE((SELECT SUM(l.total_charge) FROM labor_charges l"
+          + " WHERE l.work_order_id = w.work_order_id), 0)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionOperations transactionOperations;
+  private final Executor executor;
+  private final Counter driftedCounter;
+  private final int threads;
+  private final int chunkSize;
+  private final boolean fix;
+
+  @Autowired
+  public WorkOrderCostReconciler(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      ThreadPoolTaskExecutor executor,
+      MeterRegistry meterRegistry,
+      @Value("${app.work-orders.cost-reconciliation.threads:4}") int threads,
+      @Value("${app.work-orders.cost-reconciliation.chunk-size:5000}") int chunkSize,
+      @Value("${app.work-orders.cost-reconciliation.fix:false}") boolean fix) {
+    this(jdbcTemplate, new TransactionTemplate(transactionManager), (Executor) executor, meterRegistry,
+        threads, chunkSize, fix);
+  }
+
+  WorkOrderCostReconciler(
+      JdbcTemplate jdbcTemplate,
+      TransactionOperations transactionOperations,
+      Executor executor,
+      MeterRegistry meterRegistry,
+      int threads,
+      int chunkSize,
+      boolean fix) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionOperations = transactionOperations;
+    this.executor = executor;
+    this.threads = Math.max(1, threads);
+    this.chunkSize = Math.max(1, chunkSize);
+    this.fix = fix;
+    this.driftedCounter = Counter.builder("work_orders.cost.drifted").register(meterRegistry);
+  }
+
+  /** One drifted work order: the stored total and its hand-entered part plus its lines. */
+  record Drift(int workOrderId, BigDecimal recorded, BigDecimal expected) {}
+
+  @Scheduled(
+      cron = "${app.work-orders.cost-reconciliation.cron:0 30 2 * * *}",
+      zone = "${app.garage.time-zone:Asia/Ho_Chi_Minh}")
+  public void scheduledReconcile() {
+    reconcile();
+  }
+
+  /** Checks every work order; corrects drifted totals only when {@code fix} is on. */
+  public CostReconciliationReport reconcile() {
+    Map<String, Object> bounds =
+        jdbcTemplate.queryForMap(
+            "SELECT MIN(work_order_id) AS min_id, MAX(work_order_id) AS max_id, COUNT(*) AS total"
+                + " FROM work_orders");
+    if (bounds.get("min_id") == null) {
+      return new CostReconciliationReport(0, 0, 0, BigDecimal.ZERO);
+    }
+    int minId = ((Number) bounds.get("min_id")).intValue();
+    int maxId = ((Number) bounds.get("max_id")).intValue();
+    long checked = ((Number) bounds.get("total")).longValue();
+
+    // The pool is shared with request work, so only a few chunks are handed to it at a time
+    Deque<CompletableFuture<List<Drift>>> inFlight = new ArrayDeque<>();
+    List<Drift> drifted = new ArrayList<>();
+    for (long from = minId; from <= maxId; from += chunkSize) {
+      int lo = (int) from;
+      int hi = (int) Math.min((long) maxId, from + chunkSize - 1);
+      if (inFlight.size() >= threads) {
+        drifted.addAll(inFlight.removeFirst().join());
+      }
+      inFlight.addLast(CompletableFuture.supplyAsync(() -> reconcileChunk(lo, hi), executor));
+    }
+    while (!inFlight.isEmpty()) {
+      drifted.addAll(inFlight.removeFirst().join());
+    }
+    BigDecimal absoluteDrift =
+        drifted.stream()
+            .map(drift -> drift.expected().subtract(drift.recorded()).abs())
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    driftedCounter.increment(drifted.size());
+    CostReconciliationReport report =
+        new CostReconciliationReport(checked, drifted.size(), fix ? drifted.size() : 0, absoluteDrift);
+    if (drifted.isEmpty()) {
+      log.info("Work-order cost reconciliation: {} checked, no drift", checked);
+    } else {
+      log.warn(
+          "Work-order cost reconciliation: {} of {} totals drifted by {} in total{}; first: {}",
+          drifted.size(),
+          checked,
+          absoluteDrift,
+          fix ? ", corrected" : "",
+          drifted.subList(0, Math.min(10, drifted.size())));
+    }
+    return report;
+  }
+
+  List<Drift> reconcileChunk(int fromId, int toId) {
+    List<Drift> drifted =
+        jdbcTemplate.query(
+            "SELECT work_order_id, recorded, expected FROM ("
+                + "SELECT w.work_order_id, w.total_cost AS recorded, "
+                + EXPECTED_TOTAL
+                + " AS expected FROM work_orders w WHERE w.work_order_id BETWEEN ? AND ?) t"
+                + " WHERE recorded IS DISTINCT FROM expected",
+            (rs, rowNum) ->
+                new Drift(
+                    rs.getInt("work_order_id"),
+                    rs.getBigDecimal("recorded") != null ? rs.getBigDecimal("recorded") : BigDecimal.ZERO,
+                    rs.getBigDecimal("expected")),
+            fromId,
+            toId);
+    if (!fix || drifted.isEmpty()) {
+      return drifted;
+    }
+    String ids = String.join(", ", Collections.nCopies(drifted.size(), "?"));
+    Object[] params = drifted.stream().map(Drift::workOrderId).toArray();
+    transactionOperations.executeWithoutResult(
+        status -> {
+          jdbcTemplate.query(
+              "SELECT work_order_id FROM work_orders WHERE work_order_id IN (" + ids + ") FOR UPDATE",
+              (rs, rowNum) -> rs.getInt(1),
+              params);
+          jdbcTemplate.update(
+              "UPDATE work_orders w SET total_cost = "
+                  + EXPECTED_TOTAL
+                  + " WHERE w.work_order_id IN ("
+                  + ids
+                  + ")",
+              params);
+        });
+    return drifted;
+  }
+}
@@ -0,0 +1,51 @@
+package vn.utc.service.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import vn.utc.service.entity.CostLine;
+import vn.utc.service.entity.listener.CostRollup;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Keeps {@code work_orders.total_cost} equal to the sum of the work order's parts and labor lines
+ * by applying each line change as an atomic {@code total_cost = total_cost + delta}. Runs on the
+ * flushing connection, so the delta commits or rolls back with the line itself, and concurrent
+ * line changes on the same work order never overwrite each other.
+ */
+@Component
+@RequiredArgsConstructor
+public class WorkOrderCostRollup implements CostRollup {
+
+  static final String APPLY_DELTA =
+      "UPDATE work_orders SET total_cost = COALESCE(total_cost, 0) + ? WHERE work_order_id = ?";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Override
+  public void changed(CostLine.Counted before, CostLine.Counted after) {
+    Integer fromWorkOrder = before != null ? before.workOrderId() : null;
+    Integer toWorkOrder = after != null ? after.workOrderId() : null;
+    BigDecimal removed = before != null ? amount(before) : BigDecimal.ZERO;
+    BigDecimal added = after != null ? amount(after) : BigDecimal.ZERO;
+    if (Objects.equals(fromWorkOrder, toWorkOrder)) {
+      applyDelta(toWorkOrder, added.subtract(removed));
+    } else {
+      applyDelta(fromWorkOrder, removed.negate());
+      applyDelta(toWorkOrder, added);
+    }
+  }
+
+  public void applyDelta(Integer workOrderId, BigDecimal delta) {
+    if (workOrderId == null || delta.signum() == 0) {
+      return;
+    }
+    jdbcTemplate.update(APPLY_DELTA, delta, workOrderId);
+  }
+
+  private static BigDecimal amount(CostLine.Counted counted) {
+    return counted.amount() != null ? counted.amount() : BigDecimal.ZERO;
+  }
+}
@@ -1,20 +1,33 @@
 package vn.utc.service.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
+import vn.utc.service.dtos.PaginatedResponseDto;
+import vn.utc.service.dtos.StatusChangeEvent;
 import vn.utc.service.dtos.WorkOrderDto;
 import vn.utc.service.dtos.WorkOrderDetailDto;
+import vn.utc.service.dtos.WorkOrderDetailView;
+import vn.utc.service.dtos.WorkOrderFilter;
 import vn.utc.service.entity.Appointment;
 import vn.utc.service.entity.Staff;
 import vn.utc.service.entity.WorkOrder;
+import vn.utc.service.entity.WorkOrderStatus;
+import vn.utc.service.exception.WorkOrderConflictException;
 import vn.utc.service.mapper.WorkOrderMapper;
 import vn.utc.service.repo.AppointmentRepository;
 import vn.utc.service.repo.StaffRepository;
+import vn.utc.service.repo.WorkOrderSpecifications;
 import vn.utc.service.repo.WorkOrderRepository;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -22,7 +35,10 @@ import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 @RequiredArgsConstructor
@@ -31,6 +47,18 @@ public class WorkOrderService {
     private final WorkOrderMapper workOrderMapper;
     private final StaffRepository staffRepository;
     private final AppointmentRepository appointmentRepository;
+    private final KeysetPager keysetPager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TechnicianAssignmentEngine assignmentEngine;
+    private final TransactionOperations transactionOperations;
+    private final OutboxService outboxService;
+    private final WorkOrderCostRollup costRollup;
+
+    @Value("${app.garage.time-zone:Asia/Ho_Chi_Minh}")
+    private String garageTimeZone = "Asia/Ho_Chi_Minh";
+
+    @Value("${app.work-orders.update-attempts:5}")
+    private int updateAttempts = 5;
 
     public Optional<WorkOrderDto> findById(Integer id) {
         return workOrderRepository.findById(id)
@@ -44,7 +72,8 @@ public class WorkOrderService {
                         workOrder.getDiagnosticNotes(),
                         workOrder.getTotalCost(),
                         workOrder.getCreatedAt(),
-                        workOrder.getUpdatedAt()));
+                        workOrder.getUpdatedAt(),
+                        workOrder.getVersion()));
     }
 
     public List<WorkOrderDto> getWorkOrdersByStaffId(Integer staffId) {
@@ -59,7 +88,8 @@ public class WorkOrderService {
                         workOrder.getDiagnosticNotes(),
                         workOrder.getTotalCost(),
                         workOrder.getCreatedAt(),
-                        workOrder.getUpdatedAt()))
+                        workOrder.getUpdatedAt(),
+                        workOrder.getVersion()))
                 .toList();
     }
 
@@ -75,7 +105,8 @@ public class WorkOrderService {
                         workOrder.getDiagnosticNotes(),
                         workOrder.getTotalCost(),
                         workOrder.getCreatedAt(),
-                        workOrder.getUpdatedAt()));
+                        workOrder.getUpdatedAt(),
+                        workOrder.getVersion()));
     }
 
     public Page<WorkOrderDto> getWorkOrdersByStaffId(Integer staffId, Pageable pageable, String status, String from, String to) {
@@ -98,7 +129,8 @@ public class WorkOrderService {
                             workOrder.getDiagnosticNotes(),
                             workOrder.getTotalCost(),
                             workOrder.getCreatedAt(),
-                            workOrder.getUpdatedAt()));
+                            workOrder.getUpdatedAt(),
+                            workOrder.getVersion()));
         } else if (hasStatus) {
             return workOrderRepository.findByStaffIdAndStatus(staffId, status, pageable)
                     .map(workOrder -> new WorkOrderDto(
@@ -111,7 +143,8 @@ public class WorkOrderService {
                             workOrder.getDiagnosticNotes(),
                             workOrder.getTotalCost(),
                             workOrder.getCreatedAt(),
-                            workOrder.getUpdatedAt()));
+                            workOrder.getUpdatedAt(),
+                            workOrder.getVersion()));
         } else if (hasDateRange) {
             return workOrderRepository.findByStaffIdAndDateRange(staffId, fromInstant, toInstant, pageable)
                     .map(workOrder -> new WorkOrderDto(
@@ -124,7 +157,8 @@ public class WorkOrderService {
                             workOrder.getDiagnosticNotes(),
                             workOrder.getTotalCost(),
                             workOrder.getCreatedAt(),
-                            workOrder.getUpdatedAt()));
+                            workOrder.getUpdatedAt(),
+                            workOrder.getVersion()));
         } else {
             return workOrderRepository.findByStaffId(staffId, pageable)
                     .map(workOrder -> new WorkOrderDto(
@@ -137,16 +171,16 @@ public class WorkOrderService {
                             workOrder.getDiagnosticNotes(),
                             workOrder.getTotalCost(),
                             workOrder.getCreatedAt(),
-                            workOrder.getUpdatedAt()));
+                            workOrder.getUpdatedAt(),
+                            workOrder.getVersion()));
         }
     }
 
     public Page<WorkOrderDto> getAllWorkOrders(Pageable pageable, String status, String from, String to) {
-        // For now, use a simple approach to avoid repository method issues
-        // Get all work orders and filter in memory
-        Page<WorkOrder> allWorkOrders = workOrderRepository.findAll(pageable);
+        Page<WorkOrder> workOrders = workOrderRepository.findAll(
+                WorkOrderSpecifications.matching(toFilter(status, from, to, null, null, null, null)), pageable);
         
-        return allWorkOrders.map(workOrder -> new WorkOrderDto(
+        return workOrders.map(workOrder -> new WorkOrderDto(
                 workOrder.getId(),
                 workOrder.getAppointment() != null ? workOrder.getAppointment().getId() : null,
                 workOrder.getStaff() != null ? workOrder.getStaff().getId() : null,
@@ -156,162 +190,181 @@ public class WorkOrderService {
                 workOrder.getDiagnosticNotes(),
                 workOrder.getTotalCost(),
                 workOrder.getCreatedAt(),
-                workOrder.getUpdatedAt()));
+                workOrder.getUpdatedAt(),
+                workOrder.getVersion()));
     }
 
-    public Page<WorkOrderDetailDto> getAllWorkOrdersWithDetails(Pageable pageable, String status, String from, String to) {
-        // Get all work orders and convert to detailed DTOs
-        Page<WorkOrder> allWorkOrders = workOrderRepository.findAll(pageable);
-        
-        return allWorkOrders.map(workOrder -> {
-            // Convert to WorkOrderDetailDto with nested objects
-            WorkOrderDetailDto.AppointmentSummaryDto appointmentDto = null;
-            if (workOrder.getAppointment() != null) {
-                appointmentDto = new WorkOrderDetailDto.AppointmentSummaryDto(
-                    workOrder.getAppointment().getId(),
-                    workOrder.getAppointment().getAppointmentDate() != null ? 
-                        workOrder.getAppointment().getAppointmentDate().toString() : null,
-                    workOrder.getAppointment().getServiceType(),
-                    workOrder.getAppointment().getStatus()
-                );
-            }
-            
-            WorkOrderDetailDto.CustomerSummaryDto customerDto = null;
-            if (workOrder.getAppointment() != null && workOrder.getAppointment().getCustomer() != null) {
-                customerDto = new WorkOrderDetailDto.CustomerSummaryDto(
-                    workOrder.getAppointment().getCustomer().getId(),
-                    workOrder.getAppointment().getCustomer().getFirstName(),
-                    workOrder.getAppointment().getCustomer().getLastName(),
-                    workOrder.getAppointment().getCustomer().getUser() != null ? 
-                        workOrder.getAppointment().getCustomer().getUser().getEmail() : null,
-                    workOrder.getAppointment().getCustomer().getUser() != null ? 
-                        workOrder.getAppointment().getCustomer().getUser().getPhone() : null
-                );
-            }
-            
-            WorkOrderDetailDto.VehicleSummaryDto vehicleDto = null;
-            if (workOrder.getAppointment() != null && workOrder.getAppointment().getVehicle() != null) {
-                vehicleDto = new WorkOrderDetailDto.VehicleSummaryDto(
-                    workOrder.getAppointment().getVehicle().getId(),
-                    workOrder.getAppointment().getVehicle().getMake(),
-                    workOrder.getAppointment().getVehicle().getModel(),
-                    workOrder.getAppointment().getVehicle().getYear(),
-                    workOrder.getAppointment().getVehicle().getLicensePlate(),
-                    workOrder.getAppointment().getVehicle().getVin(),
-                    workOrder.getAppointment().getVehicle().getColor(),
-                    workOrder.getAppointment().getVehicle().getMileage()
-                );
-            }
-            
-            WorkOrderDetailDto.StaffSummaryDto staffDto = null;
-            if (workOrder.getStaff() != null) {
-                staffDto = new WorkOrderDetailDto.StaffSummaryDto(
-                    workOrder.getStaff().getId(),
-                    workOrder.getStaff().getFirstName(),
-                    workOrder.getStaff().getLastName(),
-                    workOrder.getStaff().getPosition()
-                );
-            }
-            
-            return new WorkOrderDetailDto(
-                workOrder.getId(),
-                workOrder.getAppointment() != null ? workOrder.getAppointment().getId() : null,
-                appointmentDto,
-                customerDto,
-                vehicleDto,
-                staffDto,
-                workOrder.getStartTime() != null ? workOrder.getStartTime() : Instant.now(),
-                workOrder.getEndTime(),
-                workOrder.getStatus(),
-                workOrder.getDiagnosticNotes(),
-                workOrder.getTotalCost(),
-                workOrder.getCreatedAt(),
-                workOrder.getUpdatedAt()
-            );
-        });
+    /**
+     * Page of work orders with detail summaries, read as flat projection rows so a page costs one
+     * select plus the count
+     */
+    @Transactional(readOnly = true)
+    public Page<WorkOrderDetailDto> getAllWorkOrdersWithDetails(Pageable pageable, WorkOrderFilter filter) {
+        return workOrderRepository.findDetails(WorkOrderSpecifications.matching(filter), pageable)
+                .map(WorkOrderService::toDetailDto);
+    }
+
+    /**
+     * Keyset variant of {@link #getAllWorkOrdersWithDetails}, with the detail associations fetched in the same query
+     */
+    @Transactional(readOnly = true)
+    public PaginatedResponseDto<WorkOrderDetailDto> getWorkOrdersWithDetailsAfter(String after, String sortBy,
+                                                                                String sortDir, int size,
+                                                                                WorkOrderFilter filter) {
+        KeysetPager.KeysetRequest request = keysetPager.request(WorkOrder.class, after, sortBy, sortDir, size);
+        Window<WorkOrder> window = workOrderRepository.findBy(
+                WorkOrderSpecifications.matching(filter),
+                query -> query
+                        .project("appointment.customer.user", "appointment.vehicle", "staff")
+                        .sortBy(request.sort())
+                        .limit(request.size())
+                        .scroll(request.position()));
+        return keysetPager.toResponse(request, window,
+                window.getContent().stream().map(this::toDetailDto).toList());
     }
 
     /**
      * Get a single work order by ID with detailed information
      */
+    @Transactional(readOnly = true)
     public Optional<WorkOrderDetailDto> getWorkOrderDetailById(Integer workOrderId) {
-        return workOrderRepository.findById(workOrderId)
-                .map(workOrder -> {
-                    // Convert to WorkOrderDetailDto with nested objects
-                    WorkOrderDetailDto.AppointmentSummaryDto appointmentDto = null;
-                    if (workOrder.getAppointment() != null) {
-                        appointmentDto = new WorkOrderDetailDto.AppointmentSummaryDto(
-                            workOrder.getAppointment().getId(),
-                            workOrder.getAppointment().getAppointmentDate() != null ? 
-                                workOrder.getAppointment().getAppointmentDate().toString() : null,
-                            workOrder.getAppointment().getServiceType(),
-                            workOrder.getAppointment().getStatus()
-                        );
-                    }
-                    
-                    WorkOrderDetailDto.CustomerSummaryDto customerDto = null;
-                    if (workOrder.getAppointment() != null && workOrder.getAppointment().getCustomer() != null) {
-                        customerDto = new WorkOrderDetailDto.CustomerSummaryDto(
-                            workOrder.getAppointment().getCustomer().getId(),
-                            workOrder.getAppointment().getCustomer().getFirstName(),
-                            workOrder.getAppointment().getCustomer().getLastName(),
-                            workOrder.getAppointment().getCustomer().getUser() != null ? 
-                                workOrder.getAppointment().getCustomer().getUser().getEmail() : null,
-                            workOrder.getAppointment().getCustomer().getUser() != null ? 
-                                workOrder.getAppointment().getCustomer().getUser().getPhone() : null
-                        );
-                    }
-                    
-                    WorkOrderDetailDto.VehicleSummaryDto vehicleDto = null;
-                    if (workOrder.getAppointment() != null && workOrder.getAppointment().getVehicle() != null) {
-                        vehicleDto = new WorkOrderDetailDto.VehicleSummaryDto(
-                            workOrder.getAppointment().getVehicle().getId(),
-                            workOrder.getAppointment().getVehicle().getMake(),
-                            workOrder.getAppointment().getVehicle().getModel(),
-                            workOrder.getAppointment().getVehicle().getYear(),
-                            workOrder.getAppointment().getVehicle().getLicensePlate(),
-                            workOrder.getAppointment().getVehicle().getVin(),
-                            workOrder.getAppointment().getVehicle().getColor(),
-                            workOrder.getAppointment().getVehicle().getMileage()
-                        );
-                    }
-                    
-                    WorkOrderDetailDto.StaffSummaryDto staffDto = null;
-                    if (workOrder.getStaff() != null) {
-                        staffDto = new WorkOrderDetailDto.StaffSummaryDto(
-                            workOrder.getStaff().getId(),
-                            workOrder.getStaff().getFirstName(),
-                            workOrder.getStaff().getLastName(),
-                            workOrder.getStaff().getPosition()
-                        );
-                    }
-                    
-                    return new WorkOrderDetailDto(
-                        workOrder.getId(),
-                        workOrder.getAppointment() != null ? workOrder.getAppointment().getId() : null,
-                        appointmentDto,
-                        customerDto,
-                        vehicleDto,
-                        staffDto,
-                        workOrder.getStartTime() != null ? workOrder.getStartTime() : Instant.now(),
-                        workOrder.getEndTime(),
-                        workOrder.getStatus(),
-                        workOrder.getDiagnosticNotes(),
-                        workOrder.getTotalCost(),
-                        workOrder.getCreatedAt(),
-                        workOrder.getUpdatedAt()
-                    );
-                });
+        return workOrderRepository.findDetailById(workOrderId)
+                .map(WorkOrderService::toDetailDto);
+    }
+
+    /**
+     * Convert a flat detail row; each nested summary is present when its association was
+     */
+    private static WorkOrderDetailDto toDetailDto(WorkOrderDetailView row) {
+        WorkOrderDetailDto.AppointmentSummaryDto appointmentDto = row.getAppointmentId() == null ? null :
+            new WorkOrderDetailDto.AppointmentSummaryDto(
+                row.getAppointmentId(),
+                row.getAppointmentDate() != null ? row.getAppointmentDate().toString() : null,
+                row.getAppointmentServiceType(),
+                row.getAppointmentStatus()
+            );
+        WorkOrderDetailDto.CustomerSummaryDto customerDto = row.getCustomerId() == null ? null :
+            new WorkOrderDetailDto.CustomerSummaryDto(
+                row.getCustomerId(),
+                row.getCustomerFirstName(),
+                row.getCustomerLastName(),
+                row.getCustomerEmail(),
+                row.getCustomerPhone()
+            );
+        WorkOrderDetailDto.VehicleSummaryDto vehicleDto = row.getVehicleId() == null ? null :
+            new WorkOrderDetailDto.VehicleSummaryDto(
+                row.getVehicleId(),
+                row.getVehicleMake(),
+                row.getVehicleModel(),
+                row.getVehicleYear(),
+                row.getVehicleLicensePlate(),
+                row.getVehicleVin(),
+                row.getVehicleColor(),
+                row.getVehicleMileage()
+            );
+        WorkOrderDetailDto.StaffSummaryDto staffDto = row.getStaffId() == null ? null :
+            new WorkOrderDetailDto.StaffSummaryDto(
+                row.getStaffId(),
+                row.getStaffFirstName(),
+                row.getStaffLastName(),
+                row.getStaffPosition()
+            );
+
+        return new WorkOrderDetailDto(
+            row.getWorkOrderId(),
+            row.getAppointmentId(),
+            appointmentDto,
+            customerDto,
+            vehicleDto,
+            staffDto,
+            row.getStartTime() != null ? row.getStartTime() : Instant.now(),
+            row.getEndTime(),
+            row.getStatus(),
+            row.getDiagnosticNotes(),
+            row.getTotalCost(),
+            row.getCreatedAt(),
+            row.getUpdatedAt()
+        );
+    }
+
+    /**
+     * Convert to WorkOrderDetailDto with nested appointment, customer, vehicle and staff summaries
+     */
+    private WorkOrderDetailDto toDetailDto(WorkOrder workOrder) {
+        WorkOrderDetailDto.AppointmentSummaryDto appointmentDto = null;
+        if (workOrder.getAppointment() != null) {
+            appointmentDto = new WorkOrderDetailDto.AppointmentSummaryDto(
+                workOrder.getAppointment().getId(),
+                workOrder.getAppointment().getAppointmentDate() != null ? 
+                    workOrder.getAppointment().getAppointmentDate().toString() : null,
+                workOrder.getAppointment().getServiceType(),
+                workOrder.getAppointment().getStatus()
+            );
+        }
+        
+        WorkOrderDetailDto.CustomerSummaryDto customerDto = null;
+        if (workOrder.getAppointment() != null && workOrder.getAppointment().getCustomer() != null) {
+            customerDto = new WorkOrderDetailDto.CustomerSummaryDto(
+                workOrder.getAppointment().getCustomer().getId(),
+                workOrder.getAppointment().getCustomer().getFirstName(),
+                workOrder.getAppointment().getCustomer().getLastName(),
+                workOrder.getAppointment().getCustomer().getUser() != null ? 
+                    workOrder.getAppointment().getCustomer().getUser().getEmail() : null,
+                workOrder.getAppointment().getCustomer().getUser() != null ? 
+                    workOrder.getAppointment().getCustomer().getUser().getPhone() : null
+            );
+        }
+        
+        WorkOrderDetailDto.VehicleSummaryDto vehicleDto = null;
+        if (workOrder.getAppointment() != null && workOrder.getAppointment().getVehicle() != null) {
+            vehicleDto = new WorkOrderDetailDto.VehicleSummaryDto(
+                workOrder.getAppointment().getVehicle().getId(),
+                workOrder.getAppointment().getVehicle().getMake(),
+                workOrder.getAppointment().getVehicle().getModel(),
+                workOrder.getAppointment().getVehicle().getYear(),
+                workOrder.getAppointment().getVehicle().getLicensePlate(),
+                workOrder.getAppointment().getVehicle().getVin(),
+                workOrder.getAppointment().getVehicle().getColor(),
+                workOrder.getAppointment().getVehicle().getMileage()
+            );
+        }
+        
+        WorkOrderDetailDto.StaffSummaryDto staffDto = null;
+        if (workOrder.getStaff() != null) {
+            staffDto = new WorkOrderDetailDto.StaffSummaryDto(
+                workOrder.getStaff().getId(),
+                workOrder.getStaff().getFirstName(),
+                workOrder.getStaff().getLastName(),
+                workOrder.getStaff().getPosition()
+            );
+        }
+        
+        return new WorkOrderDetailDto(
+            workOrder.getId(),
+            workOrder.getAppointment() != null ? workOrder.getAppointment().getId() : null,
+            appointmentDto,
+            customerDto,
+            vehicleDto,
+            staffDto,
+            workOrder.getStartTime() != null ? workOrder.getStartTime() : Instant.now(),
+            workOrder.getEndTime(),
+            workOrder.getStatus(),
+            workOrder.getDiagnosticNotes(),
+            workOrder.getTotalCost(),
+            workOrder.getCreatedAt(),
+            workOrder.getUpdatedAt()
+        );
     }
 
     @Transactional
     public WorkOrderDto createWorkOrder(WorkOrderDto workOrderDto) {
         WorkOrder workOrder = workOrderMapper.toEntity(workOrderDto);
         
-        // Set default status if not provided
-        if (workOrder.getStatus() == null) {
-            workOrder.setStatus("PENDING");
-        }
+        // Stored as the enum name so lifecycle checks and status filters see the same spelling
+        workOrder.setStatus(workOrderDto.status() == null ? "PENDING" : WorkOrderStatus.of(workOrderDto.status()).name());
+        // A total given on create is entered by hand; parts and labor lines are added on top as they are recorded
+        workOrder.setManualCost(workOrderDto.totalCost() != null ? workOrderDto.totalCost() : BigDecimal.ZERO);
+        workOrder.setTotalCost(workOrder.getManualCost());
         
         // Set timestamps
         Instant now = Instant.now();
@@ -321,38 +374,203 @@ public class WorkOrderService {
         if (workOrder.getUpdatedAt() == null) {
             workOrder.setUpdatedAt(now);
         }
-        Staff staff = staffRepository.findStaffById(workOrderDto.staffId())
-                .orElseThrow(() -> new RuntimeException("Staff not found with ID: " + workOrderDto.staffId()));
-
         Appointment appointment = appointmentRepository.findById(workOrderDto.appointmentId())
                 .orElseThrow(() -> new RuntimeException("Appointment not found with ID: " + workOrderDto.appointmentId()));
-        workOrder.setStaff(staff);
         workOrder.setAppointment(appointment);
-        
-        WorkOrder savedWorkOrder = workOrderRepository.save(workOrder);
+
+        WorkOrder savedWorkOrder;
+        if (workOrderDto.staffId() == null) {
+            // Saving first gives the engine the work-order id to count against the chosen technician
+            savedWorkOrder = workOrderRepository.save(workOrder);
+            int staffId = assignmentEngine.assign(savedWorkOrder.getId(), appointment);
+            savedWorkOrder.setStaff(staffRepository.findStaffById(staffId)
+                    .orElseThrow(() -> new RuntimeException("Staff not found with ID: " + staffId)));
+        } else {
+            Staff staff = staffRepository.findStaffById(workOrderDto.staffId())
+                    .orElseThrow(() -> new RuntimeException("Staff not found with ID: " + workOrderDto.staffId()));
+            workOrder.setStaff(staff);
+            savedWorkOrder = workOrderRepository.save(workOrder);
+            assignmentEngine.track(savedWorkOrder.getId(), staff.getId(), savedWorkOrder.getStatus(), appointment);
+        }
+        publishStatusChange(savedWorkOrder);
         return workOrderMapper.toDto(savedWorkOrder);
     }
 
-    @Transactional
-    public Optional<WorkOrderDto> updateWorkOrder(Integer id, WorkOrderDto workOrderDto) {
-        return workOrderRepository.findById(id)
-                .map(existingWorkOrder -> {
-                    workOrderMapper.partialUpdate(workOrderDto, existingWorkOrder);
-                    existingWorkOrder.setUpdatedAt(Instant.now());
-                    WorkOrder savedWorkOrder = workOrderRepository.save(existingWorkOrder);
-                    return workOrderMapper.toDto(savedWorkOrder);
-                });
+    /**
+     * Apply the non-null fields of {@code changes} as a compare-and-set on the work order's version.
+     * When {@code changes.version()} is given it must still be current. Otherwise a write that loses
+     * to a concurrent one is re-applied on the fresh row, up to {@code app.work-orders.update-attempts}
+     * times, as long as the winner left the fields being set alone. Each attempt is its own
+     * transaction, so call this outside one.
+     *
+     * @throws WorkOrderConflictException with the current state when the change cannot be applied
+     * @throws IllegalArgumentException when the status change is not allowed by {@link WorkOrderStatus}
+     */
+    public Optional<WorkOrderDto> updateWorkOrder(Integer id, WorkOrderDto changes) {
+        AtomicReference<EditableFields> firstRead = new AtomicReference<>();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionOperations.execute(status -> tryUpdate(id, changes, firstRead));
+            } catch (OptimisticLockingFailureException e) {
+                if (changes.version() != null) {
+                    // The caller's version was current when read but another write committed first
+                    throw new WorkOrderConflictException("Work order " + id + " was changed since version "
+                            + changes.version(), findById(id).orElse(null));
+                }
+                if (attempt >= updateAttempts) {
+                    throw new WorkOrderConflictException(
+                            "Work order " + id + " is being changed concurrently, try again", findById(id).orElse(null));
+                }
+            }
+        }
+    }
+
+    /**
+     * Move a work order to {@code status}, e.g. PENDING to IN_PROGRESS
+     *
+     * @see #updateWorkOrder
+     */
+    public Optional<WorkOrderDto> transitionStatus(Integer id, String status, Long expectedVersion) {
+        return updateWorkOrder(id, new WorkOrderDto(
+                null, null, null, null, null, status, null, null, null, null, expectedVersion));
+    }
+
+    private Optional<WorkOrderDto> tryUpdate(Integer id, WorkOrderDto changes, AtomicReference<EditableFields> firstRead) {
+        Optional<WorkOrder> found = workOrderRepository.findById(id);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        WorkOrder existingWorkOrder = found.get();
+        EditableFields current = EditableFields.of(existingWorkOrder);
+        if (firstRead.compareAndSet(null, current)) {
+            if (changes.version() != null && !changes.version().equals(existingWorkOrder.getVersion())) {
+                throw new WorkOrderConflictException("Work order " + id + " was changed since version "
+                        + changes.version(), workOrderMapper.toDto(existingWorkOrder));
+            }
+        } else if (firstRead.get().overlaps(current, changes)) {
+            // A concurrent write changed a field this one sets; neither can silently win
+            throw new WorkOrderConflictException("Work order " + id + " was changed concurrently",
+                    workOrderMapper.toDto(existingWorkOrder));
+        }
+
+        String previousStatus = existingWorkOrder.getStatus();
+        workOrderMapper.partialUpdate(changes, existingWorkOrder);
+        if (changes.status() != null) {
+            existingWorkOrder.setStatus(WorkOrderStatus.transition(previousStatus, changes.status()).name());
+        }
+        // A total sent on update replaces the hand-entered part; the lines stay on top of it
+        BigDecimal manualDelta = BigDecimal.ZERO;
+        if (changes.totalCost() != null) {
+            manualDelta = changes.totalCost().subtract(existingWorkOrder.getManualCost());
+            existingWorkOrder.setManualCost(changes.totalCost());
+        }
+        existingWorkOrder.setUpdatedAt(Instant.now());
+        // Flushing here makes a lost race fail inside this attempt rather than at commit
+        WorkOrder savedWorkOrder = workOrderRepository.saveAndFlush(existingWorkOrder);
+        if (manualDelta.signum() != 0) {
+            costRollup.applyDelta(savedWorkOrder.getId(), manualDelta);
+            BigDecimal previousTotal = savedWorkOrder.getTotalCost() != null ? savedWorkOrder.getTotalCost() : BigDecimal.ZERO;
+            savedWorkOrder.setTotalCost(previousTotal.add(manualDelta));
+        }
+        if (!Objects.equals(previousStatus, savedWorkOrder.getStatus())) {
+            publishStatusChange(savedWorkOrder);
+        }
+        assignmentEngine.track(savedWorkOrder.getId(),
+                savedWorkOrder.getStaff() != null ? savedWorkOrder.getStaff().getId() : null,
+                savedWorkOrder.getStatus(),
+                savedWorkOrder.getAppointment());
+        return Optional.of(workOrderMapper.toDto(savedWorkOrder));
+    }
+
+    /**
+     * The fields an update may set, as read at the start of an attempt
+     */
+    private record EditableFields(Instant startTime, Instant endTime, String status, String diagnosticNotes,
+                                  BigDecimal manualCost) {
+
+        static EditableFields of(WorkOrder workOrder) {
+            return new EditableFields(workOrder.getStartTime(), workOrder.getEndTime(), workOrder.getStatus(),
+                    workOrder.getDiagnosticNotes(), workOrder.getManualCost());
+        }
+
+        /** Whether {@code later} differs from this read in any field {@code changes} sets */
+        boolean overlaps(EditableFields later, WorkOrderDto changes) {
+            return changes.startTime() != null && !Objects.equals(startTime, later.startTime)
+                    || changes.endTime() != null && !Objects.equals(endTime, later.endTime)
+                    || changes.status() != null && !Objects.equals(status, later.status)
+                    || changes.diagnosticNotes() != null && !Objects.equals(diagnosticNotes, later.diagnosticNotes)
+                    || changes.totalCost() != null && !Objects.equals(manualCost, later.manualCost);
+        }
+    }
+
+    /**
+     * Queues a status event; the broadcaster only sends it once the transaction commits, and the
+     * outbox row commits with the change itself
+     */
+    private void publishStatusChange(WorkOrder workOrder) {
+        Appointment appointment = workOrder.getAppointment();
+        StatusChangeEvent event = new StatusChangeEvent(
+                StatusChangeEvent.WORK_ORDER,
+                workOrder.getId(),
+                appointment != null ? appointment.getId() : null,
+                appointment != null && appointment.getCustomer() != null ? appointment.getCustomer().getId() : null,
+                workOrder.getStatus(),
+                workOrder.getUpdatedAt());
+        eventPublisher.publishEvent(event);
+        outboxService.appendStatusChange(event);
     }
 
     @Transactional
     public boolean deleteWorkOrder(Integer id) {
         if (workOrderRepository.existsById(id)) {
             workOrderRepository.deleteById(id);
+            assignmentEngine.track(id, null, null, null);
             return true;
         }
         return false;
     }
 
+    /**
+     * Build the listing filter from request parameters. {@code from} and {@code to} name whole
+     * garage-local days, so {@code from=to=today} is today's work; unparseable dates are ignored.
+     */
+    public WorkOrderFilter toFilter(String status, String from, String to, Integer staffId,
+                                    Integer customerId, Integer vehicleId, String serviceType) {
+        LocalDate fromDate = parseGarageDate(from);
+        LocalDate toDate = parseGarageDate(to);
+        ZoneId zone = ZoneId.of(garageTimeZone);
+        return new WorkOrderFilter(
+                status == null || status.isBlank() ? null : status.trim().toUpperCase(Locale.ROOT),
+                fromDate != null ? fromDate.atStartOfDay(zone).toInstant() : null,
+                toDate != null ? toDate.plusDays(1).atStartOfDay(zone).toInstant() : null,
+                staffId,
+                customerId,
+                vehicleId,
+                serviceType == null || serviceType.isBlank() ? null : serviceType.trim());
+    }
+
+    /**
+     * Garage-local date of a filter value: an ISO instant, a local date-time or a date
+     */
+    private LocalDate parseGarageDate(String dateString) {
+        if (dateString == null || dateString.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return Instant.parse(dateString).atZone(ZoneId.of(garageTimeZone)).toLocalDate();
+        } catch (DateTimeParseException e1) {
+            try {
+                return LocalDateTime.parse(dateString, DateTimeFormatter.ISO_LOCAL_DATE_TIME).toLocalDate();
+            } catch (DateTimeParseException e2) {
+                try {
+                    return LocalDate.parse(dateString, DateTimeFormatter.ISO_LOCAL_DATE);
+                } catch (DateTimeParseException e3) {
+                    return null;
+                }
+            }
+        }
+    }
+
     /**
      * Parse a date string to Instant. Supports multiple formats:
      * - ISO-8601 format (2023-12-25T10:30:00Z)
@@ -0,0 +1,21 @@
+-- Status filters compare with plain equality, so stored values must be canonical upper case
+UPDATE appointments
+SET status = UPPER(TRIM(status))
+WHERE status IS NOT NULL AND status <> UPPER(TRIM(status));
+
+-- Half-open appointment_date ranges, optionally scoped by customer and/or status
+CREATE INDEX IF NOT EXISTS idx_appointments_customer_date
+    ON appointments (customer_id, appointment_date);
+
+CREATE INDEX IF NOT EXISTS idx_appointments_status_date
+    ON appointments (status, appointment_date);
+
+CREATE INDEX IF NOT EXISTS idx_appointments_customer_status_date
+    ON appointments (customer_id, status, appointment_date);
+
+CREATE INDEX IF NOT EXISTS idx_appointments_date
+    ON appointments (appointment_date);
+
+-- Batched work-order lookups for appointment pages
+CREATE INDEX IF NOT EXISTS idx_work_orders_appointment
+    ON work_orders (appointment_id);
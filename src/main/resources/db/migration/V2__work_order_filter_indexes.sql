@@ -0,0 +1,19 @@
+-- Work-order status filters compare with plain equality, as for appointments
+UPDATE work_orders
+SET status = UPPER(TRIM(status))
+WHERE status IS NOT NULL AND status <> UPPER(TRIM(status));
+
+-- Manager listing: status and/or half-open start_time ranges, optionally per staff member
+CREATE INDEX IF NOT EXISTS idx_work_orders_status_start
+    ON work_orders (status, start_time);
+
+CREATE INDEX IF NOT EXISTS idx_work_orders_staff_status_start
+    ON work_orders (staff_id, status, start_time);
+
+CREATE INDEX IF NOT EXISTS idx_work_orders_start
+    ON work_orders (start_time);
+
+-- Vehicle filters reach work orders through their appointments; customer filters use
+-- idx_appointments_customer_date from V1
+CREATE INDEX IF NOT EXISTS idx_appointments_vehicle
+    ON appointments (vehicle_id);
@@ -0,0 +1,3 @@
+-- Optimistic locking: every work-order update is a compare-and-set on this counter
+ALTER TABLE work_orders
+    ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,10 @@
+-- Transactional outbox: domain events are inserted in the transaction that makes the change and
+-- relayed after commit by OutboxRelay, which drains the table in id order
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id             BIGSERIAL PRIMARY KEY,
+    aggregate_type VARCHAR(32) NOT NULL,
+    aggregate_id   INTEGER,
+    event_type     VARCHAR(64) NOT NULL,
+    payload        TEXT NOT NULL,
+    created_at     TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
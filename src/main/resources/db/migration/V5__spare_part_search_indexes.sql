@@ -0,0 +1,18 @@
+-- Inventory list filters; the default sort is by id, so category pages come straight off the index
+CREATE INDEX IF NOT EXISTS idx_spare_parts_category
+    ON spare_parts (category, part_id);
+
+-- Low-stock lists and the LOW stock status filter
+CREATE INDEX IF NOT EXISTS idx_spare_parts_low_stock
+    ON spare_parts (part_id)
+    WHERE quantity_in_stock <= minimum_stock_level;
+
+-- Substring search compares lower(name) / lower(description) with LIKE '%term%', which only a
+-- trigram index can serve
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_spare_parts_name_trgm
+    ON spare_parts USING gin (lower(name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_spare_parts_description_trgm
+    ON spare_parts USING gin (lower(description) gin_trgm_ops);
@@ -0,0 +1,9 @@
+-- One refresh token per user: concurrent logins upsert on user_id, which needs a unique index.
+-- Rows left by earlier racing inserts are collapsed to the newest first.
+DELETE FROM refresh_tokens r
+USING refresh_tokens newer
+WHERE newer.user_id = r.user_id
+  AND newer.id > r.id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_refresh_tokens_user
+    ON refresh_tokens (user_id);
@@ -0,0 +1,9 @@
+-- The hand-entered part of a work order's cost; total_cost is this plus the parts and labor lines.
+-- Totals on work orders without lines could only have been entered by hand, so they move over.
+ALTER TABLE work_orders
+    ADD COLUMN IF NOT EXISTS manual_cost NUMERIC(10, 2) NOT NULL DEFAULT 0;
+
+UPDATE work_orders w
+SET manual_cost = COALESCE(w.total_cost, 0)
+WHERE NOT EXISTS (SELECT 1 FROM parts_used p WHERE p.work_order_id = w.work_order_id)
+  AND NOT EXISTS (SELECT 1 FROM labor_charges l WHERE l.work_order_id = w.work_order_id);
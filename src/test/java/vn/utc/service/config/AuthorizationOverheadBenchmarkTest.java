@@ -0,0 +1,115 @@
+package vn.utc.service.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import vn.utc.service.dtos.JwtClaims;
+import vn.utc.service.dtos.UserPrincipal;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Per-request authentication + authorization overhead on a manager endpoint, before and after the
+ * move to SecurityConfig rules. Run with {@code ./gradlew benchmark}; excluded from {@code test}.
+ */
+@Tag("benchmark")
+@DisplayName("Authorization overhead benchmark")
+class AuthorizationOverheadBenchmarkTest {
+
+    private static final String SECRET =
+            "EhWw6CTgMWwCLNRDy6LmU2cpsrLVobTVID9HE3Oe+sVoWO21kxt1YE6xGFmV7oAB5Qzlf+SarhBSAoKLgihIpg==";
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 100_000;
+
+    private JwtTokenProvider jwtTokenProvider;
+    private AuthorityAuthorizationManager<RequestAuthorizationContext> managerRule;
+    private RequestAuthorizationContext context;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenProvider = new JwtTokenProvider(new VerifiedTokenCache(10_000, new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtExpirationInMs", 3600000);
+        jwtTokenProvider.init();
+
+        UserPrincipal principal = new UserPrincipal(
+                1, "manager", "secret", "", "", "manager@example.com", true,
+                List.of(new SimpleGrantedAuthority(ContsConfig.MANAGER)));
+        token = jwtTokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        managerRule = AuthorityAuthorizationManager.hasAuthority(ContsConfig.MANAGER);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/manager/work-orders");
+        context = new RequestAuthorizationContext(request);
+    }
+
+    @Test
+    @DisplayName("Manager endpoint: per-request overhead before vs after")
+    void managerEndpoint_PerRequestOverhead() {
+        long before = measure(this::legacyRequest);
+        long after = measure(this::declarativeRequest);
+
+        System.out.printf("manager endpoint auth overhead: before=%d ns/op, after=%d ns/op (%.1fx)%n",
+                before, after, (double) before / after);
+        assertThat(after).isLessThan(before);
+    }
+
+    // Filter: validateToken + getUsernameFromJWT; controller: getRolesFromRequest (validate + parse)
+    private boolean legacyRequest() {
+        legacyParse(token);
+        legacyParse(token).getSubject();
+        legacyParse(token);
+        @SuppressWarnings("unchecked")
+        List<String> roles = (List<String>) legacyParse(token).get("roles");
+        return !roles.isEmpty() && roles.contains(ContsConfig.MANAGER);
+    }
+
+    // Filter: one (cached) parse into claims; SecurityConfig rule checked against the Authentication
+    private boolean declarativeRequest() {
+        JwtClaims claims = jwtTokenProvider.parseToken(token).orElseThrow();
+        UserPrincipal principal = UserPrincipal.fromClaims(claims);
+        Authentication authentication =
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        Supplier<Authentication> supplier = () -> authentication;
+        return managerRule.authorize(supplier, context).isGranted();
+    }
+
+    private Claims legacyParse(String jwt) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseClaimsJws(jwt)
+                .getBody();
+    }
+
+    private long measure(Supplier<Boolean> request) {
+        for (int i = 0; i < WARMUP; i++) {
+            assertThat(request.get()).isTrue();
+        }
+        boolean granted = true;
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            granted &= request.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        assertThat(granted).isTrue();
+        return elapsed / ITERATIONS;
+    }
+}
@@ -0,0 +1,122 @@
+package vn.utc.service.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+import vn.utc.service.dtos.JwtClaims;
+import vn.utc.service.dtos.UserPrincipal;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("JwtTokenProvider Unit Tests")
+class JwtTokenProviderTest {
+
+    private static final String SECRET =
+            "EhWw6CTgMWwCLNRDy6LmU2cpsrLVobTVID9HE3Oe+sVoWO21kxt1YE6xGFmV7oAB5Qzlf+SarhBSAoKLgihIpg==";
+
+    private VerifiedTokenCache verifiedTokenCache;
+    private JwtTokenProvider jwtTokenProvider;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        verifiedTokenCache = new VerifiedTokenCache(100, new SimpleMeterRegistry());
+        jwtTokenProvider = new JwtTokenProvider(verifiedTokenCache);
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtExpirationInMs", 3600000);
+        jwtTokenProvider.init();
+
+        UserPrincipal principal = new UserPrincipal(
+                7, "manager", "secret", "", "", "manager@example.com", true,
+                List.of(new SimpleGrantedAuthority("MANAGER")));
+        token = jwtTokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @Test
+    @DisplayName("Should verify a token once and serve repeat lookups from the cache")
+    void parseToken_RepeatedToken_HitsCache() {
+        // When
+        Optional<JwtClaims> first = jwtTokenProvider.parseToken(token);
+        Optional<JwtClaims> second = jwtTokenProvider.parseToken(token);
+
+        // Then
+        assertThat(first).isPresent();
+        assertThat(second).containsSame(first.get());
+        assertThat(first.get().username()).isEqualTo("manager");
+        assertThat(first.get().userId()).isEqualTo(7);
+        assertThat(first.get().roles()).containsExactly("MANAGER");
+        assertThat(first.get().expiresAt()).isNotNull();
+        assertThat(verifiedTokenCache.missCount()).isEqualTo(1);
+        assertThat(verifiedTokenCache.hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reject a token with a tampered signature")
+    void parseToken_TamperedToken_ReturnsEmpty() {
+        // Given
+        String tampered = token.substring(0, token.length() - 4) + "AAAA";
+
+        // When / Then
+        assertThat(jwtTokenProvider.parseToken(tampered)).isEmpty();
+        assertThat(jwtTokenProvider.validateToken(tampered)).isFalse();
+        assertThat(verifiedTokenCache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should read claims from the request attribute set by the filter")
+    void getRolesFromRequest_ClaimsAttribute_DoesNotReparse() {
+        // Given
+        JwtClaims claims = jwtTokenProvider.parseToken(token).orElseThrow();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(JwtTokenProvider.CLAIMS_ATTRIBUTE, claims);
+        double lookups = verifiedTokenCache.hitCount() + verifiedTokenCache.missCount();
+
+        // When
+        List<String> roles = jwtTokenProvider.getRolesFromRequest(request);
+        String username = jwtTokenProvider.getUsernameFromRequest(request);
+
+        // Then
+        assertThat(roles).containsExactly("MANAGER");
+        assertThat(username).isEqualTo("manager");
+        assertThat(verifiedTokenCache.hitCount() + verifiedTokenCache.missCount()).isEqualTo(lookups);
+    }
+
+    @Test
+    @DisplayName("Should parse the bearer header when no verified claims are attached")
+    void getUsernameFromRequest_BearerHeader_ParsesAndStoresClaims() {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+
+        // When
+        String username = jwtTokenProvider.getUsernameFromRequest(request);
+
+        // Then
+        assertThat(username).isEqualTo("manager");
+        assertThat(request.getAttribute(JwtTokenProvider.CLAIMS_ATTRIBUTE)).isInstanceOf(JwtClaims.class);
+    }
+
+    @Test
+    @DisplayName("Should carry the customer id claim only for customer accounts")
+    void generateToken_CustomerPrincipal_CarriesCustomerId() {
+        // Given
+        UserPrincipal customer = new UserPrincipal(
+                8, 42, "customer", "secret", "", "", "customer@example.com", true,
+                List.of(new SimpleGrantedAuthority("CUSTOMER")));
+        String customerToken = jwtTokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(customer, null, customer.getAuthorities()));
+
+        // When / Then
+        assertThat(jwtTokenProvider.parseToken(customerToken).orElseThrow().customerId()).isEqualTo(42);
+        assertThat(jwtTokenProvider.parseToken(token).orElseThrow().customerId()).isNull();
+    }
+}
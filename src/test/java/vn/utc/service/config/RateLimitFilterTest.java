@@ -0,0 +1,173 @@
+package vn.utc.service.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import vn.utc.service.dtos.JwtClaims;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RateLimitFilter Unit Tests")
+class RateLimitFilterTest {
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.SECONDS.toNanos(1000));
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitProperties properties;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties();
+        properties.setRules(List.of(
+                rule("/api/v1/manager/reports/**", List.of(), 2, 1.0),
+                rule("/api/v1/**", List.of("MANAGER"), 5, 10.0),
+                rule("/api/v1/**", List.of(), 1, 1.0)));
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RateLimitFilter(properties, new ObjectMapper(), meterRegistry, clock::get);
+    }
+
+    @Test
+    @DisplayName("Should return 429 with Retry-After once a user's burst is spent")
+    void shouldThrottleUserAfterBurst() throws Exception {
+        // Given / When
+        MockHttpServletResponse first = call("/api/v1/manager/reports/revenue", claims(1, "MANAGER"), "10.0.0.1");
+        MockHttpServletResponse second = call("/api/v1/manager/reports/revenue", claims(1, "MANAGER"), "10.0.0.1");
+        MockHttpServletResponse third = call("/api/v1/manager/reports/revenue", claims(1, "MANAGER"), "10.0.0.1");
+
+        // Then
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(second.getStatus()).isEqualTo(200);
+        assertThat(third.getStatus()).isEqualTo(429);
+        assertThat(third.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(third.getContentAsString()).contains("\"errorCode\":\"429\"");
+        assertThat(meterRegistry.get("http.server.requests.throttled")
+                .tag("route", "/api/v1/manager/reports/**").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should refill tokens over time")
+    void shouldRefillOverTime() throws Exception {
+        // Given
+        call("/api/v1/manager/reports/revenue", claims(1, "MANAGER"), "10.0.0.1");
+        call("/api/v1/manager/reports/revenue", claims(1, "MANAGER"), "10.0.0.1");
+
+        // When
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        MockHttpServletResponse response = call("/api/v1/manager/reports/revenue", claims(1, "MANAGER"), "10.0.0.1");
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Should keep separate buckets per user even behind the same IP")
+    void shouldKeyByUserId() throws Exception {
+        // Given
+        call("/api/v1/customers/vehicles", claims(1, "CUSTOMER"), "10.0.0.1");
+
+        // When
+        MockHttpServletResponse sameUser = call("/api/v1/customers/vehicles", claims(1, "CUSTOMER"), "10.0.0.1");
+        MockHttpServletResponse otherUser = call("/api/v1/customers/vehicles", claims(2, "CUSTOMER"), "10.0.0.1");
+
+        // Then
+        assertThat(sameUser.getStatus()).isEqualTo(429);
+        assertThat(otherUser.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Should key anonymous callers by client IP")
+    void shouldKeyAnonymousByIp() throws Exception {
+        // Given
+        call("/api/v1/auth/register", null, "10.0.0.1");
+
+        // When
+        MockHttpServletResponse sameIp = call("/api/v1/auth/register", null, "10.0.0.1");
+        MockHttpServletResponse otherIp = call("/api/v1/auth/register", null, "10.0.0.2");
+
+        // Then
+        assertThat(sameIp.getStatus()).isEqualTo(429);
+        assertThat(otherIp.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Should apply the role-specific rule before the catch-all")
+    void shouldApplyRoleRule() throws Exception {
+        // Given / When
+        for (int i = 0; i < 5; i++) {
+            assertThat(call("/api/v1/manager/customers", claims(1, "MANAGER"), "10.0.0.1").getStatus())
+                    .isEqualTo(200);
+        }
+
+        // Then
+        assertThat(call("/api/v1/manager/customers", claims(1, "MANAGER"), "10.0.0.1").getStatus())
+                .isEqualTo(429);
+    }
+
+    @Test
+    @DisplayName("Should drop refilled buckets on sweep and stay within max keys")
+    void shouldBoundTrackedKeys() throws Exception {
+        // Given
+        properties.setMaxKeys(10);
+        for (int i = 0; i < 50; i++) {
+            call("/api/v1/auth/register", null, "10.0.1." + i);
+        }
+        assertThat(filter.trackedKeys()).isLessThanOrEqualTo(10);
+
+        // When
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        filter.sweepIdleBuckets();
+
+        // Then
+        assertThat(filter.trackedKeys()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should pass everything through when disabled")
+    void shouldPassThroughWhenDisabled() throws Exception {
+        // Given
+        properties.setEnabled(false);
+
+        // When
+        call("/api/v1/auth/register", null, "10.0.0.1");
+        MockHttpServletResponse response = call("/api/v1/auth/register", null, "10.0.0.1");
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(filter.trackedKeys()).isZero();
+    }
+
+    private MockHttpServletResponse call(String path, JwtClaims claims, String remoteAddr) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setRemoteAddr(remoteAddr);
+        if (claims != null) {
+            request.setAttribute(JwtTokenProvider.CLAIMS_ATTRIBUTE, claims);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static JwtClaims claims(int userId, String role) {
+        Instant now = Instant.now();
+        return new JwtClaims("user" + userId, userId, List.of(role), now, now.plusSeconds(3600));
+    }
+
+    private static RateLimitProperties.Rule rule(String pattern, List<String> roles, int capacity, double refill) {
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule();
+        rule.setPattern(pattern);
+        rule.setRoles(roles);
+        rule.setCapacity(capacity);
+        rule.setRefillPerSecond(refill);
+        return rule;
+    }
+}
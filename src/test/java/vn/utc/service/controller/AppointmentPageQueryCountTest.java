@@ -0,0 +1,100 @@
+package vn.utc.service.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import vn.utc.service.PostgresIntegrationTest;
+import vn.utc.service.config.ContsConfig;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards appointment pages against per-row work-order lookups: the number of JDBC statements
+ * Hibernate prepares must stay the same from one row to a hundred.
+ */
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@DisplayName("Appointment page query counts")
+class AppointmentPageQueryCountTest extends PostgresIntegrationTest {
+
+    private static final int ROWS = 100;
+    private static final int FIRST_ID = 91_001;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        // Every appointment has its own customer, vehicle and work order, so a lookup per row
+        // would show up as statements growing with the page size
+        jdbcTemplate.update("""
+                INSERT INTO users (user_id, username, password, email, phone, role, is_active)
+                SELECT g, 'ap_user_' || g, 'x', 'ap' || g || '@example.com', '0901' || g, 'CUSTOMER', true
+                FROM generate_series(?, ?) AS g ON CONFLICT DO NOTHING""", FIRST_ID, FIRST_ID + ROWS);
+        jdbcTemplate.update("""
+                INSERT INTO customers (customer_id, user_id, first_name, last_name)
+                SELECT g, g, 'First' || g, 'Last' || g
+                FROM generate_series(?, ?) AS g ON CONFLICT DO NOTHING""", FIRST_ID, FIRST_ID + ROWS - 1);
+        jdbcTemplate.update("""
+                INSERT INTO vehicles (vehicle_id, customer_id, make, model, year, license_plate)
+                SELECT g, g, 'Honda', 'City', 2021, 'AP-' || g
+                FROM generate_series(?, ?) AS g ON CONFLICT DO NOTHING""", FIRST_ID, FIRST_ID + ROWS - 1);
+        jdbcTemplate.update("""
+                INSERT INTO appointments (appointment_id, vehicle_id, customer_id, appointment_date, status, service_type)
+                SELECT g, g, g, now(), 'IN_PROGRESS', 'OIL_CHANGE'
+                FROM generate_series(?, ?) AS g ON CONFLICT DO NOTHING""", FIRST_ID, FIRST_ID + ROWS - 1);
+        jdbcTemplate.update("""
+                INSERT INTO staff (staff_id, user_id, first_name, last_name, "position")
+                VALUES (?, ?, 'Tech', 'Two', 'Mechanic') ON CONFLICT DO NOTHING""", FIRST_ID, FIRST_ID + ROWS);
+        jdbcTemplate.update("""
+                INSERT INTO work_orders (work_order_id, appointment_id, staff_id, start_time, status)
+                SELECT g, g, ?, now(), 'IN_PROGRESS'
+                FROM generate_series(?, ?) AS g ON CONFLICT DO NOTHING""", FIRST_ID, FIRST_ID, FIRST_ID + ROWS - 1);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @ParameterizedTest(name = "page size {0}")
+    @ValueSource(ints = {1, 20, 100})
+    @DisplayName("Appointment page should load rows, count and work orders in constant statements")
+    void appointmentPage_ShouldUseConstantStatements(int pageSize) throws Exception {
+        // When
+        mockMvc.perform(get("/api/v1/receptionist/appointments")
+                        .param("size", String.valueOf(pageSize))
+                        .param("sortBy", "id")
+                        .param("sortDir", "desc")
+                        .with(user("receptionist").authorities(new SimpleGrantedAuthority(ContsConfig.RECEPTIONIST))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content", hasSize(pageSize)))
+                .andExpect(jsonPath("$.data.content[0].vehicle.licensePlate").exists())
+                .andExpect(jsonPath("$.data.content[0].workOrder.status").value("IN_PROGRESS"))
+                .andExpect(jsonPath("$.data.content[" + (pageSize - 1) + "].workOrder.workOrderId").exists());
+
+        // Then rows and count, plus one work-order lookup for the whole page
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+    }
+}
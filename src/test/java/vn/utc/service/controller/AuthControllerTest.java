@@ -0,0 +1,90 @@
+package vn.utc.service.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import vn.utc.service.config.JwtTokenProvider;
+import vn.utc.service.service.AuthService;
+import vn.utc.service.service.CustomUserDetailsService;
+import vn.utc.service.service.LoginService;
+import vn.utc.service.service.RefreshTokenService;
+import vn.utc.service.service.TokenRevocationService;
+import vn.utc.service.service.UserService;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AuthController Unit Tests")
+class AuthControllerTest {
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private JwtTokenProvider tokenProvider;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private AuthService authService;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Mock
+    private LoginService loginService;
+
+    @InjectMocks
+    private AuthController authController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(authController).build();
+    }
+
+    @Test
+    @DisplayName("Logout should only end the caller's own sessions, whatever user id is sent")
+    void logoutUser_ShouldNotLogOutAnotherUser() throws Exception {
+        // Given
+        when(tokenProvider.getUserIdFromRequest(any())).thenReturn(7);
+
+        // When
+        mockMvc.perform(post("/api/v1/auth/logout").param("userId", "9"))
+                .andExpect(status().isOk());
+
+        // Then
+        verify(refreshTokenService).deleteByUserId(7);
+        verify(tokenRevocationService).revokeAll(7);
+        verify(refreshTokenService, never()).deleteByUserId(9);
+        verify(tokenRevocationService, never()).revokeAll(9);
+    }
+
+    @Test
+    @DisplayName("Logout without a verified token should revoke nothing")
+    void logoutUser_WithoutToken_ShouldBeUnauthorized() throws Exception {
+        // Given
+        when(tokenProvider.getUserIdFromRequest(any())).thenReturn(null);
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/auth/logout").param("userId", "9"))
+                .andExpect(status().isUnauthorized());
+        verify(refreshTokenService, never()).deleteByUserId(anyInt());
+        verify(tokenRevocationService, never()).revokeAll(anyInt());
+    }
+}
@@ -0,0 +1,101 @@
+package vn.utc.service.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import vn.utc.service.PostgresIntegrationTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards the login path against extra round trips: a successful login must cost the user
+ * projection query and the refresh-token upsert, whether or not the user already has a token.
+ */
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@DisplayName("Login query counts")
+class LoginQueryCountTest extends PostgresIntegrationTest {
+
+    private static final int USER_ID = 92_001;
+    private static final String LOGIN = """
+            {"username": "qc_login", "password": "password123"}""";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("""
+                INSERT INTO users (user_id, username, password, email, phone, role, is_active)
+                VALUES (?, 'qc_login', ?, 'qc_login@example.com', '0900920001', 'CUSTOMER', true)
+                ON CONFLICT DO NOTHING""", USER_ID, passwordEncoder.encode("password123"));
+        jdbcTemplate.update("""
+                INSERT INTO customers (customer_id, user_id, first_name, last_name)
+                VALUES (?, ?, 'An', 'Nguyen') ON CONFLICT DO NOTHING""", USER_ID, USER_ID);
+        jdbcTemplate.update("DELETE FROM refresh_tokens WHERE user_id = ?", USER_ID);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    private void login() throws Exception {
+        mockMvc.perform(post("/api/v1/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(LOGIN))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.token").isNotEmpty())
+                .andExpect(jsonPath("$.data.refreshToken").isNotEmpty())
+                .andExpect(jsonPath("$.data.firstName").value("An"));
+    }
+
+    @Test
+    @DisplayName("First login should take one user query and one refresh-token upsert")
+    void login_ShouldUseTwoStatements() throws Exception {
+        // When
+        login();
+
+        // Then
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Repeated login should rotate the refresh token in the same two statements")
+    void login_WhenTokenExists_ShouldStillUseTwoStatements() throws Exception {
+        // Given
+        login();
+        statistics.clear();
+
+        // When
+        login();
+
+        // Then
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM refresh_tokens WHERE user_id = ?", Integer.class, USER_ID)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,130 @@
+package vn.utc.service.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import vn.utc.service.PostgresIntegrationTest;
+import vn.utc.service.config.ContsConfig;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards the manager work-order detail endpoints against lazy-load cascades: the number of JDBC
+ * statements Hibernate prepares must not grow with the page size.
+ */
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@DisplayName("Manager work-order detail query counts")
+class ManagerWorkOrderQueryCountTest extends PostgresIntegrationTest {
+
+    private static final int ROWS = 20;
+    private static final int FIRST_ID = 90_001;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        // Every work order gets its own appointment, customer, user and vehicle, so a lazy walk
+        // would cost several selects per row
+        jdbcTemplate.update("""
+                INSERT INTO users (user_id, username, password, email, phone, role, is_active)
+                SELECT g, 'qc_user_' || g, 'x', 'qc' || g || '@example.com', '0900' || g, 'CUSTOMER', true
+                FROM generate_series(?, ?) AS g ON CONFLICT DO NOTHING""", FIRST_ID, FIRST_ID + ROWS);
+        jdbcTemplate.update("""
+                INSERT INTO customers (customer_id, user_id, first_name, last_name)
+                SELECT g, g, 'First' || g, 'Last' || g
+                FROM generate_series(?, ?) AS g ON CONFLICT DO NOTHING""", FIRST_ID, FIRST_ID + ROWS - 1);
+        jdbcTemplate.update("""
+                INSERT INTO vehicles (vehicle_id, customer_id, make, model, year, license_plate)
+                SELECT g, g, 'Toyota', 'Vios', 2020, 'QC-' || g
+                FROM generate_series(?, ?) AS g ON CONFLICT DO NOTHING""", FIRST_ID, FIRST_ID + ROWS - 1);
+        jdbcTemplate.update("""
+                INSERT INTO appointments (appointment_id, vehicle_id, customer_id, appointment_date, status, service_type)
+                SELECT g, g, g, now(), 'IN_PROGRESS', 'OIL_CHANGE'
+                FROM generate_series(?, ?) AS g ON CONFLICT DO NOTHING""", FIRST_ID, FIRST_ID + ROWS - 1);
+        jdbcTemplate.update("""
+                INSERT INTO staff (staff_id, user_id, first_name, last_name, "position")
+                VALUES (?, ?, 'Tech', 'One', 'Mechanic') ON CONFLICT DO NOTHING""", FIRST_ID, FIRST_ID + ROWS);
+        jdbcTemplate.update("""
+                INSERT INTO work_orders (work_order_id, appointment_id, staff_id, start_time, status)
+                SELECT g, g, ?, now(), 'IN_PROGRESS'
+                FROM generate_series(?, ?) AS g ON CONFLICT DO NOTHING""", FIRST_ID, FIRST_ID, FIRST_ID + ROWS - 1);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Work-order detail page should load in the row select plus the count")
+    void workOrderPage_ShouldUseConstantStatements() throws Exception {
+        // When
+        mockMvc.perform(get("/api/v1/manager/work-orders")
+                        .param("size", String.valueOf(ROWS))
+                        .param("sortBy", "id")
+                        .param("sortDir", "desc")
+                        .with(user("manager").authorities(new SimpleGrantedAuthority(ContsConfig.MANAGER))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content", hasSize(ROWS)))
+                .andExpect(jsonPath("$.data.content[0].customer.email").exists())
+                .andExpect(jsonPath("$.data.content[0].vehicle.licensePlate").exists())
+                .andExpect(jsonPath("$.data.content[0].assignedStaff.position").value("Mechanic"));
+
+        // Then
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Filtered page should return only matching rows from one statement")
+    void filteredWorkOrderPage_ShouldApplyFiltersInQuery() throws Exception {
+        // When
+        mockMvc.perform(get("/api/v1/manager/work-orders")
+                        .param("status", "in_progress")
+                        .param("staffId", String.valueOf(FIRST_ID))
+                        .param("customerId", String.valueOf(FIRST_ID + 3))
+                        .param("serviceType", "OIL_CHANGE")
+                        .with(user("manager").authorities(new SimpleGrantedAuthority(ContsConfig.MANAGER))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content", hasSize(1)))
+                .andExpect(jsonPath("$.data.content[0].workOrderId").value(FIRST_ID + 3));
+
+        // Then
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Single work-order detail should load in one statement")
+    void workOrderDetail_ShouldUseOneStatement() throws Exception {
+        // When
+        mockMvc.perform(get("/api/v1/manager/work-orders/{id}", FIRST_ID)
+                        .with(user("manager").authorities(new SimpleGrantedAuthority(ContsConfig.MANAGER))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.customer.customerId").value(FIRST_ID));
+
+        // Then
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,132 @@
+package vn.utc.service.repo;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.TestPropertySource;
+import vn.utc.service.PostgresIntegrationTest;
+import vn.utc.service.entity.Appointment;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Builds the schema from the entities, populates it, runs the V1 migration and EXPLAINs the SQL
+ * Hibernate generates for the {@link AppointmentSpecifications} filters, checking that it is
+ * planned as an index scan.
+ */
+@TestPropertySource(properties = QueryPlans.INSPECTOR)
+@DisplayName("Appointment range query plans")
+class AppointmentIndexExplainTest extends PostgresIntegrationTest {
+
+    private static final int BASE = 1_000_000;
+    private static final int ROWS = 200_000;
+    private static final Instant DAY = Instant.parse("2023-06-14T17:00:00Z");
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void setUpData(@Autowired JdbcTemplate jdbcTemplate, @Autowired DataSource dataSource) {
+        QueryPlans.seedAppointments(jdbcTemplate, BASE, ROWS);
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/V1__appointment_range_indexes.sql"));
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+        jdbcTemplate.execute("ANALYZE appointments");
+    }
+
+    @AfterAll
+    static void tearDown(@Autowired JdbcTemplate jdbcTemplate) {
+        QueryPlans.deleteSeeded(jdbcTemplate, BASE, ROWS);
+    }
+
+    @BeforeEach
+    void setUp() {
+        QueryPlans.clear();
+    }
+
+    private String explainPage(Specification<Appointment> filter) {
+        appointmentRepository.findAll(filter, PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "appointmentDate")));
+        return QueryPlans.explain(jdbcTemplate, QueryPlans.firstSelectFrom("appointments"));
+    }
+
+    @Test
+    @DisplayName("Migration should normalize stored statuses to upper case")
+    void migration_ShouldNormalizeStatuses() {
+        // When
+        List<String> lowerCase = jdbcTemplate.queryForList(
+                "SELECT status FROM appointments WHERE status <> UPPER(status) LIMIT 1", String.class);
+
+        // Then
+        assertThat(lowerCase).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Customer date-range page should use the customer/date index")
+    void customerDateRange_ShouldUseIndexScan() {
+        // When
+        String plan = explainPage(Specification
+                .where(AppointmentSpecifications.forCustomer(BASE + 42))
+                .and(AppointmentSpecifications.inRange(Instant.parse("2022-12-31T17:00:00Z"),
+                        Instant.parse("2023-12-31T17:00:00Z"))));
+
+        // Then
+        assertThat(plan).contains("idx_appointments_customer").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    @DisplayName("Status date-range page should use the status/date index")
+    void statusDateRange_ShouldUseIndexScan() {
+        // When
+        String plan = explainPage(Specification
+                .where(AppointmentSpecifications.hasStatus("IN_PROGRESS"))
+                .and(AppointmentSpecifications.inRange(DAY, DAY.plusSeconds(86_400))));
+
+        // Then
+        assertThat(plan).contains("Index").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    @DisplayName("Single-day count should use the date index")
+    void dateRange_ShouldUseIndexScan() {
+        // When
+        appointmentRepository.count(AppointmentSpecifications.inRange(DAY, DAY.plusSeconds(86_400)));
+        String plan = QueryPlans.explain(jdbcTemplate, QueryPlans.firstSelectFrom("appointments"));
+
+        // Then
+        assertThat(plan).contains("Index").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    @DisplayName("Previous date() predicate should not be able to use the index")
+    void wrappedDatePredicate_ShouldFallBackToSeqScan() {
+        // When the filter the specifications replaced wraps the column
+        String plan = QueryPlans.explain(jdbcTemplate, """
+                SELECT COUNT(*) FROM appointments a
+                WHERE date(a.appointment_date) >= date(?::timestamptz)
+                  AND date(a.appointment_date) <= date(?::timestamptz)""");
+
+        // Then
+        assertThat(plan).contains("Seq Scan on appointments");
+    }
+}
@@ -0,0 +1,113 @@
+package vn.utc.service.repo;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records the SQL Hibernate sends, so plan tests can EXPLAIN the statements the specifications
+ * really produce. Registered through {@code hibernate.session_factory.statement_inspector}.
+ */
+public class QueryPlans implements StatementInspector {
+
+    static final String INSPECTOR = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+            + "vn.utc.service.repo.QueryPlans";
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    static void clear() {
+        STATEMENTS.clear();
+    }
+
+    /** The first select recorded since {@link #clear()} whose main table is {@code table}. */
+    static String firstSelectFrom(String table) {
+        return STATEMENTS.stream()
+                .filter(sql -> sql.startsWith("select") && sql.contains(" from " + table + " "))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No select from " + table + " in " + STATEMENTS));
+    }
+
+    /**
+     * Postgres' plan for {@code sql} whatever values are bound, the way a prepared statement
+     * reused by the pool ends up being planned.
+     */
+    static String explain(JdbcTemplate jdbcTemplate, String sql) {
+        StringBuilder numbered = new StringBuilder();
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN (GENERIC_PLAN) " + numbered, String.class));
+    }
+
+    /**
+     * Four years of appointments ids {@code base + 1} onwards across 5000 customers and 8000
+     * vehicles, with some legacy lower-case statuses.
+     */
+    static void seedAppointments(JdbcTemplate jdbcTemplate, int base, int rows) {
+        jdbcTemplate.update("""
+                INSERT INTO users (user_id, username, password, email, phone, role, is_active)
+                SELECT ? + g, 'xp_user_' || (? + g), 'x', 'xp' || (? + g) || '@example.com', '08' || (? + g),
+                       'CUSTOMER', true
+                FROM generate_series(1, 5000) AS g""", base, base, base, base);
+        jdbcTemplate.update("""
+                INSERT INTO customers (customer_id, user_id, first_name, last_name)
+                SELECT ? + g, ? + g, 'First', 'Last' FROM generate_series(1, 5000) AS g""", base, base);
+        jdbcTemplate.update("""
+                INSERT INTO vehicles (vehicle_id, customer_id, make, model, year, license_plate)
+                SELECT ? + g, ? + g % 5000 + 1, 'Toyota', 'Vios', 2020, 'XP-' || (? + g)
+                FROM generate_series(1, 8000) AS g""", base, base, base);
+        jdbcTemplate.update("""
+                INSERT INTO appointments (appointment_id, vehicle_id, customer_id, appointment_date, status, service_type)
+                SELECT ? + g, ? + g % 8000 + 1, ? + g % 5000 + 1,
+                       TIMESTAMPTZ '2022-01-01 00:00:00+07' + g * INTERVAL '10 minutes',
+                       CASE WHEN g % 50 = 0 THEN 'completed'
+                            ELSE (ARRAY['PENDING','SCHEDULED','IN_PROGRESS','COMPLETED','CANCELLED'])[g % 5 + 1]
+                       END,
+                       'OIL_CHANGE'
+                FROM generate_series(1, ?) AS g""", base, base, base, rows);
+    }
+
+    /** One work order per seeded appointment across 40 mechanics, with some lower-case statuses. */
+    static void seedWorkOrders(JdbcTemplate jdbcTemplate, int base, int rows) {
+        jdbcTemplate.update("""
+                INSERT INTO users (user_id, username, password, email, phone, role, is_active)
+                SELECT ? + 5000 + g, 'xp_staff_' || (? + g), 'x', 'xp_staff' || (? + g) || '@example.com',
+                       '07' || (? + g), 'STAFF', true
+                FROM generate_series(1, 40) AS g""", base, base, base, base);
+        jdbcTemplate.update("""
+                INSERT INTO staff (staff_id, user_id, first_name, last_name, "position")
+                SELECT ? + g, ? + 5000 + g, 'Tech', 'Nician', 'Mechanic'
+                FROM generate_series(1, 40) AS g""", base, base);
+        jdbcTemplate.update("""
+                INSERT INTO work_orders (work_order_id, appointment_id, staff_id, start_time, status)
+                SELECT ? + g, ? + g, ? + g % 40 + 1,
+                       TIMESTAMPTZ '2022-01-01 00:00:00+07' + g * INTERVAL '10 minutes',
+                       CASE WHEN g % 50 = 0 THEN 'in_progress'
+                            ELSE (ARRAY['PENDING','IN_PROGRESS','COMPLETED','CANCELLED'])[g % 4 + 1]
+                       END
+                FROM generate_series(1, ?) AS g""", base, base, base, rows);
+    }
+
+    /** Removes everything seeded from {@code base}, so other tests on the database do not page through it. */
+    static void deleteSeeded(JdbcTemplate jdbcTemplate, int base, int rows) {
+        jdbcTemplate.update("DELETE FROM work_orders WHERE work_order_id BETWEEN ? AND ?", base + 1, base + rows);
+        jdbcTemplate.update("DELETE FROM appointments WHERE appointment_id BETWEEN ? AND ?", base + 1, base + rows);
+        jdbcTemplate.update("DELETE FROM vehicles WHERE vehicle_id BETWEEN ? AND ?", base + 1, base + 8000);
+        jdbcTemplate.update("DELETE FROM customers WHERE customer_id BETWEEN ? AND ?", base + 1, base + 5000);
+        jdbcTemplate.update("DELETE FROM staff WHERE staff_id BETWEEN ? AND ?", base + 1, base + 40);
+        jdbcTemplate.update("DELETE FROM users WHERE user_id BETWEEN ? AND ?", base + 1, base + 5040);
+    }
+}
@@ -0,0 +1,114 @@
+package vn.utc.service.repo;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+import vn.utc.service.PostgresIntegrationTest;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the refresh-token upsert against a real database: a login storm for one user must leave
+ * exactly one row, and V6 must collapse rows left by the old non-atomic upsert.
+ */
+@DisplayName("Refresh-token upsert under concurrent logins")
+class RefreshTokenUpsertTest extends PostgresIntegrationTest {
+
+    private static final int USER_ID = 96_001;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("""
+                INSERT INTO users (user_id, username, password, email, phone, role, is_active)
+                VALUES (?, 'storm_user', 'x', 'storm@example.com', '0900960001', 'CUSTOMER', true)
+                ON CONFLICT DO NOTHING""", USER_ID);
+        jdbcTemplate.update("DELETE FROM refresh_tokens WHERE user_id = ?", USER_ID);
+    }
+
+    private List<String> tokens() {
+        return jdbcTemplate.queryForList("SELECT token FROM refresh_tokens WHERE user_id = ?", String.class, USER_ID);
+    }
+
+    @Test
+    @DisplayName("Simultaneous logins of one user should leave a single refresh token")
+    void upsertForUser_Concurrently_ShouldKeepOneRow() throws Exception {
+        // Given
+        int logins = 16;
+        Instant expiry = Instant.now().plus(1, ChronoUnit.DAYS);
+        ExecutorService pool = Executors.newFixedThreadPool(logins);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        // When
+        try {
+            for (int i = 0; i < logins; i++) {
+                String token = "token-" + i;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return transactionTemplate.execute(status ->
+                            refreshTokenRepository.upsertForUser(USER_ID, token, expiry));
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> result : results) {
+                assertThat(result.get(30, TimeUnit.SECONDS)).isEqualTo(1);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // Then
+        assertThat(tokens()).singleElement().asString().startsWith("token-");
+    }
+
+    @Test
+    @DisplayName("V6 should keep only the newest token of users with duplicates")
+    void migration_ShouldCollapseDuplicates() {
+        // Given
+        jdbcTemplate.execute("ALTER TABLE refresh_tokens DROP CONSTRAINT uk_refresh_tokens_user");
+        for (String token : List.of("oldest", "older", "newest")) {
+            jdbcTemplate.update("""
+                    INSERT INTO refresh_tokens (id, user_id, token, expiry_date, created_at)
+                    VALUES (nextval('refresh_tokens_id_seq'), ?, ?, now() + interval '1 day', now())""",
+                    USER_ID, token);
+        }
+
+        // When
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V6__refresh_token_user_unique.sql"))
+                .execute(dataSource);
+
+        // Then
+        assertThat(tokens()).containsExactly("newest");
+        transactionTemplate.executeWithoutResult(status ->
+                refreshTokenRepository.upsertForUser(USER_ID, "rotated", Instant.now().plus(1, ChronoUnit.DAYS)));
+        assertThat(tokens()).containsExactly("rotated");
+    }
+}
@@ -0,0 +1,116 @@
+package vn.utc.service.repo;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.TestPropertySource;
+import vn.utc.service.PostgresIntegrationTest;
+import vn.utc.service.dtos.WorkOrderFilter;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Builds the schema from the entities, populates it, runs the V1 and V2 migrations and EXPLAINs
+ * the SQL Hibernate generates for {@link WorkOrderSpecifications#matching} with the common
+ * manager filters, checking that it is planned as index scans.
+ */
+@TestPropertySource(properties = QueryPlans.INSPECTOR)
+@DisplayName("Work-order filter query plans")
+class WorkOrderIndexExplainTest extends PostgresIntegrationTest {
+
+    private static final int BASE = 2_000_000;
+    private static final int ROWS = 200_000;
+    private static final Instant DAY = Instant.parse("2023-06-14T17:00:00Z");
+
+    @Autowired
+    private WorkOrderRepository workOrderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void setUpData(@Autowired JdbcTemplate jdbcTemplate, @Autowired DataSource dataSource) {
+        QueryPlans.seedAppointments(jdbcTemplate, BASE, ROWS);
+        QueryPlans.seedWorkOrders(jdbcTemplate, BASE, ROWS);
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/V1__appointment_range_indexes.sql"));
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/V2__work_order_filter_indexes.sql"));
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+        jdbcTemplate.execute("ANALYZE appointments");
+        jdbcTemplate.execute("ANALYZE work_orders");
+    }
+
+    @AfterAll
+    static void tearDown(@Autowired JdbcTemplate jdbcTemplate) {
+        QueryPlans.deleteSeeded(jdbcTemplate, BASE, ROWS);
+    }
+
+    @BeforeEach
+    void setUp() {
+        QueryPlans.clear();
+    }
+
+    private String explainPage(WorkOrderFilter filter) {
+        workOrderRepository.findAll(WorkOrderSpecifications.matching(filter), PageRequest.of(0, 20));
+        return QueryPlans.explain(jdbcTemplate, QueryPlans.firstSelectFrom("work_orders"));
+    }
+
+    @Test
+    @DisplayName("Migration should normalize stored work-order statuses to upper case")
+    void migration_ShouldNormalizeStatuses() {
+        // When
+        List<String> lowerCase = jdbcTemplate.queryForList(
+                "SELECT status FROM work_orders WHERE status <> UPPER(status) LIMIT 1", String.class);
+
+        // Then
+        assertThat(lowerCase).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Today's in-progress jobs should use the status/start index")
+    void statusDay_ShouldUseIndexScan() {
+        // When
+        String plan = explainPage(
+                new WorkOrderFilter("IN_PROGRESS", DAY, DAY.plusSeconds(86_400), null, null, null, null));
+
+        // Then
+        assertThat(plan).contains("idx_work_orders_status_start").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    @DisplayName("A mechanic's open jobs should use the staff/status/start index")
+    void staffStatus_ShouldUseIndexScan() {
+        // When
+        String plan = explainPage(new WorkOrderFilter(
+                "IN_PROGRESS", Instant.parse("2022-12-31T17:00:00Z"), null, BASE + 7, null, null, null));
+
+        // Then
+        assertThat(plan).contains("idx_work_orders_staff_status_start").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    @DisplayName("Vehicle history should reach work orders through appointment indexes")
+    void vehicle_ShouldUseIndexScans() {
+        // When
+        String plan = explainPage(new WorkOrderFilter(null, null, null, null, null, BASE + 42, null));
+
+        // Then
+        assertThat(plan).contains("idx_appointments_vehicle").doesNotContain("Seq Scan");
+    }
+}
@@ -0,0 +1,247 @@
+package vn.utc.service.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import vn.utc.service.config.BookingProperties;
+import vn.utc.service.dtos.AvailableSlotDto;
+import vn.utc.service.dtos.BookedInterval;
+import vn.utc.service.entity.Appointment;
+import vn.utc.service.exception.SlotUnavailableException;
+import vn.utc.service.repo.AppointmentRepository;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AppointmentAvailabilityService Unit Tests")
+class AppointmentAvailabilityServiceTest {
+
+    private static final ZoneId GARAGE_ZONE = ZoneId.of("Asia/Ho_Chi_Minh");
+    private static final LocalDate DAY = LocalDate.of(2030, 3, 4);
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    private AppointmentAvailabilityService availabilityService;
+    private final List<BookedInterval> booked = new ArrayList<>();
+
+    record Interval(Integer getId, Instant getStartsAt, Instant getEndsAt, String getServiceType)
+            implements BookedInterval {}
+
+    @BeforeEach
+    void setUp() {
+        // Two bays, 08:00-12:00 in 30 minute slots
+        BookingProperties properties = new BookingProperties();
+        properties.setBays(2);
+        properties.setOpensAt(LocalTime.of(8, 0));
+        properties.setClosesAt(LocalTime.of(12, 0));
+        properties.setSlotMinutes(30);
+        properties.setServiceDurations(Map.of("OIL_CHANGE", 30, "BRAKE_SERVICE", 90));
+        Clock clock = Clock.fixed(DAY.minusDays(1).atStartOfDay(GARAGE_ZONE).toInstant(), GARAGE_ZONE);
+        availabilityService = new AppointmentAvailabilityService(appointmentRepository, properties, GARAGE_ZONE, clock);
+        lenient().when(appointmentRepository.findBookedIntervals(any(), any(), any())).thenAnswer(invocation -> List.copyOf(booked));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static Instant at(int hour, int minute) {
+        return DAY.atTime(hour, minute).atZone(GARAGE_ZONE).toInstant();
+    }
+
+    private static Appointment appointment(Integer id, Instant start, Instant end, String serviceType) {
+        return new Appointment()
+                .setId(id)
+                .setAppointmentDate(start)
+                .setEstimatedCompletion(end)
+                .setServiceType(serviceType)
+                .setStatus("PENDING");
+    }
+
+    @Test
+    @DisplayName("Should offer only start times where the whole service fits in a free bay")
+    void findAvailableSlots_ShouldSkipFullRanges() {
+        // Given both bays are taken 09:00-10:00
+        booked.add(new Interval(1, at(9, 0), at(10, 0), "OTHER"));
+        booked.add(new Interval(2, at(9, 0), null, "OTHER"));
+
+        // When
+        List<AvailableSlotDto> slots = availabilityService.findAvailableSlots(DAY, "Brake Service");
+
+        // Then a 90 minute service only fits after the 09:00-10:00 block
+        assertThat(slots).extracting(AvailableSlotDto::start)
+                .containsExactly(at(10, 0), at(10, 30));
+        assertThat(slots.get(0).end()).isEqualTo(at(11, 30));
+        assertThat(slots.get(0).freeBays()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should load each day from the database once")
+    void findAvailableSlots_ShouldCacheDay() {
+        // When
+        availabilityService.findAvailableSlots(DAY, "OIL_CHANGE");
+        availabilityService.findAvailableSlots(DAY, "OIL_CHANGE");
+
+        // Then
+        verify(appointmentRepository, times(1)).findBookedIntervals(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should reject a booking when every bay is taken")
+    void reserve_WhenFull_ShouldThrow() {
+        // Given
+        booked.add(new Interval(1, at(9, 0), at(10, 0), "OTHER"));
+        booked.add(new Interval(2, at(9, 30), at(10, 30), "OTHER"));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When / Then
+        assertThatThrownBy(() -> availabilityService.reserve(appointment(null, at(9, 30), at(10, 0), "OIL_CHANGE")))
+                .isInstanceOf(SlotUnavailableException.class);
+    }
+
+    @Test
+    @DisplayName("Should let the database re-read decide when memory is out of date")
+    void reserve_WhenAnotherInstanceBooked_ShouldThrow() {
+        // Given memory loaded with one booking, then a second committed elsewhere
+        booked.add(new Interval(1, at(9, 0), at(10, 0), "OTHER"));
+        availabilityService.findAvailableSlots(DAY, "OIL_CHANGE");
+        booked.add(new Interval(2, at(9, 0), at(10, 0), "OTHER"));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When / Then
+        assertThatThrownBy(() -> availabilityService.reserve(appointment(null, at(9, 0), null, "OIL_CHANGE")))
+                .isInstanceOf(SlotUnavailableException.class);
+        verify(appointmentRepository).lockBookingDay(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should fill in the estimated completion and keep memory current after commit")
+    void reserve_ThenBooked_ShouldTakeBayAfterCommit() {
+        // Given
+        booked.add(new Interval(1, at(8, 0), at(9, 0), "OTHER"));
+        TransactionSynchronizationManager.initSynchronization();
+        Appointment appointment = appointment(null, at(8, 0), null, "OIL_CHANGE");
+
+        // When
+        availabilityService.reserve(appointment);
+        appointment.setId(7);
+        availabilityService.booked(appointment);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        // Then
+        assertThat(appointment.getEstimatedCompletion()).isEqualTo(at(8, 30));
+        assertThat(availabilityService.findAvailableSlots(DAY, "OIL_CHANGE"))
+                .extracting(AvailableSlotDto::start)
+                .doesNotContain(at(8, 0));
+    }
+
+    @Test
+    @DisplayName("Should free the bay when an appointment is cancelled")
+    void statusChanged_ToCancelled_ShouldReleaseBay() {
+        // Given
+        booked.add(new Interval(1, at(8, 0), at(9, 0), "OTHER"));
+        booked.add(new Interval(2, at(8, 0), at(9, 0), "OTHER"));
+        assertThat(availabilityService.findAvailableSlots(DAY, "OIL_CHANGE"))
+                .extracting(AvailableSlotDto::start).doesNotContain(at(8, 0));
+        Appointment cancelled = appointment(2, at(8, 0), at(9, 0), "OTHER").setStatus("CANCELLED");
+
+        // When
+        availabilityService.statusChanged(cancelled, "PENDING");
+
+        // Then
+        assertThat(availabilityService.findAvailableSlots(DAY, "OIL_CHANGE"))
+                .extracting(AvailableSlotDto::start).contains(at(8, 0));
+    }
+
+    @Test
+    @DisplayName("Should reject reactivating an appointment whose time has been booked up")
+    void statusChanged_FromCancelledIntoFullSlot_ShouldThrow() {
+        // Given both bays were taken after the appointment was cancelled
+        booked.add(new Interval(1, at(9, 0), at(10, 0), "OTHER"));
+        booked.add(new Interval(2, at(9, 0), at(10, 0), "OTHER"));
+        TransactionSynchronizationManager.initSynchronization();
+        Appointment reactivated = appointment(3, at(9, 0), at(9, 30), "OIL_CHANGE");
+
+        // When / Then
+        assertThatThrownBy(() -> availabilityService.statusChanged(reactivated, "CANCELLED"))
+                .isInstanceOf(SlotUnavailableException.class);
+        verify(appointmentRepository).lockBookingDay(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should not count a reactivated appointment's own flushed row against it")
+    void statusChanged_FromNoShow_ShouldRebookAfterCommit() {
+        // Given one bay taken, and the reactivated row already visible to the re-read
+        booked.add(new Interval(1, at(9, 0), at(10, 0), "OTHER"));
+        booked.add(new Interval(3, at(9, 0), at(9, 30), "OIL_CHANGE"));
+        TransactionSynchronizationManager.initSynchronization();
+        Appointment reactivated = appointment(3, at(9, 0), at(9, 30), "OIL_CHANGE");
+
+        // When
+        availabilityService.statusChanged(reactivated, "NO_SHOW");
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        // Then
+        assertThat(availabilityService.findAvailableSlots(DAY, "OIL_CHANGE"))
+                .extracting(AvailableSlotDto::start).doesNotContain(at(9, 0));
+    }
+
+    @Test
+    @DisplayName("Should book a slot freed elsewhere even when memory still shows it full")
+    void reserve_WhenMemoryFullButDatabaseFree_ShouldSucceed() {
+        // Given memory loaded with both bays taken, then one cancelled on another instance
+        booked.add(new Interval(1, at(9, 0), at(10, 0), "OTHER"));
+        booked.add(new Interval(2, at(9, 0), at(10, 0), "OTHER"));
+        availabilityService.findAvailableSlots(DAY, "OIL_CHANGE");
+        booked.remove(1);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        availabilityService.reserve(appointment(null, at(9, 0), null, "OIL_CHANGE"));
+
+        // Then
+        verify(appointmentRepository).lockBookingDay(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should reject an appointment without a date")
+    void reserve_WithoutDate_ShouldThrow() {
+        assertThatThrownBy(() -> availabilityService.reserve(appointment(null, null, null, "OIL_CHANGE")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("date");
+    }
+
+    @Test
+    @DisplayName("Should reject bookings outside opening hours")
+    void reserve_OutsideOpeningHours_ShouldThrow() {
+        assertThatThrownBy(() -> availabilityService.reserve(appointment(null, at(11, 30), at(12, 30), "OTHER")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,104 @@
+package vn.utc.service.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import vn.utc.service.PostgresIntegrationTest;
+import vn.utc.service.dtos.AppointmentStatusChange;
+import vn.utc.service.dtos.AppointmentStatusChangeResult;
+import vn.utc.service.dtos.AppointmentStatusChangeResult.Outcome;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs bulk reactivations against a real database: two batches bringing back appointments on the
+ * same two days, listed in opposite order, must both finish rather than wait on each other.
+ */
+@DisplayName("Bulk appointment reactivation under contention")
+class AppointmentBulkReactivationTest extends PostgresIntegrationTest {
+
+    private static final int FIRST_ID = 97_001;
+    private static final ZoneId GARAGE_ZONE = ZoneId.of("Asia/Ho_Chi_Minh");
+
+    @Autowired
+    private AppointmentBulkStatusService appointmentBulkStatusService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Appointments FIRST_ID and FIRST_ID + 1 are on the first day, the other two on the next
+        LocalDate day = LocalDate.now(GARAGE_ZONE).plusDays(30);
+        jdbcTemplate.update("""
+                INSERT INTO users (user_id, username, password, email, phone, role, is_active)
+                VALUES (?, 'bulk_user', 'x', 'bulk@example.com', '0900970001', 'CUSTOMER', true)
+                ON CONFLICT DO NOTHING""", FIRST_ID);
+        jdbcTemplate.update("""
+                INSERT INTO customers (customer_id, user_id, first_name, last_name)
+                VALUES (?, ?, 'Bulk', 'User') ON CONFLICT DO NOTHING""", FIRST_ID, FIRST_ID);
+        jdbcTemplate.update("""
+                INSERT INTO vehicles (vehicle_id, customer_id, make, model, year, license_plate)
+                VALUES (?, ?, 'Kia', 'Morning', 2019, 'BULK-1') ON CONFLICT DO NOTHING""", FIRST_ID, FIRST_ID);
+        for (int i = 0; i < 4; i++) {
+            Timestamp start = Timestamp.from(day.plusDays(i / 2).atTime(LocalTime.of(9, 0)).atZone(GARAGE_ZONE).toInstant());
+            jdbcTemplate.update("""
+                    INSERT INTO appointments (appointment_id, vehicle_id, customer_id, appointment_date, status, service_type)
+                    VALUES (?, ?, ?, ?, 'CANCELLED', 'OIL_CHANGE')
+                    ON CONFLICT (appointment_id) DO UPDATE SET appointment_date = EXCLUDED.appointment_date""",
+                    FIRST_ID + i, FIRST_ID, FIRST_ID, start);
+        }
+    }
+
+    private static AppointmentStatusChange reactivate(int appointmentId) {
+        return new AppointmentStatusChange(appointmentId, "CANCELLED", "SCHEDULED");
+    }
+
+    @Test
+    @DisplayName("Batches reactivating the same days in opposite order should both complete")
+    void apply_WithOppositeDayOrder_ShouldNotDeadlock() throws Exception {
+        List<AppointmentStatusChange> firstDayFirst = List.of(reactivate(FIRST_ID), reactivate(FIRST_ID + 2));
+        List<AppointmentStatusChange> nextDayFirst = List.of(reactivate(FIRST_ID + 3), reactivate(FIRST_ID + 1));
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 20; round++) {
+                // Given
+                jdbcTemplate.update("UPDATE appointments SET status = 'CANCELLED' WHERE appointment_id BETWEEN ? AND ?",
+                        FIRST_ID, FIRST_ID + 3);
+                CountDownLatch start = new CountDownLatch(1);
+
+                // When
+                Future<List<AppointmentStatusChangeResult>> first = pool.submit(() -> {
+                    start.await();
+                    return appointmentBulkStatusService.apply(firstDayFirst);
+                });
+                Future<List<AppointmentStatusChangeResult>> second = pool.submit(() -> {
+                    start.await();
+                    return appointmentBulkStatusService.apply(nextDayFirst);
+                });
+                start.countDown();
+
+                // Then
+                assertThat(first.get(30, TimeUnit.SECONDS)).extracting(AppointmentStatusChangeResult::outcome)
+                        .containsOnly(Outcome.UPDATED);
+                assertThat(second.get(30, TimeUnit.SECONDS)).extracting(AppointmentStatusChangeResult::outcome)
+                        .containsOnly(Outcome.UPDATED);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
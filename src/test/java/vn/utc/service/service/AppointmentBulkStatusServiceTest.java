@@ -0,0 +1,162 @@
+package vn.utc.service.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import vn.utc.service.dtos.AppointmentStatusChange;
+import vn.utc.service.dtos.AppointmentStatusChangeResult;
+import vn.utc.service.dtos.AppointmentStatusChangeResult.Outcome;
+import vn.utc.service.dtos.StatusChangeBatch;
+import vn.utc.service.entity.Appointment;
+import vn.utc.service.service.AppointmentBulkStatusService.Row;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AppointmentBulkStatusService Unit Tests")
+class AppointmentBulkStatusServiceTest {
+
+    private static final Instant NINE = Instant.parse("2026-10-19T02:00:00Z");
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private AppointmentAvailabilityService availabilityService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @InjectMocks
+    private AppointmentBulkStatusService appointmentBulkStatusService;
+
+    @Test
+    @DisplayName("Should apply every change in one statement and report each outcome")
+    void apply_WithMixedChanges_ShouldReportPerItemResults() {
+        // Given
+        List<AppointmentStatusChange> changes = List.of(
+                new AppointmentStatusChange(1, "in_progress", "completed"),
+                new AppointmentStatusChange(2, "IN_PROGRESS", "COMPLETED"),
+                new AppointmentStatusChange(3, "SCHEDULED", "CANCELLED"));
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of(
+                new Row(1, true, true, "IN_PROGRESS", 10, NINE, null, "OIL_CHANGE"),
+                new Row(2, true, false, "COMPLETED", 11, NINE, null, "OIL_CHANGE"),
+                new Row(3, false, false, null, null, null, null, null)));
+
+        // When
+        List<AppointmentStatusChangeResult> results = appointmentBulkStatusService.apply(changes);
+
+        // Then
+        assertThat(results).containsExactly(
+                new AppointmentStatusChangeResult(1, Outcome.UPDATED, "COMPLETED"),
+                new AppointmentStatusChangeResult(2, Outcome.CONFLICT, "COMPLETED"),
+                new AppointmentStatusChangeResult(3, Outcome.NOT_FOUND, null));
+
+        ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> paramsCaptor = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(1)).query(sqlCaptor.capture(), any(RowMapper.class), paramsCaptor.capture());
+        assertThat(sqlCaptor.getValue())
+                .startsWith("WITH v(id, expected, next) AS (VALUES ")
+                .contains("UPDATE appointments a SET status = v.next");
+        Object[] params = paramsCaptor.getValue();
+        assertThat(params).hasSize(10);
+        assertThat(params).startsWith(1, "IN_PROGRESS", "COMPLETED");
+
+        ArgumentCaptor<Appointment> appointmentCaptor = ArgumentCaptor.forClass(Appointment.class);
+        verify(availabilityService).statusChanged(appointmentCaptor.capture(), eq("IN_PROGRESS"));
+        assertThat(appointmentCaptor.getValue().getId()).isEqualTo(1);
+        assertThat(appointmentCaptor.getValue().getStatus()).isEqualTo("COMPLETED");
+    }
+
+    @Test
+    @DisplayName("Should publish the updated appointments as a single batch event")
+    void apply_WithSeveralUpdates_ShouldPublishOneBatch() {
+        // Given
+        List<AppointmentStatusChange> changes = List.of(
+                new AppointmentStatusChange(1, "IN_PROGRESS", "COMPLETED"),
+                new AppointmentStatusChange(2, "IN_PROGRESS", "COMPLETED"));
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of(
+                new Row(1, true, true, "IN_PROGRESS", 10, NINE, null, "OIL_CHANGE"),
+                new Row(2, true, true, "IN_PROGRESS", 11, NINE, null, "OIL_CHANGE")));
+
+        // When
+        appointmentBulkStatusService.apply(changes);
+
+        // Then
+        ArgumentCaptor<Object> eventCaptor = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, times(1)).publishEvent(eventCaptor.capture());
+        StatusChangeBatch batch = (StatusChangeBatch) eventCaptor.getValue();
+        assertThat(batch.events()).extracting("entityId").containsExactly(1, 2);
+        assertThat(batch.events()).extracting("customerId").containsExactly(10, 11);
+        verify(outboxService).appendStatusChanges(batch.events());
+    }
+
+    @Test
+    @DisplayName("Should not publish anything when no appointment was updated")
+    void apply_WithOnlyConflicts_ShouldNotPublish() {
+        // Given
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of(
+                new Row(1, true, false, "CANCELLED", 10, NINE, null, "OIL_CHANGE")));
+
+        // When
+        appointmentBulkStatusService.apply(List.of(new AppointmentStatusChange(1, "IN_PROGRESS", "COMPLETED")));
+
+        // Then
+        verifyNoInteractions(eventPublisher, availabilityService, outboxService);
+    }
+
+    @Test
+    @DisplayName("Should claim bays day by day whatever order the changes arrive in")
+    void apply_WithReactivationsOnSeveralDays_ShouldLockDaysInOrder() {
+        // Given
+        Instant nextDay = NINE.plus(1, ChronoUnit.DAYS);
+        List<AppointmentStatusChange> changes = List.of(
+                new AppointmentStatusChange(1, "CANCELLED", "SCHEDULED"),
+                new AppointmentStatusChange(2, "CANCELLED", "SCHEDULED"));
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of(
+                new Row(1, true, true, "CANCELLED", 10, nextDay, null, "OIL_CHANGE"),
+                new Row(2, true, true, "CANCELLED", 11, NINE, null, "OIL_CHANGE")));
+
+        // When
+        appointmentBulkStatusService.apply(changes);
+
+        // Then
+        ArgumentCaptor<Appointment> appointmentCaptor = ArgumentCaptor.forClass(Appointment.class);
+        verify(availabilityService, times(2)).statusChanged(appointmentCaptor.capture(), eq("CANCELLED"));
+        assertThat(appointmentCaptor.getAllValues()).extracting(Appointment::getId).containsExactly(2, 1);
+    }
+
+    @Test
+    @DisplayName("Should reject a request naming the same appointment twice")
+    void apply_WithDuplicateIds_ShouldThrow() {
+        // Given
+        List<AppointmentStatusChange> changes = List.of(
+                new AppointmentStatusChange(1, "SCHEDULED", "IN_PROGRESS"),
+                new AppointmentStatusChange(1, "IN_PROGRESS", "COMPLETED"));
+
+        // When & Then
+        assertThatThrownBy(() -> appointmentBulkStatusService.apply(changes))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("more than once");
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
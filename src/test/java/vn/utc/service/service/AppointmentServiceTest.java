@@ -7,6 +7,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -20,6 +21,7 @@ import vn.utc.service.mapper.AppointmentMapper;
 import vn.utc.service.mapper.CustomerMapper;
 import vn.utc.service.repo.AppointmentRepository;
 import vn.utc.service.repo.VehicleRepository;
+import vn.utc.service.repo.WorkOrderRepository;
 
 import java.time.Instant;
 import java.time.LocalDate;
@@ -35,6 +37,8 @@ import static org.mockito.Mockito.*;
 @DisplayName("AppointmentService Unit Tests")
 class AppointmentServiceTest {
 
+    private static final ZoneId GARAGE_ZONE = ZoneId.of("Asia/Ho_Chi_Minh");
+
     @Mock
     private AppointmentRepository appointmentRepository;
 
@@ -47,6 +51,18 @@ class AppointmentServiceTest {
     @Mock
     private VehicleRepository vehicleRepository;
 
+    @Mock
+    private WorkOrderRepository workOrderRepository;
+
+    @Mock
+    private AppointmentAvailabilityService availabilityService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private OutboxService outboxService;
+
     @InjectMocks
     private AppointmentService appointmentService;
 
@@ -65,7 +81,7 @@ class AppointmentServiceTest {
                 .setFirstName("John")
                 .setLastName("Doe");
 
-        customerDto = new CustomerDto(1, "John", "Doe", "123 Test St", "Test City", "Test State", null, null, null);
+        customerDto = new CustomerDto(1, null, "John", "Doe", "123 Test St", "Test City", "Test State", null, null, null);
 
         appointment = new Appointment();
         appointment.setId(1);
@@ -87,7 +103,10 @@ class AppointmentServiceTest {
                 appointment.getDescription(),
                 null, // vehicle
                 appointment.getCreatedAt(),
-                appointment.getUpdatedAt()
+                appointment.getUpdatedAt(),
+                null,
+                null,
+                null
         );
     }
 
@@ -96,6 +115,7 @@ class AppointmentServiceTest {
     void findById_WhenAppointmentExists_ShouldReturnAppointmentDto() {
         // Given
         when(appointmentRepository.findById(1)).thenReturn(Optional.of(appointment));
+        when(appointmentMapper.toDto(appointment, null)).thenReturn(appointmentDto);
 
         // When
         Optional<AppointmentDto> result = appointmentService.findById(1);
@@ -135,7 +155,10 @@ class AppointmentServiceTest {
                 "Regular oil change service",
                 null, // vehicle
                 null, // createdAt will be set
-                null  // updatedAt will be set
+                null, // updatedAt will be set
+                null,
+                null,
+                null
         );
 
         Appointment mappedAppointment = new Appointment();
@@ -164,13 +187,16 @@ class AppointmentServiceTest {
                 inputDto.description(),
                 null, // vehicle
                 now,
-                now
+                now,
+                null,
+                null,
+                null
         );
 
         when(appointmentMapper.toEntity(inputDto)).thenReturn(mappedAppointment);
         when(customerMapper.toEntity(customerDto)).thenReturn(customer);
         when(appointmentRepository.save(any(Appointment.class))).thenReturn(savedAppointment);
-        when(appointmentMapper.toDto(savedAppointment)).thenReturn(expectedDto);
+        when(appointmentMapper.toDto(savedAppointment, null)).thenReturn(expectedDto);
 
         // When
         AppointmentDto result = appointmentService.createAppointment(inputDto, customerDto);
@@ -180,8 +206,10 @@ class AppointmentServiceTest {
         assertThat(result.status()).isEqualTo("PENDING");
         verify(appointmentMapper).toEntity(inputDto);
         verify(customerMapper).toEntity(customerDto);
+        verify(availabilityService).reserve(mappedAppointment);
         verify(appointmentRepository).save(any(Appointment.class));
-        verify(appointmentMapper).toDto(savedAppointment);
+        verify(availabilityService).booked(savedAppointment);
+        verify(appointmentMapper).toDto(savedAppointment, null);
     }
 
     @Test
@@ -197,7 +225,10 @@ class AppointmentServiceTest {
                 "Regular oil change service",
                 null, // vehicle
                 now,
-                now
+                now,
+                null,
+                null,
+                null
         );
 
         Appointment mappedAppointment = new Appointment();
@@ -220,13 +251,16 @@ class AppointmentServiceTest {
                 inputDto.description(),
                 null, // vehicle
                 now,
-                now
+                now,
+                null,
+                null,
+                null
         );
 
         when(appointmentMapper.toEntity(inputDto)).thenReturn(mappedAppointment);
         when(customerMapper.toEntity(customerDto)).thenReturn(customer);
         when(appointmentRepository.save(any(Appointment.class))).thenReturn(savedAppointment);
-        when(appointmentMapper.toDto(savedAppointment)).thenReturn(expectedDto);
+        when(appointmentMapper.toDto(savedAppointment, null)).thenReturn(expectedDto);
 
         // When
         AppointmentDto result = appointmentService.createAppointment(inputDto, customerDto);
@@ -240,11 +274,10 @@ class AppointmentServiceTest {
     @DisplayName("Should return all appointments for customer")
     void getAllAppointments_WithCustomerId_ShouldReturnCustomerAppointments() {
         // Given
-        List<Appointment> allAppointments = List.of(appointment);
         List<AppointmentDto> expectedDtos = List.of(appointmentDto);
 
-        when(appointmentRepository.findAll()).thenReturn(allAppointments);
-        when(appointmentMapper.toDto(appointment)).thenReturn(appointmentDto);
+        when(appointmentRepository.findAllWithDetailsByCustomerId(1)).thenReturn(List.of(appointment));
+        when(appointmentMapper.toDto(appointment, null)).thenReturn(appointmentDto);
 
         // When
         List<AppointmentDto> result = appointmentService.getAllAppointments(1);
@@ -252,27 +285,23 @@ class AppointmentServiceTest {
         // Then
         assertThat(result).hasSize(1);
         assertThat(result).isEqualTo(expectedDtos);
-        verify(appointmentRepository).findAll();
-        verify(appointmentMapper).toDto(appointment);
+        verify(appointmentRepository).findAllWithDetailsByCustomerId(1);
+        verify(appointmentRepository, never()).findAll();
+        verify(appointmentMapper).toDto(appointment, null);
     }
 
     @Test
     @DisplayName("Should return empty list when no appointments for customer")
     void getAllAppointments_WithCustomerId_WhenNoAppointments_ShouldReturnEmptyList() {
         // Given
-        Appointment otherCustomerAppointment = new Appointment();
-        otherCustomerAppointment.setId(2);
-        Customer otherCustomer = new Customer().setId(2);
-        otherCustomerAppointment.setCustomer(otherCustomer);
-
-        when(appointmentRepository.findAll()).thenReturn(List.of(otherCustomerAppointment));
+        when(appointmentRepository.findAllWithDetailsByCustomerId(1)).thenReturn(List.of());
 
         // When
         List<AppointmentDto> result = appointmentService.getAllAppointments(1);
 
         // Then
         assertThat(result).isEmpty();
-        verify(appointmentRepository).findAll();
+        verify(appointmentRepository).findAllWithDetailsByCustomerId(1);
         verifyNoInteractions(appointmentMapper);
     }
 
@@ -281,11 +310,11 @@ class AppointmentServiceTest {
     void getAllAppointments_WithCustomerIdAndPageable_ShouldReturnPaginatedAppointments() {
         // Given
         Pageable pageable = PageRequest.of(0, 10);
-        List<Appointment> allAppointments = List.of(appointment);
         Page<AppointmentDto> expectedPage = new PageImpl<>(List.of(appointmentDto), pageable, 1);
 
-        when(appointmentRepository.findAll()).thenReturn(allAppointments);
-        when(appointmentMapper.toDto(appointment)).thenReturn(appointmentDto);
+        when(appointmentRepository.findPageWithVehicleByCustomerId(1, pageable))
+                .thenReturn(new PageImpl<>(List.of(appointment), pageable, 1));
+        when(appointmentMapper.toDto(appointment, null)).thenReturn(appointmentDto);
 
         // When
         Page<AppointmentDto> result = appointmentService.getAllAppointments(1, pageable);
@@ -293,8 +322,27 @@ class AppointmentServiceTest {
         // Then
         assertThat(result).isEqualTo(expectedPage);
         assertThat(result.getContent()).hasSize(1);
-        verify(appointmentRepository).findAll();
-        verify(appointmentMapper).toDto(appointment);
+        verify(appointmentRepository).findPageWithVehicleByCustomerId(1, pageable);
+        verify(appointmentRepository).fetchWorkOrders(List.of(appointment));
+        verify(appointmentRepository, never()).findAll();
+        verify(appointmentMapper).toDto(appointment, null);
+    }
+
+    @Test
+    @DisplayName("Should not load work orders for an empty customer page")
+    void getAllAppointments_WithCustomerIdAndPageable_WhenEmpty_ShouldSkipWorkOrderFetch() {
+        // Given
+        Pageable pageable = PageRequest.of(3, 10);
+        when(appointmentRepository.findPageWithVehicleByCustomerId(1, pageable))
+                .thenReturn(new PageImpl<>(List.of(), pageable, 5));
+
+        // When
+        Page<AppointmentDto> result = appointmentService.getAllAppointments(1, pageable);
+
+        // Then
+        assertThat(result.getContent()).isEmpty();
+        assertThat(result.getTotalElements()).isEqualTo(5);
+        verify(appointmentRepository, never()).fetchWorkOrders(any());
     }
 
     @Test
@@ -304,8 +352,8 @@ class AppointmentServiceTest {
         List<Appointment> allAppointments = List.of(appointment);
         List<AppointmentDto> expectedDtos = List.of(appointmentDto);
 
-        when(appointmentRepository.findAll()).thenReturn(allAppointments);
-        when(appointmentMapper.toDto(appointment)).thenReturn(appointmentDto);
+        when(appointmentRepository.findAllWithVehicle()).thenReturn(allAppointments);
+        when(appointmentMapper.toDto(appointment, null)).thenReturn(appointmentDto);
 
         // When
         List<AppointmentDto> result = appointmentService.getAllAppointments();
@@ -313,8 +361,8 @@ class AppointmentServiceTest {
         // Then
         assertThat(result).hasSize(1);
         assertThat(result).isEqualTo(expectedDtos);
-        verify(appointmentRepository).findAll();
-        verify(appointmentMapper).toDto(appointment);
+        verify(appointmentRepository).findAllWithVehicle();
+        verify(appointmentMapper).toDto(appointment, null);
     }
 
     @Test
@@ -325,8 +373,8 @@ class AppointmentServiceTest {
         Page<Appointment> appointmentPage = new PageImpl<>(List.of(appointment), pageable, 1);
         Page<AppointmentDto> expectedPage = new PageImpl<>(List.of(appointmentDto), pageable, 1);
 
-        when(appointmentRepository.findAll(pageable)).thenReturn(appointmentPage);
-        when(appointmentMapper.toDto(appointment)).thenReturn(appointmentDto);
+        when(appointmentRepository.findAllWithVehicle(pageable)).thenReturn(appointmentPage);
+        when(appointmentMapper.toDto(appointment, null)).thenReturn(appointmentDto);
 
         // When
         Page<AppointmentDto> result = appointmentService.getAllAppointments(pageable);
@@ -334,8 +382,8 @@ class AppointmentServiceTest {
         // Then
         assertThat(result).isEqualTo(expectedPage);
         assertThat(result.getContent()).hasSize(1);
-        verify(appointmentRepository).findAll(pageable);
-        verify(appointmentMapper).toDto(appointment);
+        verify(appointmentRepository).findAllWithVehicle(pageable);
+        verify(appointmentMapper).toDto(appointment, null);
     }
 
     @Test
@@ -348,16 +396,16 @@ class AppointmentServiceTest {
         String to = "2024-12-31";
         String date = "2024-06-15";
         
-        // Convert string dates to Instant for mocking
-        Instant fromInstant = LocalDate.parse(from).atStartOfDay(ZoneId.systemDefault()).toInstant();
-        Instant toInstant = LocalDate.parse(to).atStartOfDay(ZoneId.systemDefault()).toInstant();
+        // Whole garage-local days: [start of from, start of the day after to)
+        Instant fromInstant = LocalDate.parse(from).atStartOfDay(GARAGE_ZONE).toInstant();
+        Instant toInstant = LocalDate.parse(to).plusDays(1).atStartOfDay(GARAGE_ZONE).toInstant();
         
         Page<Appointment> appointmentPage = new PageImpl<>(List.of(appointment), pageable, 1);
         Page<AppointmentDto> expectedPage = new PageImpl<>(List.of(appointmentDto), pageable, 1);
 
         when(appointmentRepository.findByCustomerIdAndStatusAndDateRange(1, status, fromInstant, toInstant, pageable))
                 .thenReturn(appointmentPage);
-        when(appointmentMapper.toDto(appointment)).thenReturn(appointmentDto);
+        when(appointmentMapper.toDto(appointment, null)).thenReturn(appointmentDto);
 
         // When
         Page<AppointmentDto> result = appointmentService.getAllAppointments(1, pageable, status, from, to, date);
@@ -366,7 +414,7 @@ class AppointmentServiceTest {
         assertThat(result).isEqualTo(expectedPage);
         assertThat(result.getContent()).hasSize(1);
         verify(appointmentRepository).findByCustomerIdAndStatusAndDateRange(1, status, fromInstant, toInstant, pageable);
-        verify(appointmentMapper).toDto(appointment);
+        verify(appointmentMapper).toDto(appointment, null);
     }
 
     @Test
@@ -378,7 +426,7 @@ class AppointmentServiceTest {
         Page<AppointmentDto> expectedPage = new PageImpl<>(List.of(appointmentDto), pageable, 1);
 
         when(appointmentRepository.findByCustomerId(11, pageable)).thenReturn(appointmentPage);
-        when(appointmentMapper.toDto(appointment)).thenReturn(appointmentDto);
+        when(appointmentMapper.toDto(appointment, null)).thenReturn(appointmentDto);
 
         // When
         Page<AppointmentDto> result = appointmentService.getAllAppointments(11, pageable, null, null, null, null);
@@ -387,7 +435,7 @@ class AppointmentServiceTest {
         assertThat(result).isEqualTo(expectedPage);
         assertThat(result.getContent()).hasSize(1);
         verify(appointmentRepository).findByCustomerId(11, pageable);
-        verify(appointmentMapper).toDto(appointment);
+        verify(appointmentMapper).toDto(appointment, null);
     }
 
     @Test
@@ -400,16 +448,16 @@ class AppointmentServiceTest {
         String to = "2024-12-31";
         String date = "2024-06-15";
         
-        // Convert string dates to Instant for mocking
-        Instant fromInstant = LocalDate.parse(from).atStartOfDay(ZoneId.systemDefault()).toInstant();
-        Instant toInstant = LocalDate.parse(to).atStartOfDay(ZoneId.systemDefault()).toInstant();
+        // Whole garage-local days: [start of from, start of the day after to)
+        Instant fromInstant = LocalDate.parse(from).atStartOfDay(GARAGE_ZONE).toInstant();
+        Instant toInstant = LocalDate.parse(to).plusDays(1).atStartOfDay(GARAGE_ZONE).toInstant();
         
         Page<Appointment> appointmentPage = new PageImpl<>(List.of(appointment), pageable, 1);
         Page<AppointmentDto> expectedPage = new PageImpl<>(List.of(appointmentDto), pageable, 1);
 
         when(appointmentRepository.findByStatusAndDateRange(status, fromInstant, toInstant, pageable))
                 .thenReturn(appointmentPage);
-        when(appointmentMapper.toDto(appointment)).thenReturn(appointmentDto);
+        when(appointmentMapper.toDto(appointment, null)).thenReturn(appointmentDto);
 
         // When
         Page<AppointmentDto> result = appointmentService.getAllAppointments(pageable, status, from, to, date);
@@ -418,7 +466,7 @@ class AppointmentServiceTest {
         assertThat(result).isEqualTo(expectedPage);
         assertThat(result.getContent()).hasSize(1);
         verify(appointmentRepository).findByStatusAndDateRange(status, fromInstant, toInstant, pageable);
-        verify(appointmentMapper).toDto(appointment);
+        verify(appointmentMapper).toDto(appointment, null);
     }
 
     @Test
@@ -429,8 +477,8 @@ class AppointmentServiceTest {
         Page<Appointment> appointmentPage = new PageImpl<>(List.of(appointment), pageable, 1);
         Page<AppointmentDto> expectedPage = new PageImpl<>(List.of(appointmentDto), pageable, 1);
 
-        when(appointmentRepository.findAll(pageable)).thenReturn(appointmentPage);
-        when(appointmentMapper.toDto(appointment)).thenReturn(appointmentDto);
+        when(appointmentRepository.findAllWithVehicle(pageable)).thenReturn(appointmentPage);
+        when(appointmentMapper.toDto(appointment, null)).thenReturn(appointmentDto);
 
         // When
         Page<AppointmentDto> result = appointmentService.getAllAppointments(pageable, null, null, null, null);
@@ -438,7 +486,29 @@ class AppointmentServiceTest {
         // Then
         assertThat(result).isEqualTo(expectedPage);
         assertThat(result.getContent()).hasSize(1);
-        verify(appointmentRepository).findAll(pageable);
-        verify(appointmentMapper).toDto(appointment);
+        verify(appointmentRepository).findAllWithVehicle(pageable);
+        verify(appointmentMapper).toDto(appointment, null);
+    }
+
+    @Test
+    @DisplayName("Should normalize status and treat instant bounds as whole garage-local days")
+    void getAllAppointments_WithLowerCaseStatusAndInstants_ShouldQueryCanonicalHalfOpenRange() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10);
+        // 2024-06-14T20:00Z is already 2024-06-15 in the garage's time zone
+        String from = "2024-06-14T20:00:00Z";
+        String to = "2024-06-15T08:00:00Z";
+        Instant fromInstant = LocalDate.of(2024, 6, 15).atStartOfDay(GARAGE_ZONE).toInstant();
+        Instant toInstant = LocalDate.of(2024, 6, 16).atStartOfDay(GARAGE_ZONE).toInstant();
+
+        when(appointmentRepository.findByStatusAndDateRange("IN_PROGRESS", fromInstant, toInstant, pageable))
+                .thenReturn(new PageImpl<>(List.of(), pageable, 0));
+
+        // When
+        Page<AppointmentDto> result = appointmentService.getAllAppointments(pageable, " in_progress ", from, to, null);
+
+        // Then
+        assertThat(result.getContent()).isEmpty();
+        verify(appointmentRepository).findByStatusAndDateRange("IN_PROGRESS", fromInstant, toInstant, pageable);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,86 @@
+package vn.utc.service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import vn.utc.service.entity.Customer;
+import vn.utc.service.entity.Vehicle;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("CountCache Unit Tests")
+class CountCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger queries = new AtomicInteger();
+
+    private long countQuery() {
+        return 10 + queries.incrementAndGet();
+    }
+
+    @Test
+    @DisplayName("Should serve repeated lookups of the same signature from cache")
+    void get_SameSignature_ShouldQueryOnce() {
+        // Given
+        CountCache cache = new CountCache(30_000, 100, meterRegistry);
+
+        // When
+        long first = cache.get(Customer.class, "search=a", this::countQuery);
+        long second = cache.get(Customer.class, "search=a", this::countQuery);
+
+        // Then
+        assertThat(first).isEqualTo(11);
+        assertThat(second).isEqualTo(11);
+        assertThat(queries).hasValue(1);
+        assertThat(meterRegistry.get("pagination.count.cache.requests").tag("result", "hit").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should count separately per filter signature")
+    void get_DifferentSignature_ShouldQueryAgain() {
+        // Given
+        CountCache cache = new CountCache(30_000, 100, meterRegistry);
+
+        // When
+        cache.get(Customer.class, "search=a", this::countQuery);
+        cache.get(Customer.class, "search=b", this::countQuery);
+
+        // Then
+        assertThat(queries).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should drop only the changed entity's counts on invalidate")
+    void invalidate_ShouldForceRecountForThatEntity() {
+        // Given
+        CountCache cache = new CountCache(30_000, 100, meterRegistry);
+        cache.get(Customer.class, "*", this::countQuery);
+        cache.get(Vehicle.class, "*", this::countQuery);
+
+        // When
+        cache.invalidate(Customer.class);
+        cache.get(Customer.class, "*", this::countQuery);
+        cache.get(Vehicle.class, "*", this::countQuery);
+
+        // Then
+        assertThat(queries).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("Should recount once the entry has expired")
+    void get_AfterTtl_ShouldQueryAgain() {
+        // Given
+        CountCache cache = new CountCache(0, 100, meterRegistry);
+
+        // When
+        cache.get(Customer.class, "*", this::countQuery);
+        long second = cache.get(Customer.class, "*", this::countQuery);
+
+        // Then
+        assertThat(second).isEqualTo(12);
+        assertThat(queries).hasValue(2);
+    }
+}
@@ -62,7 +62,6 @@ class CustomUserDetailsServiceTest {
     void loadUserByUsername_WhenUserExists_ShouldReturnUserDetails() {
         // Given
         when(userService.findByUsername("testuser")).thenReturn(Optional.of(userDto));
-        when(userService.save(any(UserDto.class))).thenReturn(userDto);
         when(userMapper.toEntity(userDto)).thenReturn(user);
 
         // When
@@ -72,20 +71,15 @@ class CustomUserDetailsServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getUsername()).isEqualTo("testuser");
         verify(userService).findByUsername("testuser");
-        verify(userService).save(any(UserDto.class));
+        verify(userService, never()).save(any(UserDto.class));
         verify(userMapper).toEntity(userDto);
     }
 
     @Test
-    @DisplayName("Should update last login time when loading user")
-    void loadUserByUsername_ShouldUpdateLastLoginTime() {
+    @DisplayName("Should not write last login time when loading user")
+    void loadUserByUsername_ShouldNotWriteLastLoginTime() {
         // Given
         when(userService.findByUsername("testuser")).thenReturn(Optional.of(userDto));
-        when(userService.save(any(UserDto.class))).thenAnswer(invocation -> {
-            UserDto savedUser = invocation.getArgument(0);
-            assertThat(savedUser.getLastLogin()).isNotNull();
-            return savedUser;
-        });
         when(userMapper.toEntity(userDto)).thenReturn(user);
 
         // When
@@ -93,7 +87,8 @@ class CustomUserDetailsServiceTest {
 
         // Then
         assertThat(result).isNotNull();
-        verify(userService).save(any(UserDto.class));
+        assertThat(userDto.getLastLogin()).isNull();
+        verify(userService, never()).save(any(UserDto.class));
     }
 
     @Test
@@ -178,7 +173,6 @@ class CustomUserDetailsServiceTest {
         userDto.setActive(true);
         
         when(userService.findByUsername("testuser")).thenReturn(Optional.of(userDto));
-        when(userService.save(any(UserDto.class))).thenReturn(userDto);
         when(userMapper.toEntity(userDto)).thenReturn(user);
 
         // When
@@ -197,7 +191,6 @@ class CustomUserDetailsServiceTest {
         userDto.setActive(false);
         
         when(userService.findByUsername("testuser")).thenReturn(Optional.of(userDto));
-        when(userService.save(any(UserDto.class))).thenReturn(userDto);
         when(userMapper.toEntity(userDto)).thenReturn(user);
 
         // When
@@ -207,7 +200,7 @@ class CustomUserDetailsServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getUsername()).isEqualTo("testuser");
         verify(userService).findByUsername("testuser");
-        verify(userService).save(any(UserDto.class));
+        verify(userService, never()).save(any(UserDto.class));
         verify(userMapper).toEntity(userDto);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,136 @@
+package vn.utc.service.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import vn.utc.service.dtos.CustomerDashboardDto;
+import vn.utc.service.dtos.DashboardAppointmentView;
+import vn.utc.service.dtos.JwtClaims;
+import vn.utc.service.dtos.PageCursor;
+import vn.utc.service.dtos.VehicleDto;
+import vn.utc.service.repo.AppointmentRepository;
+import vn.utc.service.repo.CustomerRepository;
+import vn.utc.service.repo.VehicleRepository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CustomerDashboardService Unit Tests")
+class CustomerDashboardServiceTest {
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private VehicleRepository vehicleRepository;
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    private ThreadPoolTaskExecutor executor;
+
+    private CustomerDashboardService dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.initialize();
+        // At most two appointments and two vehicles per dashboard
+        dashboardService = new CustomerDashboardService(
+                appointmentRepository, vehicleRepository, customerRepository, executor, 2, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    private static DashboardAppointmentView row(int id, Instant date) {
+        DashboardAppointmentView row = mock(DashboardAppointmentView.class);
+        // Rows past the cap are never read
+        lenient().when(row.getAppointmentId()).thenReturn(id);
+        lenient().when(row.getAppointmentDate()).thenReturn(date);
+        return row;
+    }
+
+    private static VehicleDto vehicle(int id) {
+        return new VehicleDto(id, "Toyota", "Vios", 2020, "30A-" + id, null, null, null, null, null);
+    }
+
+    @Test
+    @DisplayName("Should cap appointments and hand back a cursor continuing after the last one shown")
+    void getDashboard_MoreThanLimit_ShouldCapAndReturnCursor() {
+        // Given
+        Instant now = Instant.parse("2030-01-10T03:00:00Z");
+        List<DashboardAppointmentView> rows =
+                List.of(row(3, now), row(2, now.minusSeconds(60)), row(1, now.minusSeconds(120)));
+        when(appointmentRepository.findDashboardAppointments(7, PageRequest.of(0, 3))).thenReturn(rows);
+        when(vehicleRepository.findDtosByCustomerId(7, PageRequest.of(0, 3))).thenReturn(List.of(vehicle(1)));
+
+        // When
+        CustomerDashboardDto dashboard = dashboardService.getDashboard(7);
+
+        // Then
+        assertThat(dashboard.appointments()).extracting(a -> a.appointmentId()).containsExactly(3, 2);
+        assertThat(dashboard.vehicles()).hasSize(1);
+        assertThat(dashboard.moreVehicles()).isFalse();
+        PageCursor cursor = PageCursor.decode(dashboard.appointmentsCursor());
+        assertThat(cursor.sortBy()).isEqualTo("appointmentDate");
+        assertThat(cursor.direction()).isEqualTo(Sort.Direction.DESC);
+        assertThat(cursor.keys()).containsEntry("id", "2")
+                .containsEntry("appointmentDate", now.minusSeconds(60).toString());
+    }
+
+    @Test
+    @DisplayName("Should return no cursor when every appointment fits")
+    void getDashboard_WithinLimit_ShouldReturnNoCursor() {
+        // Given
+        List<DashboardAppointmentView> rows = List.of(row(1, Instant.now()));
+        when(appointmentRepository.findDashboardAppointments(7, PageRequest.of(0, 3))).thenReturn(rows);
+        when(vehicleRepository.findDtosByCustomerId(7, PageRequest.of(0, 3)))
+                .thenReturn(List.of(vehicle(1), vehicle(2), vehicle(3)));
+
+        // When
+        CustomerDashboardDto dashboard = dashboardService.getDashboard(7);
+
+        // Then
+        assertThat(dashboard.appointmentsCursor()).isNull();
+        assertThat(dashboard.vehicles()).hasSize(2);
+        assertThat(dashboard.moreVehicles()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should take the customer id from the token without a lookup")
+    void resolveCustomerId_WithClaim_ShouldNotQuery() {
+        // Given
+        JwtClaims claims = new JwtClaims("john", 5, 7, List.of("CUSTOMER"), null, null);
+
+        // When / Then
+        assertThat(dashboardService.resolveCustomerId(claims)).isEqualTo(7);
+        verifyNoInteractions(customerRepository);
+    }
+
+    @Test
+    @DisplayName("Should fall back to a lookup by user id for tokens without the claim")
+    void resolveCustomerId_WithoutClaim_ShouldLookUpByUserId() {
+        // Given
+        JwtClaims claims = new JwtClaims("john", 5, List.of("CUSTOMER"), null, null);
+        when(customerRepository.findIdByUserId(5)).thenReturn(Optional.of(7));
+
+        // When / Then
+        assertThat(dashboardService.resolveCustomerId(claims)).isEqualTo(7);
+    }
+}
@@ -1,18 +1,23 @@
 package vn.utc.service.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import vn.utc.service.dtos.CountMode;
 import vn.utc.service.dtos.CustomerDto;
 import vn.utc.service.dtos.CustomerRegister;
+import vn.utc.service.dtos.PaginatedResponseDto;
 import vn.utc.service.dtos.UserDto;
 import vn.utc.service.entity.Customer;
 import vn.utc.service.entity.User;
@@ -42,6 +47,9 @@ class CustomerServiceTest {
     @Mock
     private UserMapper userMapper;
 
+    @Spy
+    private CountCache countCache = new CountCache(30_000, 100, new SimpleMeterRegistry());
+
     @InjectMocks
     private CustomerService customerService;
 
@@ -73,7 +81,7 @@ class CustomerServiceTest {
                 .setCity("Test City")
                 .setState("Test State");
 
-        customerDto = new CustomerDto(1, "John", "Doe", "123 Test St", "Test City", "Test State", null, null, null);
+        customerDto = new CustomerDto(1, null, "John", "Doe", "123 Test St", "Test City", "Test State", null, null, null);
 
         customerRegister = new CustomerRegister()
                 .setFirstName("Jane")
@@ -348,4 +356,46 @@ class CustomerServiceTest {
         verify(customerRepository).findAll(pageable);
         verify(customerMapper).toDto(customer);
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should skip the count query when countMode is none")
+    void findCustomers_WithCountModeNone_ShouldNotCount() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 1);
+        when(customerRepository.findSliceBySearchAndStatus("john", null, pageable))
+                .thenReturn(new SliceImpl<>(List.of(customer), pageable, true));
+        when(customerMapper.toDto(customer)).thenReturn(customerDto);
+
+        // When
+        PaginatedResponseDto<CustomerDto> result =
+                customerService.findCustomers(pageable, "john", null, CountMode.NONE);
+
+        // Then
+        assertThat(result.getContent()).containsExactly(customerDto);
+        assertThat(result.isHasNext()).isTrue();
+        assertThat(result.getTotalElements()).isEqualTo(-1);
+        verify(customerRepository, never()).countBySearchAndStatus(any(), any());
+        verify(customerRepository, never()).count();
+    }
+
+    @Test
+    @DisplayName("Should reuse a cached count when countMode is approx")
+    void findCustomers_WithCountModeApprox_ShouldCacheCount() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10);
+        when(customerRepository.findAllBy(pageable))
+                .thenReturn(new SliceImpl<>(List.of(customer), pageable, false));
+        when(customerMapper.toDto(customer)).thenReturn(customerDto);
+        when(customerRepository.count()).thenReturn(42L);
+
+        // When
+        customerService.findCustomers(pageable, null, null, CountMode.APPROX);
+        PaginatedResponseDto<CustomerDto> result =
+                customerService.findCustomers(pageable, null, null, CountMode.APPROX);
+
+        // Then
+        assertThat(result.getTotalElements()).isEqualTo(42);
+        assertThat(result.getTotalPages()).isEqualTo(5);
+        verify(customerRepository, times(1)).count();
+    }
+}
@@ -0,0 +1,119 @@
+package vn.utc.service.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("IntObjectMap Unit Tests")
+class IntObjectMapTest {
+
+    // new IntObjectMap<>(4) starts with 8 slots
+    private static final int MASK = 7;
+
+    /** Keys whose probe runs start at {@code home}, in ascending order. */
+    private static List<Integer> keysAt(int home, int count) {
+        List<Integer> keys = new ArrayList<>();
+        for (int key = 1; keys.size() < count; key++) {
+            if ((IntObjectMap.mix(key) & MASK) == home) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    @Test
+    @DisplayName("Should shift the rest of a probe run back when removing from its middle")
+    void remove_FromMiddleOfRun_ShouldKeepLaterKeysReachable() {
+        // Given three keys sharing a home slot, so they sit in one run
+        IntObjectMap<String> map = new IntObjectMap<>(4);
+        List<Integer> keys = keysAt(2, 3);
+        keys.forEach(key -> map.put(key, "v" + key));
+
+        // When
+        String removed = map.remove(keys.get(1));
+
+        // Then
+        assertThat(removed).isEqualTo("v" + keys.get(1));
+        assertThat(map.get(keys.get(1))).isNull();
+        assertThat(map.get(keys.get(0))).isEqualTo("v" + keys.get(0));
+        assertThat(map.get(keys.get(2))).isEqualTo("v" + keys.get(2));
+        assertThat(map.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should keep a run that wraps past the end of the table reachable after a removal")
+    void remove_InWrappedRun_ShouldKeepLaterKeysReachable() {
+        // Given keys homed on the last slot, so the run continues at slot 0
+        IntObjectMap<String> map = new IntObjectMap<>(4);
+        List<Integer> keys = keysAt(MASK, 3);
+        keys.forEach(key -> map.put(key, "v" + key));
+
+        // When
+        map.remove(keys.get(0));
+
+        // Then
+        assertThat(map.get(keys.get(1))).isEqualTo("v" + keys.get(1));
+        assertThat(map.get(keys.get(2))).isEqualTo("v" + keys.get(2));
+    }
+
+    @Test
+    @DisplayName("Should not move an entry back before its own home slot")
+    void remove_BeforeEntryAtItsHome_ShouldLeaveItInPlace() {
+        // Given a run holding a key from slot 2 followed by a key whose home is slot 3
+        IntObjectMap<String> map = new IntObjectMap<>(4);
+        int fromTwo = keysAt(2, 1).get(0);
+        int fromThree = keysAt(3, 1).get(0);
+        map.put(fromTwo, "two");
+        map.put(fromThree, "three");
+
+        // When
+        map.remove(fromTwo);
+        map.put(fromTwo, "two again");
+
+        // Then
+        assertThat(map.get(fromThree)).isEqualTo("three");
+        assertThat(map.get(fromTwo)).isEqualTo("two again");
+        assertThat(map.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should keep every entry reachable across resizes")
+    void put_BeyondCapacity_ShouldResizeAndKeepEntries() {
+        // Given
+        IntObjectMap<Integer> map = new IntObjectMap<>(4);
+
+        // When
+        for (int key = 0; key < 1_000; key++) {
+            map.put(key, key * 10);
+        }
+        for (int key = 0; key < 1_000; key += 2) {
+            map.remove(key);
+        }
+
+        // Then
+        assertThat(map.size()).isEqualTo(500);
+        for (int key = 0; key < 1_000; key++) {
+            assertThat(map.get(key)).isEqualTo(key % 2 == 0 ? null : key * 10);
+        }
+    }
+
+    @Test
+    @DisplayName("Should replace the value of an existing key without growing")
+    void put_ExistingKey_ShouldReturnPrevious() {
+        // Given
+        IntObjectMap<String> map = new IntObjectMap<>(4);
+        map.put(0, "first");
+
+        // When
+        String previous = map.put(0, "second");
+
+        // Then
+        assertThat(previous).isEqualTo("first");
+        assertThat(map.get(0)).isEqualTo("second");
+        assertThat(map.size()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,148 @@
+package vn.utc.service.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import vn.utc.service.dtos.PageCursor;
+import vn.utc.service.dtos.PaginatedResponseDto;
+import vn.utc.service.entity.Appointment;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("KeysetPager Unit Tests")
+class KeysetPagerTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Metamodel metamodel;
+
+    @Mock
+    private EntityType<Appointment> entityType;
+
+    @InjectMocks
+    private KeysetPager keysetPager;
+
+    @BeforeEach
+    void setUp() {
+        when(entityManager.getMetamodel()).thenReturn(metamodel);
+        doReturn(entityType).when(metamodel).entity(Appointment.class);
+        attribute("id", Integer.class, true, false);
+        attribute("appointmentDate", Instant.class, false, false);
+        attribute("description", String.class, false, true);
+        when(entityType.getAttribute("unknown")).thenThrow(new IllegalArgumentException("no such attribute"));
+    }
+
+    @Test
+    @DisplayName("Should start at the beginning sorted by the field and then id")
+    void request_WithoutCursor_ShouldStartFromFirstRow() {
+        // When
+        KeysetPager.KeysetRequest request = keysetPager.request(Appointment.class, "", "appointmentDate", "desc", 20);
+
+        // Then
+        assertThat(request.sort()).isEqualTo(Sort.by(Sort.Direction.DESC, "appointmentDate", "id"));
+        assertThat(request.position()).isEqualTo(ScrollPosition.keyset());
+        assertThat(request.size()).isEqualTo(20);
+        assertThat(request.continued()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should emit a cursor that resumes after the last row with typed keys and the cursor's sort")
+    void toResponse_ShouldRoundTripCursor() {
+        // Given
+        Instant lastDate = Instant.parse("2024-06-15T03:00:00Z");
+        KeysetPager.KeysetRequest first = keysetPager.request(Appointment.class, "", "appointmentDate", "desc", 2);
+        Window<String> window = Window.from(List.of("a", "b"),
+                index -> ScrollPosition.forward(Map.of("appointmentDate", lastDate, "id", 40 + index)), true);
+
+        // When
+        PaginatedResponseDto<String> response = keysetPager.toResponse(first, window, window.getContent());
+        KeysetPager.KeysetRequest next = keysetPager.request(Appointment.class, response.getNextCursor(), "id", "asc", 2);
+
+        // Then
+        assertThat(response.getContent()).containsExactly("a", "b");
+        assertThat(response.isHasNext()).isTrue();
+        assertThat(response.getTotalElements()).isEqualTo(-1);
+        assertThat(next.sort()).isEqualTo(Sort.by(Sort.Direction.DESC, "appointmentDate", "id"));
+        assertThat(next.continued()).isTrue();
+        assertThat(((KeysetScrollPosition) next.position()).getKeys())
+                .containsEntry("appointmentDate", lastDate)
+                .containsEntry("id", 41);
+    }
+
+    @Test
+    @DisplayName("Should not emit a cursor on the last page")
+    void toResponse_OnLastPage_ShouldHaveNoCursor() {
+        // Given
+        KeysetPager.KeysetRequest request = keysetPager.request(Appointment.class, "", "id", "asc", 10);
+        Window<String> window = Window.from(List.of("a"), index -> ScrollPosition.forward(Map.of("id", 1)), false);
+
+        // When
+        PaginatedResponseDto<String> response = keysetPager.toResponse(request, window, window.getContent());
+
+        // Then
+        assertThat(response.getNextCursor()).isNull();
+        assertThat(response.isLast()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reject nullable and unknown sort fields")
+    void request_WithUnsortableField_ShouldThrow() {
+        assertThatThrownBy(() -> keysetPager.request(Appointment.class, "", "description", "asc", 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("non-nullable");
+        assertThatThrownBy(() -> keysetPager.request(Appointment.class, "", "unknown", "asc", 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unknown sort field");
+    }
+
+    @Test
+    @DisplayName("Should reject tampered cursors")
+    void request_WithInvalidCursor_ShouldThrow() {
+        String tampered = new PageCursor("appointmentDate", Sort.Direction.ASC,
+                Map.of("appointmentDate", "yesterday", "id", "1")).encode();
+
+        assertThatThrownBy(() -> keysetPager.request(Appointment.class, "not-a-cursor", "id", "asc", 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> keysetPager.request(Appointment.class, tampered, "id", "asc", 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    @SuppressWarnings("unchecked")
+    private void attribute(String name, Class<?> type, boolean id, boolean optional) {
+        SingularAttribute<Appointment, ?> attribute = mock(SingularAttribute.class);
+        when(attribute.getPersistentAttributeType()).thenReturn(Attribute.PersistentAttributeType.BASIC);
+        doReturn(type).when(attribute).getJavaType();
+        when(attribute.isId()).thenReturn(id);
+        when(attribute.isOptional()).thenReturn(optional);
+        doReturn(attribute).when(entityType).getAttribute(name);
+    }
+}
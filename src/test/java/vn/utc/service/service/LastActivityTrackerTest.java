@@ -0,0 +1,101 @@
+package vn.utc.service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LastActivityTracker Unit Tests")
+class LastActivityTrackerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private LastActivityTracker lastActivityTracker;
+
+    @BeforeEach
+    void setUp() {
+        lastActivityTracker = new LastActivityTracker(jdbcTemplate, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Should keep only the latest activity per user")
+    void touch_SameUserRepeatedly_ShouldCoalesce() {
+        // When
+        lastActivityTracker.touch(1, 1_000L);
+        lastActivityTracker.touch(1, 3_000L);
+        lastActivityTracker.touch(1, 2_000L);
+        lastActivityTracker.touch(2, 1_500L);
+
+        // Then
+        assertThat(lastActivityTracker.pending()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should flush all pending users in one batched update")
+    void flush_WithPendingEntries_ShouldIssueSingleUpdate() {
+        // Given
+        for (int userId = 1; userId <= 200; userId++) {
+            lastActivityTracker.touch(userId, 1_000L + userId);
+        }
+        lastActivityTracker.touch(7, 9_000L);
+
+        // When
+        lastActivityTracker.flush();
+
+        // Then
+        ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> paramsCaptor = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(1)).update(sqlCaptor.capture(), paramsCaptor.capture());
+        assertThat(sqlCaptor.getValue()).startsWith("UPDATE users u SET last_login = v.ts FROM (VALUES ");
+        Object[] params = paramsCaptor.getValue();
+        assertThat(params).hasSize(400);
+        for (int i = 0; i < params.length; i += 2) {
+            if (Integer.valueOf(7).equals(params[i])) {
+                assertThat(((OffsetDateTime) params[i + 1]).toInstant()).isEqualTo(Instant.ofEpochMilli(9_000L));
+            }
+        }
+        assertThat(lastActivityTracker.pending()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not touch the database when nothing is pending")
+    void flush_WithoutEntries_ShouldNotWrite() {
+        // When
+        lastActivityTracker.flush();
+
+        // Then
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should keep entries for the next flush when the update fails")
+    void flush_WhenUpdateFails_ShouldRequeueEntries() {
+        // Given
+        lastActivityTracker.touch(1, 1_000L);
+        lastActivityTracker.touch(2, 2_000L);
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+        // When
+        lastActivityTracker.flush();
+
+        // Then
+        assertThat(lastActivityTracker.pending()).isEqualTo(2);
+    }
+}
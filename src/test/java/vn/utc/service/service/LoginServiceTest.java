@@ -0,0 +1,193 @@
+package vn.utc.service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import vn.utc.service.config.JwtTokenProvider;
+import vn.utc.service.config.VerifiedTokenCache;
+import vn.utc.service.dtos.JwtResponse;
+import vn.utc.service.dtos.LoginDto;
+import vn.utc.service.dtos.UserLoginView;
+import vn.utc.service.repo.RefreshTokenRepository;
+import vn.utc.service.repo.UserRepository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LoginService Unit Tests")
+class LoginServiceTest {
+
+    private static final String SECRET =
+            "EhWw6CTgMWwCLNRDy6LmU2cpsrLVobTVID9HE3Oe+sVoWO21kxt1YE6xGFmV7oAB5Qzlf+SarhBSAoKLgihIpg==";
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private LastActivityTracker lastActivityTracker;
+
+    private PasswordHashingService passwordHashingService;
+    private LoginService loginService;
+    private String storedHash;
+
+    @BeforeEach
+    void setUp() {
+        loginService = newLoginService(new BCryptPasswordEncoder(4));
+        storedHash = new BCryptPasswordEncoder(4).encode("password123");
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingService.shutdown();
+    }
+
+    private LoginService newLoginService(BCryptPasswordEncoder passwordEncoder) {
+        if (passwordHashingService != null) {
+            passwordHashingService.shutdown();
+        }
+        passwordHashingService = new PasswordHashingService(passwordEncoder, new SimpleMeterRegistry(), 1, 4, 1);
+
+        RefreshTokenService refreshTokenService = new RefreshTokenService(refreshTokenRepository);
+        ReflectionTestUtils.setField(refreshTokenService, "refreshTokenDurationMs", 86400000L);
+
+        JwtTokenProvider tokenProvider =
+                new JwtTokenProvider(new VerifiedTokenCache(100, new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationInMs", 3600000);
+        tokenProvider.init();
+
+        return new LoginService(userRepository, userService, refreshTokenService,
+                passwordEncoder, passwordHashingService, tokenProvider, lastActivityTracker);
+    }
+
+    @Test
+    @DisplayName("Should log a customer in and issue both tokens")
+    void login_WhenCredentialsValid_ShouldIssueTokens() {
+        // Given
+        when(userRepository.findLoginView("customer1"))
+                .thenReturn(Optional.of(new LoginView(5, "customer1", storedHash, true, "customer", "An", "Nguyen", 9, null)));
+
+        // When
+        JwtResponse response = loginService.login(new LoginDto("customer1", "password123"));
+
+        // Then
+        assertThat(response.getToken()).isNotBlank();
+        assertThat(response.getRefreshToken()).isNotBlank();
+        assertThat(response.getId()).isEqualTo(5L);
+        assertThat(response.getRoles()).containsExactly("CUSTOMER");
+        assertThat(response.getFirstName()).isEqualTo("An");
+        assertThat(response.getLastName()).isEqualTo("Nguyen");
+
+        verify(refreshTokenRepository).upsertForUser(eq(5), anyString(), any(Instant.class));
+        verify(lastActivityTracker).touch(5);
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    @DisplayName("Should return staff names for staff accounts")
+    void login_WhenStaff_ShouldUseStaffNames() {
+        // Given
+        when(userRepository.findLoginView("staff1"))
+                .thenReturn(Optional.of(new LoginView(6, "staff1", storedHash, true, "STAFF", "Binh", "Tran", null, 3)));
+
+        // When
+        JwtResponse response = loginService.login(new LoginDto("staff1", "password123"));
+
+        // Then
+        assertThat(response.getRoles()).containsExactly("STAFF");
+        assertThat(response.getFirstName()).isEqualTo("Binh");
+    }
+
+    @Test
+    @DisplayName("Should reject a wrong password without writing anything")
+    void login_WhenPasswordWrong_ShouldThrowBadCredentials() {
+        // Given
+        when(userRepository.findLoginView("customer1"))
+                .thenReturn(Optional.of(new LoginView(5, "customer1", storedHash, true, "CUSTOMER", "An", "Nguyen", 9, null)));
+
+        // When & Then
+        assertThatThrownBy(() -> loginService.login(new LoginDto("customer1", "wrong")))
+                .isInstanceOf(BadCredentialsException.class)
+                .hasMessage("Bad credentials");
+        verifyNoInteractions(refreshTokenRepository, lastActivityTracker);
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown user with the same message as a wrong password")
+    void login_WhenUserUnknown_ShouldThrowBadCredentials() {
+        // Given
+        when(userRepository.findLoginView("ghost")).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThatThrownBy(() -> loginService.login(new LoginDto("ghost", "password123")))
+                .isInstanceOf(BadCredentialsException.class)
+                .hasMessage("Bad credentials");
+        verifyNoInteractions(refreshTokenRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject a disabled user")
+    void login_WhenUserDisabled_ShouldThrowDisabled() {
+        // Given
+        when(userRepository.findLoginView("customer1"))
+                .thenReturn(Optional.of(new LoginView(5, "customer1", storedHash, false, "CUSTOMER", "An", "Nguyen", 9, null)));
+
+        // When & Then
+        assertThatThrownBy(() -> loginService.login(new LoginDto("customer1", "password123")))
+                .isInstanceOf(DisabledException.class);
+        verifyNoInteractions(refreshTokenRepository);
+    }
+
+    @Test
+    @DisplayName("Should re-encode a hash weaker than the configured strength")
+    void login_WhenHashBelowStrength_ShouldUpgradePassword() {
+        // Given
+        loginService = newLoginService(new BCryptPasswordEncoder(5));
+        when(userRepository.findLoginView("customer1"))
+                .thenReturn(Optional.of(new LoginView(5, "customer1", storedHash, true, "CUSTOMER", "An", "Nguyen", 9, null)));
+
+        // When
+        loginService.login(new LoginDto("customer1", "password123"));
+
+        // Then
+        verify(userService).updatePassword(eq("customer1"), startsWith("$2a$05$"));
+    }
+
+    private record LoginView(Integer userId, String username, String password, Boolean active, String roles,
+                             String firstName, String lastName, Integer customerId, Integer staffId)
+            implements UserLoginView {
+        @Override public Integer getUserId() { return userId; }
+        @Override public String getUsername() { return username; }
+        @Override public String getPassword() { return password; }
+        @Override public String getEmail() { return username + "@example.com"; }
+        @Override public Boolean getActive() { return active; }
+        @Override public String getRoles() { return roles; }
+        @Override public String getFirstName() { return firstName; }
+        @Override public String getLastName() { return lastName; }
+        @Override public Integer getCustomerId() { return customerId; }
+        @Override public Integer getStaffId() { return staffId; }
+    }
+}
@@ -0,0 +1,91 @@
+package vn.utc.service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import vn.utc.service.PostgresIntegrationTest;
+import vn.utc.service.dtos.OutboxMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs several relays against one outbox table, as several nodes would: every event must be
+ * delivered exactly once overall, and each batch in id order.
+ */
+@TestPropertySource(properties = "app.outbox.poll-interval-ms=3600000")
+@DisplayName("Outbox relay with competing nodes")
+class OutboxRelayConcurrencyTest extends PostgresIntegrationTest {
+
+    private static final int EVENTS = 2_000;
+    private static final int RELAYS = 4;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM outbox_events");
+        jdbcTemplate.update("""
+                INSERT INTO outbox_events (aggregate_type, aggregate_id, event_type, payload)
+                SELECT 'appointment', g, 'status-changed', '{}' FROM generate_series(1, ?) AS g""", EVENTS);
+    }
+
+    @Test
+    @DisplayName("Competing relays should deliver every event exactly once and empty the table")
+    void drain_FromSeveralNodes_ShouldNotDuplicate() throws Exception {
+        // Given
+        ConcurrentLinkedQueue<List<OutboxMessage>> delivered = new ConcurrentLinkedQueue<>();
+        OutboxSink sink = batch -> delivered.add(List.copyOf(batch));
+        ExecutorService pool = Executors.newFixedThreadPool(RELAYS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        // When
+        try {
+            for (int i = 0; i < RELAYS; i++) {
+                OutboxRelay relay = new OutboxRelay(jdbcTemplate, transactionManager, List.of(sink),
+                        new SimpleMeterRegistry(), 50, 20, 1_000);
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return relay.drain();
+                }));
+            }
+            start.countDown();
+            pool.shutdown();
+            assertThat(pool.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // Then
+        int relayed = 0;
+        for (Future<Integer> result : results) {
+            relayed += result.get();
+        }
+        List<Integer> aggregateIds = new ArrayList<>();
+        for (List<OutboxMessage> batch : delivered) {
+            assertThat(batch).extracting(OutboxMessage::id).isSorted();
+            batch.forEach(message -> aggregateIds.add(message.aggregateId()));
+        }
+        assertThat(relayed).isEqualTo(EVENTS);
+        assertThat(aggregateIds).hasSize(EVENTS).doesNotHaveDuplicates();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_events", Integer.class)).isZero();
+    }
+}
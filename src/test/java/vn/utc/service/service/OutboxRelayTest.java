@@ -0,0 +1,108 @@
+package vn.utc.service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionOperations;
+import vn.utc.service.dtos.OutboxMessage;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OutboxRelay Unit Tests")
+class OutboxRelayTest {
+
+    private static final Instant NOW = Instant.parse("2030-03-04T02:00:00Z");
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<List<OutboxMessage>> delivered = new ArrayList<>();
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        OutboxSink sink = batch -> delivered.add(List.copyOf(batch));
+        relay = new OutboxRelay(jdbcTemplate, TransactionOperations.withoutTransaction(), List.of(sink),
+                new SimpleMeterRegistry(), 3, 2, 10);
+    }
+
+    private static OutboxMessage message(long id) {
+        return new OutboxMessage(id, "appointment", (int) id, OutboxService.STATUS_CHANGED, "{}", NOW);
+    }
+
+    @SafeVarargs
+    private void claims(List<OutboxMessage>... batches) {
+        var stubbing = when(jdbcTemplate.query(eq(OutboxRelay.CLAIM_BATCH), any(RowMapper.class), eq(3)));
+        for (List<OutboxMessage> batch : batches) {
+            stubbing = stubbing.thenReturn(batch);
+        }
+    }
+
+    @Test
+    @DisplayName("Should deliver full batches in order until a short batch and delete them in chunks")
+    void drain_ShouldDeliverAndDeleteInChunks() {
+        // Given
+        claims(List.of(message(1), message(2), message(3)), List.of(message(4)));
+
+        // When
+        int relayed = relay.drain();
+
+        // Then
+        assertThat(relayed).isEqualTo(4);
+        assertThat(delivered).extracting(batch -> batch.stream().map(OutboxMessage::id).toList())
+                .containsExactly(List.of(1L, 2L, 3L), List.of(4L));
+        verify(jdbcTemplate).update("DELETE FROM outbox_events WHERE id IN (?, ?)", 1L, 2L);
+        verify(jdbcTemplate).update("DELETE FROM outbox_events WHERE id IN (?)", 3L);
+        verify(jdbcTemplate).update("DELETE FROM outbox_events WHERE id IN (?)", 4L);
+        verify(jdbcTemplate, times(2)).query(eq(OutboxRelay.CLAIM_BATCH), any(RowMapper.class), eq(3));
+    }
+
+    @Test
+    @DisplayName("Should stop without deleting when a sink fails")
+    void drain_WhenSinkFails_ShouldKeepBatch() {
+        // Given
+        OutboxSink failing = batch -> {
+            throw new IllegalStateException("sink down");
+        };
+        relay = new OutboxRelay(jdbcTemplate, TransactionOperations.withoutTransaction(), List.of(failing),
+                new SimpleMeterRegistry(), 3, 2, 10);
+        claims(List.of(message(1), message(2), message(3)));
+
+        // When
+        int relayed = relay.drain();
+
+        // Then
+        assertThat(relayed).isZero();
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+        verify(jdbcTemplate, times(1)).query(eq(OutboxRelay.CLAIM_BATCH), any(RowMapper.class), eq(3));
+    }
+
+    @Test
+    @DisplayName("Should do nothing when the outbox is empty")
+    void drain_WhenEmpty_ShouldRelayNothing() {
+        // Given
+        claims(List.of());
+
+        // When
+        int relayed = relay.drain();
+
+        // Then
+        assertThat(relayed).isZero();
+        assertThat(delivered).isEmpty();
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+}
@@ -0,0 +1,104 @@
+package vn.utc.service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import vn.utc.service.exception.ServiceOverloadedException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("PasswordHashingService Unit Tests")
+class PasswordHashingServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private BCryptPasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        passwordEncoder = new BCryptPasswordEncoder(4);
+        passwordHashingService = new PasswordHashingService(passwordEncoder, meterRegistry, 1, 1, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should encode passwords on the hashing pool")
+    void encode_ShouldReturnMatchingHash() {
+        // When
+        String hash = passwordHashingService.encode("password123");
+
+        // Then
+        assertThat(passwordEncoder.matches("password123", hash)).isTrue();
+        assertThat(meterRegistry.get("auth.hashing.duration").tag("operation", "encode").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reject work immediately once pool and queue are full")
+    void submit_WhenSaturated_ShouldRejectWithRetryAfter() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> running = passwordHashingService.submit("login", () -> {
+            started.countDown();
+            return await(release);
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Boolean> queued = passwordHashingService.submit("login", () -> true);
+        assertThat(passwordHashingService.queueDepth()).isEqualTo(1);
+
+        // When & Then
+        assertThatThrownBy(() -> passwordHashingService.submit("login", () -> true))
+                .isInstanceOf(ServiceOverloadedException.class)
+                .satisfies(ex -> assertThat(((ServiceOverloadedException) ex).getRetryAfterSeconds()).isEqualTo(3));
+        assertThat(meterRegistry.get("auth.hashing.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should free capacity after work completes")
+    void execute_AfterCompletion_ShouldAcceptNewWork() {
+        // When
+        passwordHashingService.execute("login", () -> true);
+        passwordHashingService.execute("login", () -> true);
+
+        // Then
+        assertThat(passwordHashingService.execute("login", () -> "ok")).isEqualTo("ok");
+    }
+
+    @Test
+    @DisplayName("Should propagate task exceptions unwrapped")
+    void execute_WhenTaskFails_ShouldRethrowCause() {
+        // When & Then
+        assertThatThrownBy(() -> passwordHashingService.execute("login", () -> {
+            throw new IllegalStateException("Bad credentials");
+        }))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Bad credentials");
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -4,23 +4,26 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
+import vn.utc.service.dtos.ActiveRefreshToken;
 import vn.utc.service.entity.RefreshToken;
 import vn.utc.service.entity.User;
 import vn.utc.service.exception.TokenRefreshException;
 import vn.utc.service.repo.RefreshTokenRepository;
-import vn.utc.service.repo.UserRepository;
 
 import java.time.Instant;
 import java.util.Optional;
-import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,9 +33,6 @@ class RefreshTokenServiceTest {
     @Mock
     private RefreshTokenRepository refreshTokenRepository;
 
-    @Mock
-    private UserRepository userRepository;
-
     @InjectMocks
     private RefreshTokenService refreshTokenService;
 
@@ -50,229 +50,206 @@ class RefreshTokenServiceTest {
         user.setUsername("testuser");
         user.setEmail("test@example.com");
 
-        tokenValue = UUID.randomUUID().toString();
+        tokenValue = "client-refresh-token";
         refreshToken = new RefreshToken();
         refreshToken.setId(1);
-        refreshToken.setToken(tokenValue);
+        refreshToken.setToken(RefreshTokenService.hash(tokenValue));
         refreshToken.setUser(user);
         refreshToken.setExpiryDate(Instant.now().plusSeconds(3600)); // 1 hour from now
     }
 
     @Test
-    @DisplayName("Should find refresh token by token when exists")
-    void findByToken_WhenTokenExists_ShouldReturnRefreshToken() {
+    @DisplayName("Should look up refresh token by its digest")
+    void findByToken_WhenTokenExists_ShouldReturnActiveToken() {
+        // Given
+        when(refreshTokenRepository.findByToken(RefreshTokenService.hash(tokenValue)))
+                .thenReturn(Optional.of(refreshToken));
+
+        // When
+        Optional<ActiveRefreshToken> result = refreshTokenService.findByToken(tokenValue);
+
+        // Then
+        assertThat(result).isPresent();
+        assertThat(result.get().userId()).isEqualTo(1);
+        assertThat(result.get().tokenHash()).isEqualTo(refreshToken.getToken()).isNotEqualTo(tokenValue);
+        assertThat(result.get().expiryDate()).isEqualTo(refreshToken.getExpiryDate());
+        verify(refreshTokenRepository).findByToken(RefreshTokenService.hash(tokenValue));
+    }
+
+    @Test
+    @DisplayName("Should serve repeated lookups from the cache")
+    void findByToken_WhenCalledTwice_ShouldQueryOnce() {
         // Given
-        when(refreshTokenRepository.findByToken(tokenValue)).thenReturn(Optional.of(refreshToken));
+        when(refreshTokenRepository.findByToken(anyString())).thenReturn(Optional.of(refreshToken));
 
         // When
-        Optional<RefreshToken> result = refreshTokenService.findByToken(tokenValue);
+        refreshTokenService.findByToken(tokenValue);
+        Optional<ActiveRefreshToken> result = refreshTokenService.findByToken(tokenValue);
 
         // Then
         assertThat(result).isPresent();
-        assertThat(result.get()).isEqualTo(refreshToken);
-        assertThat(result.get().getToken()).isEqualTo(tokenValue);
-        verify(refreshTokenRepository).findByToken(tokenValue);
+        verify(refreshTokenRepository, times(1)).findByToken(anyString());
     }
 
     @Test
     @DisplayName("Should return empty when token not found")
     void findByToken_WhenTokenNotFound_ShouldReturnEmpty() {
         // Given
-        String nonExistentToken = UUID.randomUUID().toString();
-        when(refreshTokenRepository.findByToken(nonExistentToken)).thenReturn(Optional.empty());
+        when(refreshTokenRepository.findByToken(anyString())).thenReturn(Optional.empty());
 
         // When
-        Optional<RefreshToken> result = refreshTokenService.findByToken(nonExistentToken);
+        Optional<ActiveRefreshToken> result = refreshTokenService.findByToken("unknown-token");
 
         // Then
         assertThat(result).isEmpty();
-        verify(refreshTokenRepository).findByToken(nonExistentToken);
     }
 
     @Test
-    @DisplayName("Should create refresh token successfully")
-    void createRefreshToken_ShouldCreateAndReturnRefreshToken() {
+    @DisplayName("Should create refresh token with a single upsert and store only its digest")
+    void createRefreshToken_ShouldUpsertDigest() {
         // Given
-        when(userRepository.findById(1)).thenReturn(Optional.of(user));
-        when(refreshTokenRepository.findByUser(user)).thenReturn(Optional.empty());
-        when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(invocation -> {
-            RefreshToken token = invocation.getArgument(0);
-            token.setId(1);
-            return token;
-        });
+        Instant beforeCreation = Instant.now();
+        ArgumentCaptor<String> hashCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Instant> expiryCaptor = ArgumentCaptor.forClass(Instant.class);
 
         // When
-        RefreshToken result = refreshTokenService.createRefreshToken(1);
+        String result = refreshTokenService.createRefreshToken(1);
 
         // Then
-        assertThat(result).isNotNull();
-        assertThat(result.getId()).isEqualTo(1);
-        assertThat(result.getUser()).isEqualTo(user);
-        assertThat(result.getToken()).isNotNull();
-        assertThat(result.getExpiryDate()).isAfter(Instant.now());
-        verify(userRepository).findById(1);
-        verify(refreshTokenRepository).findByUser(user);
-        verify(refreshTokenRepository).save(any(RefreshToken.class));
+        assertThat(result).isNotBlank();
+        verify(refreshTokenRepository).upsertForUser(eq(1), hashCaptor.capture(), expiryCaptor.capture());
+        verifyNoMoreInteractions(refreshTokenRepository);
+        assertThat(hashCaptor.getValue()).isEqualTo(RefreshTokenService.hash(result)).hasSize(64);
+        assertThat(expiryCaptor.getValue()).isAfter(beforeCreation.plusSeconds(86399));
+        assertThat(expiryCaptor.getValue()).isBefore(Instant.now().plusSeconds(86401));
     }
 
     @Test
-    @DisplayName("Should throw exception when user not found")
-    void createRefreshToken_WhenUserNotFound_ShouldThrowException() {
-        // Given
-        when(userRepository.findById(999)).thenReturn(Optional.empty());
+    @DisplayName("Should serve a freshly created token from the cache")
+    void createRefreshToken_ThenFindByToken_ShouldNotQuery() {
+        // When
+        String token = refreshTokenService.createRefreshToken(1);
+        Optional<ActiveRefreshToken> result = refreshTokenService.findByToken(token);
 
-        // When & Then
-        assertThatThrownBy(() -> refreshTokenService.createRefreshToken(999))
-                .isInstanceOf(RuntimeException.class)
-                .hasMessage("User not found with id: 999");
-        verify(userRepository).findById(999);
-        verifyNoInteractions(refreshTokenRepository);
+        // Then
+        assertThat(result).isPresent();
+        assertThat(result.get().userId()).isEqualTo(1);
+        verify(refreshTokenRepository, never()).findByToken(anyString());
     }
 
     @Test
-    @DisplayName("Should delete existing token when creating new one")
-    void createRefreshToken_WhenExistingTokenExists_ShouldDeleteAndCreateNew() {
-        // Given
-        RefreshToken existingToken = new RefreshToken();
-        existingToken.setId(2);
-        existingToken.setToken("existing-token");
-        existingToken.setUser(user);
-
-        when(userRepository.findById(1)).thenReturn(Optional.of(user));
-        when(refreshTokenRepository.findByUser(user)).thenReturn(Optional.of(existingToken));
-        when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(invocation -> {
-            RefreshToken token = invocation.getArgument(0);
-            token.setId(3);
-            return token;
-        });
-
+    @DisplayName("Should generate unique token for each creation")
+    void createRefreshToken_ShouldGenerateUniqueTokens() {
         // When
-        RefreshToken result = refreshTokenService.createRefreshToken(1);
+        String result1 = refreshTokenService.createRefreshToken(1);
+        String result2 = refreshTokenService.createRefreshToken(1);
 
         // Then
-        assertThat(result).isNotNull();
-        assertThat(result.getId()).isEqualTo(3);
-        verify(userRepository).findById(1);
-        verify(refreshTokenRepository).findByUser(user);
-        verify(refreshTokenRepository).delete(existingToken);
-        verify(refreshTokenRepository).save(any(RefreshToken.class));
+        assertThat(result1).isNotEqualTo(result2);
     }
 
     @Test
-    @DisplayName("Should verify valid token expiration")
-    void verifyExpiration_WhenTokenValid_ShouldReturnToken() {
+    @DisplayName("Should rotate token and invalidate the previous one")
+    void rotateRefreshToken_ShouldReplaceToken() {
         // Given
-        refreshToken.setExpiryDate(Instant.now().plusSeconds(3600)); // Valid token
+        ActiveRefreshToken current =
+                new ActiveRefreshToken(1, refreshToken.getToken(), refreshToken.getExpiryDate());
+        when(refreshTokenRepository.rotate(eq(1), eq(refreshToken.getToken()), anyString(), any(Instant.class)))
+                .thenReturn(1);
+        when(refreshTokenRepository.findByToken(refreshToken.getToken())).thenReturn(Optional.empty());
 
         // When
-        RefreshToken result = refreshTokenService.verifyExpiration(refreshToken);
+        String rotated = refreshTokenService.rotateRefreshToken(current);
 
         // Then
-        assertThat(result).isEqualTo(refreshToken);
-        verify(refreshTokenRepository, never()).delete(any(RefreshToken.class));
+        assertThat(rotated).isNotEqualTo(tokenValue);
+        assertThat(refreshTokenService.findByToken(rotated)).isPresent();
+        assertThat(refreshTokenService.findByToken(tokenValue)).isEmpty();
     }
 
     @Test
-    @DisplayName("Should throw exception and delete token when expired")
-    void verifyExpiration_WhenTokenExpired_ShouldThrowExceptionAndDeleteToken() {
+    @DisplayName("Should reject a refresh token that was already rotated")
+    void rotateRefreshToken_WhenAlreadyRotated_ShouldThrowException() {
         // Given
-        refreshToken.setExpiryDate(Instant.now().minusSeconds(3600)); // Expired token
+        ActiveRefreshToken current =
+                new ActiveRefreshToken(1, refreshToken.getToken(), refreshToken.getExpiryDate());
+        when(refreshTokenRepository.rotate(anyInt(), anyString(), anyString(), any(Instant.class)))
+                .thenReturn(0);
 
         // When & Then
-        assertThatThrownBy(() -> refreshTokenService.verifyExpiration(refreshToken))
+        assertThatThrownBy(() -> refreshTokenService.rotateRefreshToken(current))
                 .isInstanceOf(TokenRefreshException.class)
-                .hasMessage("Refresh token was expired. Please make a new login request");
-        verify(refreshTokenRepository).delete(refreshToken);
+                .hasMessage("Refresh token was already used. Please make a new login request");
     }
 
     @Test
-    @DisplayName("Should delete refresh tokens by user ID successfully")
-    void deleteByUserId_ShouldDeleteTokensForUser() {
+    @DisplayName("Should verify valid token expiration")
+    void verifyExpiration_WhenTokenValid_ShouldReturnToken() {
         // Given
-        when(userRepository.findById(1)).thenReturn(Optional.of(user));
-        when(refreshTokenRepository.deleteByUser(user)).thenReturn(1);
+        ActiveRefreshToken token = new ActiveRefreshToken(1, "hash", Instant.now().plusSeconds(3600));
 
         // When
-        int result = refreshTokenService.deleteByUserId(1);
+        ActiveRefreshToken result = refreshTokenService.verifyExpiration(token);
 
         // Then
-        assertThat(result).isEqualTo(1);
-        verify(userRepository).findById(1);
-        verify(refreshTokenRepository).deleteByUser(user);
+        assertThat(result).isEqualTo(token);
+        verifyNoInteractions(refreshTokenRepository);
     }
 
     @Test
-    @DisplayName("Should throw exception when user not found for deletion")
-    void deleteByUserId_WhenUserNotFound_ShouldThrowException() {
+    @DisplayName("Should throw exception without deleting when token expired")
+    void verifyExpiration_WhenTokenExpired_ShouldThrowException() {
         // Given
-        when(userRepository.findById(999)).thenReturn(Optional.empty());
+        ActiveRefreshToken token = new ActiveRefreshToken(1, "hash", Instant.now().minusSeconds(3600));
 
         // When & Then
-        assertThatThrownBy(() -> refreshTokenService.deleteByUserId(999))
-                .isInstanceOf(RuntimeException.class)
-                .hasMessage("User not found with id: 999");
-        verify(userRepository).findById(999);
+        assertThatThrownBy(() -> refreshTokenService.verifyExpiration(token))
+                .isInstanceOf(TokenRefreshException.class)
+                .hasMessage("Refresh token was expired. Please make a new login request");
         verifyNoInteractions(refreshTokenRepository);
     }
 
     @Test
-    @DisplayName("Should return zero when no tokens deleted")
-    void deleteByUserId_WhenNoTokensDeleted_ShouldReturnZero() {
+    @DisplayName("Should delete refresh tokens by user ID successfully")
+    void deleteByUserId_ShouldDeleteTokensForUser() {
         // Given
-        when(userRepository.findById(1)).thenReturn(Optional.of(user));
-        when(refreshTokenRepository.deleteByUser(user)).thenReturn(0);
+        when(refreshTokenRepository.deleteByUserId(1)).thenReturn(1);
 
         // When
         int result = refreshTokenService.deleteByUserId(1);
 
         // Then
-        assertThat(result).isEqualTo(0);
-        verify(userRepository).findById(1);
-        verify(refreshTokenRepository).deleteByUser(user);
+        assertThat(result).isEqualTo(1);
+        verify(refreshTokenRepository).deleteByUserId(1);
     }
 
     @Test
-    @DisplayName("Should create token with correct expiry date")
-    void createRefreshToken_ShouldSetCorrectExpiryDate() {
+    @DisplayName("Should drop cached token when user logs out")
+    void deleteByUserId_ShouldEvictCachedToken() {
         // Given
-        Instant beforeCreation = Instant.now();
-        when(userRepository.findById(1)).thenReturn(Optional.of(user));
-        when(refreshTokenRepository.findByUser(user)).thenReturn(Optional.empty());
-        when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(invocation -> {
-            RefreshToken token = invocation.getArgument(0);
-            token.setId(1);
-            return token;
-        });
+        String token = refreshTokenService.createRefreshToken(1);
+        when(refreshTokenRepository.findByToken(RefreshTokenService.hash(token))).thenReturn(Optional.empty());
 
         // When
-        RefreshToken result = refreshTokenService.createRefreshToken(1);
-        Instant afterCreation = Instant.now();
+        refreshTokenService.deleteByUserId(1);
 
         // Then
-        assertThat(result.getExpiryDate()).isAfter(beforeCreation.plusSeconds(86399)); // Should be at least 24 hours - 1 second
-        assertThat(result.getExpiryDate()).isBefore(afterCreation.plusSeconds(86401)); // Should be at most 24 hours + 1 second
+        assertThat(refreshTokenService.findByToken(token)).isEmpty();
     }
 
     @Test
-    @DisplayName("Should generate unique token for each creation")
-    void createRefreshToken_ShouldGenerateUniqueTokens() {
+    @DisplayName("Should purge expired tokens in bounded batches")
+    void purgeExpiredTokens_ShouldDeleteUntilBatchIsNotFull() {
         // Given
-        when(userRepository.findById(1)).thenReturn(Optional.of(user));
-        when(refreshTokenRepository.findByUser(user)).thenReturn(Optional.empty());
-        when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(invocation -> {
-            RefreshToken token = invocation.getArgument(0);
-            token.setId(1);
-            return token;
-        });
+        ReflectionTestUtils.setField(refreshTokenService, "purgeBatchSize", 100);
+        when(refreshTokenRepository.deleteExpiredBatch(any(Instant.class), eq(100)))
+                .thenReturn(100, 100, 42);
 
         // When
-        RefreshToken result1 = refreshTokenService.createRefreshToken(1);
-        RefreshToken result2 = refreshTokenService.createRefreshToken(1);
+        int purged = refreshTokenService.purgeExpiredTokens();
 
         // Then
-        assertThat(result1.getToken()).isNotNull();
-        assertThat(result2.getToken()).isNotNull();
-        // Note: In a real scenario, these might be the same due to UUID generation timing,
-        // but the tokens should be unique in practice
+        assertThat(purged).isEqualTo(242);
+        verify(refreshTokenRepository, times(3)).deleteExpiredBatch(any(Instant.class), eq(100));
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,132 @@
+package vn.utc.service.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import vn.utc.service.PostgresIntegrationTest;
+import vn.utc.service.entity.SparePart;
+import vn.utc.service.repo.SparePartRepository;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Inventory list latency at 10k and 100k parts, with the filters in the query (backed by the V5
+ * indexes) and, for comparison, the old load-everything-and-filter-in-Java approach. The matching
+ * parts are the same at both sizes, so an indexed query should take about as long on both. Run
+ * with {@code ./gradlew benchmark}; excluded from {@code test}.
+ */
+@Tag("benchmark")
+@DisplayName("Spare-part catalog filter benchmark")
+class SparePartCatalogBenchmarkTest extends PostgresIntegrationTest {
+
+    private static final int SMALL = 10_000;
+    private static final int LARGE = 100_000;
+    private static final int MATCHES = 20;
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 50;
+    private static final int LEGACY_ITERATIONS = 3;
+    private static final Pageable PAGE = PageRequest.of(0, 10, Sort.by("id"));
+
+    @Autowired
+    private SparePartService sparePartService;
+
+    @Autowired
+    private SparePartRepository sparePartRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    @DisplayName("Filtered catalog page: latency at 10k vs 100k parts")
+    void filteredPage_LatencyShouldNotGrowWithCatalog() {
+        // Given
+        jdbcTemplate.execute("TRUNCATE spare_parts CASCADE");
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V5__spare_part_search_indexes.sql"))
+                .execute(dataSource);
+        jdbcTemplate.update("""
+                INSERT INTO spare_parts (part_id, name, description, category, price, cost,
+                                         quantity_in_stock, minimum_stock_level)
+                SELECT g, 'Ceramic Brake Caliper ' || g, 'Front axle caliper', 'Brakes', 90, 60, 1, 5
+                FROM generate_series(1, ?) AS g""", MATCHES);
+
+        // When
+        fill(MATCHES + 1, SMALL);
+        long[] small = measureAll();
+        fill(SMALL + 1, LARGE);
+        long[] large = measureAll();
+        long legacy = measure(this::legacyPage, LEGACY_ITERATIONS);
+
+        // Then
+        String[] names = {"search", "category", "low stock", "combined"};
+        for (int i = 0; i < names.length; i++) {
+            System.out.printf(Locale.ROOT, "spare-part %s page: %dk=%d us, %dk=%d us (%.1fx)%n",
+                    names[i], SMALL / 1000, small[i] / 1000, LARGE / 1000, large[i] / 1000,
+                    (double) large[i] / small[i]);
+        }
+        System.out.printf(Locale.ROOT, "spare-part combined page, in-memory filtering at %dk: %d us%n",
+                LARGE / 1000, legacy / 1000);
+        for (int i = 0; i < names.length; i++) {
+            // A scan would take ~10x as long on ten times the rows
+            assertThat(large[i]).isLessThan(small[i] * 3);
+        }
+        assertThat(large[3]).isLessThan(legacy);
+    }
+
+    /** Parts in twenty other categories, well stocked, whose text shares nothing with the matches. */
+    private void fill(int fromId, int toId) {
+        jdbcTemplate.update("""
+                INSERT INTO spare_parts (part_id, name, description, category, price, cost,
+                                         quantity_in_stock, minimum_stock_level)
+                SELECT g, 'Filler item ' || g, 'Stock item number ' || g, 'Shelf ' || (g % 20), 10, 5, 50, 5
+                FROM generate_series(?, ?) AS g""", fromId, toId);
+        jdbcTemplate.execute("ANALYZE spare_parts");
+    }
+
+    private long[] measureAll() {
+        return new long[] {
+                measure(() -> sparePartService.findAll(PAGE, null, "caliper", null), ITERATIONS),
+                measure(() -> sparePartService.findAll(PAGE, "Brakes", null, null), ITERATIONS),
+                measure(() -> sparePartService.findAll(PAGE, null, null, "LOW"), ITERATIONS),
+                measure(() -> sparePartService.findAll(PAGE, "Brakes", "caliper", "LOW"), ITERATIONS)};
+    }
+
+    // What findAll(pageable, category, search, stockStatus) used to do
+    private Page<SparePart> legacyPage() {
+        List<SparePart> matches = sparePartRepository.findAll().stream()
+                .filter(part -> "Brakes".equals(part.getCategory()))
+                .filter(part -> part.getName().toLowerCase().contains("caliper")
+                        || part.getDescription().toLowerCase().contains("caliper"))
+                .filter(part -> part.getQuantityInStock() <= part.getMinimumStockLevel())
+                .toList();
+        return new PageImpl<>(
+                matches.subList(0, Math.min(PAGE.getPageSize(), matches.size())), PAGE, matches.size());
+    }
+
+    private long measure(Supplier<Page<SparePart>> query, int iterations) {
+        for (int i = 0; i < Math.min(WARMUP, iterations); i++) {
+            assertThat(query.get().getTotalElements()).isEqualTo(MATCHES);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            assertThat(query.get().getContent()).hasSize(PAGE.getPageSize());
+        }
+        return (System.nanoTime() - start) / iterations;
+    }
+}
@@ -0,0 +1,92 @@
+package vn.utc.service.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import vn.utc.service.PostgresIntegrationTest;
+import vn.utc.service.entity.SparePart;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the inventory list filters against a real database, with the same boundaries the old
+ * in-memory filtering used: LOW up to the minimum level, MODERATE up to twice it, ADEQUATE above.
+ */
+@DisplayName("Spare-part catalog queries")
+class SparePartCatalogQueryTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private SparePartService sparePartService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE spare_parts CASCADE");
+        part(1, "Oil Filter", "High-quality oil filter", "Filters", 10, 5);
+        part(2, "Brake Pads", "Ceramic pads for optimal stopping power", "Brakes", 5, 5);
+        part(3, "Air Filter", "Cabin air, 100% cotton", "Filters", 11, 5);
+        part(4, "Brake Disc", "Vented rotor", "Brakes", 2, 5);
+        part(5, "Spark Plug", null, "Ignition", 40, 10);
+    }
+
+    private void part(int id, String name, String description, String category, int quantity, int minimum) {
+        jdbcTemplate.update("""
+                INSERT INTO spare_parts (part_id, name, description, category, price, cost,
+                                         quantity_in_stock, minimum_stock_level)
+                VALUES (?, ?, ?, ?, 10, 5, ?, ?)""", id, name, description, category, quantity, minimum);
+    }
+
+    private Page<SparePart> find(String category, String search, String stockStatus) {
+        return sparePartService.findAll(PageRequest.of(0, 10, Sort.by("id")), category, search, stockStatus);
+    }
+
+    @Test
+    @DisplayName("Should classify stock status relative to the minimum level")
+    void findAll_ByStockStatus_ShouldUseMinimumLevelBoundaries() {
+        assertThat(find(null, null, "LOW")).extracting(SparePart::getId).containsExactly(2, 4);
+        assertThat(find(null, null, "MODERATE")).extracting(SparePart::getId).containsExactly(1);
+        assertThat(find(null, null, "ADEQUATE")).extracting(SparePart::getId).containsExactly(3, 5);
+        assertThat(find(null, null, "UNKNOWN")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should search name and description case-insensitively, taking wildcards literally")
+    void findAll_BySearch_ShouldMatchNameOrDescription() {
+        assertThat(find(null, "BRAKE", null)).extracting(SparePart::getId).containsExactly(2, 4);
+        assertThat(find(null, "stopping", null)).extracting(SparePart::getId).containsExactly(2);
+        assertThat(find(null, "100%", null)).extracting(SparePart::getId).containsExactly(3);
+        assertThat(find(null, "%", null)).extracting(SparePart::getId).containsExactly(3);
+        assertThat(find(null, "_", null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should combine filters and page and count in the database")
+    void findAll_WithCombinedFilters_ShouldPageMatches() {
+        // When
+        Page<SparePart> brakes = find("Brakes", "brake", "LOW");
+        Page<SparePart> firstFilter = sparePartService.findAll(
+                PageRequest.of(0, 1, Sort.by("id").descending()), "Filters", "filter", null);
+
+        // Then
+        assertThat(brakes).extracting(SparePart::getId).containsExactly(2, 4);
+        assertThat(firstFilter.getContent()).extracting(SparePart::getId).containsExactly(3);
+        assertThat(firstFilter.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Low-stock and category lookups should return only matching parts")
+    void findLowStockItems_AndFindByCategory_ShouldFilterInQuery() {
+        assertThat(sparePartService.findLowStockItems()).extracting(SparePart::getId)
+                .containsExactlyInAnyOrder(2, 4);
+        assertThat(sparePartService.findLowStockItems(PageRequest.of(0, 1)).getTotalElements()).isEqualTo(2);
+        assertThat(sparePartService.findByCategory("Filters")).extracting(SparePart::getId)
+                .containsExactlyInAnyOrder(1, 3);
+    }
+}
@@ -0,0 +1,95 @@
+package vn.utc.service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import vn.utc.service.entity.SparePart;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Type-ahead latency of the in-memory parts index at 100k parts: every prefix of a set of
+ * realistic queries is searched, as a technician typing would. Run with {@code ./gradlew benchmark};
+ * excluded from {@code test}.
+ */
+@Tag("benchmark")
+@DisplayName("Parts search index benchmark")
+class SparePartSearchIndexBenchmarkTest {
+
+    private static final int PARTS = 100_000;
+    private static final int ROUNDS = 20;
+    private static final String[] KINDS = {"Brake", "Oil", "Air", "Fuel", "Cabin", "Water", "Timing", "Spark",
+            "Clutch", "Wheel", "Ball", "Tie", "Control", "Shock", "Engine", "Transmission"};
+    private static final String[] ITEMS = {"Pads", "Disc", "Filter", "Pump", "Belt", "Plug", "Plate", "Bearing",
+            "Joint", "Rod", "Arm", "Absorber", "Mount", "Gasket", "Sensor", "Hose", "Kit", "Cable"};
+    private static final String[] MAKES = {"Toyota", "Honda", "Hyundai", "Kia", "Ford", "Mazda", "VinFast",
+            "Mitsubishi", "Nissan", "Chevrolet"};
+    private static final String[] SUPPLIERS = {"Bosch", "Denso", "NGK", "Brembo", "Mann", "Mahle", "Valeo",
+            "Aisin", "KYB", "Gates", "Phụ tùng Đại Phát", "Sạn Minh"};
+    private static final String[] QUERIES = {"brake pads toyota", "oil filter bosch", "ngk spark",
+            "đại phát", "timing belt gates", "a12-", "shock absorber kyb vios", "sensor 4521"};
+
+    @Test
+    @DisplayName("Type-ahead over 100k parts: latency per keystroke")
+    void typeAhead_At100kParts() {
+        // Given
+        SparePartSearchIndex index = new SparePartSearchIndex(new JdbcTemplate(), new SimpleMeterRegistry());
+        Random random = new Random(42);
+        long buildStart = System.nanoTime();
+        for (int id = 1; id <= PARTS; id++) {
+            String make = MAKES[random.nextInt(MAKES.length)];
+            index.index(new SparePart()
+                    .setId(id)
+                    .setName(String.format(Locale.ROOT, "%s %s %s %d", KINDS[random.nextInt(KINDS.length)],
+                            ITEMS[random.nextInt(ITEMS.length)], make, 1000 + random.nextInt(9000)))
+                    .setDescription("Fits " + make + " models " + (2005 + random.nextInt(20))
+                            + (random.nextBoolean() ? ", Vios and City" : ", OEM quality"))
+                    .setCategory(ITEMS[random.nextInt(ITEMS.length)])
+                    .setSupplier(SUPPLIERS[random.nextInt(SUPPLIERS.length)])
+                    .setLocation(String.format(Locale.ROOT, "A%d-B%d", random.nextInt(50), random.nextInt(20)))
+                    .setQuantityInStock(random.nextInt(100)));
+        }
+        long buildMillis = (System.nanoTime() - buildStart) / 1_000_000;
+
+        List<String> keystrokes = new ArrayList<>();
+        for (String query : QUERIES) {
+            for (int length = 1; length <= query.length(); length++) {
+                keystrokes.add(query.substring(0, length));
+            }
+        }
+
+        // When
+        for (int round = 0; round < ROUNDS; round++) {
+            keystrokes.forEach(prefix -> index.search(prefix, 10));
+        }
+        long[] nanos = new long[keystrokes.size() * ROUNDS];
+        int n = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            for (String prefix : keystrokes) {
+                long start = System.nanoTime();
+                index.search(prefix, 10);
+                nanos[n++] = System.nanoTime() - start;
+            }
+        }
+
+        // Then
+        Arrays.sort(nanos);
+        long p50 = nanos[nanos.length / 2];
+        long p99 = nanos[(int) (nanos.length * 0.99)];
+        long max = nanos[nanos.length - 1];
+        System.out.printf(Locale.ROOT,
+                "parts search index: %d parts, %d terms, ~%d MB, built in %d ms; per keystroke p50=%d us, p99=%d us, max=%d us%n",
+                index.size(), index.termCount(), index.estimatedBytes() >> 20, buildMillis,
+                p50 / 1000, p99 / 1000, max / 1000);
+        assertThat(index.search("brake pads toyota", 10)).isNotEmpty();
+        assertThat(p99).isLessThan(5_000_000L);
+    }
+}
@@ -0,0 +1,213 @@
+package vn.utc.service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import vn.utc.service.dtos.SparePartSearchHitDto;
+import vn.utc.service.entity.SparePart;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SparePartSearchIndex Unit Tests")
+class SparePartSearchIndexTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private SparePartSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SparePartSearchIndex(jdbcTemplate, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static SparePart part(int id, String name, String description, String category,
+                                  String supplier, String location) {
+        return new SparePart().setId(id).setName(name).setDescription(description).setCategory(category)
+                .setSupplier(supplier).setLocation(location).setQuantityInStock(4);
+    }
+
+    private List<Integer> ids(String query) {
+        return index.search(query, 10).stream().map(SparePartSearchHitDto::id).toList();
+    }
+
+    @Test
+    @DisplayName("Should fold case, accents and punctuation into tokens")
+    void tokens_ShouldNormalizeText() {
+        assertThat(SparePartSearchIndex.tokens("Má phanh ĐĨA, 10W-40 (Castrol)"))
+                .containsExactly("ma", "phanh", "dia", "10w", "40", "castrol");
+        assertThat(SparePartSearchIndex.tokens("  -- ")).isEmpty();
+        assertThat(SparePartSearchIndex.tokens(null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Every query token should match some field as a word prefix")
+    void search_ShouldMatchAllTokensAsPrefixes() {
+        // Given
+        index.index(part(1, "Brake Pads", "Ceramic front pads", "Brakes", "Bosch", "A1-B2"));
+        index.index(part(2, "Brake Disc", "Vented rotor", "Brakes", "Brembo", "C3"));
+        index.index(part(3, "Oil Filter", "Spin-on filter", "Filters", "Bosch", "A1-B3"));
+
+        // When & Then
+        assertThat(ids("bra")).containsExactlyInAnyOrder(1, 2);
+        assertThat(ids("brake ceram")).containsExactly(1);
+        assertThat(ids("bosch a1")).containsExactlyInAnyOrder(1, 3);
+        assertThat(ids("b3")).containsExactly(3);
+        assertThat(ids("brake filter")).isEmpty();
+        assertThat(ids("   ")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should rank name over other fields and whole words over prefixes")
+    void search_ShouldRankByFieldAndExactness() {
+        // Given
+        index.index(part(1, "Gasket set", "For the pump housing", "Engine", null, null));
+        index.index(part(2, "Water Pump", null, "Cooling", null, null));
+        index.index(part(3, "Pumpkin-seed washer", null, "Misc", null, null));
+        index.index(part(4, "Fuel Pump Assembly", null, "Fuel", null, null));
+
+        // When
+        List<SparePartSearchHitDto> hits = index.search("pump", 10);
+
+        // Then
+        assertThat(hits).extracting(SparePartSearchHitDto::id).containsExactly(2, 4, 3, 1);
+        assertThat(hits.get(0).score()).isGreaterThan(hits.get(2).score());
+        assertThat(index.search("pump", 2)).extracting(SparePartSearchHitDto::id).containsExactly(2, 4);
+    }
+
+    @Test
+    @DisplayName("A single letter should still rank name matches above the many weaker ones")
+    void search_WithOneLetter_ShouldRankAcrossTheCatalog() {
+        // Given
+        for (int id = 1; id <= 500; id++) {
+            index.index(part(id, "Gasket " + id, "Fits all models", "Engine", "Bosch", "A" + id % 40));
+        }
+        index.index(part(501, "Air Filter", null, "Filters", null, "C1"));
+        index.index(part(502, "Arm Bushing", null, "Suspension", null, "C2"));
+
+        // When
+        List<SparePartSearchHitDto> hits = index.search("a", 3);
+
+        // Then
+        assertThat(hits).extracting(SparePartSearchHitDto::id).containsExactly(501, 502, 1);
+        assertThat(hits.get(2).score()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Narrowing a rare token by a common one should match the same parts")
+    void search_WithCommonToken_ShouldNarrowRareMatches() {
+        // Given
+        for (int id = 1; id <= 2_000; id++) {
+            index.index(part(id, "Gasket " + id, "Fits all models", "Engine", null, null));
+        }
+        index.index(part(3_001, "Timing Belt", "Fits Vios", "Engine", "Gates", null));
+        index.index(part(3_002, "Timing Chain", "Heavy duty", "Engine", null, null));
+
+        // When & Then
+        assertThat(ids("timing fits")).containsExactly(3_001);
+        assertThat(ids("fi tim")).containsExactly(3_001);
+        assertThat(ids("engine timing")).containsExactly(3_001, 3_002);
+        assertThat(ids("timing fits nothing")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Saving and deleting should update the index incrementally")
+    void indexAndRemove_ShouldReplaceAndDropTerms() {
+        // Given
+        index.index(part(1, "Brake Pads", null, "Brakes", null, null));
+        index.index(part(2, "Air Filter", null, "Filters", null, null));
+
+        // When
+        index.index(part(1, "Clutch Plate", null, "Transmission", null, null));
+        index.remove(2);
+        index.index(part(3, "Cabin Filter", null, "Filters", null, null));
+
+        // Then
+        assertThat(ids("brake")).isEmpty();
+        assertThat(ids("clutch")).containsExactly(1);
+        assertThat(ids("filter")).containsExactly(3);
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.termCount()).isEqualTo(6);
+        assertThat(index.estimatedBytes()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Changes inside a transaction should apply only once it commits")
+    void index_InTransaction_ShouldWaitForCommit() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        index.index(part(1, "Brake Pads", null, null, null, null));
+        index.index(part(2, "Brake Disc", null, null, null, null));
+        assertThat(ids("brake")).isEmpty();
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.get(0).afterCommit();
+
+        // Then
+        assertThat(ids("brake")).containsExactly(1);
+    }
+
+    @Test
+    @DisplayName("Rebuild should load the table and become ready")
+    void rebuild_ShouldLoadFromDatabase() {
+        // Given
+        index.index(part(9, "Stale Part", null, null, null, null));
+        when(jdbcTemplate.query(eq(SparePartSearchIndex.LOAD_PARTS), any(RowMapper.class))).thenReturn(List.of(
+                SparePartSearchIndex.Document.of(1, "Spark Plug", "Iridium", "Ignition", "NGK", "D4", 12)));
+
+        // When
+        assertThat(index.isReady()).isFalse();
+        index.rebuild();
+
+        // Then
+        assertThat(index.isReady()).isTrue();
+        assertThat(ids("stale")).isEmpty();
+        assertThat(index.search("ngk irid", 10)).singleElement()
+                .satisfies(hit -> {
+                    assertThat(hit.name()).isEqualTo("Spark Plug");
+                    assertThat(hit.quantityInStock()).isEqualTo(12);
+                });
+    }
+
+    @Test
+    @DisplayName("Changes made while a rebuild reads the table should survive the swap")
+    void rebuild_ShouldReplayConcurrentChanges() {
+        // Given
+        when(jdbcTemplate.query(eq(SparePartSearchIndex.LOAD_PARTS), any(RowMapper.class))).thenAnswer(invocation -> {
+            // Written after the snapshot this load reflects
+            index.index(part(2, "Timing Belt", null, null, null, null));
+            index.remove(1);
+            return List.of(SparePartSearchIndex.Document.of(1, "Brake Pads", null, null, null, null, 4));
+        });
+
+        // When
+        index.rebuild();
+
+        // Then
+        assertThat(ids("timing")).containsExactly(2);
+        assertThat(ids("brake")).isEmpty();
+    }
+}
@@ -11,6 +11,9 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import vn.utc.service.dtos.SparePartSearchHitDto;
+import vn.utc.service.dtos.StockChangeEvent;
 import vn.utc.service.entity.SparePart;
 import vn.utc.service.repo.SparePartRepository;
 
@@ -20,6 +23,8 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +34,12 @@ class SparePartServiceTest {
     @Mock
     private SparePartRepository sparePartRepository;
 
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private SparePartSearchIndex searchIndex;
+
     @InjectMocks
     private SparePartService sparePartService;
 
@@ -73,8 +84,7 @@ class SparePartServiceTest {
     @DisplayName("Should find low stock items when parts exist")
     void findLowStockItems_WhenPartsExist_ShouldReturnLowStockItems() {
         // Given
-        List<SparePart> allParts = List.of(sparePart, lowStockPart);
-        when(sparePartRepository.findAll()).thenReturn(allParts);
+        when(sparePartRepository.findAll(any(Specification.class))).thenReturn(List.of(lowStockPart));
 
         // When
         List<SparePart> result = sparePartService.findLowStockItems();
@@ -83,40 +93,22 @@ class SparePartServiceTest {
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getId()).isEqualTo(2);
         assertThat(result.get(0).getName()).isEqualTo("Brake Pads");
-        verify(sparePartRepository).findAll();
+        verify(sparePartRepository).findAll(any(Specification.class));
+        verify(sparePartRepository, never()).findAll();
     }
 
     @Test
     @DisplayName("Should return empty list when no parts exist")
     void findLowStockItems_WhenNoPartsExist_ShouldReturnEmptyList() {
         // Given
-        when(sparePartRepository.findAll()).thenReturn(List.of());
-
-        // When
-        List<SparePart> result = sparePartService.findLowStockItems();
-
-        // Then
-        assertThat(result).isEmpty();
-        verify(sparePartRepository).findAll();
-    }
-
-    @Test
-    @DisplayName("Should return empty list when no low stock items")
-    void findLowStockItems_WhenNoLowStockItems_ShouldReturnEmptyList() {
-        // Given
-        SparePart wellStockedPart = new SparePart()
-                .setId(3)
-                .setQuantityInStock(20)
-                .setMinimumStockLevel(5);
-        
-        when(sparePartRepository.findAll()).thenReturn(List.of(wellStockedPart));
+        when(sparePartRepository.findAll(any(Specification.class))).thenReturn(List.of());
 
         // When
         List<SparePart> result = sparePartService.findLowStockItems();
 
         // Then
         assertThat(result).isEmpty();
-        verify(sparePartRepository).findAll();
+        verify(sparePartRepository).findAll(any(Specification.class));
     }
 
     @Test
@@ -124,8 +116,8 @@ class SparePartServiceTest {
     void findLowStockItems_WithPageable_WhenPartsExist_ShouldReturnPaginatedLowStockItems() {
         // Given
         Pageable pageable = PageRequest.of(0, 10);
-        List<SparePart> allParts = List.of(sparePart, lowStockPart);
-        when(sparePartRepository.findAll()).thenReturn(allParts);
+        when(sparePartRepository.findAll(any(Specification.class), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(lowStockPart), pageable, 1));
 
         // When
         Page<SparePart> result = sparePartService.findLowStockItems(pageable);
@@ -134,7 +126,8 @@ class SparePartServiceTest {
         assertThat(result.getContent()).hasSize(1);
         assertThat(result.getContent().get(0).getId()).isEqualTo(2);
         assertThat(result.getTotalElements()).isEqualTo(1);
-        verify(sparePartRepository).findAll();
+        verify(sparePartRepository).findAll(any(Specification.class), eq(pageable));
+        verify(sparePartRepository, never()).findAll();
     }
 
     @Test
@@ -142,7 +135,8 @@ class SparePartServiceTest {
     void findLowStockItems_WithPageable_WhenNoPartsExist_ShouldReturnEmptyPage() {
         // Given
         Pageable pageable = PageRequest.of(0, 10);
-        when(sparePartRepository.findAll()).thenReturn(List.of());
+        when(sparePartRepository.findAll(any(Specification.class), eq(pageable)))
+                .thenReturn(Page.empty(pageable));
 
         // When
         Page<SparePart> result = sparePartService.findLowStockItems(pageable);
@@ -150,7 +144,7 @@ class SparePartServiceTest {
         // Then
         assertThat(result.getContent()).isEmpty();
         assertThat(result.getTotalElements()).isEqualTo(0);
-        verify(sparePartRepository).findAll();
+        verify(sparePartRepository).findAll(any(Specification.class), eq(pageable));
     }
 
     @Test
@@ -256,8 +250,8 @@ class SparePartServiceTest {
         String search = "Oil";
         String stockStatus = "MODERATE";
         
-        List<SparePart> allParts = List.of(sparePart, lowStockPart);
-        when(sparePartRepository.findAll()).thenReturn(allParts);
+        when(sparePartRepository.findAll(any(Specification.class), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(sparePart), pageable, 1));
 
         // When
         Page<SparePart> result = sparePartService.findAll(pageable, category, search, stockStatus);
@@ -265,7 +259,8 @@ class SparePartServiceTest {
         // Then
         assertThat(result.getContent()).hasSize(1);
         assertThat(result.getContent().get(0).getName()).isEqualTo("Oil Filter");
-        verify(sparePartRepository).findAll();
+        verify(sparePartRepository).findAll(any(Specification.class), eq(pageable));
+        verify(sparePartRepository, never()).findAll();
     }
 
     @Test
@@ -277,7 +272,8 @@ class SparePartServiceTest {
         String search = "Oil";
         String stockStatus = "LOW";
         
-        when(sparePartRepository.findAll()).thenReturn(List.of());
+        when(sparePartRepository.findAll(any(Specification.class), eq(pageable)))
+                .thenReturn(Page.empty(pageable));
 
         // When
         Page<SparePart> result = sparePartService.findAll(pageable, category, search, stockStatus);
@@ -285,64 +281,7 @@ class SparePartServiceTest {
         // Then
         assertThat(result.getContent()).isEmpty();
         assertThat(result.getTotalElements()).isEqualTo(0);
-        verify(sparePartRepository).findAll();
-    }
-
-    @Test
-    @DisplayName("Should filter by category correctly")
-    void findAll_WithCategoryFilter_ShouldFilterByCategory() {
-        // Given
-        Pageable pageable = PageRequest.of(0, 10);
-        String category = "Filters";
-        
-        List<SparePart> allParts = List.of(sparePart, lowStockPart);
-        when(sparePartRepository.findAll()).thenReturn(allParts);
-
-        // When
-        Page<SparePart> result = sparePartService.findAll(pageable, category, null, null);
-
-        // Then
-        assertThat(result.getContent()).hasSize(1);
-        assertThat(result.getContent().get(0).getCategory()).isEqualTo("Filters");
-        verify(sparePartRepository).findAll();
-    }
-
-    @Test
-    @DisplayName("Should filter by search term correctly")
-    void findAll_WithSearchFilter_ShouldFilterBySearchTerm() {
-        // Given
-        Pageable pageable = PageRequest.of(0, 10);
-        String search = "Brake";
-        
-        List<SparePart> allParts = List.of(sparePart, lowStockPart);
-        when(sparePartRepository.findAll()).thenReturn(allParts);
-
-        // When
-        Page<SparePart> result = sparePartService.findAll(pageable, null, search, null);
-
-        // Then
-        assertThat(result.getContent()).hasSize(1);
-        assertThat(result.getContent().get(0).getName()).isEqualTo("Brake Pads");
-        verify(sparePartRepository).findAll();
-    }
-
-    @Test
-    @DisplayName("Should filter by stock status correctly")
-    void findAll_WithStockStatusFilter_ShouldFilterByStockStatus() {
-        // Given
-        Pageable pageable = PageRequest.of(0, 10);
-        String stockStatus = "LOW";
-        
-        List<SparePart> allParts = List.of(sparePart, lowStockPart);
-        when(sparePartRepository.findAll()).thenReturn(allParts);
-
-        // When
-        Page<SparePart> result = sparePartService.findAll(pageable, null, null, stockStatus);
-
-        // Then
-        assertThat(result.getContent()).hasSize(1);
-        assertThat(result.getContent().get(0).getId()).isEqualTo(2); // lowStockPart
-        verify(sparePartRepository).findAll();
+        verify(sparePartRepository).findAll(any(Specification.class), eq(pageable));
     }
 
     @Test
@@ -379,6 +318,7 @@ class SparePartServiceTest {
         assertThat(result).isEqualTo(savedPart);
         assertThat(result.getId()).isEqualTo(3);
         verify(sparePartRepository).save(newPart);
+        verify(searchIndex).index(savedPart);
     }
 
     @Test
@@ -392,6 +332,7 @@ class SparePartServiceTest {
 
         // Then
         verify(sparePartRepository).deleteById(1);
+        verify(searchIndex).remove(1);
     }
 
     @Test
@@ -399,8 +340,7 @@ class SparePartServiceTest {
     void findByCategory_ShouldReturnPartsInCategory() {
         // Given
         String category = "Filters";
-        List<SparePart> allParts = List.of(sparePart, lowStockPart);
-        when(sparePartRepository.findAll()).thenReturn(allParts);
+        when(sparePartRepository.findByCategory(category)).thenReturn(List.of(sparePart));
 
         // When
         List<SparePart> result = sparePartService.findByCategory(category);
@@ -408,7 +348,8 @@ class SparePartServiceTest {
         // Then
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getCategory()).isEqualTo("Filters");
-        verify(sparePartRepository).findAll();
+        verify(sparePartRepository).findByCategory(category);
+        verify(sparePartRepository, never()).findAll();
     }
 
     @Test
@@ -416,15 +357,46 @@ class SparePartServiceTest {
     void findByCategory_WhenNoPartsInCategory_ShouldReturnEmptyList() {
         // Given
         String category = "NonExistentCategory";
-        List<SparePart> allParts = List.of(sparePart, lowStockPart);
-        when(sparePartRepository.findAll()).thenReturn(allParts);
+        when(sparePartRepository.findByCategory(category)).thenReturn(List.of());
 
         // When
         List<SparePart> result = sparePartService.findByCategory(category);
 
         // Then
         assertThat(result).isEmpty();
-        verify(sparePartRepository).findAll();
+        verify(sparePartRepository).findByCategory(category);
+    }
+
+    @Test
+    @DisplayName("Should search the index once it has loaded, capping the limit")
+    void search_WhenIndexReady_ShouldUseIndex() {
+        // Given
+        SparePartSearchHitDto hit = new SparePartSearchHitDto(2, "Brake Pads", "Brakes", null, null, 2, 16);
+        when(searchIndex.isReady()).thenReturn(true);
+        when(searchIndex.search("bra", 50)).thenReturn(List.of(hit));
+
+        // When
+        List<SparePartSearchHitDto> result = sparePartService.search("bra", 500);
+
+        // Then
+        assertThat(result).containsExactly(hit);
+        verifyNoInteractions(sparePartRepository);
+    }
+
+    @Test
+    @DisplayName("Should search the database while the index is still loading")
+    void search_WhenIndexNotReady_ShouldQueryDatabase() {
+        // Given
+        when(searchIndex.isReady()).thenReturn(false);
+        when(sparePartRepository.findAll(any(Specification.class), eq(PageRequest.of(0, 5))))
+                .thenReturn(new PageImpl<>(List.of(lowStockPart)));
+
+        // When
+        List<SparePartSearchHitDto> result = sparePartService.search(" brake ", 5);
+
+        // Then
+        assertThat(result).extracting(SparePartSearchHitDto::id).containsExactly(2);
+        verify(searchIndex, never()).search(anyString(), anyInt());
     }
 
     @Test
@@ -449,6 +421,24 @@ class SparePartServiceTest {
         assertThat(result.get().getQuantityInStock()).isEqualTo(newQuantity);
         verify(sparePartRepository).findById(1);
         verify(sparePartRepository).save(any(SparePart.class));
+        verify(outboxService).append(eq(OutboxService.SPARE_PART), eq(1), eq(OutboxService.STOCK_CHANGED),
+                argThat(event -> event instanceof StockChangeEvent change
+                        && change.previousQuantity() == 10 && change.quantity() == 15));
+    }
+
+    @Test
+    @DisplayName("Should not record a stock change when the quantity is unchanged")
+    void updateStockQuantity_WhenQuantityUnchanged_ShouldNotAppendEvent() {
+        // Given
+        when(sparePartRepository.findById(1)).thenReturn(Optional.of(sparePart));
+        when(sparePartRepository.save(any(SparePart.class))).thenReturn(sparePart);
+
+        // When
+        Optional<SparePart> result = sparePartService.updateStockQuantity(1, 10);
+
+        // Then
+        assertThat(result).isPresent();
+        verifyNoInteractions(outboxService);
     }
 
     @Test
@@ -464,5 +454,6 @@ class SparePartServiceTest {
         assertThat(result).isEmpty();
         verify(sparePartRepository).findById(999);
         verify(sparePartRepository, never()).save(any(SparePart.class));
+        verifyNoInteractions(outboxService);
     }
 } 
\ No newline at end of file
@@ -11,7 +11,6 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import vn.utc.service.config.ContsConfig;
 import vn.utc.service.dtos.RoleDto;
 import vn.utc.service.dtos.StaffDto;
@@ -57,7 +56,7 @@ class StaffServiceTest {
     private RoleService roleService;
 
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
 
     @InjectMocks
     private StaffService staffService;
@@ -276,7 +275,7 @@ class StaffServiceTest {
         StaffDto newStaffDto = new StaffDto(2, "Jane", "Smith", "Technician", "Electrical Systems", LocalDate.of(2024, 1, 1), new BigDecimal("30.00"));
 
         when(roleService.findByName(ContsConfig.STAFF)).thenReturn(Optional.of(roleDto));
-        when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
+        when(passwordHashingService.encode("password123")).thenReturn("encodedPassword");
         when(userService.save(any(UserDto.class))).thenReturn(newUserDto);
         when(userMapper.toEntity(newUserDto)).thenReturn(newUser);
         when(staffRepository.save(any(Staff.class))).thenReturn(newStaff);
@@ -289,7 +288,7 @@ class StaffServiceTest {
         assertThat(result).isPresent();
         assertThat(result.get()).isEqualTo(newStaffDto);
         verify(roleService).findByName(ContsConfig.STAFF);
-        verify(passwordEncoder).encode("password123");
+        verify(passwordHashingService).encode("password123");
         verify(userService).save(any(UserDto.class));
         verify(userMapper).toEntity(newUserDto);
         verify(staffRepository).save(any(Staff.class));
@@ -307,7 +306,7 @@ class StaffServiceTest {
                 .isInstanceOf(RuntimeException.class)
                 .hasMessage("Error: Role is not found.");
         verify(roleService).findByName(ContsConfig.STAFF);
-        verifyNoInteractions(passwordEncoder, userService, userMapper, staffRepository, staffMapper);
+        verifyNoInteractions(passwordHashingService, userService, userMapper, staffRepository, staffMapper);
     }
 
     @Test
@@ -325,7 +324,7 @@ class StaffServiceTest {
         StaffDto savedStaffDto = new StaffDto(2, "Jane", "Smith", "Technician", "Electrical Systems", LocalDate.of(2024, 1, 1), new BigDecimal("30.00"));
 
         when(roleService.findByName(ContsConfig.STAFF)).thenReturn(Optional.of(roleDto));
-        when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
+        when(passwordHashingService.encode("password123")).thenReturn("encodedPassword");
         when(userService.save(any(UserDto.class))).thenAnswer(invocation -> {
             UserDto userDtoArg = invocation.getArgument(0);
             assertThat(userDtoArg.getUsername()).isEqualTo("newstaff");
@@ -364,7 +363,7 @@ class StaffServiceTest {
         StaffDto savedStaffDto = new StaffDto(2, "Jane", "Smith", "Technician", "Electrical Systems", LocalDate.of(2024, 1, 1), new BigDecimal("30.00"));
 
         when(roleService.findByName(ContsConfig.STAFF)).thenReturn(Optional.of(roleDto));
-        when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
+        when(passwordHashingService.encode("password123")).thenReturn("encodedPassword");
         when(userService.save(any(UserDto.class))).thenReturn(savedUserDto);
         when(userMapper.toEntity(savedUserDto)).thenReturn(newUser);
         when(staffRepository.save(any(Staff.class))).thenAnswer(invocation -> {
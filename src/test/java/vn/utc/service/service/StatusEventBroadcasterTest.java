@@ -0,0 +1,139 @@
+package vn.utc.service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.test.StepVerifier;
+import vn.utc.service.dtos.JwtClaims;
+import vn.utc.service.dtos.StatusChangeBatch;
+import vn.utc.service.dtos.StatusChangeEvent;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("StatusEventBroadcaster Unit Tests")
+class StatusEventBroadcasterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private StatusEventBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Replay the last 3 events; each subscriber may fall 2 events behind
+        broadcaster = new StatusEventBroadcaster(3, 2, meterRegistry);
+    }
+
+    private static StatusChangeEvent appointment(int id, int customerId, String status) {
+        return new StatusChangeEvent(StatusChangeEvent.APPOINTMENT, id, id, customerId, status, Instant.now());
+    }
+
+    private static Predicate<StatusChangeEvent> everything() {
+        return event -> true;
+    }
+
+    @Test
+    @DisplayName("Should deliver customers only changes to their own appointments")
+    void subscribe_Customer_ShouldSeeOwnEventsOnly() {
+        // Given
+        JwtClaims customer = new JwtClaims("john", 5, 7, List.of("CUSTOMER"), null, null);
+        JwtClaims manager = new JwtClaims("boss", 1, List.of("MANAGER"), null, null);
+        List<Integer> customerSaw = new CopyOnWriteArrayList<>();
+        List<Integer> managerSaw = new CopyOnWriteArrayList<>();
+        Disposable a = broadcaster.subscribe(StatusEventBroadcaster.visibleTo(customer, 7), null)
+                .subscribe(s -> customerSaw.add(s.event().entityId()));
+        Disposable b = broadcaster.subscribe(StatusEventBroadcaster.visibleTo(manager, null), null)
+                .subscribe(s -> managerSaw.add(s.event().entityId()));
+
+        // When
+        broadcaster.publish(appointment(1, 7, "SCHEDULED"));
+        broadcaster.publish(appointment(2, 8, "SCHEDULED"));
+
+        // Then
+        assertThat(customerSaw).containsExactly(1);
+        assertThat(managerSaw).containsExactly(1, 2);
+        a.dispose();
+        b.dispose();
+    }
+
+    @Test
+    @DisplayName("Should coalesce a batch to the last change per entity")
+    void publishAll_WithRepeatedEntity_ShouldKeepLatest() {
+        // Given
+        List<String> seen = new CopyOnWriteArrayList<>();
+        Disposable subscription = broadcaster.subscribe(everything(), null)
+                .subscribe(s -> seen.add(s.event().entityId() + ":" + s.event().status()));
+
+        // When
+        broadcaster.publishAll(new StatusChangeBatch(List.of(
+                appointment(1, 7, "IN_PROGRESS"),
+                appointment(2, 7, "COMPLETED"),
+                appointment(1, 7, "COMPLETED"))));
+
+        // Then
+        assertThat(seen).containsExactly("2:COMPLETED", "1:COMPLETED");
+        subscription.dispose();
+    }
+
+    @Test
+    @DisplayName("Should replay events after Last-Event-ID before live ones")
+    void subscribe_WithLastEventId_ShouldReplayMissedEvents() {
+        // Given
+        List<Long> ids = new CopyOnWriteArrayList<>();
+        Disposable first = broadcaster.subscribe(everything(), null).subscribe(s -> ids.add(s.id()));
+        broadcaster.publish(appointment(1, 7, "SCHEDULED"));
+        broadcaster.publish(appointment(2, 7, "IN_PROGRESS"));
+        broadcaster.publish(appointment(3, 7, "COMPLETED"));
+        first.dispose();
+
+        // When / Then
+        StepVerifier.create(broadcaster.subscribe(everything(), ids.get(0)))
+                .assertNext(s -> assertThat(s.event().entityId()).isEqualTo(2))
+                .assertNext(s -> assertThat(s.event().entityId()).isEqualTo(3))
+                .then(() -> broadcaster.publish(appointment(4, 7, "SCHEDULED")))
+                .assertNext(s -> assertThat(s.id()).isEqualTo(ids.get(2) + 1))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Should ask the client to resync when missed events have left the ring")
+    void subscribe_WithExpiredLastEventId_ShouldSendResync() {
+        // Given
+        List<Long> ids = new CopyOnWriteArrayList<>();
+        Disposable first = broadcaster.subscribe(everything(), null).subscribe(s -> ids.add(s.id()));
+        for (int i = 1; i <= 5; i++) {
+            broadcaster.publish(appointment(i, 7, "SCHEDULED"));
+        }
+        first.dispose();
+
+        // When / Then
+        StepVerifier.create(broadcaster.subscribe(everything(), ids.get(0)))
+                .assertNext(s -> assertThat(s.event().type()).isEqualTo(StatusChangeEvent.RESYNC))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Should drop the oldest events for a subscriber that falls behind")
+    void subscribe_SlowSubscriber_ShouldDropOldest() {
+        StepVerifier.create(broadcaster.subscribe(everything(), null), 0)
+                .then(() -> {
+                    for (int i = 1; i <= 4; i++) {
+                        broadcaster.publish(appointment(i, 7, "SCHEDULED"));
+                    }
+                })
+                .thenRequest(2)
+                .assertNext(s -> assertThat(s.event().entityId()).isEqualTo(3))
+                .assertNext(s -> assertThat(s.event().entityId()).isEqualTo(4))
+                .thenCancel()
+                .verify();
+        assertThat(meterRegistry.get("events.stream.dropped").counter().count()).isEqualTo(2.0);
+    }
+}
@@ -0,0 +1,298 @@
+package vn.utc.service.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import vn.utc.service.config.AssignmentProperties;
+import vn.utc.service.config.BookingProperties;
+import vn.utc.service.dtos.OpenAssignmentView;
+import vn.utc.service.dtos.TechnicianLoadDto;
+import vn.utc.service.entity.Appointment;
+import vn.utc.service.entity.Staff;
+import vn.utc.service.repo.StaffRepository;
+import vn.utc.service.repo.WorkOrderRepository;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TechnicianAssignmentEngine Unit Tests")
+class TechnicianAssignmentEngineTest {
+
+    private static final Instant NINE = Instant.parse("2030-03-04T02:00:00Z");
+
+    @Mock
+    private StaffRepository staffRepository;
+
+    @Mock
+    private WorkOrderRepository workOrderRepository;
+
+    private AssignmentProperties properties;
+    private BookingProperties bookingProperties;
+    private TechnicianAssignmentEngine engine;
+    private final List<Staff> staff = new ArrayList<>();
+    private final List<OpenAssignmentView> open = new ArrayList<>();
+
+    record Assignment(Integer getWorkOrderId, Integer getStaffId, Instant getStartsAt, Instant getEndsAt,
+                      String getServiceType) implements OpenAssignmentView {}
+
+    @BeforeEach
+    void setUp() {
+        properties = new AssignmentProperties();
+        properties.setSpecializations(Map.of("BRAKE_SERVICE", "Brake Systems"));
+        bookingProperties = new BookingProperties();
+        bookingProperties.setDefaultDurationMinutes(60);
+        bookingProperties.setServiceDurations(Map.of("OIL_CHANGE", 30, "BRAKE_SERVICE", 90));
+        engine = new TechnicianAssignmentEngine(staffRepository, workOrderRepository, properties, bookingProperties);
+        lenient().when(staffRepository.findByPositionsIgnoreCase(any())).thenAnswer(invocation -> List.copyOf(staff));
+        lenient().when(workOrderRepository.findOpenAssignments(any())).thenAnswer(invocation -> List.copyOf(open));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private void technician(int id, String specialization) {
+        staff.add(new Staff().setId(id).setFirstName("Tech").setLastName(String.valueOf(id))
+                .setPosition("Mechanic").setSpecialization(specialization));
+    }
+
+    private static Appointment appointment(String serviceType, int minutes) {
+        return new Appointment()
+                .setAppointmentDate(NINE)
+                .setEstimatedCompletion(NINE.plusSeconds(minutes * 60L))
+                .setServiceType(serviceType);
+    }
+
+    @Test
+    @DisplayName("Rebuild should count open work orders and their estimated hours per technician")
+    void rebuild_ShouldLoadOpenWorkOrders() {
+        // Given
+        technician(1, null);
+        technician(2, null);
+        open.add(new Assignment(100, 1, NINE, NINE.plusSeconds(7200), "OIL_CHANGE"));
+        open.add(new Assignment(101, 1, NINE, null, "BRAKE_SERVICE"));
+        open.add(new Assignment(102, 99, NINE, null, "OIL_CHANGE"));
+
+        // When
+        engine.rebuild();
+
+        // Then
+        assertThat(engine.loads()).containsExactly(
+                new TechnicianLoadDto(2, "Tech 2", null, 0, 0.0),
+                new TechnicianLoadDto(1, "Tech 1", null, 2, 3.5));
+        verify(workOrderRepository).findOpenAssignments(TechnicianAssignmentEngine.CLOSED_STATUSES);
+    }
+
+    @Test
+    @DisplayName("Should assign to the technician with the fewest estimated hours")
+    void assign_ShouldPickLeastLoaded() {
+        // Given
+        technician(1, null);
+        technician(2, null);
+        open.add(new Assignment(100, 1, NINE, NINE.plusSeconds(3600), "OIL_CHANGE"));
+        engine.rebuild();
+
+        // When
+        int first = engine.assign(200, appointment("OIL_CHANGE", 90));
+        int second = engine.assign(201, appointment("OIL_CHANGE", 30));
+
+        // Then
+        assertThat(first).isEqualTo(2);
+        assertThat(second).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should prefer specialists for their service type and fall back to anyone otherwise")
+    void assign_ShouldRespectSpecialization() {
+        // Given
+        technician(1, null);
+        technician(2, "brake systems");
+        open.add(new Assignment(100, 2, NINE, NINE.plusSeconds(36_000), "BRAKE_SERVICE"));
+        engine.rebuild();
+
+        // When
+        int brakes = engine.assign(200, appointment("Brake Service", 90));
+        int oil = engine.assign(201, appointment("OIL_CHANGE", 30));
+
+        // Then
+        assertThat(brakes).isEqualTo(2);
+        assertThat(oil).isEqualTo(1);
+        assertThat(engine.suggest("BRAKE_SERVICE")).get().extracting(TechnicianLoadDto::specialization)
+                .isEqualTo("brake systems");
+    }
+
+    @Test
+    @DisplayName("Closing a work order should free its technician, and repeating it should change nothing")
+    void track_WhenCompleted_ShouldReleaseLoad() {
+        // Given
+        technician(1, null);
+        engine.rebuild();
+        engine.assign(200, appointment("OIL_CHANGE", 120));
+
+        // When
+        engine.track(200, 1, "completed", null);
+        engine.track(200, 1, "COMPLETED", null);
+
+        // Then
+        assertThat(engine.loads()).containsExactly(new TechnicianLoadDto(1, "Tech 1", null, 0, 0.0));
+    }
+
+    @Test
+    @DisplayName("Should undo an assignment when its transaction rolls back")
+    void assign_WhenRolledBack_ShouldRestorePreviousLoad() {
+        // Given
+        technician(1, null);
+        engine.rebuild();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        engine.assign(200, appointment("OIL_CHANGE", 60));
+        assertThat(engine.loads().get(0).openWorkOrders()).isEqualTo(1);
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+
+        // Then
+        assertThat(engine.loads()).containsExactly(new TechnicianLoadDto(1, "Tech 1", null, 0, 0.0));
+    }
+
+    @Test
+    @DisplayName("Should count only the hours left on work orders already under way")
+    void rebuild_ShouldCountRemainingHours() {
+        // Given
+        engine = new TechnicianAssignmentEngine(staffRepository, workOrderRepository, properties, bookingProperties,
+                Clock.fixed(NINE.plusSeconds(1800), ZoneOffset.UTC));
+        technician(1, null);
+        open.add(new Assignment(100, 1, NINE, NINE.plusSeconds(7200), "OIL_CHANGE"));
+        open.add(new Assignment(101, 1, NINE.minusSeconds(7200), NINE.minusSeconds(3600), "OIL_CHANGE"));
+        open.add(new Assignment(102, 1, NINE.plusSeconds(3600), null, "OIL_CHANGE"));
+
+        // When
+        engine.rebuild();
+
+        // Then
+        assertThat(engine.loads()).containsExactly(new TechnicianLoadDto(1, "Tech 1", null, 3, 2.0));
+    }
+
+    @Test
+    @DisplayName("Assignments made while a rebuild reads the database should survive the swap")
+    void rebuild_ShouldReplayConcurrentChanges() {
+        // Given
+        technician(1, null);
+        technician(2, null);
+        open.add(new Assignment(100, 1, NINE, NINE.plusSeconds(3600), "OIL_CHANGE"));
+        engine.rebuild();
+        when(workOrderRepository.findOpenAssignments(any())).thenAnswer(invocation -> {
+            // Committed after the snapshot this load reflects
+            engine.assign(200, appointment("OIL_CHANGE", 30));
+            engine.track(100, 1, "COMPLETED", null);
+            return List.copyOf(open);
+        });
+
+        // When
+        engine.rebuild();
+
+        // Then
+        assertThat(engine.loads()).containsExactly(
+                new TechnicianLoadDto(1, "Tech 1", null, 0, 0.0),
+                new TechnicianLoadDto(2, "Tech 2", null, 1, 0.5));
+    }
+
+    @Test
+    @DisplayName("A rollback after a rebuild that never saw the change should leave the new state alone")
+    void assign_WhenRolledBackAfterRebuild_ShouldNotUndoOnNewState() {
+        // Given
+        technician(1, null);
+        technician(2, null);
+        engine.rebuild();
+        TransactionSynchronizationManager.initSynchronization();
+        assertThat(engine.assign(200, appointment("OIL_CHANGE", 60))).isEqualTo(1);
+        // Meanwhile another node reassigned the work order and committed
+        open.add(new Assignment(200, 2, NINE, NINE.plusSeconds(3600), "OIL_CHANGE"));
+        engine.rebuild();
+
+        // When
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+
+        // Then
+        assertThat(engine.loads()).containsExactly(
+                new TechnicianLoadDto(1, "Tech 1", null, 0, 0.0),
+                new TechnicianLoadDto(2, "Tech 2", null, 1, 1.0));
+    }
+
+    @Test
+    @DisplayName("Should reject assignment when there are no technicians")
+    void assign_WithoutTechnicians_ShouldThrow() {
+        // Given
+        engine.rebuild();
+
+        // When & Then
+        assertThat(engine.suggest("OIL_CHANGE")).isEmpty();
+        assertThatThrownBy(() -> engine.assign(200, appointment("OIL_CHANGE", 30)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Hundreds of simultaneous assignments should all be counted and spread evenly")
+    void assign_Concurrently_ShouldStayBalanced() throws Exception {
+        // Given
+        int technicians = 7;
+        int assignments = 700;
+        for (int id = 1; id <= technicians; id++) {
+            technician(id, null);
+        }
+        engine.rebuild();
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        // When
+        try {
+            for (int i = 0; i < assignments; i++) {
+                int workOrderId = 1_000 + i;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return engine.assign(workOrderId, appointment("OIL_CHANGE", 30));
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> result : results) {
+                result.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // Then
+        List<TechnicianLoadDto> loads = engine.loads();
+        assertThat(loads).extracting(TechnicianLoadDto::openWorkOrders)
+                .containsOnly(assignments / technicians);
+        assertThat(loads.stream().mapToInt(TechnicianLoadDto::openWorkOrders).sum()).isEqualTo(assignments);
+    }
+}
@@ -0,0 +1,95 @@
+package vn.utc.service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+import vn.utc.service.config.JwtTokenProvider;
+import vn.utc.service.config.VerifiedTokenCache;
+import vn.utc.service.dtos.JwtClaims;
+import vn.utc.service.dtos.UserPrincipal;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("TokenRevocationService Unit Tests")
+class TokenRevocationServiceTest {
+
+    private TokenRevocationService tokenRevocationService;
+
+    @BeforeEach
+    void setUp() {
+        tokenRevocationService = new TokenRevocationService();
+        ReflectionTestUtils.setField(tokenRevocationService, "jwtExpirationInMs", 3600000L);
+    }
+
+    @Test
+    @DisplayName("Should accept tokens of users that were never revoked")
+    void isRevoked_WhenUserNotRevoked_ShouldReturnFalse() {
+        // Given
+        JwtClaims claims = claims(1, Instant.now().minusSeconds(60));
+
+        // When & Then
+        assertThat(tokenRevocationService.isRevoked(claims)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should reject tokens issued before the user was revoked")
+    void isRevoked_WhenIssuedBeforeRevocation_ShouldReturnTrue() {
+        // Given
+        JwtClaims claims = claims(1, Instant.now().minusSeconds(60));
+
+        // When
+        tokenRevocationService.revokeAll(1);
+
+        // Then
+        assertThat(tokenRevocationService.isRevoked(claims)).isTrue();
+        assertThat(tokenRevocationService.isRevoked(claims(2, Instant.now().minusSeconds(60)))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should accept tokens issued after the revocation")
+    void isRevoked_WhenIssuedAfterRevocation_ShouldReturnFalse() {
+        // Given
+        tokenRevocationService.revokeAll(1);
+        JwtClaims claims = claims(1, Instant.now().plusSeconds(5));
+
+        // When & Then
+        assertThat(tokenRevocationService.isRevoked(claims)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should accept a token from a login in the same second as the logout")
+    void isRevoked_WhenLoggedInRightAfterLogout_ShouldReturnFalse() throws Exception {
+        // Given
+        JwtTokenProvider tokenProvider = new JwtTokenProvider(new VerifiedTokenCache(100, new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret",
+                "EhWw6CTgMWwCLNRDy6LmU2cpsrLVobTVID9HE3Oe+sVoWO21kxt1YE6xGFmV7oAB5Qzlf+SarhBSAoKLgihIpg==");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationInMs", 3600000);
+        tokenProvider.init();
+        UserPrincipal principal = new UserPrincipal(
+                1, "user1", "secret", "", "", "user1@example.com", true, List.of(new SimpleGrantedAuthority("CUSTOMER")));
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        JwtClaims beforeLogout = tokenProvider.parseToken(tokenProvider.generateToken(authentication)).orElseThrow();
+        Thread.sleep(2);
+
+        // When
+        tokenRevocationService.revokeAll(1);
+        Thread.sleep(2);
+        JwtClaims afterLogin = tokenProvider.parseToken(tokenProvider.generateToken(authentication)).orElseThrow();
+
+        // Then
+        assertThat(tokenRevocationService.isRevoked(beforeLogout)).isTrue();
+        assertThat(tokenRevocationService.isRevoked(afterLogin)).isFalse();
+    }
+
+    private JwtClaims claims(Integer userId, Instant issuedAt) {
+        return new JwtClaims("user" + userId, userId, List.of("CUSTOMER"), issuedAt, issuedAt.plusSeconds(3600));
+    }
+}
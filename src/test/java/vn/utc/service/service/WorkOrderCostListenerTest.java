@@ -0,0 +1,115 @@
+package vn.utc.service.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import vn.utc.service.entity.LaborCharge;
+import vn.utc.service.entity.PartsUsed;
+import vn.utc.service.entity.WorkOrder;
+import vn.utc.service.entity.listener.WorkOrderCostListener;
+
+import java.math.BigDecimal;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WorkOrderCostListener Unit Tests")
+class WorkOrderCostListenerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private WorkOrderCostListener listener;
+
+    @BeforeEach
+    void setUp() {
+        listener = new WorkOrderCostListener(new WorkOrderCostRollup(jdbcTemplate));
+    }
+
+    private static PartsUsed part(int workOrderId, String totalPrice) {
+        return new PartsUsed()
+                .setWorkOrder(new WorkOrder().setId(workOrderId))
+                .setTotalPrice(new BigDecimal(totalPrice));
+    }
+
+    @Test
+    @DisplayName("Should add a new line's amount to its work order")
+    void onSave_NewLine_ShouldAddAmount() {
+        // Given
+        LaborCharge labor = new LaborCharge()
+                .setWorkOrder(new WorkOrder().setId(1))
+                .setTotalCharge(new BigDecimal("45.00"));
+
+        // When
+        listener.onSave(labor);
+
+        // Then
+        verify(jdbcTemplate).update(WorkOrderCostRollup.APPLY_DELTA, new BigDecimal("45.00"), 1);
+    }
+
+    @Test
+    @DisplayName("Should apply only the difference when a loaded line changes")
+    void onSave_ChangedLine_ShouldApplyDifference() {
+        // Given
+        PartsUsed line = part(1, "30.00");
+        listener.onLoad(line);
+        line.setTotalPrice(new BigDecimal("50.00"));
+
+        // When
+        listener.onSave(line);
+
+        // Then
+        verify(jdbcTemplate).update(WorkOrderCostRollup.APPLY_DELTA, new BigDecimal("20.00"), 1);
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should move the amount when a line is reassigned to another work order")
+    void onSave_ReassignedLine_ShouldMoveAmount() {
+        // Given
+        PartsUsed line = part(1, "30.00");
+        listener.onLoad(line);
+        line.setWorkOrder(new WorkOrder().setId(2));
+
+        // When
+        listener.onSave(line);
+
+        // Then
+        verify(jdbcTemplate).update(WorkOrderCostRollup.APPLY_DELTA, new BigDecimal("-30.00"), 1);
+        verify(jdbcTemplate).update(WorkOrderCostRollup.APPLY_DELTA, new BigDecimal("30.00"), 2);
+    }
+
+    @Test
+    @DisplayName("Should subtract the counted amount when a line is removed")
+    void onRemove_LoadedLine_ShouldSubtractCountedAmount() {
+        // Given
+        PartsUsed line = part(1, "30.00");
+        listener.onLoad(line);
+        // Unflushed edits were never counted
+        line.setTotalPrice(new BigDecimal("99.00"));
+
+        // When
+        listener.onRemove(line);
+
+        // Then
+        verify(jdbcTemplate).update(WorkOrderCostRollup.APPLY_DELTA, new BigDecimal("-30.00"), 1);
+    }
+
+    @Test
+    @DisplayName("Should not write when a saved line's amount did not change")
+    void onSave_UnchangedAmount_ShouldNotWrite() {
+        // Given
+        PartsUsed line = part(1, "30.00");
+        listener.onLoad(line);
+
+        // When
+        listener.onSave(line);
+
+        // Then
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -0,0 +1,94 @@
+package vn.utc.service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionOperations;
+import vn.utc.service.dtos.CostReconciliationReport;
+import vn.utc.service.service.WorkOrderCostReconciler.Drift;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WorkOrderCostReconciler Unit Tests")
+class WorkOrderCostReconcilerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private WorkOrderCostReconciler reconciler(int chunkSize, boolean fix) {
+        return new WorkOrderCostReconciler(jdbcTemplate, TransactionOperations.withoutTransaction(),
+                Runnable::run, new SimpleMeterRegistry(), 2, chunkSize, fix);
+    }
+
+    @Test
+    @DisplayName("Should check the id range in chunks and report the drift found")
+    void reconcile_WithDrift_ShouldReportAcrossChunks() {
+        // Given
+        when(jdbcTemplate.queryForMap(anyString())).thenReturn(Map.of("min_id", 1, "max_id", 250, "total", 240L));
+        when(jdbcTemplate.query(startsWith("SELECT work_order_id, recorded"), any(RowMapper.class), eq(1), eq(100)))
+                .thenReturn(List.of(new Drift(7, new BigDecimal("10.00"), new BigDecimal("25.00"))));
+        when(jdbcTemplate.query(startsWith("SELECT work_order_id, recorded"), any(RowMapper.class), eq(101), eq(200)))
+                .thenReturn(List.of());
+        when(jdbcTemplate.query(startsWith("SELECT work_order_id, recorded"), any(RowMapper.class), eq(201), eq(250)))
+                .thenReturn(List.of(new Drift(230, new BigDecimal("40.00"), new BigDecimal("35.00"))));
+
+        // When
+        CostReconciliationReport report = reconciler(100, false).reconcile();
+
+        // Then
+        assertThat(report.checked()).isEqualTo(240);
+        assertThat(report.drifted()).isEqualTo(2);
+        assertThat(report.corrected()).isZero();
+        assertThat(report.absoluteDrift()).isEqualByComparingTo("20.00");
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Should lock and recompute only the drifted work orders when fixing")
+    void reconcileChunk_WithFix_ShouldRecomputeDriftedRows() {
+        // Given
+        when(jdbcTemplate.query(startsWith("SELECT work_order_id, recorded"), any(RowMapper.class), eq(1), eq(100)))
+                .thenReturn(List.of(
+                        new Drift(7, new BigDecimal("10.00"), new BigDecimal("25.00")),
+                        new Drift(9, BigDecimal.ZERO, new BigDecimal("5.00"))));
+
+        // When
+        reconciler(100, true).reconcileChunk(1, 100);
+
+        // Then
+        verify(jdbcTemplate).query(
+                eq("SELECT work_order_id FROM work_orders WHERE work_order_id IN (?, ?) FOR UPDATE"),
+                any(RowMapper.class), eq(7), eq(9));
+        verify(jdbcTemplate).update(startsWith("UPDATE work_orders w SET total_cost = w.manual_cost + "), eq(7), eq(9));
+    }
+
+    @Test
+    @DisplayName("Should report nothing when there are no work orders")
+    void reconcile_WithoutWorkOrders_ShouldReturnEmptyReport() {
+        // Given
+        when(jdbcTemplate.queryForMap(anyString())).thenReturn(Collections.singletonMap("min_id", null));
+
+        // When
+        CostReconciliationReport report = reconciler(100, true).reconcile();
+
+        // Then
+        assertThat(report.checked()).isZero();
+        verify(jdbcTemplate, never()).query(anyString(), any(RowMapper.class), any(Object[].class));
+    }
+}
@@ -0,0 +1,269 @@
+package vn.utc.service.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import vn.utc.service.PostgresIntegrationTest;
+import vn.utc.service.dtos.WorkOrderDto;
+import vn.utc.service.entity.WorkOrder;
+import vn.utc.service.exception.WorkOrderConflictException;
+import vn.utc.service.repo.WorkOrderRepository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs concurrent work-order updates against a real database: writers touching different fields
+ * must all land, writers racing for the same transition must produce one winner and conflicts.
+ */
+@DisplayName("Work-order optimistic locking under contention")
+class WorkOrderOptimisticLockingTest extends PostgresIntegrationTest {
+
+    private static final int WORK_ORDER_ID = 95_001;
+    private static final Instant START = Instant.parse("2030-03-04T01:00:00Z");
+
+    @Autowired
+    private WorkOrderService workOrderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private WorkOrderRepository workOrderRepository;
+
+    @Autowired
+    private WorkOrderCostRollup costRollup;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM work_orders WHERE work_order_id = ?", WORK_ORDER_ID);
+        jdbcTemplate.update("""
+                INSERT INTO work_orders (work_order_id, start_time, status, total_cost, version)
+                VALUES (?, ?, 'PENDING', 0, 0)""", WORK_ORDER_ID, Timestamp.from(START));
+    }
+
+    private static WorkOrderDto changes(Instant startTime, Instant endTime, String status, String notes, Long version) {
+        return new WorkOrderDto(null, null, null, startTime, endTime, status, notes, null, null, null, version);
+    }
+
+    private static <T> List<Future<T>> runTogether(List<Callable<T>> tasks) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(tasks.size());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<T>> results = new ArrayList<>();
+        try {
+            for (Callable<T> task : tasks) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            pool.shutdown();
+            assertThat(pool.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            pool.shutdownNow();
+        }
+        return results;
+    }
+
+    @Test
+    @DisplayName("Concurrent writers of different fields should never lose each other's updates")
+    void updateWorkOrder_WithDisjointFields_ShouldKeepEveryUpdate() throws Exception {
+        int rounds = 50;
+        for (int round = 1; round <= rounds; round++) {
+            // Given
+            String notes = "round " + round;
+            Instant endTime = START.plus(round, ChronoUnit.HOURS);
+            Instant startTime = START.minus(round, ChronoUnit.MINUTES);
+            String status = round % 2 == 1 ? "IN_PROGRESS" : "PENDING";
+
+            List<Callable<Object>> writers = List.of(
+                    () -> workOrderService.updateWorkOrder(WORK_ORDER_ID, changes(null, null, null, notes, null)),
+                    () -> workOrderService.updateWorkOrder(WORK_ORDER_ID, changes(null, endTime, null, null, null)),
+                    () -> workOrderService.updateWorkOrder(WORK_ORDER_ID, changes(startTime, null, null, null, null)),
+                    () -> workOrderService.transitionStatus(WORK_ORDER_ID, status, null));
+
+            // When
+            List<Future<Object>> results = runTogether(writers);
+            for (Future<Object> result : results) {
+                result.get();
+            }
+
+            // Then
+            Map<String, Object> row = jdbcTemplate.queryForMap(
+                    "SELECT diagnostic_notes, end_time, start_time, status, version FROM work_orders WHERE work_order_id = ?",
+                    WORK_ORDER_ID);
+            assertThat(row.get("diagnostic_notes")).isEqualTo(notes);
+            assertThat(((Timestamp) row.get("end_time")).toInstant()).isEqualTo(endTime);
+            assertThat(((Timestamp) row.get("start_time")).toInstant()).isEqualTo(startTime);
+            assertThat(row.get("status")).isEqualTo(status);
+            assertThat(((Number) row.get("version")).longValue()).isEqualTo(round * 4L);
+        }
+    }
+
+    @Test
+    @DisplayName("Racing the same transition should let exactly one writer win and report the state to the rest")
+    void transitionStatus_WhenRacing_ShouldConflictForLosers() throws Exception {
+        // Given
+        int writers = 16;
+        List<Callable<WorkOrderDto>> tasks = new ArrayList<>();
+        for (int i = 0; i < writers; i++) {
+            tasks.add(() -> workOrderService.transitionStatus(WORK_ORDER_ID, "IN_PROGRESS", 0L).orElseThrow());
+        }
+
+        // When
+        List<Future<WorkOrderDto>> results = runTogether(tasks);
+
+        // Then
+        int won = 0;
+        for (Future<WorkOrderDto> result : results) {
+            try {
+                assertThat(result.get().version()).isEqualTo(1L);
+                won++;
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(WorkOrderConflictException.class);
+                WorkOrderDto current = ((WorkOrderConflictException) e.getCause()).getCurrent();
+                assertThat(current.status()).isEqualTo("IN_PROGRESS");
+                assertThat(current.version()).isEqualTo(1L);
+            }
+        }
+        assertThat(won).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Writers without a version that set the same field should conflict rather than overwrite")
+    void updateWorkOrder_WithOverlappingFields_ShouldNotLoseUpdatesSilently() throws Exception {
+        // Given
+        int writers = 8;
+        List<Callable<WorkOrderDto>> tasks = new ArrayList<>();
+        for (int i = 0; i < writers; i++) {
+            String notes = "writer " + i;
+            tasks.add(() -> workOrderService.updateWorkOrder(WORK_ORDER_ID, changes(null, null, null, notes, null))
+                    .orElseThrow());
+        }
+
+        // When
+        List<Future<WorkOrderDto>> results = runTogether(tasks);
+
+        // Then
+        int applied = 0;
+        for (Future<WorkOrderDto> result : results) {
+            try {
+                result.get();
+                applied++;
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(WorkOrderConflictException.class);
+            }
+        }
+        // Every applied write bumped the version exactly once; rejected ones left no trace
+        Long version = jdbcTemplate.queryForObject(
+                "SELECT version FROM work_orders WHERE work_order_id = ?", Long.class, WORK_ORDER_ID);
+        assertThat(applied).isPositive();
+        assertThat(version).isEqualTo(applied);
+    }
+
+    @Test
+    @DisplayName("A versioned write that loses a race should conflict instead of being retried on the newer row")
+    void updateWorkOrder_WithVersionLosingRace_ShouldConflict() throws Exception {
+        for (int round = 1; round <= 50; round++) {
+            // Given
+            long version = jdbcTemplate.queryForObject(
+                    "SELECT version FROM work_orders WHERE work_order_id = ?", Long.class, WORK_ORDER_ID);
+            String notes = "versioned " + round;
+            Instant endTime = START.plus(round, ChronoUnit.HOURS);
+
+            // When
+            List<Future<WorkOrderDto>> results = runTogether(List.of(
+                    () -> workOrderService.updateWorkOrder(WORK_ORDER_ID, changes(null, null, null, notes, version))
+                            .orElseThrow(),
+                    () -> workOrderService.updateWorkOrder(WORK_ORDER_ID, changes(null, endTime, null, null, null))
+                            .orElseThrow()));
+
+            // Then the versioned write either applied to the version it named or was refused
+            try {
+                assertThat(results.get(0).get().version()).isEqualTo(version + 1);
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(WorkOrderConflictException.class);
+                assertThat(jdbcTemplate.queryForObject("SELECT diagnostic_notes FROM work_orders WHERE work_order_id = ?",
+                        String.class, WORK_ORDER_ID)).isNotEqualTo(notes);
+            }
+            assertThat(results.get(1).get().endTime()).isEqualTo(endTime);
+        }
+    }
+
+    @Test
+    @DisplayName("An update loaded before a cost line committed should not write the old total back")
+    void update_LoadedBeforeCostDelta_ShouldKeepDelta() {
+        // When
+        transactionTemplate.executeWithoutResult(status -> {
+            WorkOrder stale = workOrderRepository.findById(WORK_ORDER_ID).orElseThrow();
+            CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(
+                    other -> costRollup.applyDelta(WORK_ORDER_ID, new BigDecimal("25.00")))).join();
+            stale.setDiagnosticNotes("written after the line");
+            workOrderRepository.saveAndFlush(stale);
+        });
+
+        // Then
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT diagnostic_notes, total_cost FROM work_orders WHERE work_order_id = ?", WORK_ORDER_ID);
+        assertThat(row.get("diagnostic_notes")).isEqualTo("written after the line");
+        assertThat((BigDecimal) row.get("total_cost")).isEqualByComparingTo("25.00");
+    }
+
+    @Test
+    @DisplayName("A hand-entered cost should replace the manual part and keep the lines on top")
+    void updateWorkOrder_WithTotalCost_ShouldSetManualPart() {
+        // Given lines worth 10 and a hand-entered 15
+        costRollup.applyDelta(WORK_ORDER_ID, new BigDecimal("10.00"));
+        workOrderService.updateWorkOrder(WORK_ORDER_ID,
+                new WorkOrderDto(null, null, null, null, null, null, null, new BigDecimal("15.00"), null, null, null));
+
+        // When
+        WorkOrderDto updated = workOrderService.updateWorkOrder(WORK_ORDER_ID,
+                new WorkOrderDto(null, null, null, null, null, null, null, new BigDecimal("40.00"), null, null, null))
+                .orElseThrow();
+
+        // Then
+        assertThat(updated.totalCost()).isEqualByComparingTo("50.00");
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT manual_cost, total_cost FROM work_orders WHERE work_order_id = ?", WORK_ORDER_ID);
+        assertThat((BigDecimal) row.get("manual_cost")).isEqualByComparingTo("40.00");
+        assertThat((BigDecimal) row.get("total_cost")).isEqualByComparingTo("50.00");
+    }
+
+    @Test
+    @DisplayName("Should refuse transitions the lifecycle does not allow")
+    void transitionStatus_FromFinalStatus_ShouldThrow() {
+        // Given
+        workOrderService.transitionStatus(WORK_ORDER_ID, "CANCELLED", null);
+
+        // When & Then
+        assertThatThrownBy(() -> workOrderService.transitionStatus(WORK_ORDER_ID, "IN_PROGRESS", null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("CANCELLED");
+        assertThatThrownBy(() -> workOrderService.transitionStatus(WORK_ORDER_ID, "ON_HOLD", null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
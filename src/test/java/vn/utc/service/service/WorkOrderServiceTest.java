@@ -0,0 +1,103 @@
+package vn.utc.service.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionOperations;
+import vn.utc.service.dtos.WorkOrderDto;
+import vn.utc.service.entity.Appointment;
+import vn.utc.service.entity.Staff;
+import vn.utc.service.entity.WorkOrder;
+import vn.utc.service.mapper.WorkOrderMapper;
+import vn.utc.service.repo.AppointmentRepository;
+import vn.utc.service.repo.StaffRepository;
+import vn.utc.service.repo.WorkOrderRepository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WorkOrderService Unit Tests")
+class WorkOrderServiceTest {
+
+    @Mock
+    private WorkOrderRepository workOrderRepository;
+
+    @Mock
+    private WorkOrderMapper workOrderMapper;
+
+    @Mock
+    private StaffRepository staffRepository;
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private KeysetPager keysetPager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TechnicianAssignmentEngine assignmentEngine;
+
+    @Mock
+    private TransactionOperations transactionOperations;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private WorkOrderCostRollup costRollup;
+
+    @InjectMocks
+    private WorkOrderService workOrderService;
+
+    private static WorkOrderDto create(String status) {
+        return new WorkOrderDto(null, 11, 4, Instant.parse("2030-03-04T01:00:00Z"), null, status, null, null, null, null, null);
+    }
+
+    @Test
+    @DisplayName("Should store a lowercase status under its lifecycle name")
+    void createWorkOrder_WithLowercaseStatus_ShouldNormalize() {
+        // Given
+        when(workOrderMapper.toEntity(any(WorkOrderDto.class))).thenReturn(new WorkOrder().setStatus(" in_progress"));
+        when(appointmentRepository.findById(11)).thenReturn(Optional.of(new Appointment().setId(11)));
+        when(staffRepository.findStaffById(4)).thenReturn(Optional.of(new Staff().setId(4)));
+        when(workOrderRepository.save(any(WorkOrder.class)))
+                .thenAnswer(invocation -> ((WorkOrder) invocation.getArgument(0)).setId(21));
+
+        // When
+        workOrderService.createWorkOrder(create(" in_progress"));
+
+        // Then
+        ArgumentCaptor<WorkOrder> saved = ArgumentCaptor.forClass(WorkOrder.class);
+        verify(workOrderRepository).save(saved.capture());
+        assertThat(saved.getValue().getStatus()).isEqualTo("IN_PROGRESS");
+        verify(assignmentEngine).track(eq(21), eq(4), eq("IN_PROGRESS"), any(Appointment.class));
+    }
+
+    @Test
+    @DisplayName("Should refuse a status outside the lifecycle before saving anything")
+    void createWorkOrder_WithUnknownStatus_ShouldThrow() {
+        // Given
+        when(workOrderMapper.toEntity(any(WorkOrderDto.class))).thenReturn(new WorkOrder().setStatus("ON_HOLD"));
+
+        // When & Then
+        assertThatThrownBy(() -> workOrderService.createWorkOrder(create("ON_HOLD")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("ON_HOLD");
+        verify(workOrderRepository, never()).save(any());
+        verifyNoInteractions(assignmentEngine, outboxService);
+    }
+}